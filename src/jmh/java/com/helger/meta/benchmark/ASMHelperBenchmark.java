@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.text.util.TextHelper;
+import com.helger.meta.asm.ASMHelper;
+import com.helger.meta.asm.ClassFileBuffer;
+import com.helger.meta.asm.EASMDetailLevel;
+
+/**
+ * Benchmark for the class reading and inspection methods of
+ * {@link ASMHelper}. All numbers are per complete pass over the corpus.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 5, time = 1)
+@Measurement (iterations = 10, time = 1)
+@Fork (1)
+public class ASMHelperBenchmark
+{
+  @Param ({ "1000" })
+  public int m_nClasses;
+
+  @Param ({ "HEADER", "MEMBERS", "CODE", "FULL" })
+  public EASMDetailLevel m_eDetailLevel;
+
+  private SyntheticClassCorpus m_aCorpus;
+  private ICommonsList <ClassNode> m_aClassNodes;
+
+  @Setup
+  public void setup ()
+  {
+    m_aCorpus = new SyntheticClassCorpus (m_nClasses, 42);
+    m_aClassNodes = new CommonsArrayList <> (m_nClasses);
+    for (final byte [] aBytes : m_aCorpus.getAllClasses ())
+      m_aClassNodes.add (ASMHelper.readClass (aBytes, EASMDetailLevel.FULL));
+  }
+
+  @Benchmark
+  public void readClass (final Blackhole aBH)
+  {
+    for (final byte [] aBytes : m_aCorpus.getAllClasses ())
+      aBH.consume (ASMHelper.readClass (aBytes, m_eDetailLevel));
+  }
+
+  @Benchmark
+  public void readClassFromBuffer (final Blackhole aBH)
+  {
+    final ClassFileBuffer aBuffer = ClassFileBuffer.getPerThread ();
+    for (final byte [] aBytes : m_aCorpus.getAllClasses ())
+    {
+      aBuffer.set (aBytes);
+      aBH.consume (ASMHelper.readClass (aBuffer, m_eDetailLevel));
+    }
+  }
+
+  @Benchmark
+  public int containsAnnotation ()
+  {
+    // Independent of the detail level
+    int ret = 0;
+    for (final ClassNode cn : m_aClassNodes)
+      for (final Object aMethod : cn.methods)
+        if (ASMHelper.containsAnnotation ((MethodNode) aMethod, ReturnsMutableCopy.class))
+          ++ret;
+    return ret;
+  }
+
+  @Benchmark
+  public int containsStaticCall ()
+  {
+    // Independent of the detail level
+    int ret = 0;
+    for (final ClassNode cn : m_aClassNodes)
+      for (final Object aMethod : cn.methods)
+        if (ASMHelper.containsStaticCall ((MethodNode) aMethod, TextHelper.class))
+          ++ret;
+    return ret;
+  }
+}
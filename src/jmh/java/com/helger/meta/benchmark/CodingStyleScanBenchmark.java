@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.helger.commons.io.file.FileOperations;
+import com.helger.meta.asm.ClassFileBuffer;
+import com.helger.meta.asm.ClassRuleScanner;
+import com.helger.meta.asm.source.ClassFilePipeline;
+import com.helger.meta.asm.source.DirectoryClassSource;
+import com.helger.meta.asm.source.IClassFileEntry;
+import com.helger.meta.project.EProject;
+import com.helger.meta.tools.codeingstyleguide.ClassCheckResult;
+import com.helger.meta.tools.codeingstyleguide.CodingStyleContext;
+import com.helger.meta.tools.codeingstyleguide.CodingStyleRuleRegistry;
+import com.helger.meta.tools.codeingstyleguide.ECodingStyleScope;
+import com.helger.meta.tools.codeingstyleguide.MainCheckCodingStyleguide;
+
+/**
+ * Benchmark for a complete coding styleguide pass (all registered rules) over
+ * a synthetic corpus, the way {@link MainCheckCodingStyleguide} handles the
+ * main classes of a single project without the result cache.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 5, time = 2)
+@Measurement (iterations = 10, time = 2)
+@Fork (1)
+public class CodingStyleScanBenchmark
+{
+  @Param ({ "1000", "10000" })
+  public int m_nClasses;
+
+  private SyntheticClassCorpus m_aCorpus;
+  private File m_aCorpusDir;
+  private ClassRuleScanner <CodingStyleContext> m_aScanner;
+  private ClassFilePipeline m_aPipeline;
+
+  @Setup
+  public void setup () throws IOException
+  {
+    m_aCorpus = new SyntheticClassCorpus (m_nClasses, 42);
+    m_aCorpusDir = Files.createTempDirectory ("meta-jmh").toFile ();
+    m_aCorpus.writeTo (m_aCorpusDir);
+    m_aScanner = CodingStyleRuleRegistry.createDefault ().createScanner (ECodingStyleScope.MAIN, null);
+    m_aPipeline = ClassFilePipeline.createDefault ();
+  }
+
+  @TearDown
+  public void tearDown ()
+  {
+    FileOperations.deleteDirRecursive (m_aCorpusDir);
+  }
+
+  @Nonnull
+  private ClassCheckResult _scan (@Nonnull final ClassFileBuffer aBuffer)
+  {
+    final ClassCheckResult aResult = new ClassCheckResult (null);
+    m_aScanner.scan (aBuffer, new CodingStyleContext (EProject.PH_COMMONS, ECodingStyleScope.MAIN, false, aResult));
+    return aResult;
+  }
+
+  /**
+   * Rules only - the class files are already in memory.
+   *
+   * @param aBH
+   *        Blackhole
+   */
+  @Benchmark
+  public void scanInMemory (final Blackhole aBH)
+  {
+    final ClassFileBuffer aBuffer = new ClassFileBuffer ();
+    for (final byte [] aBytes : m_aCorpus.getAllClasses ())
+    {
+      aBuffer.set (aBytes);
+      aBH.consume (_scan (aBuffer));
+    }
+  }
+
+  /**
+   * Read and scan on a single thread.
+   *
+   * @param aBH
+   *        Blackhole
+   * @throws IOException
+   *         on read error
+   */
+  @Benchmark
+  public void scanDirectorySequential (final Blackhole aBH) throws IOException
+  {
+    final ClassFileBuffer aBuffer = new ClassFileBuffer ();
+    try (final DirectoryClassSource aSource = new DirectoryClassSource (m_aCorpusDir))
+    {
+      for (final IClassFileEntry aEntry : aSource.getAllClassFiles ())
+      {
+        aEntry.readInto (aBuffer);
+        aBH.consume (_scan (aBuffer));
+      }
+    }
+  }
+
+  /**
+   * Read and scan with the default pipeline configuration.
+   *
+   * @param aBH
+   *        Blackhole
+   * @throws IOException
+   *         on read error
+   */
+  @Benchmark
+  public void scanDirectoryPipeline (final Blackhole aBH) throws IOException
+  {
+    try (final DirectoryClassSource aSource = new DirectoryClassSource (m_aCorpusDir))
+    {
+      m_aPipeline.process (aSource.getAllClassFiles (),
+                           null,
+                           (aEntry, aBuffer) -> _scan (aBuffer),
+                           (aEntry, aResult) -> aBH.consume (aResult));
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.asm.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.helger.meta.tools.codeingstyleguide.rule.CodingStyleTypeHelper;
+import com.helger.meta.tools.codeingstyleguide.rule.TypeClassificationTable;
+
+/**
+ * Benchmark for the type classification of {@link CodingStyleTypeHelper} and
+ * {@link TypeClassificationTable}.
+ * The types are a typical mix of field and return types with mostly
+ * non-collection types.
+ *
+ * @author Philip Helger
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.NANOSECONDS)
+@Warmup (iterations = 5, time = 1)
+@Measurement (iterations = 10, time = 1)
+@Fork (1)
+public class CodingStyleTypeHelperBenchmark
+{
+  private final Type [] m_aTypes = { Type.INT_TYPE,
+                                     Type.BOOLEAN_TYPE,
+                                     Type.getType ("[B"),
+                                     Type.getType ("Ljava/lang/String;"),
+                                     Type.getType ("Ljava/lang/Object;"),
+                                     Type.getType ("Ljava/io/File;"),
+                                     Type.getType ("Lcom/helger/commons/string/StringHelper;"),
+                                     Type.getType ("Ljava/util/List;"),
+                                     Type.getType ("Ljava/util/HashMap;"),
+                                     Type.getType ("Ljava/util/concurrent/LinkedTransferQueue;"),
+                                     Type.getType ("Lcom/helger/commons/collection/ext/ICommonsList;"),
+                                     Type.getType ("Lcom/helger/commons/collection/ext/CommonsHashMap;") };
+  private final String [] m_aDescriptors = new String [m_aTypes.length];
+
+  @Setup
+  public void setup ()
+  {
+    for (int i = 0; i < m_aTypes.length; ++i)
+      m_aDescriptors[i] = m_aTypes[i].getDescriptor ();
+  }
+
+  @Benchmark
+  public int isJDKCollectionClass ()
+  {
+    int ret = 0;
+    for (final Type aType : m_aTypes)
+      if (CodingStyleTypeHelper.isJDKCollectionClass (aType))
+        ++ret;
+    return ret;
+  }
+
+  @Benchmark
+  public int classifyDescriptor ()
+  {
+    int ret = 0;
+    for (final String sDescriptor : m_aDescriptors)
+      if (TypeClassificationTable.DEFAULT.getCategoryOfDescriptor (sDescriptor).isCollection ())
+        ++ret;
+    return ret;
+  }
+
+  @Benchmark
+  public int isPhCollectionClass ()
+  {
+    int ret = 0;
+    for (final Type aType : m_aTypes)
+      if (CodingStyleTypeHelper.isPhCollectionClass (aType))
+        ++ret;
+    return ret;
+  }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.annotation.ReturnsMutableObject;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+
+/**
+ * A reproducible set of generated class files that roughly resembles the
+ * classes of the scanned projects: fields with and without naming
+ * violations, collection typed members, annotated methods and static calls.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class SyntheticClassCorpus
+{
+  public static final String PACKAGE_PATH = "com/helger/synthetic/";
+
+  private static final String [] FIELD_TYPES = { "I",
+                                                 "J",
+                                                 "Z",
+                                                 "[B",
+                                                 "Ljava/lang/String;",
+                                                 "Ljava/util/List;",
+                                                 "Ljava/util/HashMap;",
+                                                 "Ljava/util/Set;",
+                                                 "Lcom/helger/commons/collection/ext/ICommonsList;",
+                                                 "Lcom/helger/commons/collection/ext/ICommonsMap;",
+                                                 "Ljava/io/File;" };
+  private static final String [] RETURN_TYPES = { "Ljava/lang/String;",
+                                                  "Ljava/util/List;",
+                                                  "Ljava/util/Map;",
+                                                  "Lcom/helger/commons/collection/ext/ICommonsList;",
+                                                  "[Ljava/lang/String;",
+                                                  "Ljava/lang/Object;" };
+  private static final String DESC_RETURNS_MUTABLE_COPY = "L" +
+                                                          ReturnsMutableCopy.class.getName ().replace ('.', '/') +
+                                                          ";";
+  private static final String STATIC_CALL_OWNER = "com/helger/commons/text/util/TextHelper";
+
+  private final ICommonsList <byte []> m_aClasses;
+
+  /**
+   * Create a new corpus.
+   *
+   * @param nClasses
+   *        The number of classes to generate. Must be &gt; 0.
+   * @param nSeed
+   *        The random seed. The same seed always results in the same classes.
+   */
+  public SyntheticClassCorpus (@Nonnegative final int nClasses, final long nSeed)
+  {
+    ValueEnforcer.isGT0 (nClasses, "Classes");
+    final Random aRandom = new Random (nSeed);
+    m_aClasses = new CommonsArrayList <> (nClasses);
+    for (int i = 0; i < nClasses; ++i)
+      m_aClasses.add (_createClass (getInternalName (i), aRandom));
+  }
+
+  @Nonnull
+  public static String getInternalName (@Nonnegative final int nIndex)
+  {
+    return PACKAGE_PATH + "Synthetic" + nIndex;
+  }
+
+  @Nonnull
+  private static byte [] _createClass (@Nonnull final String sInternalName, @Nonnull final Random aRandom)
+  {
+    final ClassWriter cw = new ClassWriter (ClassWriter.COMPUTE_MAXS);
+    final int nClassAccess = Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER | (aRandom.nextBoolean () ? Opcodes.ACC_FINAL : 0);
+    cw.visit (Opcodes.V1_8, nClassAccess, sInternalName, null, "java/lang/Object", null);
+
+    // Fields - some of them violate the naming conventions
+    final int nFields = 2 + aRandom.nextInt (10);
+    for (int i = 0; i < nFields; ++i)
+    {
+      final boolean bStatic = aRandom.nextInt (4) == 0;
+      final boolean bValidName = aRandom.nextInt (5) != 0;
+      final String sName = (bStatic ? "s_" : "m_") + (bValidName ? "a" : "") + "Field" + i;
+      final int nAccess = Opcodes.ACC_PRIVATE | (bStatic ? Opcodes.ACC_STATIC : 0) | Opcodes.ACC_FINAL;
+      final FieldVisitor fv = cw.visitField (nAccess,
+                                             sName,
+                                             FIELD_TYPES[aRandom.nextInt (FIELD_TYPES.length)],
+                                             null,
+                                             null);
+      fv.visitEnd ();
+    }
+
+    // Default constructor
+    MethodVisitor mv = cw.visitMethod (Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+    mv.visitCode ();
+    mv.visitVarInsn (Opcodes.ALOAD, 0);
+    mv.visitMethodInsn (Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+    mv.visitInsn (Opcodes.RETURN);
+    mv.visitMaxs (0, 0);
+    mv.visitEnd ();
+
+    // Methods - some annotated, some with static calls
+    final int nMethods = 3 + aRandom.nextInt (15);
+    for (int i = 0; i < nMethods; ++i)
+    {
+      final String sReturnType = RETURN_TYPES[aRandom.nextInt (RETURN_TYPES.length)];
+      mv = cw.visitMethod (Opcodes.ACC_PUBLIC, "getValue" + i, "()" + sReturnType, null, null);
+      if (aRandom.nextBoolean ())
+        mv.visitAnnotation (DESC_RETURNS_MUTABLE_COPY, false).visitEnd ();
+      mv.visitCode ();
+      if (aRandom.nextInt (3) == 0)
+      {
+        mv.visitLdcInsn ("text" + i);
+        mv.visitMethodInsn (Opcodes.INVOKESTATIC,
+                            STATIC_CALL_OWNER,
+                            "getFormattedText",
+                            "(Ljava/lang/String;)Ljava/lang/String;",
+                            false);
+        mv.visitInsn (Opcodes.POP);
+      }
+      mv.visitInsn (Opcodes.ACONST_NULL);
+      mv.visitInsn (Opcodes.ARETURN);
+      mv.visitMaxs (0, 0);
+      mv.visitEnd ();
+    }
+
+    cw.visitEnd ();
+    return cw.toByteArray ();
+  }
+
+  @Nonnegative
+  public int getCount ()
+  {
+    return m_aClasses.size ();
+  }
+
+  /**
+   * @return All class files. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableObject ("speed")
+  public ICommonsList <byte []> getAllClasses ()
+  {
+    return m_aClasses;
+  }
+
+  /**
+   * Write all class files into the passed directory, using the package
+   * structure as sub directories.
+   *
+   * @param aBaseDir
+   *        The base directory. Is created if it does not exist.
+   * @throws IOException
+   *         on write error
+   */
+  public void writeTo (@Nonnull final File aBaseDir) throws IOException
+  {
+    final File aPackageDir = new File (aBaseDir, PACKAGE_PATH);
+    Files.createDirectories (aPackageDir.toPath ());
+    for (int i = 0; i < m_aClasses.size (); ++i)
+      Files.write (new File (aBaseDir, getInternalName (i) + ".class").toPath (), m_aClasses.get (i));
+  }
+}
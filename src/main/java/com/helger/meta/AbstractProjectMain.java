@@ -18,16 +18,32 @@ package com.helger.meta;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsLinkedHashSet;
+import com.helger.commons.collection.ext.ICommonsList;
 import com.helger.commons.debug.GlobalDebug;
 import com.helger.commons.string.StringHelper;
+import com.helger.commons.string.StringParser;
+import com.helger.meta.diagnostics.Diagnostic;
+import com.helger.meta.diagnostics.DiagnosticsCollector;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
 import com.helger.meta.project.IProject;
 
 /**
@@ -48,8 +64,47 @@ public abstract class AbstractProjectMain
                                             ":exit\n";
   public static final Charset BATCH_CHARSET = StandardCharsets.ISO_8859_1;
 
+  /**
+   * The system property to define the maximum number of projects that are
+   * handled in parallel. Defaults to the number of available processors. Use
+   * "1" for a sequential execution.
+   */
+  public static final String SYSTEM_PROPERTY_PARALLELISM = "meta.parallelism";
+
   protected static final Logger s_aLogger = LoggerFactory.getLogger (AbstractProjectMain.class);
-  private static int s_nWarnCount = 0;
+  // The tools only need the counters - the messages are logged directly
+  private static final DiagnosticsCollector s_aDiagnostics = new DiagnosticsCollector (false);
+
+  // The output buffers of all projects that are currently executed in parallel
+  private static final ConcurrentHashMap <IProject, ProjectOutput> s_aActiveOutputs = new ConcurrentHashMap <> ();
+
+  /**
+   * Buffers all log messages of a single project while it is executed in
+   * parallel, so that the output can be emitted in project order.
+   *
+   * @author Philip Helger
+   */
+  @ThreadSafe
+  private static final class ProjectOutput
+  {
+    private final ICommonsList <Diagnostic> m_aDiagnostics = new CommonsArrayList <> ();
+
+    public synchronized void add (@Nonnull final Diagnostic aDiagnostic)
+    {
+      m_aDiagnostics.add (aDiagnostic);
+    }
+
+    public synchronized void flush (@Nonnull final IProject aProject)
+    {
+      final String sPrefix = _getLogPrefix (aProject);
+      for (final Diagnostic aDiagnostic : m_aDiagnostics)
+        if (aDiagnostic.getLevel ().isWarning ())
+          s_aLogger.warn (sPrefix + aDiagnostic.getMessage ());
+        else
+          s_aLogger.info (sPrefix + aDiagnostic.getMessage ());
+      m_aDiagnostics.clear ();
+    }
+  }
 
   static
   {
@@ -63,21 +118,225 @@ public abstract class AbstractProjectMain
     return "[" + aProject.getProjectName () + "] ";
   }
 
+  private static void _log (@Nonnull final EDiagnosticLevel eLevel,
+                            @Nonnull final IProject aProject,
+                            @Nullable final String sRuleID,
+                            @Nullable final String sClassName,
+                            @Nonnull final String sMsg)
+  {
+    final Diagnostic aDiagnostic = s_aDiagnostics.report (eLevel, aProject, sRuleID, sClassName, sMsg);
+
+    final ProjectOutput aOutput = s_aActiveOutputs.get (aProject);
+    if (aOutput != null)
+      aOutput.add (aDiagnostic);
+    else
+      if (eLevel.isWarning ())
+        s_aLogger.warn (_getLogPrefix (aProject) + sMsg);
+      else
+        s_aLogger.info (_getLogPrefix (aProject) + sMsg);
+  }
+
   protected static final void _warn (@Nonnull final IProject aProject, @Nonnull final String sMsg)
   {
-    s_aLogger.warn (_getLogPrefix (aProject) + sMsg);
-    s_nWarnCount++;
+    _warn (aProject, null, null, sMsg);
+  }
+
+  /**
+   * Report a warning for a project.
+   *
+   * @param aProject
+   *        The affected project. May not be <code>null</code>.
+   * @param sRuleID
+   *        The ID of the rule/check that emits the warning. May be
+   *        <code>null</code>.
+   * @param sClassName
+   *        The fully qualified name of the affected class. May be
+   *        <code>null</code>.
+   * @param sMsg
+   *        The message to log. May not be <code>null</code>.
+   */
+  protected static final void _warn (@Nonnull final IProject aProject,
+                                     @Nullable final String sRuleID,
+                                     @Nullable final String sClassName,
+                                     @Nonnull final String sMsg)
+  {
+    _log (EDiagnosticLevel.WARN, aProject, sRuleID, sClassName, sMsg);
   }
 
   @Nonnegative
-  protected static final int getWarnCount ()
+  protected static final long getWarnCount ()
   {
-    return s_nWarnCount;
+    return s_aDiagnostics.getWarnCount ();
   }
 
   protected static final void _info (@Nonnull final IProject aProject, @Nonnull final String sMsg)
   {
-    s_aLogger.info (_getLogPrefix (aProject) + sMsg);
+    _info (aProject, null, null, sMsg);
+  }
+
+  protected static final void _info (@Nonnull final IProject aProject,
+                                     @Nullable final String sRuleID,
+                                     @Nullable final String sClassName,
+                                     @Nonnull final String sMsg)
+  {
+    _log (EDiagnosticLevel.INFO, aProject, sRuleID, sClassName, sMsg);
+  }
+
+  /**
+   * @return The collector that counts all warnings and infos reported so far
+   *         via <code>_warn</code> and <code>_info</code>. It does not retain
+   *         the diagnostics themselves. Never <code>null</code>.
+   */
+  @Nonnull
+  protected static final DiagnosticsCollector getDiagnostics ()
+  {
+    return s_aDiagnostics;
+  }
+
+  /**
+   * @return The number of projects to be handled in parallel. Always &ge; 1.
+   * @see #SYSTEM_PROPERTY_PARALLELISM
+   */
+  @Nonnegative
+  protected static final int getParallelism ()
+  {
+    final int nParallelism = StringParser.parseInt (System.getProperty (SYSTEM_PROPERTY_PARALLELISM),
+                                                    Runtime.getRuntime ().availableProcessors ());
+    return Math.max (1, nParallelism);
+  }
+
+  /**
+   * Execute the passed action for all passed projects. The projects are
+   * handled in parallel (see {@link #getParallelism()}) but all messages
+   * emitted via {@link #_warn(IProject, String)} and
+   * {@link #_info(IProject, String)} are buffered per project and emitted in
+   * the order of the passed projects, so that the output is identical to a
+   * sequential execution.
+   *
+   * @param aProjects
+   *        The projects to handle. May not be <code>null</code>.
+   * @param aAction
+   *        The action to be executed per project. May not be
+   *        <code>null</code>.
+   */
+  protected static final void _forEachProject (@Nonnull final Iterable <? extends IProject> aProjects,
+                                               @Nonnull final IProjectAction aAction)
+  {
+    _getForEachProject (aProjects, aProject -> {
+      aAction.execute (aProject);
+      return null;
+    });
+  }
+
+  /**
+   * Execute the passed callable for all passed projects and collect the
+   * results. The projects are handled in parallel (see
+   * {@link #getParallelism()}) but all messages emitted via
+   * {@link #_warn(IProject, String)} and {@link #_info(IProject, String)} are
+   * buffered per project and emitted in the order of the passed projects.
+   *
+   * If the same project is contained more than once, it is only handled once.
+   * If the callable fails for a project, all remaining projects are cancelled
+   * and awaited before the exception is propagated.
+   *
+   * @param aProjects
+   *        The projects to handle. May not be <code>null</code>.
+   * @param aCallable
+   *        The callable to be executed per project. May not be
+   *        <code>null</code>.
+   * @return The results in the order of the distinct passed projects. Never
+   *         <code>null</code> but may contain <code>null</code> elements.
+   * @param <T>
+   *        The result type per project
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  protected static final <T> ICommonsList <T> _getForEachProject (@Nonnull final Iterable <? extends IProject> aProjects,
+                                                                  @Nonnull final IProjectCallable <T> aCallable)
+  {
+    // Each project only once, as the output buffers are keyed by project
+    final ICommonsList <IProject> aProjectList = new CommonsArrayList <> (new CommonsLinkedHashSet <IProject> (aProjects));
+    final ICommonsList <T> ret = new CommonsArrayList <> (aProjectList.size ());
+    final int nParallelism = Math.min (getParallelism (), aProjectList.size ());
+
+    if (nParallelism <= 1)
+    {
+      // Sequential execution - log directly
+      for (final IProject aProject : aProjectList)
+        try
+        {
+          ret.add (aCallable.call (aProject));
+        }
+        catch (final RuntimeException ex)
+        {
+          throw ex;
+        }
+        catch (final Exception ex)
+        {
+          throw new IllegalStateException ("Error processing project " + aProject.getProjectName (), ex);
+        }
+      return ret;
+    }
+
+    final ForkJoinPool aPool = new ForkJoinPool (nParallelism);
+    try
+    {
+      final ICommonsList <Future <T>> aFutures = new CommonsArrayList <> (aProjectList.size ());
+      for (final IProject aProject : aProjectList)
+      {
+        // Register the buffer before the execution starts
+        s_aActiveOutputs.put (aProject, new ProjectOutput ());
+        final Callable <T> aTask = () -> aCallable.call (aProject);
+        aFutures.add (aPool.submit (aTask));
+      }
+
+      // Wait in project order and emit the buffered output
+      for (int i = 0; i < aProjectList.size (); ++i)
+      {
+        final IProject aProject = aProjectList.get (i);
+        try
+        {
+          ret.add (aFutures.get (i).get ());
+        }
+        catch (final InterruptedException ex)
+        {
+          Thread.currentThread ().interrupt ();
+          throw new IllegalStateException ("Interrupted while processing project " + aProject.getProjectName (), ex);
+        }
+        catch (final ExecutionException ex)
+        {
+          throw new IllegalStateException ("Error processing project " + aProject.getProjectName (), ex.getCause ());
+        }
+        finally
+        {
+          final ProjectOutput aOutput = s_aActiveOutputs.remove (aProject);
+          if (aOutput != null)
+            aOutput.flush (aProject);
+        }
+      }
+    }
+    finally
+    {
+      // In case of an error: cancel the remaining projects and wait until the
+      // running ones are done, so that they don't log after their buffer is
+      // gone
+      aPool.shutdownNow ();
+      try
+      {
+        aPool.awaitTermination (Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      }
+      catch (final InterruptedException ex)
+      {
+        Thread.currentThread ().interrupt ();
+      }
+      for (final IProject aProject : aProjectList)
+      {
+        final ProjectOutput aOutput = s_aActiveOutputs.remove (aProject);
+        if (aOutput != null)
+          aOutput.flush (aProject);
+      }
+    }
+    return ret;
   }
 
   @Nonnull
@@ -33,6 +33,9 @@ public final class CMeta
   /** The base directory of all Git projects */
   public static final File GIT_BASE_DIR = new File ("").getAbsoluteFile ().getParentFile ();
 
+  /** The directory where the tools persist their caches between runs */
+  public static final File CACHE_DIR = new File ("target/meta-cache").getAbsoluteFile ();
+
   @PresentForCodeCoverage
   private static final CMeta s_aInstance = new CMeta ();
 
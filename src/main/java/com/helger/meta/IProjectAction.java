@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta;
+
+import javax.annotation.Nonnull;
+
+import com.helger.meta.project.IProject;
+
+/**
+ * Callback interface for the per-project execution in
+ * {@link AbstractProjectMain}. The action may be invoked concurrently for
+ * different projects.
+ *
+ * @author Philip Helger
+ */
+@FunctionalInterface
+public interface IProjectAction
+{
+  /**
+   * Execute the action on a single project.
+   *
+   * @param aProject
+   *        The project to work on. Never <code>null</code>.
+   * @throws Exception
+   *         In case of an error
+   */
+  void execute (@Nonnull IProject aProject) throws Exception;
+}
@@ -17,14 +17,19 @@
 package com.helger.meta.asm;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.util.Iterator;
+import java.util.List;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.AnnotationNode;
@@ -35,12 +40,40 @@ import org.objectweb.asm.tree.MethodNode;
 
 import com.helger.commons.annotation.NoTranslationRequired;
 import com.helger.commons.annotation.Translatable;
-import com.helger.commons.io.file.SimpleFileIO;
 import com.helger.commons.lang.ClassHelper;
 
 @Immutable
 public class ASMHelper
 {
+  /**
+   * A class node that ignores all fields and methods.
+   */
+  private static final class HeaderOnlyClassNode extends IndexedClassNode
+  {
+    HeaderOnlyClassNode ()
+    {}
+
+    @Override
+    public FieldVisitor visitField (final int nAccess,
+                                    final String sName,
+                                    final String sDesc,
+                                    final String sSignature,
+                                    final Object aValue)
+    {
+      return null;
+    }
+
+    @Override
+    public MethodVisitor visitMethod (final int nAccess,
+                                      final String sName,
+                                      final String sDesc,
+                                      final String sSignature,
+                                      final String [] aExceptions)
+    {
+      return null;
+    }
+  }
+
   private ASMHelper ()
   {}
 
@@ -57,78 +90,98 @@ public class ASMHelper
     return null;
   }
 
-  public static boolean containsAnnotation (final FieldNode fn, final Class <? extends Annotation> aClass)
+  private static boolean _containsDescriptor (@Nullable final List <AnnotationNode> aVisibleAnnotations,
+                                              @Nullable final List <AnnotationNode> aInvisibleAnnotations,
+                                              @Nonnull final String sDescriptor)
   {
-    final String sDescriptor = Type.getDescriptor (aClass);
-
-    // Invisible annotations (retention policy: class)
-    if (fn.invisibleAnnotations != null)
-      for (final Object o : fn.invisibleAnnotations)
-      {
-        final String sDesc = ((AnnotationNode) o).desc;
-        if (sDesc.equals (sDescriptor))
+    // Visible annotations (retention policy: runtime)
+    if (aVisibleAnnotations != null)
+      for (final AnnotationNode aAnnotation : aVisibleAnnotations)
+        if (aAnnotation.desc.equals (sDescriptor))
           return true;
-      }
 
-    // Invisible annotations (retention policy: runtime)
-    if (fn.visibleAnnotations != null)
-      for (final Object o : fn.visibleAnnotations)
-      {
-        final String sDesc = ((AnnotationNode) o).desc;
-        if (sDesc.equals (sDescriptor))
+    // Invisible annotations (retention policy: class)
+    if (aInvisibleAnnotations != null)
+      for (final AnnotationNode aAnnotation : aInvisibleAnnotations)
+        if (aAnnotation.desc.equals (sDescriptor))
           return true;
-      }
     return false;
   }
 
-  public static boolean containsAnnotation (final MethodNode mn, final Class <? extends Annotation> aClass)
+  /**
+   * Get the annotations of the passed class. For nodes created by this class
+   * the precomputed index is returned.
+   *
+   * @param cn
+   *        The class node. May not be <code>null</code>.
+   * @return The annotation set. Never <code>null</code>.
+   */
+  @Nonnull
+  public static AnnotationSet getAnnotationSet (@Nonnull final ClassNode cn)
   {
-    final String sDescriptor = Type.getDescriptor (aClass);
-    return containsAnnotation (mn, sDescriptor);
+    if (cn instanceof IHasAnnotationSet)
+      return ((IHasAnnotationSet) cn).getAnnotationSet ();
+    return AnnotationSet.create (cn.visibleAnnotations, cn.invisibleAnnotations);
   }
 
-  public static boolean containsAnnotation (final MethodNode mn, final String sDescriptor)
+  /**
+   * Get the annotations of the passed field. For nodes created by this class
+   * the precomputed index is returned.
+   *
+   * @param fn
+   *        The field node. May not be <code>null</code>.
+   * @return The annotation set. Never <code>null</code>.
+   */
+  @Nonnull
+  public static AnnotationSet getAnnotationSet (@Nonnull final FieldNode fn)
   {
-    // Invisible annotations (retention policy: class)
-    if (mn.invisibleAnnotations != null)
-      for (final Object o : mn.invisibleAnnotations)
-      {
-        final String sDesc = ((AnnotationNode) o).desc;
-        if (sDesc.equals (sDescriptor))
-          return true;
-      }
+    if (fn instanceof IHasAnnotationSet)
+      return ((IHasAnnotationSet) fn).getAnnotationSet ();
+    return AnnotationSet.create (fn.visibleAnnotations, fn.invisibleAnnotations);
+  }
 
-    // Invisible annotations (retention policy: runtime)
-    if (mn.visibleAnnotations != null)
-      for (final Object o : mn.visibleAnnotations)
-      {
-        final String sDesc = ((AnnotationNode) o).desc;
-        if (sDesc.equals (sDescriptor))
-          return true;
-      }
-    return false;
+  /**
+   * Get the annotations of the passed method. For nodes created by this class
+   * the precomputed index is returned.
+   *
+   * @param mn
+   *        The method node. May not be <code>null</code>.
+   * @return The annotation set. Never <code>null</code>.
+   */
+  @Nonnull
+  public static AnnotationSet getAnnotationSet (@Nonnull final MethodNode mn)
+  {
+    if (mn instanceof IHasAnnotationSet)
+      return ((IHasAnnotationSet) mn).getAnnotationSet ();
+    return AnnotationSet.create (mn.visibleAnnotations, mn.invisibleAnnotations);
   }
 
-  public static boolean containsAnnotation (final ClassNode cn, final Class <? extends Annotation> aClass)
+  public static boolean containsAnnotation (final FieldNode fn, final Class <? extends Annotation> aClass)
   {
-    final String sDescriptor = Type.getDescriptor (aClass);
+    if (fn instanceof IHasAnnotationSet)
+      return ((IHasAnnotationSet) fn).getAnnotationSet ().contains (aClass);
+    return _containsDescriptor (fn.visibleAnnotations, fn.invisibleAnnotations, Type.getDescriptor (aClass));
+  }
 
-    if (cn.visibleAnnotations != null)
-      for (final Object o : cn.visibleAnnotations)
-      {
-        final String sDesc = ((AnnotationNode) o).desc;
-        if (sDesc.equals (sDescriptor))
-          return true;
-      }
+  public static boolean containsAnnotation (final MethodNode mn, final Class <? extends Annotation> aClass)
+  {
+    if (mn instanceof IHasAnnotationSet)
+      return ((IHasAnnotationSet) mn).getAnnotationSet ().contains (aClass);
+    return _containsDescriptor (mn.visibleAnnotations, mn.invisibleAnnotations, Type.getDescriptor (aClass));
+  }
 
-    if (cn.invisibleAnnotations != null)
-      for (final Object o : cn.invisibleAnnotations)
-      {
-        final String sDesc = ((AnnotationNode) o).desc;
-        if (sDesc.equals (sDescriptor))
-          return true;
-      }
-    return false;
+  public static boolean containsAnnotation (final MethodNode mn, final String sDescriptor)
+  {
+    if (mn instanceof IHasAnnotationSet)
+      return ((IHasAnnotationSet) mn).getAnnotationSet ().containsDescriptor (sDescriptor);
+    return _containsDescriptor (mn.visibleAnnotations, mn.invisibleAnnotations, sDescriptor);
+  }
+
+  public static boolean containsAnnotation (final ClassNode cn, final Class <? extends Annotation> aClass)
+  {
+    if (cn instanceof IHasAnnotationSet)
+      return ((IHasAnnotationSet) cn).getAnnotationSet ().contains (aClass);
+    return _containsDescriptor (cn.visibleAnnotations, cn.invisibleAnnotations, Type.getDescriptor (aClass));
   }
 
   public static boolean containsRequiresTranslationAnnotation (@Nonnull final ClassNode cn)
@@ -172,8 +225,55 @@ public class ASMHelper
   @Nonnull
   public static ClassNode readClassFile (@Nonnull final File aClassFile)
   {
-    // Read and interpret the class file
-    return readClass (SimpleFileIO.getAllFileBytes (aClassFile));
+    return readClassFile (aClassFile, EASMDetailLevel.FULL);
+  }
+
+  /**
+   * Read the passed class file using ASM and build a {@link ClassNode} that
+   * only contains the requested details. The file is read into the buffer of
+   * the calling thread, so no byte array is allocated per class.
+   *
+   * @param aClassFile
+   *        The file to read. May not be <code>null</code>.
+   * @param eDetailLevel
+   *        The parts of the class file to read. May not be <code>null</code>.
+   * @return The read {@link ClassNode}.
+   * @see ClassFileBuffer#getPerThread()
+   */
+  @Nonnull
+  public static ClassNode readClassFile (@Nonnull final File aClassFile, @Nonnull final EASMDetailLevel eDetailLevel)
+  {
+    return readClassFile (aClassFile, ClassFileBuffer.getPerThread (), eDetailLevel);
+  }
+
+  /**
+   * Read the passed class file into the passed buffer using ASM and build a
+   * {@link ClassNode} that only contains the requested details.
+   *
+   * @param aClassFile
+   *        The file to read. May not be <code>null</code>.
+   * @param aBuffer
+   *        The buffer to read the file into. Its previous content is
+   *        overwritten. May not be <code>null</code>.
+   * @param eDetailLevel
+   *        The parts of the class file to read. May not be <code>null</code>.
+   * @return The read {@link ClassNode}.
+   */
+  @Nonnull
+  public static ClassNode readClassFile (@Nonnull final File aClassFile,
+                                         @Nonnull final ClassFileBuffer aBuffer,
+                                         @Nonnull final EASMDetailLevel eDetailLevel)
+  {
+    try
+    {
+      aBuffer.readFrom (aClassFile);
+    }
+    catch (final IOException ex)
+    {
+      throw new IllegalStateException ("Failed to read class file " + aClassFile, ex);
+    }
+    // Interpret the class file
+    return readClass (aBuffer, eDetailLevel);
   }
 
   /**
@@ -186,11 +286,74 @@ public class ASMHelper
    */
   @Nonnull
   public static ClassNode readClass (@Nonnull final byte [] aBytes)
+  {
+    return readClass (aBytes, EASMDetailLevel.FULL);
+  }
+
+  /**
+   * Read the passed class file using ASM and build a {@link ClassNode} that
+   * only contains the requested details.
+   *
+   * @param aBytes
+   *        The bytes representing the content of the class file to read. May
+   *        not be <code>null</code>.
+   * @param eDetailLevel
+   *        The parts of the class file to read. May not be <code>null</code>.
+   *        If {@link EASMDetailLevel#HEADER} is used, the fields and methods of
+   *        the returned class node are empty.
+   * @return The read {@link ClassNode}.
+   */
+  @Nonnull
+  public static ClassNode readClass (@Nonnull final byte [] aBytes, @Nonnull final EASMDetailLevel eDetailLevel)
+  {
+    return readClass (aBytes, 0, aBytes.length, eDetailLevel);
+  }
+
+  /**
+   * Read the valid content of the passed buffer using ASM and build a
+   * {@link ClassNode} that only contains the requested details.
+   *
+   * @param aBuffer
+   *        The buffer containing the class file. May not be <code>null</code>.
+   * @param eDetailLevel
+   *        The parts of the class file to read. May not be <code>null</code>.
+   * @return The read {@link ClassNode}. It does not reference the buffer, so
+   *         the buffer may be reused afterwards.
+   */
+  @Nonnull
+  public static ClassNode readClass (@Nonnull final ClassFileBuffer aBuffer,
+                                     @Nonnull final EASMDetailLevel eDetailLevel)
+  {
+    return readClass (aBuffer.getBuffer (), 0, aBuffer.getLength (), eDetailLevel);
+  }
+
+  /**
+   * Read a class file from a part of the passed byte array using ASM and build
+   * a {@link ClassNode} that only contains the requested details.
+   *
+   * @param aBytes
+   *        The array containing the class file. May not be <code>null</code>.
+   * @param nOfs
+   *        The offset of the class file within the array.
+   * @param nLen
+   *        The length of the class file.
+   * @param eDetailLevel
+   *        The parts of the class file to read. May not be <code>null</code>.
+   *        If {@link EASMDetailLevel#HEADER} is used, the fields and methods of
+   *        the returned class node are empty.
+   * @return The read {@link ClassNode}. The class node and all its fields and
+   *         methods implement {@link IHasAnnotationSet}.
+   */
+  @Nonnull
+  public static ClassNode readClass (@Nonnull final byte [] aBytes,
+                                     @Nonnegative final int nOfs,
+                                     @Nonnegative final int nLen,
+                                     @Nonnull final EASMDetailLevel eDetailLevel)
   {
     // Interpret the class file
-    final ClassReader cr = new ClassReader (aBytes);
-    final ClassNode cn = new ClassNode ();
-    cr.accept (cn, 0);
+    final ClassReader cr = new ClassReader (aBytes, nOfs, nLen);
+    final ClassNode cn = eDetailLevel.hasMembers () ? new IndexedClassNode () : new HeaderOnlyClassNode ();
+    cr.accept (cn, eDetailLevel.getParsingOptions ());
     return cn;
   }
 }
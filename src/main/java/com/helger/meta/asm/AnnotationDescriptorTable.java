@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.objectweb.asm.Type;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+
+/**
+ * A global table that interns annotation descriptors (like
+ * <code>Ljavax/annotation/Nonnull;</code>) to small, dense int IDs. The IDs are
+ * stable for the lifetime of the VM and are used as bit indices in
+ * {@link AnnotationSet}. The ID of an annotation class is computed only once
+ * per class.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class AnnotationDescriptorTable
+{
+  /** The ID returned for descriptors that were never interned */
+  public static final int NO_ID = -1;
+
+  private static final ConcurrentHashMap <String, Integer> s_aIDs = new ConcurrentHashMap <> ();
+  private static final Object s_aLock = new Object ();
+  @GuardedBy ("s_aLock")
+  private static String [] s_aDescriptors = new String [64];
+  @GuardedBy ("s_aLock")
+  private static int s_nCount = 0;
+
+  private static final ClassValue <Integer> s_aClassIDs = new ClassValue <Integer> ()
+  {
+    @Override
+    protected Integer computeValue (final Class <?> aClass)
+    {
+      return Integer.valueOf (getID (Type.getDescriptor (aClass)));
+    }
+  };
+
+  private AnnotationDescriptorTable ()
+  {}
+
+  /**
+   * Get the ID of the passed descriptor and intern it if it is not yet
+   * contained.
+   *
+   * @param sDescriptor
+   *        The annotation descriptor. May neither be <code>null</code> nor
+   *        empty.
+   * @return The ID of the descriptor. Always &ge; 0.
+   */
+  @Nonnegative
+  public static int getID (@Nonnull @Nonempty final String sDescriptor)
+  {
+    ValueEnforcer.notEmpty (sDescriptor, "Descriptor");
+
+    final Integer aID = s_aIDs.get (sDescriptor);
+    if (aID != null)
+      return aID.intValue ();
+
+    synchronized (s_aLock)
+    {
+      // Check again inside the lock
+      final Integer aID2 = s_aIDs.get (sDescriptor);
+      if (aID2 != null)
+        return aID2.intValue ();
+
+      final int nID = s_nCount++;
+      if (nID == s_aDescriptors.length)
+        s_aDescriptors = Arrays.copyOf (s_aDescriptors, nID * 2);
+      s_aDescriptors[nID] = sDescriptor;
+      s_aIDs.put (sDescriptor, Integer.valueOf (nID));
+      return nID;
+    }
+  }
+
+  /**
+   * Get the ID of the passed annotation class and intern its descriptor if it
+   * is not yet contained.
+   *
+   * @param aClass
+   *        The annotation class. May not be <code>null</code>.
+   * @return The ID of the annotation. Always &ge; 0.
+   */
+  @Nonnegative
+  public static int getID (@Nonnull final Class <? extends Annotation> aClass)
+  {
+    return s_aClassIDs.get (aClass).intValue ();
+  }
+
+  /**
+   * Get the ID of the passed descriptor without interning it.
+   *
+   * @param sDescriptor
+   *        The annotation descriptor. May be <code>null</code>.
+   * @return {@link #NO_ID} if the descriptor was never interned.
+   */
+  public static int getExistingID (@Nullable final String sDescriptor)
+  {
+    if (sDescriptor == null)
+      return NO_ID;
+    final Integer aID = s_aIDs.get (sDescriptor);
+    return aID == null ? NO_ID : aID.intValue ();
+  }
+
+  /**
+   * Get the descriptor of the passed ID.
+   *
+   * @param nID
+   *        The ID to resolve.
+   * @return <code>null</code> if no such ID was assigned.
+   */
+  @Nullable
+  public static String getDescriptor (final int nID)
+  {
+    synchronized (s_aLock)
+    {
+      return nID >= 0 && nID < s_nCount ? s_aDescriptors[nID] : null;
+    }
+  }
+
+  /**
+   * @return The number of interned descriptors. Always &ge; 0.
+   */
+  @Nonnegative
+  public static int getCount ()
+  {
+    synchronized (s_aLock)
+    {
+      return s_nCount;
+    }
+  }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.objectweb.asm.tree.AnnotationNode;
+
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * The set of annotations (visible and invisible) present on a class, field or
+ * method. It is a bit set over the IDs of the {@link AnnotationDescriptorTable}
+ * so that checking for an annotation is a single bit test. It does not
+ * reference the ASM node it was built from.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class AnnotationSet
+{
+  public static final AnnotationSet EMPTY = new AnnotationSet (new long [0]);
+
+  private final long [] m_aBits;
+
+  private AnnotationSet (@Nonnull final long [] aBits)
+  {
+    m_aBits = aBits;
+  }
+
+  /**
+   * @return <code>true</code> if no annotation is contained.
+   */
+  public boolean isEmpty ()
+  {
+    return m_aBits.length == 0;
+  }
+
+  /**
+   * @return The number of contained annotations. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getCount ()
+  {
+    int ret = 0;
+    for (final long nWord : m_aBits)
+      ret += Long.bitCount (nWord);
+    return ret;
+  }
+
+  /**
+   * Check if the annotation with the passed ID is contained.
+   *
+   * @param nID
+   *        The ID from the {@link AnnotationDescriptorTable}.
+   * @return <code>true</code> if it is contained.
+   */
+  public boolean contains (final int nID)
+  {
+    if (nID < 0)
+      return false;
+    final int nWord = nID >>> 6;
+    return nWord < m_aBits.length && (m_aBits[nWord] & (1L << nID)) != 0;
+  }
+
+  /**
+   * Check if the passed annotation is contained.
+   *
+   * @param aClass
+   *        The annotation class to check. May not be <code>null</code>.
+   * @return <code>true</code> if it is contained.
+   */
+  public boolean contains (@Nonnull final Class <? extends Annotation> aClass)
+  {
+    return contains (AnnotationDescriptorTable.getID (aClass));
+  }
+
+  /**
+   * Check if the annotation with the passed descriptor is contained.
+   *
+   * @param sDescriptor
+   *        The annotation descriptor (like <code>Lorg/junit/Test;</code>). May
+   *        be <code>null</code>.
+   * @return <code>true</code> if it is contained.
+   */
+  public boolean containsDescriptor (@Nullable final String sDescriptor)
+  {
+    // Unknown descriptors cannot be contained
+    return contains (AnnotationDescriptorTable.getExistingID (sDescriptor));
+  }
+
+  /**
+   * Invoke the passed consumer for the ID of each contained annotation in
+   * ascending order.
+   *
+   * @param aConsumer
+   *        The consumer to invoke. May not be <code>null</code>.
+   */
+  public void forEachID (@Nonnull final IntConsumer aConsumer)
+  {
+    for (int nWord = 0; nWord < m_aBits.length; ++nWord)
+    {
+      long nBits = m_aBits[nWord];
+      while (nBits != 0)
+      {
+        aConsumer.accept ((nWord << 6) + Long.numberOfTrailingZeros (nBits));
+        nBits &= nBits - 1;
+      }
+    }
+  }
+
+  @Override
+  public boolean equals (final Object o)
+  {
+    if (o == this)
+      return true;
+    if (o == null || !getClass ().equals (o.getClass ()))
+      return false;
+    final AnnotationSet rhs = (AnnotationSet) o;
+    return Arrays.equals (m_aBits, rhs.m_aBits);
+  }
+
+  @Override
+  public int hashCode ()
+  {
+    return Arrays.hashCode (m_aBits);
+  }
+
+  @Override
+  public String toString ()
+  {
+    final ICommonsList <String> aDescriptors = new CommonsArrayList <> ();
+    forEachID (nID -> aDescriptors.add (AnnotationDescriptorTable.getDescriptor (nID)));
+    return new ToStringGenerator (this).append ("Descriptors", aDescriptors).getToString ();
+  }
+
+  @Nonnull
+  private static long [] _set (@Nonnull final long [] aBits, @Nullable final List <AnnotationNode> aAnnotations)
+  {
+    long [] ret = aBits;
+    if (aAnnotations != null)
+      for (final AnnotationNode aAnnotation : aAnnotations)
+      {
+        final int nID = AnnotationDescriptorTable.getID (aAnnotation.desc);
+        final int nWord = nID >>> 6;
+        if (nWord >= ret.length)
+          ret = Arrays.copyOf (ret, nWord + 1);
+        ret[nWord] |= 1L << nID;
+      }
+    return ret;
+  }
+
+  /**
+   * Build the annotation set from the annotation lists of an ASM node.
+   *
+   * @param aVisibleAnnotations
+   *        The runtime visible annotations. May be <code>null</code>.
+   * @param aInvisibleAnnotations
+   *        The runtime invisible (class retention) annotations. May be
+   *        <code>null</code>.
+   * @return The non-<code>null</code> annotation set.
+   */
+  @Nonnull
+  public static AnnotationSet create (@Nullable final List <AnnotationNode> aVisibleAnnotations,
+                                      @Nullable final List <AnnotationNode> aInvisibleAnnotations)
+  {
+    if ((aVisibleAnnotations == null || aVisibleAnnotations.isEmpty ()) &&
+        (aInvisibleAnnotations == null || aInvisibleAnnotations.isEmpty ()))
+      return EMPTY;
+
+    final long [] aBits = _set (_set (new long [0], aVisibleAnnotations), aInvisibleAnnotations);
+    return new AnnotationSet (aBits);
+  }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.annotation.ReturnsMutableObject;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * A reusable buffer for the content of a single class file. The buffer grows
+ * as needed and is never shrunk, so that reading many class files with the
+ * same buffer does not allocate per class. Only the first
+ * {@link #getLength()} bytes of {@link #getBuffer()} are valid.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class ClassFileBuffer
+{
+  public static final int DEFAULT_INITIAL_CAPACITY = 16 * 1024;
+
+  private static final ThreadLocal <ClassFileBuffer> s_aPerThread = ThreadLocal.withInitial (ClassFileBuffer::new);
+
+  private byte [] m_aBuffer;
+  // Wraps m_aBuffer - avoids allocating a new wrapper per read
+  private ByteBuffer m_aByteBuffer;
+  private int m_nLength = 0;
+
+  public ClassFileBuffer ()
+  {
+    this (DEFAULT_INITIAL_CAPACITY);
+  }
+
+  public ClassFileBuffer (@Nonnegative final int nInitialCapacity)
+  {
+    ValueEnforcer.isGT0 (nInitialCapacity, "InitialCapacity");
+    m_aBuffer = new byte [nInitialCapacity];
+    m_aByteBuffer = ByteBuffer.wrap (m_aBuffer);
+  }
+
+  /**
+   * @return The buffer of the calling thread. Never <code>null</code>. The
+   *         content is overwritten by the next read on the same thread.
+   */
+  @Nonnull
+  public static ClassFileBuffer getPerThread ()
+  {
+    return s_aPerThread.get ();
+  }
+
+  /**
+   * @return The underlying array. Only the first {@link #getLength()} bytes
+   *         are valid. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableObject ("design")
+  public byte [] getBuffer ()
+  {
+    return m_aBuffer;
+  }
+
+  /**
+   * @return The number of valid bytes in the buffer.
+   */
+  @Nonnegative
+  public int getLength ()
+  {
+    return m_nLength;
+  }
+
+  /**
+   * @return A copy of the valid bytes. Allocates - only use it if the bytes
+   *         need to survive the next read.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public byte [] getAllBytes ()
+  {
+    return Arrays.copyOf (m_aBuffer, m_nLength);
+  }
+
+  private void _ensureCapacity (@Nonnegative final int nCapacity)
+  {
+    if (nCapacity > m_aBuffer.length)
+    {
+      // Keep the existing content
+      m_aBuffer = Arrays.copyOf (m_aBuffer, Math.max (nCapacity, m_aBuffer.length * 2));
+      m_aByteBuffer = ByteBuffer.wrap (m_aBuffer);
+    }
+  }
+
+  /**
+   * Replace the content of this buffer with the content of the passed
+   * channel.
+   *
+   * @param aChannel
+   *        The channel to read from. May not be <code>null</code>. It is not
+   *        closed.
+   * @throws IOException
+   *         on read error
+   */
+  public void readFrom (@Nonnull final SeekableByteChannel aChannel) throws IOException
+  {
+    final long nSize = aChannel.size ();
+    if (nSize >= Integer.MAX_VALUE)
+      throw new IOException ("Class file is too large: " + nSize + " bytes");
+
+    // One more byte to detect the end without an additional read call
+    m_nLength = 0;
+    _ensureCapacity ((int) nSize + 1);
+    int nPos = 0;
+    while (true)
+    {
+      if (nPos == m_aBuffer.length)
+      {
+        // The file grew while reading
+        _ensureCapacity (nPos + 1);
+      }
+      // Call the methods on Buffer, because the covariant ByteBuffer
+      // overrides don't exist on Java 8
+      final Buffer aBuffer = m_aByteBuffer;
+      aBuffer.clear ();
+      aBuffer.position (nPos);
+      final int nRead = aChannel.read (m_aByteBuffer);
+      if (nRead < 0)
+        break;
+      nPos += nRead;
+    }
+    m_nLength = nPos;
+  }
+
+  /**
+   * Replace the content of this buffer with the content of the passed file.
+   *
+   * @param aPath
+   *        The file to read. May not be <code>null</code>. May also be a path
+   *        of a zip file system.
+   * @throws IOException
+   *         on read error
+   */
+  public void readFrom (@Nonnull final Path aPath) throws IOException
+  {
+    try (final SeekableByteChannel aChannel = Files.newByteChannel (aPath))
+    {
+      readFrom (aChannel);
+    }
+  }
+
+  /**
+   * Replace the content of this buffer with the content of the passed file.
+   *
+   * @param aFile
+   *        The file to read. May not be <code>null</code>.
+   * @throws IOException
+   *         on read error
+   */
+  public void readFrom (@Nonnull final File aFile) throws IOException
+  {
+    readFrom (aFile.toPath ());
+  }
+
+  /**
+   * Replace the content of this buffer with a copy of the passed bytes.
+   *
+   * @param aBytes
+   *        The bytes to use. May not be <code>null</code>.
+   */
+  public void set (@Nonnull final byte [] aBytes)
+  {
+    _ensureCapacity (aBytes.length);
+    System.arraycopy (aBytes, 0, m_aBuffer, 0, aBytes.length);
+    m_nLength = aBytes.length;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Capacity", m_aBuffer.length)
+                                       .append ("Length", m_nLength)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm;
+
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * Runs a set of {@link IClassRule} objects in a single streaming pass over a
+ * class file. The class file is only parsed to the maximum detail level
+ * required by any rule and no complete {@link ClassNode} with all members is
+ * ever built. The header node and all member nodes passed to the rules
+ * implement {@link IHasAnnotationSet}.
+ *
+ * @author Philip Helger
+ * @param <CTX>
+ *        The context type that is passed to all rules
+ */
+@Immutable
+public final class ClassRuleScanner <CTX>
+{
+  private final ICommonsList <IClassRule <CTX>> m_aRules;
+  private final Predicate <? super ClassNode> m_aHeaderFilter;
+  private final EASMDetailLevel m_eDetailLevel;
+
+  /**
+   * Constructor
+   *
+   * @param aRules
+   *        The rules to be executed in the provided order. May not be
+   *        <code>null</code>.
+   * @param aHeaderFilter
+   *        An optional filter that is invoked with the class header before any
+   *        rule. If it returns <code>false</code> no rule is invoked for the
+   *        class. May be <code>null</code>.
+   */
+  public ClassRuleScanner (@Nonnull final Iterable <? extends IClassRule <CTX>> aRules,
+                           @Nullable final Predicate <? super ClassNode> aHeaderFilter)
+  {
+    ValueEnforcer.notNull (aRules, "Rules");
+    m_aRules = new CommonsArrayList <> (aRules);
+    m_aHeaderFilter = aHeaderFilter;
+    EASMDetailLevel eLevel = EASMDetailLevel.HEADER;
+    for (final IClassRule <CTX> aRule : m_aRules)
+      eLevel = EASMDetailLevel.getMax (eLevel, aRule.getRequiredDetailLevel ());
+    m_eDetailLevel = eLevel;
+  }
+
+  /**
+   * @return The detail level with which class files are parsed. It is the
+   *         maximum detail level of all rules.
+   */
+  @Nonnull
+  public EASMDetailLevel getDetailLevel ()
+  {
+    return m_eDetailLevel;
+  }
+
+  /**
+   * Parse the passed class file and invoke all rules.
+   *
+   * @param aBytes
+   *        The class file content. May not be <code>null</code>.
+   * @param aContext
+   *        The context to be passed to all rules. May not be
+   *        <code>null</code>.
+   */
+  public void scan (@Nonnull final byte [] aBytes, @Nonnull final CTX aContext)
+  {
+    scan (new ClassReader (aBytes), aContext);
+  }
+
+  /**
+   * Parse the valid content of the passed buffer and invoke all rules.
+   *
+   * @param aBuffer
+   *        The buffer with the class file content. May not be
+   *        <code>null</code>. It is not referenced after this method returns.
+   * @param aContext
+   *        The context to be passed to all rules. May not be
+   *        <code>null</code>.
+   */
+  public void scan (@Nonnull final ClassFileBuffer aBuffer, @Nonnull final CTX aContext)
+  {
+    scan (new ClassReader (aBuffer.getBuffer (), 0, aBuffer.getLength ()), aContext);
+  }
+
+  /**
+   * Parse the passed class file and invoke all rules.
+   *
+   * @param aClassReader
+   *        The class reader to use. May not be <code>null</code>.
+   * @param aContext
+   *        The context to be passed to all rules. May not be
+   *        <code>null</code>.
+   */
+  public void scan (@Nonnull final ClassReader aClassReader, @Nonnull final CTX aContext)
+  {
+    ValueEnforcer.notNull (aContext, "Context");
+    aClassReader.accept (new Dispatcher (aContext), m_eDetailLevel.getParsingOptions ());
+  }
+
+  /**
+   * The visitor that collects the class header and forwards each completely
+   * read member to the active rules.
+   */
+  private final class Dispatcher extends ClassVisitor
+  {
+    private final CTX m_aContext;
+    private final ClassNode m_aHeader;
+    private final boolean [] m_aActive;
+    private boolean m_bHeaderDone = false;
+    private boolean m_bAnyMemberRuleActive = false;
+
+    Dispatcher (@Nonnull final CTX aContext)
+    {
+      this (aContext, new IndexedClassNode ());
+    }
+
+    private Dispatcher (@Nonnull final CTX aContext, @Nonnull final ClassNode aHeader)
+    {
+      // Forward all header information to the header node
+      super (Opcodes.ASM5, aHeader);
+      m_aContext = aContext;
+      m_aHeader = aHeader;
+      m_aActive = new boolean [m_aRules.size ()];
+    }
+
+    private void _onHeaderDone ()
+    {
+      if (m_bHeaderDone)
+        return;
+      m_bHeaderDone = true;
+
+      if (m_aHeaderFilter != null && !m_aHeaderFilter.test (m_aHeader))
+        return;
+
+      for (int i = 0; i < m_aActive.length; ++i)
+      {
+        final IClassRule <CTX> aRule = m_aRules.get (i);
+        m_aActive[i] = aRule.onClassHeader (m_aHeader, m_aContext).isContinue ();
+        if (m_aActive[i] && aRule.getRequiredDetailLevel ().hasMembers ())
+          m_bAnyMemberRuleActive = true;
+      }
+    }
+
+    private boolean _isMemberRuleActive (final int nIndex)
+    {
+      return m_aActive[nIndex] && m_aRules.get (nIndex).getRequiredDetailLevel ().hasMembers ();
+    }
+
+    @Override
+    public FieldVisitor visitField (final int nAccess,
+                                    final String sName,
+                                    final String sDesc,
+                                    final String sSignature,
+                                    final Object aValue)
+    {
+      _onHeaderDone ();
+      if (!m_bAnyMemberRuleActive)
+        return null;
+
+      return new IndexedFieldNode (nAccess, sName, sDesc, sSignature, aValue)
+      {
+        @Override
+        public void visitEnd ()
+        {
+          for (int i = 0; i < m_aActive.length; ++i)
+            if (_isMemberRuleActive (i))
+              m_aRules.get (i).onField (m_aHeader, this, m_aContext);
+        }
+      };
+    }
+
+    @Override
+    public MethodVisitor visitMethod (final int nAccess,
+                                      final String sName,
+                                      final String sDesc,
+                                      final String sSignature,
+                                      final String [] aExceptions)
+    {
+      _onHeaderDone ();
+      if (!m_bAnyMemberRuleActive)
+        return null;
+
+      return new IndexedMethodNode (nAccess, sName, sDesc, sSignature, aExceptions)
+      {
+        @Override
+        public void visitEnd ()
+        {
+          for (int i = 0; i < m_aActive.length; ++i)
+            if (_isMemberRuleActive (i))
+              m_aRules.get (i).onMethod (m_aHeader, this, m_aContext);
+        }
+      };
+    }
+
+    @Override
+    public void visitEnd ()
+    {
+      _onHeaderDone ();
+      super.visitEnd ();
+      for (int i = 0; i < m_aActive.length; ++i)
+        if (m_aActive[i])
+          m_aRules.get (i).onClassEnd (m_aHeader, m_aContext);
+    }
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Rules", m_aRules)
+                                       .append ("HeaderFilter", m_aHeaderFilter)
+                                       .append ("DetailLevel", m_eDetailLevel)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm;
+
+import javax.annotation.Nonnull;
+
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Defines the parts of a class file that need to be parsed. The higher the
+ * level, the more expensive the parsing.
+ *
+ * @author Philip Helger
+ */
+public enum EASMDetailLevel
+{
+  /** Class name, access flags, super class, interfaces and annotations */
+  HEADER (ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES),
+  /** Additionally all fields and methods with their annotations */
+  MEMBERS (ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES),
+  /** Additionally the instructions of all methods */
+  CODE (ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES),
+  /** Everything including debug information and stack map frames */
+  FULL (0);
+
+  private final int m_nParsingOptions;
+
+  private EASMDetailLevel (final int nParsingOptions)
+  {
+    m_nParsingOptions = nParsingOptions;
+  }
+
+  /**
+   * @return The flags to be passed to
+   *         {@link ClassReader#accept(org.objectweb.asm.ClassVisitor, int)}.
+   */
+  public int getParsingOptions ()
+  {
+    return m_nParsingOptions;
+  }
+
+  /**
+   * @return <code>true</code> if fields and methods are part of this level.
+   */
+  public boolean hasMembers ()
+  {
+    return isAtLeast (MEMBERS);
+  }
+
+  public boolean isAtLeast (@Nonnull final EASMDetailLevel eOther)
+  {
+    return ordinal () >= eOther.ordinal ();
+  }
+
+  @Nonnull
+  public static EASMDetailLevel getMax (@Nonnull final EASMDetailLevel e1, @Nonnull final EASMDetailLevel e2)
+  {
+    return e1.isAtLeast (e2) ? e1 : e2;
+  }
+}
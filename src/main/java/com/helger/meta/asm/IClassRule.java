@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm;
+
+import javax.annotation.Nonnull;
+
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import com.helger.commons.state.EContinue;
+
+/**
+ * A single rule that is invoked while a class file is parsed by the
+ * {@link ClassRuleScanner}. All callbacks receive the class header, which
+ * contains everything except the fields and methods (the lists are always
+ * empty). Fields and methods are passed one by one and must not be stored, so
+ * that they can be garbage collected as early as possible.
+ *
+ * @author Philip Helger
+ * @param <CTX>
+ *        The context type that is passed through all callbacks
+ */
+public interface IClassRule <CTX>
+{
+  /**
+   * @return The parts of the class file this rule requires. Fields and methods
+   *         are only passed to rules with a level of at least
+   *         {@link EASMDetailLevel#MEMBERS}. Method instructions are only
+   *         available if at least one rule requires {@link EASMDetailLevel#CODE}.
+   */
+  @Nonnull
+  EASMDetailLevel getRequiredDetailLevel ();
+
+  /**
+   * Invoked once per class after the header was read.
+   *
+   * @param aHeader
+   *        The class header. Never <code>null</code>.
+   * @param aContext
+   *        The context. Never <code>null</code>.
+   * @return {@link EContinue#BREAK} to skip all other callbacks of this rule
+   *         for the current class.
+   */
+  @Nonnull
+  default EContinue onClassHeader (@Nonnull final ClassNode aHeader, @Nonnull final CTX aContext)
+  {
+    return EContinue.CONTINUE;
+  }
+
+  /**
+   * Invoked for every field.
+   *
+   * @param aHeader
+   *        The class header. Never <code>null</code>.
+   * @param aField
+   *        The field that was completely read. Never <code>null</code>.
+   * @param aContext
+   *        The context. Never <code>null</code>.
+   */
+  default void onField (@Nonnull final ClassNode aHeader,
+                        @Nonnull final FieldNode aField,
+                        @Nonnull final CTX aContext)
+  {}
+
+  /**
+   * Invoked for every method.
+   *
+   * @param aHeader
+   *        The class header. Never <code>null</code>.
+   * @param aMethod
+   *        The method that was completely read. Never <code>null</code>.
+   * @param aContext
+   *        The context. Never <code>null</code>.
+   */
+  default void onMethod (@Nonnull final ClassNode aHeader,
+                         @Nonnull final MethodNode aMethod,
+                         @Nonnull final CTX aContext)
+  {}
+
+  /**
+   * Invoked once per class after all members were read.
+   *
+   * @param aHeader
+   *        The class header. Never <code>null</code>.
+   * @param aContext
+   *        The context. Never <code>null</code>.
+   */
+  default void onClassEnd (@Nonnull final ClassNode aHeader, @Nonnull final CTX aContext)
+  {}
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Implemented by ASM nodes that keep an index of their annotations.
+ *
+ * @author Philip Helger
+ */
+public interface IHasAnnotationSet
+{
+  /**
+   * @return The annotations of this node. Never <code>null</code>. It is built
+   *         on first access, so it must only be called after the annotations
+   *         of the node were visited.
+   */
+  @Nonnull
+  AnnotationSet getAnnotationSet ();
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.FieldNode;
+
+/**
+ * A {@link FieldNode} that indexes its annotations.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public class IndexedFieldNode extends FieldNode implements IHasAnnotationSet
+{
+  private AnnotationSet m_aAnnotationSet;
+
+  public IndexedFieldNode (final int nAccess,
+                           final String sName,
+                           final String sDesc,
+                           final String sSignature,
+                           final Object aValue)
+  {
+    super (Opcodes.ASM5, nAccess, sName, sDesc, sSignature, aValue);
+  }
+
+  @Nonnull
+  public AnnotationSet getAnnotationSet ()
+  {
+    AnnotationSet ret = m_aAnnotationSet;
+    if (ret == null)
+      ret = m_aAnnotationSet = AnnotationSet.create (visibleAnnotations, invisibleAnnotations);
+    return ret;
+  }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.hierarchy;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsLinkedHashSet;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsOrderedSet;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * The hierarchy relevant information of a single class: super class,
+ * interfaces and the classes whose static methods are called. All names are
+ * internal names (like <code>java/lang/String</code>). Contrary to the
+ * {@link ClassNode} it was created from it is small enough to be kept for all
+ * classes of all projects.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class ClassHierarchyEntry
+{
+  private final String m_sClassName;
+  private final int m_nAccess;
+  private final String m_sSuperName;
+  private final ICommonsList <String> m_aInterfaces;
+  private final ICommonsOrderedSet <String> m_aStaticCallees;
+
+  public ClassHierarchyEntry (@Nonnull @Nonempty final String sClassName,
+                              final int nAccess,
+                              @Nullable final String sSuperName,
+                              @Nonnull final Iterable <String> aInterfaces,
+                              @Nonnull final Iterable <String> aStaticCallees)
+  {
+    ValueEnforcer.notEmpty (sClassName, "ClassName");
+    ValueEnforcer.notNull (aInterfaces, "Interfaces");
+    ValueEnforcer.notNull (aStaticCallees, "StaticCallees");
+    m_sClassName = sClassName;
+    m_nAccess = nAccess;
+    m_sSuperName = sSuperName;
+    m_aInterfaces = new CommonsArrayList <> (aInterfaces);
+    m_aStaticCallees = new CommonsLinkedHashSet <> (aStaticCallees);
+  }
+
+  /**
+   * @return The internal name of the class. Neither <code>null</code> nor
+   *         empty.
+   */
+  @Nonnull
+  @Nonempty
+  public String getClassName ()
+  {
+    return m_sClassName;
+  }
+
+  /**
+   * @return The access flags of the class as defined in {@link Opcodes}.
+   */
+  public int getAccess ()
+  {
+    return m_nAccess;
+  }
+
+  /**
+   * @return The internal name of the super class. Only <code>null</code> for
+   *         <code>java/lang/Object</code>.
+   */
+  @Nullable
+  public String getSuperName ()
+  {
+    return m_sSuperName;
+  }
+
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <String> getAllInterfaces ()
+  {
+    return m_aInterfaces.getClone ();
+  }
+
+  /**
+   * @return The internal names of all other classes on which a static method
+   *         is invoked by this class. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsOrderedSet <String> getAllStaticCallees ()
+  {
+    return m_aStaticCallees.getClone ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("ClassName", m_sClassName)
+                                       .append ("Access", m_nAccess)
+                                       .append ("SuperName", m_sSuperName)
+                                       .append ("Interfaces", m_aInterfaces)
+                                       .append ("StaticCallees", m_aStaticCallees)
+                                       .getToString ();
+  }
+
+  /**
+   * Extract the hierarchy information from the passed class node. To find the
+   * static calls, the class must have been read with
+   * {@link com.helger.meta.asm.EASMDetailLevel#CODE} or higher.
+   *
+   * @param cn
+   *        The class node to use. May not be <code>null</code>.
+   * @return The new entry. Never <code>null</code>.
+   */
+  @Nonnull
+  public static ClassHierarchyEntry create (@Nonnull final ClassNode cn)
+  {
+    ValueEnforcer.notNull (cn, "ClassNode");
+
+    final ICommonsOrderedSet <String> aStaticCallees = new CommonsLinkedHashSet <> ();
+    for (final MethodNode mn : cn.methods)
+      for (AbstractInsnNode aInsn = mn.instructions.getFirst (); aInsn != null; aInsn = aInsn.getNext ())
+        if (aInsn.getOpcode () == Opcodes.INVOKESTATIC)
+        {
+          final String sOwner = ((MethodInsnNode) aInsn).owner;
+          // Calls within the class are not of interest
+          if (!sOwner.equals (cn.name))
+            aStaticCallees.add (sOwner);
+        }
+    return new ClassHierarchyEntry (cn.name, cn.access, cn.superName, cn.interfaces, aStaticCallees);
+  }
+}
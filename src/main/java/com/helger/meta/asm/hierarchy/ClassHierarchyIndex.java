@@ -0,0 +1,544 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.hierarchy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.CMeta;
+
+/**
+ * A read-only index over the class hierarchy and the static call graph of all
+ * scanned classes of all projects. All data is stored in flat int and char
+ * sections of a single {@link ByteBuffer} which is either built in memory by
+ * {@link ClassHierarchyIndexBuilder} or memory mapped from a file, so opening
+ * an index does not parse or allocate anything per class.<br>
+ * Each class (including classes that are only referenced, like JDK classes)
+ * has a dense int ID. The super class tree is numbered in depth-first pre and
+ * post order, so {@link #isSubclassOf(String, String)} is a constant time
+ * interval check. All directly and indirectly implemented interfaces and the
+ * callers of each class are stored as adjacency lists.<br>
+ * All class names are internal names (like <code>java/lang/String</code>).
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class ClassHierarchyIndex
+{
+  /** The default location of the index written by the build tool */
+  public static final File DEFAULT_FILE = new File (CMeta.CACHE_DIR, "class-hierarchy.bin");
+  /** ID of unknown classes */
+  public static final int NO_ID = -1;
+
+  private static final Logger s_aLogger = LoggerFactory.getLogger (ClassHierarchyIndex.class);
+  private static final int MAGIC = 0x4d434849;
+  private static final int VERSION = 3;
+  // magic, version, creation time (2 ints), classes, interface edges, call
+  // edges, hash table size, name chars
+  private static final int HEADER_INTS = 9;
+
+  private final ByteBuffer m_aBuffer;
+  private final long m_nCreationTime;
+  private final int m_nClassCount;
+  // Per class: super class ID or NO_ID
+  private final IntBuffer m_aSuper;
+  // Per class: access flags or NO_ID if the class was only referenced
+  private final IntBuffer m_aAccess;
+  // Per class: position in depth-first pre and post order of the super class
+  // tree or NO_ID if the class is not part of the tree
+  private final IntBuffer m_aPreOrder;
+  private final IntBuffer m_aPostOrder;
+  // Adjacency lists: start index per class (count + 1 entries) and targets.
+  // The interfaces of a class include all indirectly implemented ones and are
+  // sorted by ID.
+  private final IntBuffer m_aInterfaceStart;
+  private final IntBuffer m_aInterfaces;
+  private final IntBuffer m_aCallerStart;
+  private final IntBuffer m_aCallers;
+  // Class names: start char per class (count + 1 entries) and all chars
+  private final IntBuffer m_aNameStart;
+  private final CharBuffer m_aNameChars;
+  // Open addressing hash table from name to ID + 1 - size is a power of 2
+  private final IntBuffer m_aNameTable;
+  private final int m_nNameTableMask;
+
+  @Nonnull
+  private static ByteBuffer _slice (@Nonnull final ByteBuffer aBuffer,
+                                    @Nonnegative final int nByteOfs,
+                                    @Nonnegative final int nByteLen)
+  {
+    final ByteBuffer aDup = aBuffer.duplicate ();
+    // Call the methods on Buffer, because the covariant ByteBuffer overrides
+    // don't exist on Java 8
+    ((Buffer) aDup).position (nByteOfs);
+    ((Buffer) aDup).limit (nByteOfs + nByteLen);
+    return aDup.slice ();
+  }
+
+  /**
+   * Constructor
+   *
+   * @param aBuffer
+   *        The buffer with the complete index image as created by
+   *        <code>createImage</code> or read from a file. May not be
+   *        <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the buffer does not contain a valid index
+   */
+  ClassHierarchyIndex (@Nonnull final ByteBuffer aBuffer)
+  {
+    ValueEnforcer.notNull (aBuffer, "Buffer");
+    if (aBuffer.capacity () < HEADER_INTS * 4)
+      throw new IllegalArgumentException ("Class hierarchy index is too short");
+    final IntBuffer aHeader = aBuffer.asIntBuffer ();
+    if (aHeader.get (0) != MAGIC || aHeader.get (1) != VERSION)
+      throw new IllegalArgumentException ("Not a class hierarchy index of version " + VERSION);
+    m_aBuffer = aBuffer;
+    m_nCreationTime = ((long) aHeader.get (2) << 32) | (aHeader.get (3) & 0xffffffffL);
+    final int nClasses = aHeader.get (4);
+    final int nInterfaceEdges = aHeader.get (5);
+    final int nCallEdges = aHeader.get (6);
+    final int nTableSize = aHeader.get (7);
+    final int nNameChars = aHeader.get (8);
+    m_nClassCount = nClasses;
+
+    int nOfs = HEADER_INTS * 4;
+    m_aSuper = _slice (aBuffer, nOfs, nClasses * 4).asIntBuffer ();
+    nOfs += nClasses * 4;
+    m_aAccess = _slice (aBuffer, nOfs, nClasses * 4).asIntBuffer ();
+    nOfs += nClasses * 4;
+    m_aPreOrder = _slice (aBuffer, nOfs, nClasses * 4).asIntBuffer ();
+    nOfs += nClasses * 4;
+    m_aPostOrder = _slice (aBuffer, nOfs, nClasses * 4).asIntBuffer ();
+    nOfs += nClasses * 4;
+    m_aInterfaceStart = _slice (aBuffer, nOfs, (nClasses + 1) * 4).asIntBuffer ();
+    nOfs += (nClasses + 1) * 4;
+    m_aInterfaces = _slice (aBuffer, nOfs, nInterfaceEdges * 4).asIntBuffer ();
+    nOfs += nInterfaceEdges * 4;
+    m_aCallerStart = _slice (aBuffer, nOfs, (nClasses + 1) * 4).asIntBuffer ();
+    nOfs += (nClasses + 1) * 4;
+    m_aCallers = _slice (aBuffer, nOfs, nCallEdges * 4).asIntBuffer ();
+    nOfs += nCallEdges * 4;
+    m_aNameStart = _slice (aBuffer, nOfs, (nClasses + 1) * 4).asIntBuffer ();
+    nOfs += (nClasses + 1) * 4;
+    m_aNameTable = _slice (aBuffer, nOfs, nTableSize * 4).asIntBuffer ();
+    nOfs += nTableSize * 4;
+    m_aNameChars = _slice (aBuffer, nOfs, nNameChars * 2).asCharBuffer ();
+    m_nNameTableMask = nTableSize - 1;
+  }
+
+  /**
+   * @return The time in milliseconds when the index was built.
+   */
+  public long getCreationTime ()
+  {
+    return m_nCreationTime;
+  }
+
+  /**
+   * @return The number of known classes, including classes that were only
+   *         referenced. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getClassCount ()
+  {
+    return m_nClassCount;
+  }
+
+  static int getHash (@Nonnull final String sClassName)
+  {
+    final int h = sClassName.hashCode ();
+    return h ^ (h >>> 16);
+  }
+
+  private boolean _isName (final int nID, @Nonnull final String sClassName)
+  {
+    final int nStart = m_aNameStart.get (nID);
+    final int nLen = m_aNameStart.get (nID + 1) - nStart;
+    if (nLen != sClassName.length ())
+      return false;
+    for (int i = 0; i < nLen; ++i)
+      if (m_aNameChars.get (nStart + i) != sClassName.charAt (i))
+        return false;
+    return true;
+  }
+
+  /**
+   * Get the ID of the passed class.
+   *
+   * @param sClassName
+   *        The internal class name. May be <code>null</code>.
+   * @return {@link #NO_ID} if the class is unknown.
+   */
+  public int getID (@Nullable final String sClassName)
+  {
+    if (sClassName == null || m_nClassCount == 0)
+      return NO_ID;
+    int nSlot = getHash (sClassName) & m_nNameTableMask;
+    while (true)
+    {
+      final int nValue = m_aNameTable.get (nSlot);
+      if (nValue == 0)
+        return NO_ID;
+      if (_isName (nValue - 1, sClassName))
+        return nValue - 1;
+      nSlot = (nSlot + 1) & m_nNameTableMask;
+    }
+  }
+
+  /**
+   * @param nID
+   *        Class ID
+   * @return The internal name of the class with the passed ID.
+   */
+  @Nonnull
+  public String getClassName (@Nonnegative final int nID)
+  {
+    final int nStart = m_aNameStart.get (nID);
+    final int nEnd = m_aNameStart.get (nID + 1);
+    final char [] aChars = new char [nEnd - nStart];
+    for (int i = 0; i < aChars.length; ++i)
+      aChars[i] = m_aNameChars.get (nStart + i);
+    return new String (aChars);
+  }
+
+  /**
+   * @param sClassName
+   *        The internal class name. May be <code>null</code>.
+   * @return <code>true</code> if the class itself was scanned and not only
+   *         referenced by another class.
+   */
+  public boolean isScanned (@Nullable final String sClassName)
+  {
+    final int nID = getID (sClassName);
+    return nID != NO_ID && m_aAccess.get (nID) != NO_ID;
+  }
+
+  /**
+   * @param sClassName
+   *        The internal class name. May be <code>null</code>.
+   * @return The access flags of the class or {@link #NO_ID} if the class was
+   *         not scanned.
+   */
+  public int getAccess (@Nullable final String sClassName)
+  {
+    final int nID = getID (sClassName);
+    return nID == NO_ID ? NO_ID : m_aAccess.get (nID);
+  }
+
+  /**
+   * @param sClassName
+   *        The internal class name. May be <code>null</code>.
+   * @return The internal name of the direct super class or <code>null</code>
+   *         if it is unknown.
+   */
+  @Nullable
+  public String getSuperClassName (@Nullable final String sClassName)
+  {
+    final int nID = getID (sClassName);
+    if (nID == NO_ID)
+      return null;
+    final int nSuperID = m_aSuper.get (nID);
+    return nSuperID == NO_ID ? null : getClassName (nSuperID);
+  }
+
+  /**
+   * Check if one class is a direct or indirect subclass of another class. This
+   * is a constant time operation. If a class in between was not scanned (e.g.
+   * a JDK class), the chain ends there.
+   *
+   * @param nClassID
+   *        The ID of the potential subclass
+   * @param nSuperClassID
+   *        The ID of the potential super class
+   * @return <code>true</code> if the first class is a subclass of the second
+   *         one. A class is not a subclass of itself.
+   */
+  public boolean isSubclassOf (final int nClassID, final int nSuperClassID)
+  {
+    if (nClassID == NO_ID || nSuperClassID == NO_ID || nClassID == nSuperClassID)
+      return false;
+    final int nPre = m_aPreOrder.get (nClassID);
+    final int nSuperPre = m_aPreOrder.get (nSuperClassID);
+    if (nPre == NO_ID || nSuperPre == NO_ID)
+      return false;
+    return nSuperPre < nPre && m_aPostOrder.get (nClassID) < m_aPostOrder.get (nSuperClassID);
+  }
+
+  /**
+   * Check if one class is a direct or indirect subclass of another class. This
+   * is a constant time operation besides the name lookup.
+   *
+   * @param sClassName
+   *        The internal name of the potential subclass. May be
+   *        <code>null</code>.
+   * @param sSuperClassName
+   *        The internal name of the potential super class. May be
+   *        <code>null</code>.
+   * @return <code>true</code> if the first class is a subclass of the second
+   *         one.
+   * @see #isSubclassOf(int, int)
+   */
+  public boolean isSubclassOf (@Nullable final String sClassName, @Nullable final String sSuperClassName)
+  {
+    return isSubclassOf (getID (sClassName), getID (sSuperClassName));
+  }
+
+  /**
+   * Check if a class directly or indirectly implements an interface. The
+   * interfaces of all super classes and super interfaces are resolved when
+   * the index is built, so this is a binary search in the (usually very
+   * short) sorted interface list of the class and does not walk the graph.
+   *
+   * @param sClassName
+   *        The internal name of the class. May be <code>null</code>.
+   * @param sInterfaceName
+   *        The internal name of the interface. May be <code>null</code>.
+   * @return <code>true</code> if the class implements the interface.
+   */
+  public boolean isImplementing (@Nullable final String sClassName, @Nullable final String sInterfaceName)
+  {
+    final int nID = getID (sClassName);
+    final int nInterfaceID = getID (sInterfaceName);
+    if (nID == NO_ID || nInterfaceID == NO_ID)
+      return false;
+
+    int nLow = m_aInterfaceStart.get (nID);
+    int nHigh = m_aInterfaceStart.get (nID + 1) - 1;
+    while (nLow <= nHigh)
+    {
+      final int nMid = (nLow + nHigh) >>> 1;
+      final int nMidID = m_aInterfaces.get (nMid);
+      if (nMidID == nInterfaceID)
+        return true;
+      if (nMidID < nInterfaceID)
+        nLow = nMid + 1;
+      else
+        nHigh = nMid - 1;
+    }
+    return false;
+  }
+
+  /**
+   * @param sClassName
+   *        The internal name of the called class. May be <code>null</code>.
+   * @return The number of classes invoking a static method of the passed
+   *         class. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getCallerCount (@Nullable final String sClassName)
+  {
+    final int nID = getID (sClassName);
+    return nID == NO_ID ? 0 : m_aCallerStart.get (nID + 1) - m_aCallerStart.get (nID);
+  }
+
+  /**
+   * @param sClassName
+   *        The internal name of the called class. May be <code>null</code>.
+   * @return The internal names of all classes invoking a static method of the
+   *         passed class. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <String> getAllCallers (@Nullable final String sClassName)
+  {
+    final ICommonsList <String> ret = new CommonsArrayList <> ();
+    final int nID = getID (sClassName);
+    if (nID != NO_ID)
+      for (int i = m_aCallerStart.get (nID); i < m_aCallerStart.get (nID + 1); ++i)
+        ret.add (getClassName (m_aCallers.get (i)));
+    return ret;
+  }
+
+  /**
+   * Write this index to the passed file. The file is written to a temporary
+   * file first and then moved.
+   *
+   * @param aFile
+   *        The file to write to. May not be <code>null</code>.
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void writeTo (@Nonnull final File aFile) throws IOException
+  {
+    ValueEnforcer.notNull (aFile, "File");
+    Files.createDirectories (aFile.getAbsoluteFile ().getParentFile ().toPath ());
+    final File aTmpFile = new File (aFile.getAbsolutePath () + ".tmp");
+    try (final FileChannel aChannel = FileChannel.open (aTmpFile.toPath (),
+                                                        StandardOpenOption.CREATE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING,
+                                                        StandardOpenOption.WRITE))
+    {
+      final ByteBuffer aDup = m_aBuffer.duplicate ();
+      ((Buffer) aDup).clear ();
+      while (aDup.hasRemaining ())
+        aChannel.write (aDup);
+    }
+    Files.move (aTmpFile.toPath (), aFile.toPath (), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("CreationTime", m_nCreationTime)
+                                       .append ("ClassCount", m_nClassCount)
+                                       .append ("CallEdges", m_aCallers.capacity ())
+                                       .getToString ();
+  }
+
+  /**
+   * Create the binary image of an index. Class IDs are the indices into the
+   * name array and all per class arrays; adjacency lists are passed as start
+   * index per class (class count + 1 entries) and the concatenated targets.
+   *
+   * @return The buffer to be passed to the constructor.
+   */
+  @Nonnull
+  static ByteBuffer createImage (final long nCreationTime,
+                                 @Nonnull final int [] aSuper,
+                                 @Nonnull final int [] aAccess,
+                                 @Nonnull final int [] aPreOrder,
+                                 @Nonnull final int [] aPostOrder,
+                                 @Nonnull final int [] aInterfaceStart,
+                                 @Nonnull final int [] aInterfaces,
+                                 @Nonnull final int [] aCallerStart,
+                                 @Nonnull final int [] aCallers,
+                                 @Nonnull final String [] aNames)
+  {
+    final int nClasses = aNames.length;
+    final int [] aNameStart = new int [nClasses + 1];
+    for (int i = 0; i < nClasses; ++i)
+      aNameStart[i + 1] = aNameStart[i] + aNames[i].length ();
+
+    // At most half full
+    final int nTableSize = Integer.highestOneBit (Math.max (1, nClasses) * 2 - 1) << 1;
+    final int [] aNameTable = new int [nTableSize];
+    for (int i = 0; i < nClasses; ++i)
+    {
+      int nSlot = getHash (aNames[i]) & (nTableSize - 1);
+      while (aNameTable[nSlot] != 0)
+        nSlot = (nSlot + 1) & (nTableSize - 1);
+      aNameTable[nSlot] = i + 1;
+    }
+
+    final int nInts = HEADER_INTS +
+                      4 * nClasses +
+                      aInterfaceStart.length +
+                      aInterfaces.length +
+                      aCallerStart.length +
+                      aCallers.length +
+                      aNameStart.length +
+                      nTableSize;
+    final int nChars = aNameStart[nClasses];
+    final ByteBuffer ret = ByteBuffer.allocate (nInts * 4 + nChars * 2);
+    ret.putInt (MAGIC)
+       .putInt (VERSION)
+       .putLong (nCreationTime)
+       .putInt (nClasses)
+       .putInt (aInterfaces.length)
+       .putInt (aCallers.length)
+       .putInt (nTableSize)
+       .putInt (nChars);
+    final IntBuffer aInts = ret.asIntBuffer ();
+    aInts.put (aSuper)
+         .put (aAccess)
+         .put (aPreOrder)
+         .put (aPostOrder)
+         .put (aInterfaceStart)
+         .put (aInterfaces)
+         .put (aCallerStart)
+         .put (aCallers)
+         .put (aNameStart)
+         .put (aNameTable);
+    ((Buffer) ret).position (nInts * 4);
+    final CharBuffer aCharBuffer = ret.asCharBuffer ();
+    for (final String sName : aNames)
+      aCharBuffer.put (sName);
+    ((Buffer) ret).clear ();
+    return ret;
+  }
+
+  /**
+   * Open an index file by memory mapping it.
+   *
+   * @param aFile
+   *        The file to read. May not be <code>null</code>.
+   * @return The index. Never <code>null</code>.
+   * @throws IOException
+   *         If the file cannot be read or is not a valid index
+   */
+  @Nonnull
+  public static ClassHierarchyIndex readFrom (@Nonnull final File aFile) throws IOException
+  {
+    ValueEnforcer.notNull (aFile, "File");
+    try (final RandomAccessFile aRAF = new RandomAccessFile (aFile, "r");
+         final FileChannel aChannel = aRAF.getChannel ())
+    {
+      // The mapping stays valid after the channel is closed
+      final ByteBuffer aBuffer = aChannel.map (FileChannel.MapMode.READ_ONLY, 0, aChannel.size ());
+      return new ClassHierarchyIndex (aBuffer);
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      throw new IOException ("Failed to read class hierarchy index " + aFile, ex);
+    }
+  }
+
+  /**
+   * Open the index at the {@link #DEFAULT_FILE default location}, if it
+   * exists.
+   *
+   * @return <code>null</code> if there is no index or if it cannot be read.
+   */
+  @Nullable
+  public static ClassHierarchyIndex readDefault ()
+  {
+    if (!DEFAULT_FILE.isFile ())
+      return null;
+    try
+    {
+      return readFrom (DEFAULT_FILE);
+    }
+    catch (final IOException ex)
+    {
+      s_aLogger.warn ("Failed to read class hierarchy index " + DEFAULT_FILE + " - ignoring it", ex);
+      return null;
+    }
+  }
+}
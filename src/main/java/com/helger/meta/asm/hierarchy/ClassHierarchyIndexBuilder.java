@@ -0,0 +1,276 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.hierarchy;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.CommonsTreeSet;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.commons.collection.ext.ICommonsNavigableSet;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * Collects {@link ClassHierarchyEntry} objects and builds a
+ * {@link ClassHierarchyIndex} from them. If the same class is added more than
+ * once (e.g. because it is contained in multiple projects), the first one
+ * wins.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class ClassHierarchyIndexBuilder
+{
+  private final ICommonsMap <String, Integer> m_aIDs = new CommonsHashMap <> ();
+  private final ICommonsList <String> m_aNames = new CommonsArrayList <> ();
+  // Per class ID - only set for added classes
+  private int [] m_aSuper = new int [0];
+  private int [] m_aAccess = new int [0];
+  private int [] [] m_aInterfaces = new int [0] [];
+  private int [] [] m_aCallees = new int [0] [];
+  private int m_nAddedCount = 0;
+
+  public ClassHierarchyIndexBuilder ()
+  {}
+
+  private int _getID (@Nonnull final String sClassName)
+  {
+    final Integer aID = m_aIDs.get (sClassName);
+    if (aID != null)
+      return aID.intValue ();
+
+    final int nID = m_aNames.size ();
+    m_aIDs.put (sClassName, Integer.valueOf (nID));
+    m_aNames.add (sClassName);
+    if (nID == m_aSuper.length)
+    {
+      final int nNewLength = Math.max (256, nID * 2);
+      m_aSuper = Arrays.copyOf (m_aSuper, nNewLength);
+      m_aAccess = Arrays.copyOf (m_aAccess, nNewLength);
+      m_aInterfaces = Arrays.copyOf (m_aInterfaces, nNewLength);
+      m_aCallees = Arrays.copyOf (m_aCallees, nNewLength);
+    }
+    m_aSuper[nID] = ClassHierarchyIndex.NO_ID;
+    m_aAccess[nID] = ClassHierarchyIndex.NO_ID;
+    return nID;
+  }
+
+  @Nonnull
+  private int [] _getIDs (@Nonnull final Iterable <String> aClassNames)
+  {
+    final ICommonsList <String> aList = new CommonsArrayList <> (aClassNames);
+    final int [] ret = new int [aList.size ()];
+    for (int i = 0; i < ret.length; ++i)
+      ret[i] = _getID (aList.get (i));
+    return ret;
+  }
+
+  /**
+   * Add a single class.
+   *
+   * @param aEntry
+   *        The entry to add. May not be <code>null</code>.
+   * @return <code>true</code> if it was added, <code>false</code> if a class
+   *         with the same name was already added.
+   */
+  public boolean add (@Nonnull final ClassHierarchyEntry aEntry)
+  {
+    ValueEnforcer.notNull (aEntry, "Entry");
+
+    final int nID = _getID (aEntry.getClassName ());
+    if (m_aAccess[nID] != ClassHierarchyIndex.NO_ID)
+      return false;
+
+    m_aAccess[nID] = aEntry.getAccess ();
+    final String sSuperName = aEntry.getSuperName ();
+    m_aSuper[nID] = sSuperName == null ? ClassHierarchyIndex.NO_ID : _getID (sSuperName);
+    m_aInterfaces[nID] = _getIDs (aEntry.getAllInterfaces ());
+    m_aCallees[nID] = _getIDs (aEntry.getAllStaticCallees ());
+    m_nAddedCount++;
+    return true;
+  }
+
+  /**
+   * @return The number of added classes. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getAddedCount ()
+  {
+    return m_nAddedCount;
+  }
+
+  @Nonnull
+  private static int [] _getAdjacencyStart (@Nonnull final int [] [] aLists, @Nonnegative final int nCount)
+  {
+    final int [] ret = new int [nCount + 1];
+    for (int i = 0; i < nCount; ++i)
+      ret[i + 1] = ret[i] + (aLists[i] == null ? 0 : aLists[i].length);
+    return ret;
+  }
+
+  /**
+   * Get all interfaces the passed class implements directly, via its super
+   * classes or via super interfaces. The results are memoized in the passed
+   * array.
+   *
+   * @return The interface IDs in ascending order. Never <code>null</code>.
+   */
+  @Nonnull
+  private int [] _getAllInterfaces (@Nonnegative final int nID,
+                                    @Nonnull final int [] aSuper,
+                                    @Nonnull final int [] [] aAllInterfaces,
+                                    @Nonnull final boolean [] aInProgress)
+  {
+    if (aAllInterfaces[nID] != null)
+      return aAllInterfaces[nID];
+    // Protection against inconsistent data with cycles
+    if (aInProgress[nID])
+      return new int [0];
+    aInProgress[nID] = true;
+
+    final ICommonsNavigableSet <Integer> aSet = new CommonsTreeSet <> ();
+    if (m_aInterfaces[nID] != null)
+      for (final int nInterface : m_aInterfaces[nID])
+      {
+        aSet.add (Integer.valueOf (nInterface));
+        for (final int nSuperInterface : _getAllInterfaces (nInterface, aSuper, aAllInterfaces, aInProgress))
+          aSet.add (Integer.valueOf (nSuperInterface));
+      }
+    if (aSuper[nID] != ClassHierarchyIndex.NO_ID)
+      for (final int nInterface : _getAllInterfaces (aSuper[nID], aSuper, aAllInterfaces, aInProgress))
+        aSet.add (Integer.valueOf (nInterface));
+
+    final int [] ret = new int [aSet.size ()];
+    int nIndex = 0;
+    for (final Integer aInterface : aSet)
+      ret[nIndex++] = aInterface.intValue ();
+    aAllInterfaces[nID] = ret;
+    return ret;
+  }
+
+  /**
+   * Build the index from all classes added so far.
+   *
+   * @return The new in-memory index. Never <code>null</code>.
+   */
+  @Nonnull
+  public ClassHierarchyIndex build ()
+  {
+    final int nCount = m_aNames.size ();
+    final int [] aSuper = Arrays.copyOf (m_aSuper, nCount);
+    final int [] aAccess = Arrays.copyOf (m_aAccess, nCount);
+
+    // Number the super class forest in depth-first pre and post order. Classes
+    // in a (broken) cycle are never reached from a root and stay unnumbered.
+    final int [] aFirstChild = new int [nCount];
+    final int [] aNextSibling = new int [nCount];
+    Arrays.fill (aFirstChild, ClassHierarchyIndex.NO_ID);
+    for (int i = nCount - 1; i >= 0; --i)
+    {
+      final int nSuper = aSuper[i];
+      aNextSibling[i] = nSuper == ClassHierarchyIndex.NO_ID ? ClassHierarchyIndex.NO_ID : aFirstChild[nSuper];
+      if (nSuper != ClassHierarchyIndex.NO_ID)
+        aFirstChild[nSuper] = i;
+    }
+    final int [] aPreOrder = new int [nCount];
+    final int [] aPostOrder = new int [nCount];
+    Arrays.fill (aPreOrder, ClassHierarchyIndex.NO_ID);
+    Arrays.fill (aPostOrder, ClassHierarchyIndex.NO_ID);
+    // Next child to visit per class
+    final int [] aCursor = new int [nCount];
+    final int [] aStack = new int [nCount];
+    int nOrder = 0;
+    for (int nRoot = 0; nRoot < nCount; ++nRoot)
+      if (aSuper[nRoot] == ClassHierarchyIndex.NO_ID)
+      {
+        int nStackSize = 0;
+        aStack[nStackSize++] = nRoot;
+        aPreOrder[nRoot] = nOrder++;
+        aCursor[nRoot] = aFirstChild[nRoot];
+        while (nStackSize > 0)
+        {
+          final int nTop = aStack[nStackSize - 1];
+          final int nChild = aCursor[nTop];
+          if (nChild != ClassHierarchyIndex.NO_ID)
+          {
+            aCursor[nTop] = aNextSibling[nChild];
+            aPreOrder[nChild] = nOrder++;
+            aCursor[nChild] = aFirstChild[nChild];
+            aStack[nStackSize++] = nChild;
+          }
+          else
+          {
+            aPostOrder[nTop] = nOrder++;
+            nStackSize--;
+          }
+        }
+      }
+
+    // All directly and indirectly implemented interfaces as adjacency list
+    final int [] [] aAllInterfaces = new int [nCount] [];
+    final boolean [] aInProgress = new boolean [nCount];
+    for (int i = 0; i < nCount; ++i)
+      _getAllInterfaces (i, aSuper, aAllInterfaces, aInProgress);
+    final int [] aInterfaceStart = _getAdjacencyStart (aAllInterfaces, nCount);
+    final int [] aInterfaces = new int [aInterfaceStart[nCount]];
+    for (int i = 0; i < nCount; ++i)
+      System.arraycopy (aAllInterfaces[i], 0, aInterfaces, aInterfaceStart[i], aAllInterfaces[i].length);
+
+    // Reverse the static calls - callers end up sorted by ID
+    final int [] aCallerStart = new int [nCount + 1];
+    for (int i = 0; i < nCount; ++i)
+      if (m_aCallees[i] != null)
+        for (final int nCallee : m_aCallees[i])
+          aCallerStart[nCallee + 1]++;
+    for (int i = 0; i < nCount; ++i)
+      aCallerStart[i + 1] += aCallerStart[i];
+    final int [] aCallers = new int [aCallerStart[nCount]];
+    final int [] aFill = Arrays.copyOf (aCallerStart, nCount);
+    for (int i = 0; i < nCount; ++i)
+      if (m_aCallees[i] != null)
+        for (final int nCallee : m_aCallees[i])
+          aCallers[aFill[nCallee]++] = i;
+
+    final ByteBuffer aImage = ClassHierarchyIndex.createImage (System.currentTimeMillis (),
+                                                               aSuper,
+                                                               aAccess,
+                                                               aPreOrder,
+                                                               aPostOrder,
+                                                               aInterfaceStart,
+                                                               aInterfaces,
+                                                               aCallerStart,
+                                                               aCallers,
+                                                               m_aNames.toArray (new String [nCount]));
+    return new ClassHierarchyIndex (aImage);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("ClassCount", m_aNames.size ())
+                                       .append ("AddedCount", m_nAddedCount)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,341 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.source;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.commons.concurrent.BasicThreadFactory;
+import com.helger.commons.string.StringParser;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.asm.ClassFileBuffer;
+
+/**
+ * A bounded producer/consumer pipeline for class files. Reader threads read
+ * the class file bytes, worker threads parse them and the calling thread
+ * collects the results in the original order. This way disk latency and CPU
+ * bound parsing overlap.<br>
+ * The number of class files that are read but not yet collected is limited by
+ * the capacity, so that the memory consumption stays bounded independent of
+ * the number of class files. The class files are read into pooled
+ * {@link ClassFileBuffer} objects, so that no byte array is allocated per
+ * class file.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class ClassFilePipeline
+{
+  /** The system property to define the number of reader threads */
+  public static final String SYSTEM_PROPERTY_READERS = "meta.pipeline.readers";
+  /** The system property to define the number of parser threads */
+  public static final String SYSTEM_PROPERTY_WORKERS = "meta.pipeline.workers";
+  /** The system property to define the maximum number of pending class files */
+  public static final String SYSTEM_PROPERTY_CAPACITY = "meta.pipeline.capacity";
+
+  public static final int DEFAULT_READERS = 2;
+  public static final int DEFAULT_WORKERS = 2;
+  public static final int DEFAULT_CAPACITY = 256;
+  /** Below this number of class files no threads are used at all */
+  public static final int MIN_PARALLEL_ENTRIES = 32;
+
+  private static final AtomicInteger s_aPipelineIndex = new AtomicInteger (0);
+
+  private static final class Item <R>
+  {
+    private final int m_nIndex;
+    private final IClassFileEntry m_aEntry;
+    private ClassFileBuffer m_aBuffer;
+    private R m_aResult;
+    private Throwable m_aError;
+
+    Item (final int nIndex, @Nonnull final IClassFileEntry aEntry)
+    {
+      m_nIndex = nIndex;
+      m_aEntry = aEntry;
+    }
+  }
+
+  private final int m_nReaders;
+  private final int m_nWorkers;
+  private final int m_nCapacity;
+
+  public ClassFilePipeline (@Nonnegative final int nReaders,
+                            @Nonnegative final int nWorkers,
+                            @Nonnegative final int nCapacity)
+  {
+    ValueEnforcer.isGT0 (nReaders, "Readers");
+    ValueEnforcer.isGT0 (nWorkers, "Workers");
+    ValueEnforcer.isGT0 (nCapacity, "Capacity");
+    m_nReaders = nReaders;
+    m_nWorkers = nWorkers;
+    m_nCapacity = nCapacity;
+  }
+
+  @Nonnegative
+  public int getReaders ()
+  {
+    return m_nReaders;
+  }
+
+  @Nonnegative
+  public int getWorkers ()
+  {
+    return m_nWorkers;
+  }
+
+  @Nonnegative
+  public int getCapacity ()
+  {
+    return m_nCapacity;
+  }
+
+  /**
+   * Process all passed class files.
+   *
+   * @param aEntries
+   *        The class files to process. May not be <code>null</code>.
+   * @param aShortcut
+   *        An optional function that is invoked before a class file is read.
+   *        If it returns a non-<code>null</code> result, the class file is
+   *        neither read nor parsed. Must be thread-safe. May be
+   *        <code>null</code>.
+   * @param aParser
+   *        The function that parses the content of a single class file. Must
+   *        be thread-safe and must not keep a reference to the buffer, as it
+   *        is reused for other class files. May not be <code>null</code>.
+   * @param aCollector
+   *        The collector that receives all results in the order of the
+   *        entries on the calling thread. May not be <code>null</code>.
+   * @throws IOException
+   *         If reading a class file or collecting fails
+   * @param <R>
+   *        The result type per class file
+   */
+  public <R> void process (@Nonnull final List <? extends IClassFileEntry> aEntries,
+                           @Nullable final Function <? super IClassFileEntry, ? extends R> aShortcut,
+                           @Nonnull final BiFunction <? super IClassFileEntry, ClassFileBuffer, ? extends R> aParser,
+                           @Nonnull final IClassFileCollector <? super R> aCollector) throws IOException
+  {
+    ValueEnforcer.notNull (aEntries, "Entries");
+    ValueEnforcer.notNull (aParser, "Parser");
+    ValueEnforcer.notNull (aCollector, "Collector");
+
+    final int nEntries = aEntries.size ();
+    if (nEntries < MIN_PARALLEL_ENTRIES)
+    {
+      // Not worth the thread overhead
+      final ClassFileBuffer aBuffer = ClassFileBuffer.getPerThread ();
+      for (final IClassFileEntry aEntry : aEntries)
+      {
+        R aResult = aShortcut == null ? null : aShortcut.apply (aEntry);
+        if (aResult == null)
+        {
+          aEntry.readInto (aBuffer);
+          aResult = aParser.apply (aEntry, aBuffer);
+        }
+        aCollector.collect (aEntry, aResult);
+      }
+      return;
+    }
+
+    // One permit per class file between reading and collecting
+    final Semaphore aPermits = new Semaphore (m_nCapacity);
+    final AtomicInteger aNextIndex = new AtomicInteger (0);
+    // The queues are unbounded but limited by the permits
+    final BlockingQueue <Item <?>> aReadQueue = new LinkedBlockingQueue <> ();
+    final BlockingQueue <Item <?>> aDoneQueue = new LinkedBlockingQueue <> ();
+    // At most one buffer per permit is ever created
+    final Queue <ClassFileBuffer> aBufferPool = new ConcurrentLinkedQueue <> ();
+
+    final Runnable aReader = () -> {
+      try
+      {
+        while (true)
+        {
+          aPermits.acquire ();
+          final int nIndex = aNextIndex.getAndIncrement ();
+          if (nIndex >= nEntries)
+          {
+            aPermits.release ();
+            return;
+          }
+
+          final Item <R> aItem = new Item <> (nIndex, aEntries.get (nIndex));
+          try
+          {
+            aItem.m_aResult = aShortcut == null ? null : aShortcut.apply (aItem.m_aEntry);
+            if (aItem.m_aResult != null)
+            {
+              aDoneQueue.add (aItem);
+              continue;
+            }
+            ClassFileBuffer aBuffer = aBufferPool.poll ();
+            if (aBuffer == null)
+              aBuffer = new ClassFileBuffer ();
+            aItem.m_aBuffer = aBuffer;
+            aItem.m_aEntry.readInto (aBuffer);
+            aReadQueue.add (aItem);
+          }
+          catch (final Throwable t)
+          {
+            aItem.m_aError = t;
+            if (aItem.m_aBuffer != null)
+            {
+              aBufferPool.add (aItem.m_aBuffer);
+              aItem.m_aBuffer = null;
+            }
+            aDoneQueue.add (aItem);
+          }
+        }
+      }
+      catch (final InterruptedException ex)
+      {
+        // Pipeline was shut down
+        Thread.currentThread ().interrupt ();
+      }
+    };
+
+    final Runnable aWorker = () -> {
+      try
+      {
+        while (true)
+        {
+          @SuppressWarnings ("unchecked")
+          final Item <R> aItem = (Item <R>) aReadQueue.take ();
+          try
+          {
+            aItem.m_aResult = aParser.apply (aItem.m_aEntry, aItem.m_aBuffer);
+          }
+          catch (final Throwable t)
+          {
+            aItem.m_aError = t;
+          }
+          // Reuse the buffer for the next class file
+          aBufferPool.add (aItem.m_aBuffer);
+          aItem.m_aBuffer = null;
+          aDoneQueue.add (aItem);
+        }
+      }
+      catch (final InterruptedException ex)
+      {
+        // Pipeline was shut down
+        Thread.currentThread ().interrupt ();
+      }
+    };
+
+    final String sNamingPattern = "class-pipeline-" + s_aPipelineIndex.incrementAndGet () + "-%d";
+    final ThreadFactory aThreadFactory = new BasicThreadFactory.Builder ().setNamingPattern (sNamingPattern)
+                                                                         .setDaemon (true)
+                                                                         .build ();
+    final ExecutorService aExecutor = Executors.newFixedThreadPool (m_nReaders + m_nWorkers, aThreadFactory);
+    try
+    {
+      for (int i = 0; i < m_nReaders; ++i)
+        aExecutor.execute (aReader);
+      for (int i = 0; i < m_nWorkers; ++i)
+        aExecutor.execute (aWorker);
+
+      // Collect in the original order - results that arrive too early are
+      // kept until it is their turn
+      final ICommonsMap <Integer, Item <?>> aPending = new CommonsHashMap <> ();
+      for (int nIndex = 0; nIndex < nEntries; ++nIndex)
+      {
+        Item <?> aItem = aPending.remove (Integer.valueOf (nIndex));
+        while (aItem == null)
+        {
+          final Item <?> aDone = aDoneQueue.take ();
+          if (aDone.m_nIndex == nIndex)
+            aItem = aDone;
+          else
+            aPending.put (Integer.valueOf (aDone.m_nIndex), aDone);
+        }
+        aPermits.release ();
+
+        if (aItem.m_aError != null)
+          _rethrow (aItem.m_aEntry, aItem.m_aError);
+
+        @SuppressWarnings ("unchecked")
+        final R aResult = (R) aItem.m_aResult;
+        aCollector.collect (aItem.m_aEntry, aResult);
+      }
+    }
+    catch (final InterruptedException ex)
+    {
+      Thread.currentThread ().interrupt ();
+      throw new IllegalStateException ("Interrupted while processing class files", ex);
+    }
+    finally
+    {
+      aExecutor.shutdownNow ();
+    }
+  }
+
+  private static void _rethrow (@Nonnull final IClassFileEntry aEntry, @Nonnull final Throwable t) throws IOException
+  {
+    if (t instanceof IOException)
+      throw (IOException) t;
+    if (t instanceof RuntimeException)
+      throw (RuntimeException) t;
+    if (t instanceof Error)
+      throw (Error) t;
+    throw new IllegalStateException ("Error processing " + aEntry.getPath (), t);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Readers", m_nReaders)
+                                       .append ("Workers", m_nWorkers)
+                                       .append ("Capacity", m_nCapacity)
+                                       .getToString ();
+  }
+
+  /**
+   * @return A new pipeline configured by the system properties
+   *         {@value #SYSTEM_PROPERTY_READERS},
+   *         {@value #SYSTEM_PROPERTY_WORKERS} and
+   *         {@value #SYSTEM_PROPERTY_CAPACITY}.
+   */
+  @Nonnull
+  public static ClassFilePipeline createDefault ()
+  {
+    final int nReaders = StringParser.parseInt (System.getProperty (SYSTEM_PROPERTY_READERS), DEFAULT_READERS);
+    final int nWorkers = StringParser.parseInt (System.getProperty (SYSTEM_PROPERTY_WORKERS), DEFAULT_WORKERS);
+    final int nCapacity = StringParser.parseInt (System.getProperty (SYSTEM_PROPERTY_CAPACITY), DEFAULT_CAPACITY);
+    return new ClassFilePipeline (Math.max (1, nReaders), Math.max (1, nWorkers), Math.max (1, nCapacity));
+  }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.source;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.commons.annotation.PresentForCodeCoverage;
+import com.helger.commons.string.StringHelper;
+import com.helger.meta.project.IProject;
+
+/**
+ * Factory for the {@link IClassSource} of a project. By default the exploded
+ * <code>target/classes</code> directory is used. If the system property
+ * {@value #SYSTEM_PROPERTY_CLASS_SOURCE} is set to
+ * {@value #CLASS_SOURCE_JAR} the last published jar from the local Maven
+ * repository is used instead, if it is present. This only applies to the main
+ * classes that are checked themselves - test classes and the main classes they
+ * are matched against are always taken from the target directories.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class ClassSourceFactory
+{
+  /** The system property to select the class source */
+  public static final String SYSTEM_PROPERTY_CLASS_SOURCE = "meta.classsource";
+  /** Use the exploded target directory (default) */
+  public static final String CLASS_SOURCE_DIRECTORY = "dir";
+  /** Use the jar from the local Maven repository */
+  public static final String CLASS_SOURCE_JAR = "jar";
+  /**
+   * The system property to define the local Maven repository. Defaults to
+   * <code>~/.m2/repository</code>.
+   */
+  public static final String SYSTEM_PROPERTY_MAVEN_REPOSITORY = "meta.m2repository";
+
+  private static final Logger s_aLogger = LoggerFactory.getLogger (ClassSourceFactory.class);
+
+  @PresentForCodeCoverage
+  private static final ClassSourceFactory s_aInstance = new ClassSourceFactory ();
+
+  private ClassSourceFactory ()
+  {}
+
+  /**
+   * @return <code>true</code> if jars from the local Maven repository should
+   *         be used.
+   */
+  public static boolean isUseJars ()
+  {
+    return CLASS_SOURCE_JAR.equals (System.getProperty (SYSTEM_PROPERTY_CLASS_SOURCE, CLASS_SOURCE_DIRECTORY));
+  }
+
+  /**
+   * @return The local Maven repository directory. Never <code>null</code>.
+   */
+  @Nonnull
+  public static File getLocalMavenRepository ()
+  {
+    final String sRepo = System.getProperty (SYSTEM_PROPERTY_MAVEN_REPOSITORY);
+    if (StringHelper.hasText (sRepo))
+      return new File (sRepo);
+    return new File (System.getProperty ("user.home"), ".m2/repository");
+  }
+
+  /**
+   * Get the main jar of the last published version of the passed project in
+   * the local Maven repository.
+   *
+   * @param aProject
+   *        The project to use. May not be <code>null</code>.
+   * @return <code>null</code> if the project was never published.
+   */
+  @Nullable
+  public static File getMainJarFile (@Nonnull final IProject aProject)
+  {
+    final String sVersion = aProject.getLastPublishedVersionString ();
+    if (StringHelper.hasNoText (sVersion))
+      return null;
+    final String sArtifactID = aProject.getMavenArtifactID ();
+    return new File (getLocalMavenRepository (),
+                     aProject.getMavenGroupID ().replace ('.', '/') +
+                                                 "/" +
+                                                 sArtifactID +
+                                                 "/" +
+                                                 sVersion +
+                                                 "/" +
+                                                 sArtifactID +
+                                                 "-" +
+                                                 sVersion +
+                                                 ".jar");
+  }
+
+  /**
+   * Create the class source for the main classes of the passed project.
+   *
+   * @param aProject
+   *        The project to use. May not be <code>null</code>.
+   * @return The jar based source if jars are enabled and the jar exists, the
+   *         directory based source otherwise. Never <code>null</code>.
+   * @throws IOException
+   *         If the jar cannot be opened
+   * @see #isUseJars()
+   */
+  @Nonnull
+  public static IClassSource createMainClassSource (@Nonnull final IProject aProject) throws IOException
+  {
+    if (isUseJars ())
+    {
+      final File aJarFile = getMainJarFile (aProject);
+      if (aJarFile != null && aJarFile.isFile ())
+        return new JarClassSource (aJarFile);
+      s_aLogger.info ("No published jar found for " +
+                      aProject.getProjectName () +
+                      " - using the target directory instead");
+    }
+    return new DirectoryClassSource (new File (aProject.getBaseDir (), "target/classes"));
+  }
+}
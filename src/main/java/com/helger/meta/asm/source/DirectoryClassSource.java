@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.source;
+
+import java.io.File;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.io.file.FilenameHelper;
+import com.helger.commons.io.file.iterate.FileSystemRecursiveIterator;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * An {@link IClassSource} reading from an exploded directory like
+ * <code>target/classes</code>. A non-existing directory is treated as empty.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class DirectoryClassSource implements IClassSource
+{
+  private final File m_aBaseDir;
+
+  public DirectoryClassSource (@Nonnull final File aBaseDir)
+  {
+    ValueEnforcer.notNull (aBaseDir, "BaseDir");
+    m_aBaseDir = aBaseDir;
+  }
+
+  /**
+   * @return The base directory. Never <code>null</code>.
+   */
+  @Nonnull
+  public File getBaseDir ()
+  {
+    return m_aBaseDir;
+  }
+
+  @Nonnull
+  @Nonempty
+  public String getDisplayName ()
+  {
+    return m_aBaseDir.getAbsolutePath ();
+  }
+
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <IClassFileEntry> getAllClassFiles ()
+  {
+    final ICommonsList <IClassFileEntry> ret = new CommonsArrayList <> ();
+    for (final File aClassFile : new FileSystemRecursiveIterator (m_aBaseDir))
+      if (aClassFile.isFile () && aClassFile.getName ().endsWith (".class"))
+      {
+        final String sRelativePath = FilenameHelper.getRelativeToParentDirectory (aClassFile, m_aBaseDir);
+        final String sPath = FilenameHelper.getPathUsingUnixSeparator (sRelativePath);
+        ret.add (new FileClassFileEntry (sPath, aClassFile));
+      }
+    return ret;
+  }
+
+  @Override
+  @Nullable
+  public IClassFileEntry getClassFile (@Nullable final String sPath)
+  {
+    if (sPath == null)
+      return null;
+    final File aFile = new File (m_aBaseDir, sPath);
+    return aFile.isFile () ? new FileClassFileEntry (sPath, aFile) : null;
+  }
+
+  public void close ()
+  {
+    // Nothing to close
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("BaseDir", m_aBaseDir).getToString ();
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.source;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.asm.ClassFileBuffer;
+
+/**
+ * A class file on the file system.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class FileClassFileEntry implements IClassFileEntry
+{
+  private final String m_sPath;
+  private final File m_aFile;
+
+  public FileClassFileEntry (@Nonnull @Nonempty final String sPath, @Nonnull final File aFile)
+  {
+    ValueEnforcer.notEmpty (sPath, "Path");
+    ValueEnforcer.notNull (aFile, "File");
+    m_sPath = sPath;
+    m_aFile = aFile;
+  }
+
+  @Nonnull
+  @Nonempty
+  public String getPath ()
+  {
+    return m_sPath;
+  }
+
+  /**
+   * @return The underlying file. Never <code>null</code>.
+   */
+  @Nonnull
+  public File getFile ()
+  {
+    return m_aFile;
+  }
+
+  public long getSize ()
+  {
+    return m_aFile.length ();
+  }
+
+  public long getLastModified ()
+  {
+    return m_aFile.lastModified ();
+  }
+
+  @Nonnull
+  public byte [] getAllBytes () throws IOException
+  {
+    return Files.readAllBytes (m_aFile.toPath ());
+  }
+
+  public void readInto (@Nonnull final ClassFileBuffer aBuffer) throws IOException
+  {
+    aBuffer.readFrom (m_aFile);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Path", m_sPath).append ("File", m_aFile).getToString ();
+  }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.source;
+
+import java.io.IOException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Callback for the results of a {@link ClassFilePipeline}. It is always
+ * invoked on the thread that started the pipeline and in the order of the
+ * passed entries.
+ *
+ * @author Philip Helger
+ * @param <R>
+ *        The result type per class file
+ */
+@FunctionalInterface
+public interface IClassFileCollector <R>
+{
+  /**
+   * Collect the result of a single class file.
+   *
+   * @param aEntry
+   *        The class file. Never <code>null</code>.
+   * @param aResult
+   *        The result as returned by the shortcut or the parser. May be
+   *        <code>null</code> if the parser returned <code>null</code>.
+   * @throws IOException
+   *         on error
+   */
+  void collect (@Nonnull IClassFileEntry aEntry, @Nullable R aResult) throws IOException;
+}
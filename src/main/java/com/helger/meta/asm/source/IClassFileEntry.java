@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.source;
+
+import java.io.IOException;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.io.file.FilenameHelper;
+import com.helger.commons.lang.ClassHelper;
+import com.helger.meta.asm.ClassFileBuffer;
+
+/**
+ * A single class file provided by an {@link IClassSource}.
+ *
+ * @author Philip Helger
+ */
+public interface IClassFileEntry
+{
+  /**
+   * @return The path of the class file relative to the root of the source,
+   *         using '/' as separator. E.g. <code>com/helger/Foo.class</code>.
+   */
+  @Nonnull
+  @Nonempty
+  String getPath ();
+
+  /**
+   * @return The size of the class file in bytes.
+   */
+  @Nonnegative
+  long getSize ();
+
+  /**
+   * @return The last modification time in milliseconds.
+   */
+  long getLastModified ();
+
+  /**
+   * Read the complete class file. The returned bytes can be passed directly
+   * to ASM.
+   *
+   * @return The class file bytes. Never <code>null</code>.
+   * @throws IOException
+   *         on read error
+   */
+  @Nonnull
+  byte [] getAllBytes () throws IOException;
+
+  /**
+   * Read the complete class file into the passed buffer. Contrary to
+   * {@link #getAllBytes()} this does not allocate if the buffer is large
+   * enough.
+   *
+   * @param aBuffer
+   *        The buffer to read into. Its previous content is overwritten. May
+   *        not be <code>null</code>.
+   * @throws IOException
+   *         on read error
+   */
+  void readInto (@Nonnull ClassFileBuffer aBuffer) throws IOException;
+
+  /**
+   * @return The fully qualified class name derived from the path. E.g.
+   *         <code>com.helger.Foo</code>.
+   */
+  @Nonnull
+  @Nonempty
+  default String getClassName ()
+  {
+    return ClassHelper.getClassFromPath (FilenameHelper.getWithoutExtension (getPath ()));
+  }
+
+  /**
+   * @return The file name without the path and without the extension. E.g.
+   *         <code>Foo</code>.
+   */
+  @Nonnull
+  @Nonempty
+  default String getBaseName ()
+  {
+    return FilenameHelper.getBaseName (getPath ());
+  }
+}
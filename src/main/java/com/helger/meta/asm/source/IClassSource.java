@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.source;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.ICommonsList;
+
+/**
+ * Abstraction of a location containing compiled class files, e.g. an exploded
+ * <code>target/classes</code> directory or a built jar file. The source must
+ * be closed after all entries were read.
+ *
+ * @author Philip Helger
+ */
+public interface IClassSource extends Closeable
+{
+  /**
+   * @return A human readable name of this source for logging.
+   */
+  @Nonnull
+  @Nonempty
+  String getDisplayName ();
+
+  /**
+   * @return All class files contained in this source. The bytes of the
+   *         entries can only be read as long as this source is open. Never
+   *         <code>null</code>.
+   * @throws IOException
+   *         on error
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  ICommonsList <IClassFileEntry> getAllClassFiles () throws IOException;
+
+  /**
+   * Find a single class file.
+   *
+   * @param sPath
+   *        The path relative to the root of the source, using '/' as
+   *        separator. May be <code>null</code>.
+   * @return <code>null</code> if no such class file exists.
+   * @throws IOException
+   *         on error
+   */
+  @Nullable
+  default IClassFileEntry getClassFile (@Nullable final String sPath) throws IOException
+  {
+    if (sPath != null)
+      for (final IClassFileEntry aEntry : getAllClassFiles ())
+        if (aEntry.getPath ().equals (sPath))
+          return aEntry;
+    return null;
+  }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.source;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.asm.ClassFileBuffer;
+
+/**
+ * An {@link IClassSource} reading from a jar file via the NIO zip file system.
+ * The entries are read directly from the archive into memory without
+ * extracting anything to disk.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class JarClassSource implements IClassSource
+{
+  private static final class ZipClassFileEntry implements IClassFileEntry
+  {
+    private final String m_sPath;
+    private final Path m_aZipPath;
+    private final long m_nSize;
+    private final long m_nLastModified;
+
+    ZipClassFileEntry (@Nonnull final Path aZipPath) throws IOException
+    {
+      // Zip paths are absolute ("/com/helger/Foo.class")
+      final String sPath = aZipPath.toString ();
+      m_sPath = sPath.startsWith ("/") ? sPath.substring (1) : sPath;
+      m_aZipPath = aZipPath;
+      final BasicFileAttributes aAttrs = Files.readAttributes (aZipPath, BasicFileAttributes.class);
+      m_nSize = aAttrs.size ();
+      m_nLastModified = aAttrs.lastModifiedTime ().toMillis ();
+    }
+
+    @Nonnull
+    @Nonempty
+    public String getPath ()
+    {
+      return m_sPath;
+    }
+
+    public long getSize ()
+    {
+      return m_nSize;
+    }
+
+    public long getLastModified ()
+    {
+      return m_nLastModified;
+    }
+
+    @Nonnull
+    public byte [] getAllBytes () throws IOException
+    {
+      return Files.readAllBytes (m_aZipPath);
+    }
+
+    public void readInto (@Nonnull final ClassFileBuffer aBuffer) throws IOException
+    {
+      aBuffer.readFrom (m_aZipPath);
+    }
+
+    @Override
+    public String toString ()
+    {
+      return new ToStringGenerator (this).append ("Path", m_sPath)
+                                         .append ("Size", m_nSize)
+                                         .append ("LastModified", m_nLastModified)
+                                         .getToString ();
+    }
+  }
+
+  private final File m_aJarFile;
+  private final FileSystem m_aFileSystem;
+  private ICommonsList <IClassFileEntry> m_aEntries;
+
+  /**
+   * Open the passed jar file.
+   *
+   * @param aJarFile
+   *        The jar file to read. May not be <code>null</code>.
+   * @throws IOException
+   *         If the file is not a readable zip archive
+   */
+  public JarClassSource (@Nonnull final File aJarFile) throws IOException
+  {
+    ValueEnforcer.notNull (aJarFile, "JarFile");
+    m_aJarFile = aJarFile;
+    m_aFileSystem = FileSystems.newFileSystem (aJarFile.toPath (), (ClassLoader) null);
+  }
+
+  /**
+   * @return The jar file. Never <code>null</code>.
+   */
+  @Nonnull
+  public File getJarFile ()
+  {
+    return m_aJarFile;
+  }
+
+  @Nonnull
+  @Nonempty
+  public String getDisplayName ()
+  {
+    return m_aJarFile.getAbsolutePath ();
+  }
+
+  @Nonnull
+  private ICommonsList <IClassFileEntry> _getEntries () throws IOException
+  {
+    if (m_aEntries == null)
+    {
+      final ICommonsList <IClassFileEntry> aEntries = new CommonsArrayList <> ();
+      for (final Path aRoot : m_aFileSystem.getRootDirectories ())
+        try (final Stream <Path> aStream = Files.walk (aRoot))
+        {
+          for (final Path aPath : (Iterable <Path>) aStream::iterator)
+          {
+            final String sName = aPath.toString ();
+            // Skip Java 9 module descriptors and multi release versions
+            if (sName.endsWith (".class") &&
+                !sName.endsWith ("module-info.class") &&
+                !sName.startsWith ("/META-INF/") &&
+                Files.isRegularFile (aPath))
+              aEntries.add (new ZipClassFileEntry (aPath));
+          }
+        }
+      m_aEntries = aEntries;
+    }
+    return m_aEntries;
+  }
+
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <IClassFileEntry> getAllClassFiles () throws IOException
+  {
+    return _getEntries ().getClone ();
+  }
+
+  @Override
+  @Nullable
+  public IClassFileEntry getClassFile (@Nullable final String sPath) throws IOException
+  {
+    if (sPath == null)
+      return null;
+    final Path aPath = m_aFileSystem.getPath ("/" + sPath);
+    return Files.isRegularFile (aPath) ? new ZipClassFileEntry (aPath) : null;
+  }
+
+  public void close () throws IOException
+  {
+    m_aFileSystem.close ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("JarFile", m_aJarFile).getToString ();
+  }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.diagnostics;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.project.IProject;
+
+/**
+ * A single message reported by one of the tools for a certain project.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class Diagnostic
+{
+  private final EDiagnosticLevel m_eLevel;
+  private final IProject m_aProject;
+  private final String m_sRuleID;
+  private final String m_sClassName;
+  private final String m_sMessage;
+
+  public Diagnostic (@Nonnull final EDiagnosticLevel eLevel,
+                     @Nonnull final IProject aProject,
+                     @Nonnull @Nonempty final String sRuleID,
+                     @Nullable final String sClassName,
+                     @Nonnull final String sMessage)
+  {
+    ValueEnforcer.notNull (eLevel, "Level");
+    ValueEnforcer.notNull (aProject, "Project");
+    ValueEnforcer.notEmpty (sRuleID, "RuleID");
+    ValueEnforcer.notNull (sMessage, "Message");
+    m_eLevel = eLevel;
+    m_aProject = aProject;
+    m_sRuleID = sRuleID;
+    m_sClassName = sClassName;
+    m_sMessage = sMessage;
+  }
+
+  @Nonnull
+  public EDiagnosticLevel getLevel ()
+  {
+    return m_eLevel;
+  }
+
+  @Nonnull
+  public IProject getProject ()
+  {
+    return m_aProject;
+  }
+
+  /**
+   * @return The ID of the rule that created this diagnostic. Never
+   *         <code>null</code>.
+   * @see DiagnosticsCollector#RULE_ID_GENERIC
+   */
+  @Nonnull
+  @Nonempty
+  public String getRuleID ()
+  {
+    return m_sRuleID;
+  }
+
+  /**
+   * @return The fully qualified name of the class this diagnostic is about.
+   *         May be <code>null</code> if it is not class related.
+   */
+  @Nullable
+  public String getClassName ()
+  {
+    return m_sClassName;
+  }
+
+  @Nonnull
+  public String getMessage ()
+  {
+    return m_sMessage;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Level", m_eLevel)
+                                       .append ("Project", m_aProject.getProjectName ())
+                                       .append ("RuleID", m_sRuleID)
+                                       .append ("ClassName", m_sClassName)
+                                       .append ("Message", m_sMessage)
+                                       .getToString ();
+  }
+}
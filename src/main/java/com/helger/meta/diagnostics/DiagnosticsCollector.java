@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.diagnostics;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsTreeMap;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsSortedMap;
+import com.helger.commons.string.StringHelper;
+import com.helger.meta.project.IProject;
+
+/**
+ * Collects all {@link Diagnostic} objects reported by the tools. Reporting is
+ * designed for many concurrent threads: the counters are {@link LongAdder}
+ * based and the diagnostics are appended to a lock-free queue. Diagnostics are
+ * only retained if requested in the constructor, so that a collector that is
+ * only used for counting does not grow.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class DiagnosticsCollector
+{
+  /** The rule ID used if none is provided */
+  public static final String RULE_ID_GENERIC = "generic";
+
+  private final LongAdder m_aWarnCount = new LongAdder ();
+  private final LongAdder m_aInfoCount = new LongAdder ();
+  private final ConcurrentHashMap <String, LongAdder> m_aWarnCountPerProject = new ConcurrentHashMap <> ();
+  private final ConcurrentHashMap <String, LongAdder> m_aWarnCountPerRule = new ConcurrentHashMap <> ();
+
+  private final boolean m_bRetainDiagnostics;
+  // All diagnostics reported since the last drain
+  private final ConcurrentLinkedQueue <Diagnostic> m_aDiagnostics = new ConcurrentLinkedQueue <> ();
+
+  /**
+   * Constructor
+   *
+   * @param bRetainDiagnostics
+   *        <code>true</code> to keep all reported diagnostics until
+   *        {@link #drainAll()} is called, <code>false</code> to only count
+   *        them.
+   */
+  public DiagnosticsCollector (final boolean bRetainDiagnostics)
+  {
+    m_bRetainDiagnostics = bRetainDiagnostics;
+  }
+
+  /**
+   * @return <code>true</code> if the reported diagnostics are kept until
+   *         {@link #drainAll()} is called.
+   */
+  public boolean isRetainDiagnostics ()
+  {
+    return m_bRetainDiagnostics;
+  }
+
+  @Nonnull
+  private static LongAdder _getCounter (@Nonnull final ConcurrentHashMap <String, LongAdder> aMap,
+                                        @Nonnull final String sKey)
+  {
+    // Avoid locking in computeIfAbsent if the key is already present
+    final LongAdder ret = aMap.get (sKey);
+    return ret != null ? ret : aMap.computeIfAbsent (sKey, k -> new LongAdder ());
+  }
+
+  /**
+   * Report a new diagnostic.
+   *
+   * @param eLevel
+   *        Level to use. May not be <code>null</code>.
+   * @param aProject
+   *        The affected project. May not be <code>null</code>.
+   * @param sRuleID
+   *        The ID of the rule that triggered the diagnostic. If
+   *        <code>null</code> or empty {@link #RULE_ID_GENERIC} is used.
+   * @param sClassName
+   *        The affected class name. May be <code>null</code>.
+   * @param sMessage
+   *        The message to report. May not be <code>null</code>.
+   * @return The created diagnostic. Never <code>null</code>.
+   */
+  @Nonnull
+  public Diagnostic report (@Nonnull final EDiagnosticLevel eLevel,
+                            @Nonnull final IProject aProject,
+                            @Nullable final String sRuleID,
+                            @Nullable final String sClassName,
+                            @Nonnull final String sMessage)
+  {
+    final String sRealRuleID = StringHelper.hasText (sRuleID) ? sRuleID : RULE_ID_GENERIC;
+    final Diagnostic aDiagnostic = new Diagnostic (eLevel, aProject, sRealRuleID, sClassName, sMessage);
+
+    if (eLevel.isWarning ())
+    {
+      m_aWarnCount.increment ();
+      _getCounter (m_aWarnCountPerProject, aProject.getProjectName ()).increment ();
+      _getCounter (m_aWarnCountPerRule, sRealRuleID).increment ();
+    }
+    else
+      m_aInfoCount.increment ();
+
+    if (m_bRetainDiagnostics)
+      m_aDiagnostics.add (aDiagnostic);
+    return aDiagnostic;
+  }
+
+  @Nonnegative
+  public long getWarnCount ()
+  {
+    return m_aWarnCount.sum ();
+  }
+
+  @Nonnegative
+  public long getInfoCount ()
+  {
+    return m_aInfoCount.sum ();
+  }
+
+  @Nonnegative
+  public long getWarnCount (@Nonnull final IProject aProject)
+  {
+    final LongAdder aCounter = m_aWarnCountPerProject.get (aProject.getProjectName ());
+    return aCounter == null ? 0 : aCounter.sum ();
+  }
+
+  @Nonnegative
+  public long getWarnCountOfRule (@Nullable final String sRuleID)
+  {
+    final LongAdder aCounter = sRuleID == null ? null : m_aWarnCountPerRule.get (sRuleID);
+    return aCounter == null ? 0 : aCounter.sum ();
+  }
+
+  /**
+   * @return A snapshot of the warning count per rule ID, sorted by rule ID.
+   *         Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsSortedMap <String, Long> getWarnCountPerRule ()
+  {
+    final ICommonsSortedMap <String, Long> ret = new CommonsTreeMap <> ();
+    for (final Map.Entry <String, LongAdder> aEntry : m_aWarnCountPerRule.entrySet ())
+      ret.put (aEntry.getKey (), Long.valueOf (aEntry.getValue ().sum ()));
+    return ret;
+  }
+
+  /**
+   * Remove all diagnostics retained so far. The counters are not affected. The
+   * result is sorted by project name but the diagnostics of a single project
+   * are kept in reporting order, as long as a project was handled by a single
+   * thread.
+   *
+   * @return All diagnostics reported since the last drain. Never
+   *         <code>null</code> but always empty if diagnostics are not retained.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <Diagnostic> drainAll ()
+  {
+    final ICommonsList <Diagnostic> ret = new CommonsArrayList <> ();
+    Diagnostic aDiagnostic;
+    while ((aDiagnostic = m_aDiagnostics.poll ()) != null)
+      ret.add (aDiagnostic);
+    // Stable sort
+    ret.sort (Comparator.comparing (x -> x.getProject ().getProjectName ()));
+    return ret;
+  }
+}
@@ -16,14 +16,20 @@
  */
 package com.helger.meta.project;
 
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.function.Predicate;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.annotation.ReturnsImmutableObject;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsHashMap;
 import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsMap;
 import com.helger.commons.lang.EnumHelper;
 import com.helger.commons.version.Version;
 
@@ -202,6 +208,10 @@ public enum EExternalDependency
   PARENT_POM_37 ("org.codehaus.mojo", "jdepend-maven-plugin", "2.0", EJDK.JDK6),
   PARENT_POM_38 ("org.codehaus.mojo", "taglist-maven-plugin", "2.4", EJDK.JDK6);
 
+  // Group ID to artifact ID to all matching dependencies, sorted by JDK
+  // descending
+  private static final ICommonsMap <String, ICommonsMap <String, List <EExternalDependency>>> s_aIndex = _createIndex ();
+
   private final String m_sGroupID;
   private final String m_sArticfactID;
   private final String m_sVersion;
@@ -223,7 +233,7 @@ public enum EExternalDependency
     m_sGroupID = sGroupID;
     m_sArticfactID = sArticfactID;
     m_sVersion = sVersion;
-    m_aVersion = Version.parse (sVersion);
+    m_aVersion = VersionClassifier.getVersion (sVersion);
     m_eMinJDK = eMinJDK;
   }
 
@@ -319,18 +329,55 @@ public enum EExternalDependency
     return this == JAXB_BOM || this == JERSEY2_BOM || this == JAXWS_RI_BOM;
   }
 
-  @Nullable
-  public static ICommonsList <EExternalDependency> findAll (@Nullable final String sGroupID,
-                                                            @Nullable final String sArtifactID)
+  @Nonnull
+  private static ICommonsMap <String, ICommonsMap <String, List <EExternalDependency>>> _createIndex ()
   {
-    final ICommonsList <EExternalDependency> ret = findAll (x -> x.hasGroupID (sGroupID) &&
-                                                                 x.hasArtifactID (sArtifactID));
-    // Sort by JDK descending
-    ret.sort (Comparator.comparingInt ( (final EExternalDependency e) -> e.getMinimumJDKVersion ().getMajor ())
-                        .reversed ());
+    final ICommonsMap <String, ICommonsMap <String, ICommonsList <EExternalDependency>>> aMap = new CommonsHashMap <> ();
+    for (final EExternalDependency e : values ())
+      aMap.computeIfAbsent (e.getGroupID (), k -> new CommonsHashMap <> ())
+          .computeIfAbsent (e.getArtifactID (), k -> new CommonsArrayList <> ())
+          .add (e);
+
+    final ICommonsMap <String, ICommonsMap <String, List <EExternalDependency>>> ret = new CommonsHashMap <> ();
+    aMap.forEach ( (sGroupID, aArtifactMap) -> {
+      final ICommonsMap <String, List <EExternalDependency>> aArtifacts = new CommonsHashMap <> ();
+      aArtifactMap.forEach ( (sArtifactID, aList) -> {
+        // Sort by JDK descending
+        aList.sort (Comparator.comparingInt ( (final EExternalDependency e) -> e.getMinimumJDKVersion ().getMajor ())
+                              .reversed ());
+        aArtifacts.put (sArtifactID, Collections.unmodifiableList (aList));
+      });
+      ret.put (sGroupID, aArtifacts);
+    });
     return ret;
   }
 
+  /**
+   * Find all dependencies with the passed group ID and artifact ID. This is a
+   * lookup in a precomputed index.
+   *
+   * @param sGroupID
+   *        Group ID to search. May be <code>null</code>.
+   * @param sArtifactID
+   *        Artifact ID to search. May be <code>null</code>.
+   * @return All matching dependencies, sorted by the minimum JDK version
+   *         descending. Never <code>null</code> but maybe empty.
+   */
+  @Nonnull
+  @ReturnsImmutableObject
+  public static List <EExternalDependency> findAll (@Nullable final String sGroupID,
+                                                    @Nullable final String sArtifactID)
+  {
+    final ICommonsMap <String, List <EExternalDependency>> aArtifacts = s_aIndex.get (sGroupID);
+    if (aArtifacts != null)
+    {
+      final List <EExternalDependency> ret = aArtifacts.get (sArtifactID);
+      if (ret != null)
+        return ret;
+    }
+    return Collections.emptyList ();
+  }
+
   @Nullable
   public static ICommonsList <EExternalDependency> findAll (@Nonnull final Predicate <EExternalDependency> aFilter)
   {
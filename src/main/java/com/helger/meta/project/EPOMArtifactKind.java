@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+/**
+ * Defines the place within a POM at which a set of Maven coordinates was
+ * found.
+ *
+ * @author Philip Helger
+ */
+public enum EPOMArtifactKind
+{
+  /** The coordinates of the project itself */
+  PROJECT,
+  /** The parent POM */
+  PARENT,
+  /** A dependency */
+  DEPENDENCY,
+  /** A dependency within <code>dependencyManagement</code> */
+  MANAGED_DEPENDENCY,
+  /** A build or reporting plugin */
+  PLUGIN,
+  /** A plugin within <code>pluginManagement</code> */
+  MANAGED_PLUGIN,
+  /** A dependency of a plugin */
+  PLUGIN_DEPENDENCY,
+  /** A build extension */
+  EXTENSION,
+  /** An excluded transitive dependency */
+  EXCLUSION,
+  /** Any other element containing an <code>artifactId</code> */
+  OTHER;
+
+  public boolean isDependency ()
+  {
+    return this == DEPENDENCY || this == MANAGED_DEPENDENCY || this == PLUGIN_DEPENDENCY;
+  }
+
+  public boolean isPlugin ()
+  {
+    return this == PLUGIN || this == MANAGED_PLUGIN;
+  }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+/**
+ * The kind of a Maven version as determined by {@link VersionClassifier}.
+ *
+ * @author Philip Helger
+ */
+public enum EVersionKind
+{
+  RELEASE,
+  SNAPSHOT,
+  ALPHA,
+  BETA,
+  RELEASE_CANDIDATE,
+  MILESTONE,
+  EARLY_ACCESS;
+
+  public boolean isRelease ()
+  {
+    return this == RELEASE;
+  }
+
+  /**
+   * @return <code>true</code> for all kinds except {@link #RELEASE}.
+   */
+  public boolean isPreRelease ()
+  {
+    return this != RELEASE;
+  }
+}
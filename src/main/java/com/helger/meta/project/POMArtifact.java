@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * A single set of Maven coordinates as found in a POM. All values are
+ * contained as present in the file, so they may contain unresolved
+ * <code>${...}</code> expressions.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class POMArtifact
+{
+  private final EPOMArtifactKind m_eKind;
+  private final String m_sGroupID;
+  private final String m_sArtifactID;
+  private final String m_sVersion;
+  private final String m_sProfileID;
+
+  public POMArtifact (@Nonnull final EPOMArtifactKind eKind,
+                      @Nullable final String sGroupID,
+                      @Nonnull @Nonempty final String sArtifactID,
+                      @Nullable final String sVersion,
+                      @Nullable final String sProfileID)
+  {
+    ValueEnforcer.notNull (eKind, "Kind");
+    ValueEnforcer.notEmpty (sArtifactID, "ArtifactID");
+    m_eKind = eKind;
+    m_sGroupID = sGroupID;
+    m_sArtifactID = sArtifactID;
+    m_sVersion = sVersion;
+    m_sProfileID = sProfileID;
+  }
+
+  @Nonnull
+  public EPOMArtifactKind getKind ()
+  {
+    return m_eKind;
+  }
+
+  /**
+   * @return The group ID. May be <code>null</code> e.g. for the project itself
+   *         if it is inherited from the parent or for Maven plugins.
+   */
+  @Nullable
+  public String getGroupID ()
+  {
+    return m_sGroupID;
+  }
+
+  @Nonnull
+  @Nonempty
+  public String getArtifactID ()
+  {
+    return m_sArtifactID;
+  }
+
+  /**
+   * @return The version. May be <code>null</code> e.g. if it is defined in a
+   *         <code>dependencyManagement</code> section.
+   */
+  @Nullable
+  public String getVersion ()
+  {
+    return m_sVersion;
+  }
+
+  /**
+   * @return The ID of the profile this artifact is declared in. May be
+   *         <code>null</code> if it is not declared in a profile.
+   */
+  @Nullable
+  public String getProfileID ()
+  {
+    return m_sProfileID;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Kind", m_eKind)
+                                       .append ("GroupID", m_sGroupID)
+                                       .append ("ArtifactID", m_sArtifactID)
+                                       .append ("Version", m_sVersion)
+                                       .appendIfNotNull ("ProfileID", m_sProfileID)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * A cache for parsed POM files that is shared by all tools running in the same
+ * VM. Entries are keyed by the absolute path of the POM and are only used if
+ * size and last modification time of the file are unchanged. The parsed
+ * objects are softly referenced so that they may be reclaimed by the garbage
+ * collector if memory gets low.<br>
+ * Only the typed {@link POMModel} objects are cached. Tools that modify a POM
+ * must read it themselves and should {@link #invalidate(File)} it after
+ * writing.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class POMCache
+{
+  @Immutable
+  private static final class CacheEntry
+  {
+    private final long m_nLastModified;
+    private final long m_nSize;
+    private final SoftReference <POMModel> m_aValue;
+
+    CacheEntry (final long nLastModified, final long nSize, @Nonnull final POMModel aValue)
+    {
+      m_nLastModified = nLastModified;
+      m_nSize = nSize;
+      m_aValue = new SoftReference <> (aValue);
+    }
+
+    @Nullable
+    POMModel getIfUpToDate (final long nLastModified, final long nSize)
+    {
+      if (m_nLastModified != nLastModified || m_nSize != nSize)
+        return null;
+      return m_aValue.get ();
+    }
+  }
+
+  private static final POMCache s_aDefault = new POMCache ();
+
+  private final ConcurrentHashMap <String, CacheEntry> m_aModels = new ConcurrentHashMap <> ();
+  private final AtomicInteger m_aHits = new AtomicInteger (0);
+  private final AtomicInteger m_aMisses = new AtomicInteger (0);
+
+  public POMCache ()
+  {}
+
+  /**
+   * Get the typed model of the passed POM file. If the file was already read
+   * and did not change in the meantime, the cached model is returned.
+   *
+   * @param aPOMFile
+   *        The POM file to read. May not be <code>null</code>.
+   * @return <code>null</code> if the file does not exist or could not be
+   *         parsed.
+   */
+  @Nullable
+  public POMModel getModel (@Nonnull final File aPOMFile)
+  {
+    ValueEnforcer.notNull (aPOMFile, "POMFile");
+
+    final String sKey = aPOMFile.getAbsolutePath ();
+    // Query the file attributes before parsing, so that a concurrent
+    // modification leads to a re-read next time
+    final long nLastModified = aPOMFile.lastModified ();
+    final long nSize = aPOMFile.length ();
+
+    final CacheEntry aEntry = m_aModels.get (sKey);
+    if (aEntry != null)
+    {
+      final POMModel ret = aEntry.getIfUpToDate (nLastModified, nSize);
+      if (ret != null)
+      {
+        m_aHits.incrementAndGet ();
+        return ret;
+      }
+    }
+
+    m_aMisses.incrementAndGet ();
+    final POMModel ret = POMModel.read (aPOMFile);
+    if (ret == null)
+      m_aModels.remove (sKey);
+    else
+      m_aModels.put (sKey, new CacheEntry (nLastModified, nSize, ret));
+    return ret;
+  }
+
+  /**
+   * Remove the cached model of the passed file, e.g. because it was just
+   * written.
+   *
+   * @param aPOMFile
+   *        The POM file to remove. May not be <code>null</code>.
+   */
+  public void invalidate (@Nonnull final File aPOMFile)
+  {
+    ValueEnforcer.notNull (aPOMFile, "POMFile");
+    m_aModels.remove (aPOMFile.getAbsolutePath ());
+  }
+
+  @Nonnegative
+  public int getHitCount ()
+  {
+    return m_aHits.get ();
+  }
+
+  @Nonnegative
+  public int getMissCount ()
+  {
+    return m_aMisses.get ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Models", m_aModels.size ())
+                                       .append ("Hits", m_aHits.get ())
+                                       .append ("Misses", m_aMisses.get ())
+                                       .getToString ();
+  }
+
+  /**
+   * @return The cache instance shared by all tools. Never <code>null</code>.
+   */
+  @Nonnull
+  public static POMCache getDefault ()
+  {
+    return s_aDefault;
+  }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.string.StringHelper;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * Reads the Maven coordinates (<code>groupId</code> and
+ * <code>artifactId</code>, optionally inherited from the <code>parent</code>
+ * element) of a POM with a streaming StAX parser. Reading stops early only
+ * once both the own groupId and artifactId are known, which is usually within
+ * the first few elements. If the groupId is inherited from the parent, all
+ * children of the root element are read, because an own groupId may follow
+ * later. The content of other children is skipped without being inspected and
+ * in no case a document is built.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class POMCoordinateReader
+{
+  private static final Logger s_aLogger = LoggerFactory.getLogger (POMCoordinateReader.class);
+  private static final XMLInputFactory s_aFactory;
+
+  static
+  {
+    s_aFactory = XMLInputFactory.newInstance ();
+    // POMs never need external entities or DTDs
+    s_aFactory.setProperty (XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    s_aFactory.setProperty (XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+  }
+
+  private final String m_sGroupID;
+  private final String m_sArtifactID;
+
+  private POMCoordinateReader (@Nullable final String sGroupID, @Nullable final String sArtifactID)
+  {
+    m_sGroupID = sGroupID;
+    m_sArtifactID = sArtifactID;
+  }
+
+  /**
+   * @return The <code>groupId</code> of the project or, if not present, the
+   *         one of the parent. May be <code>null</code>.
+   */
+  @Nullable
+  public String getGroupID ()
+  {
+    return m_sGroupID;
+  }
+
+  /**
+   * @return The <code>artifactId</code> of the project or, if not present,
+   *         the one of the parent. May be <code>null</code>.
+   */
+  @Nullable
+  public String getArtifactID ()
+  {
+    return m_sArtifactID;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("GroupID", m_sGroupID)
+                                       .append ("ArtifactID", m_sArtifactID)
+                                       .getToString ();
+  }
+
+  @Nullable
+  private static String _getTrimmedText (@Nonnull final XMLStreamReader aReader) throws XMLStreamException
+  {
+    final String ret = aReader.getElementText ().trim ();
+    return StringHelper.hasText (ret) ? ret : null;
+  }
+
+  private static void _skipElement (@Nonnull final XMLStreamReader aReader) throws XMLStreamException
+  {
+    int nDepth = 1;
+    while (nDepth > 0)
+    {
+      final int nEvent = aReader.next ();
+      if (nEvent == XMLStreamConstants.START_ELEMENT)
+        nDepth++;
+      else
+        if (nEvent == XMLStreamConstants.END_ELEMENT)
+          nDepth--;
+    }
+  }
+
+  @Nonnull
+  private static POMCoordinateReader _read (@Nonnull final XMLStreamReader aReader) throws XMLStreamException
+  {
+    String sGroupID = null;
+    String sArtifactID = null;
+    String sParentGroupID = null;
+    String sParentArtifactID = null;
+
+    // Move to the root element
+    while (aReader.hasNext () && aReader.next () != XMLStreamConstants.START_ELEMENT)
+    {}
+
+    // Iterate the direct children of the root element
+    while (aReader.hasNext ())
+    {
+      final int nEvent = aReader.next ();
+      if (nEvent == XMLStreamConstants.END_ELEMENT)
+      {
+        // End of the root element
+        break;
+      }
+      if (nEvent != XMLStreamConstants.START_ELEMENT)
+        continue;
+
+      final String sLocalName = aReader.getLocalName ();
+      if ("groupId".equals (sLocalName))
+        sGroupID = _getTrimmedText (aReader);
+      else
+        if ("artifactId".equals (sLocalName))
+          sArtifactID = _getTrimmedText (aReader);
+        else
+          if ("parent".equals (sLocalName))
+          {
+            while (aReader.nextTag () == XMLStreamConstants.START_ELEMENT)
+            {
+              final String sParentLocalName = aReader.getLocalName ();
+              if ("groupId".equals (sParentLocalName))
+                sParentGroupID = _getTrimmedText (aReader);
+              else
+                if ("artifactId".equals (sParentLocalName))
+                  sParentArtifactID = _getTrimmedText (aReader);
+                else
+                  _skipElement (aReader);
+            }
+          }
+          else
+            _skipElement (aReader);
+
+      // The own groupId may appear anywhere between the other root children,
+      // so stop early only if both own coordinates are known
+      if (sGroupID != null && sArtifactID != null)
+        break;
+    }
+
+    return new POMCoordinateReader (sGroupID != null ? sGroupID : sParentGroupID,
+                                    sArtifactID != null ? sArtifactID : sParentArtifactID);
+  }
+
+  /**
+   * Read the coordinates from the passed input stream.
+   *
+   * @param aIS
+   *        The input stream to read from. May not be <code>null</code>. It is
+   *        not closed.
+   * @return <code>null</code> if the content is not well-formed XML.
+   */
+  @Nullable
+  public static POMCoordinateReader read (@Nonnull final InputStream aIS)
+  {
+    ValueEnforcer.notNull (aIS, "InputStream");
+    try
+    {
+      final XMLStreamReader aReader = s_aFactory.createXMLStreamReader (aIS);
+      try
+      {
+        return _read (aReader);
+      }
+      finally
+      {
+        aReader.close ();
+      }
+    }
+    catch (final XMLStreamException ex)
+    {
+      s_aLogger.warn ("Failed to read POM coordinates: " + ex.getMessage ());
+      return null;
+    }
+  }
+
+  /**
+   * Read the coordinates from the passed POM file.
+   *
+   * @param aPOMFile
+   *        The file to read. May not be <code>null</code>.
+   * @return <code>null</code> if the file does not exist or is not well-formed
+   *         XML.
+   */
+  @Nullable
+  public static POMCoordinateReader read (@Nonnull final File aPOMFile)
+  {
+    ValueEnforcer.notNull (aPOMFile, "POMFile");
+    if (!aPOMFile.isFile ())
+      return null;
+
+    try (final InputStream aIS = new BufferedInputStream (new FileInputStream (aPOMFile)))
+    {
+      return read (aIS);
+    }
+    catch (final IOException ex)
+    {
+      s_aLogger.warn ("Failed to read POM " + aPOMFile + ": " + ex.getMessage ());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,374 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import java.io.File;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.collection.ext.CommonsHashSet;
+import com.helger.commons.collection.ext.ICommonsSet;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * Resolves Maven <code>${...}</code> expressions in the context of a single
+ * POM. Supported are:
+ * <ul>
+ * <li>Concatenated expressions like <code>a-${x}-${y}</code></li>
+ * <li>Properties whose values contain expressions themselves and expressions
+ * within property names like <code>${lib.${variant}}</code></li>
+ * <li>The <code>project.*</code> (and legacy <code>pom.*</code>) builtins for
+ * groupId, artifactId, version, packaging, name, url, inceptionYear and the
+ * parent coordinates</li>
+ * <li>Properties inherited from parent POMs that are part of the known
+ * projects, e.g. from {@link EProject#PH_COMMONS_PARENT_POM} or
+ * {@link EProject#PH_PARENT_POM}. Like in Maven, inherited properties are
+ * resolved in the context of the inheriting POM.</li>
+ * </ul>
+ * All results are memoized per POM.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class POMInterpolator
+{
+  private static final String PREFIX = "${";
+  private static final char SUFFIX = '}';
+  private static final ConcurrentHashMap <String, POMInterpolator> s_aCache = new ConcurrentHashMap <> ();
+
+  private final POMModel m_aModel;
+  private final POMInterpolator m_aParent;
+  private final File m_aPOMFile;
+  // Resolved expression to result; empty if not resolvable
+  private final ConcurrentHashMap <String, Optional <String>> m_aResults = new ConcurrentHashMap <> ();
+
+  /**
+   * Constructor
+   *
+   * @param aModel
+   *        The POM model to resolve expressions for. May not be
+   *        <code>null</code>.
+   * @param aParent
+   *        The interpolator of the parent POM. May be <code>null</code> if the
+   *        parent POM is unknown.
+   */
+  public POMInterpolator (@Nonnull final POMModel aModel, @Nullable final POMInterpolator aParent)
+  {
+    this (aModel, aParent, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param aModel
+   *        The POM model to resolve expressions for. May not be
+   *        <code>null</code>.
+   * @param aParent
+   *        The interpolator of the parent POM. May be <code>null</code> if the
+   *        parent POM is unknown.
+   * @param aPOMFile
+   *        The file the model was read from. May be <code>null</code>.
+   */
+  public POMInterpolator (@Nonnull final POMModel aModel,
+                          @Nullable final POMInterpolator aParent,
+                          @Nullable final File aPOMFile)
+  {
+    ValueEnforcer.notNull (aModel, "Model");
+    m_aModel = aModel;
+    m_aParent = aParent;
+    m_aPOMFile = aPOMFile;
+  }
+
+  @Nonnull
+  public POMModel getModel ()
+  {
+    return m_aModel;
+  }
+
+  @Nullable
+  public POMInterpolator getParent ()
+  {
+    return m_aParent;
+  }
+
+  /**
+   * @return The file the model was read from. May be <code>null</code> if the
+   *         model was not read from a file.
+   */
+  @Nullable
+  public File getPOMFile ()
+  {
+    return m_aPOMFile;
+  }
+
+  /**
+   * Get the raw value of a property as declared in this POM or in one of its
+   * parents.
+   */
+  @Nullable
+  private String _getDeclaredProperty (@Nonnull final String sName)
+  {
+    final String ret = m_aModel.getProperty (sName);
+    if (ret != null || m_aParent == null)
+      return ret;
+    return m_aParent._getDeclaredProperty (sName);
+  }
+
+  /**
+   * Get the raw value of a project builtin like <code>version</code>.
+   */
+  @Nullable
+  private String _getBuiltin (@Nonnull final String sName)
+  {
+    final POMArtifact aParent = m_aModel.getParent ();
+    switch (sName)
+    {
+      case "groupId":
+      {
+        final POMArtifact aProject = m_aModel.getProject ();
+        if (aProject != null && aProject.getGroupID () != null)
+          return aProject.getGroupID ();
+        return aParent == null ? null : aParent.getGroupID ();
+      }
+      case "artifactId":
+        return m_aModel.getProject () == null ? null : m_aModel.getProject ().getArtifactID ();
+      case "version":
+        return m_aModel.getVersion ();
+      case "packaging":
+      {
+        final String ret = m_aModel.getPackaging ();
+        return ret != null ? ret : "jar";
+      }
+      case "name":
+      case "url":
+      case "inceptionYear":
+        return m_aModel.getProjectValue (sName);
+      case "parent.groupId":
+        return aParent == null ? null : aParent.getGroupID ();
+      case "parent.artifactId":
+        return aParent == null ? null : aParent.getArtifactID ();
+      case "parent.version":
+        return aParent == null ? null : aParent.getVersion ();
+      default:
+        return null;
+    }
+  }
+
+  @Nullable
+  private String _getRawValue (@Nonnull final String sName)
+  {
+    // Builtins take precedence, but e.g. "project.build.sourceEncoding" is
+    // usually a declared property
+    String ret = null;
+    if (sName.startsWith ("project."))
+      ret = _getBuiltin (sName.substring ("project.".length ()));
+    else
+      if (sName.startsWith ("pom."))
+        ret = _getBuiltin (sName.substring ("pom.".length ()));
+    if (ret == null)
+      ret = _getDeclaredProperty (sName);
+    return ret;
+  }
+
+  @Nullable
+  private String _resolveName (@Nonnull final String sName, @Nonnull final ICommonsSet <String> aInProgress)
+  {
+    final Optional <String> aCached = m_aResults.get (PREFIX + sName + SUFFIX);
+    if (aCached != null)
+      return aCached.orElse (null);
+
+    // Avoid endless loops on cyclic definitions. All properties that are part
+    // of a cycle are not resolvable, so the result may be memoized anyway.
+    if (!aInProgress.add (sName))
+      return null;
+
+    String ret = _getRawValue (sName);
+    if (ret != null)
+      ret = _interpolate (ret, aInProgress);
+    aInProgress.remove (sName);
+    m_aResults.putIfAbsent (PREFIX + sName + SUFFIX, Optional.ofNullable (ret));
+    return ret;
+  }
+
+  @Nullable
+  private String _interpolate (@Nonnull final String sValue, @Nonnull final ICommonsSet <String> aInProgress)
+  {
+    int nStart = sValue.indexOf (PREFIX);
+    if (nStart < 0)
+      return sValue;
+
+    final Optional <String> aCached = m_aResults.get (sValue);
+    if (aCached != null)
+      return aCached.orElse (null);
+
+    final StringBuilder aSB = new StringBuilder (sValue.length () * 2);
+    int nLast = 0;
+    String ret = null;
+    while (true)
+    {
+      aSB.append (sValue, nLast, nStart);
+
+      // Find the matching end, considering nested expressions
+      int nDepth = 1;
+      int nEnd = nStart + PREFIX.length ();
+      while (nEnd < sValue.length () && nDepth > 0)
+      {
+        if (sValue.startsWith (PREFIX, nEnd))
+        {
+          nDepth++;
+          nEnd += PREFIX.length ();
+        }
+        else
+        {
+          if (sValue.charAt (nEnd) == SUFFIX)
+            nDepth--;
+          nEnd++;
+        }
+      }
+      if (nDepth > 0)
+      {
+        // Unterminated expression
+        break;
+      }
+
+      final String sName = _interpolate (sValue.substring (nStart + PREFIX.length (), nEnd - 1), aInProgress);
+      final String sResolved = sName == null ? null : _resolveName (sName.trim (), aInProgress);
+      if (sResolved == null)
+        break;
+      aSB.append (sResolved);
+
+      nLast = nEnd;
+      nStart = sValue.indexOf (PREFIX, nLast);
+      if (nStart < 0)
+      {
+        aSB.append (sValue, nLast, sValue.length ());
+        ret = aSB.toString ();
+        break;
+      }
+    }
+
+    m_aResults.putIfAbsent (sValue, Optional.ofNullable (ret));
+    return ret;
+  }
+
+  /**
+   * Resolve all expressions in the passed value.
+   *
+   * @param sValue
+   *        The value to resolve. May be <code>null</code>.
+   * @return <code>null</code> if the passed value is <code>null</code> or if
+   *         at least one expression could not be resolved. The unchanged value
+   *         if it contains no expression.
+   */
+  @Nullable
+  public String interpolate (@Nullable final String sValue)
+  {
+    if (sValue == null)
+      return null;
+    return _interpolate (sValue, new CommonsHashSet <> ());
+  }
+
+  /**
+   * Get the resolved value of a single property or builtin.
+   *
+   * @param sName
+   *        The name of the property without the surrounding <code>${</code>
+   *        and <code>}</code>, e.g. <code>project.version</code>. May be
+   *        <code>null</code>.
+   * @return <code>null</code> if no such property is known or if it could not
+   *         be resolved.
+   */
+  @Nullable
+  public String getPropertyValue (@Nullable final String sName)
+  {
+    if (sName == null)
+      return null;
+    return _resolveName (sName, new CommonsHashSet <> ());
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Model", m_aModel)
+                                       .append ("Parent", m_aParent)
+                                       .append ("Results", m_aResults.size ())
+                                       .getToString ();
+  }
+
+  @Nullable
+  private static POMInterpolator _getOfPOM (@Nonnull final File aPOMFile, final int nLevel)
+  {
+    final POMModel aModel = POMCache.getDefault ().getModel (aPOMFile);
+    if (aModel == null)
+      return null;
+
+    final String sKey = aPOMFile.getAbsolutePath ();
+    final POMInterpolator aCached = s_aCache.get (sKey);
+    if (aCached != null && aCached.m_aModel == aModel)
+      return aCached;
+
+    // Resolve the parent POM through the known projects
+    POMInterpolator aParent = null;
+    final POMArtifact aParentArtifact = aModel.getParent ();
+    if (aParentArtifact != null && nLevel < 32)
+    {
+      final IProject aParentProject = ProjectList.getProjectOfName (aParentArtifact.getArtifactID ());
+      if (aParentProject != null &&
+          aParentProject.hasMavenGroupID (aParentArtifact.getGroupID ()) &&
+          !aParentProject.getPOMFile ().getAbsolutePath ().equals (sKey))
+        aParent = _getOfPOM (aParentProject.getPOMFile (), nLevel + 1);
+    }
+
+    final POMInterpolator ret = new POMInterpolator (aModel, aParent, aPOMFile);
+    s_aCache.put (sKey, ret);
+    return ret;
+  }
+
+  /**
+   * Get the shared interpolator for the passed POM file. The parent chain is
+   * resolved through the known projects of {@link ProjectList}.
+   *
+   * @param aPOMFile
+   *        The POM file to use. May not be <code>null</code>.
+   * @return <code>null</code> if the POM could not be read.
+   */
+  @Nullable
+  public static POMInterpolator getOfPOM (@Nonnull final File aPOMFile)
+  {
+    ValueEnforcer.notNull (aPOMFile, "POMFile");
+    return _getOfPOM (aPOMFile, 0);
+  }
+
+  /**
+   * Get the shared interpolator for the POM of the passed project.
+   *
+   * @param aProject
+   *        The project to use. May not be <code>null</code>.
+   * @return <code>null</code> if the POM could not be read.
+   */
+  @Nullable
+  public static POMInterpolator getOfProject (@Nonnull final IProject aProject)
+  {
+    ValueEnforcer.notNull (aProject, "Project");
+    return getOfPOM (aProject.getPOMFile ());
+  }
+}
@@ -0,0 +1,526 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Comparator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.CommonsLinkedHashMap;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.commons.collection.ext.ICommonsOrderedMap;
+import com.helger.commons.string.StringHelper;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * A typed model of the parts of a POM that are relevant for the build system
+ * checks. It is created in a single streaming StAX pass. All Maven coordinates
+ * contained in the POM (project, parent, dependencies, plugins, extensions,
+ * exclusions - also within profiles) are available as {@link POMArtifact}
+ * objects and are indexed by group ID and artifact ID. Values are contained as
+ * present in the file, so <code>${...}</code> expressions are not resolved.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class POMModel
+{
+  /**
+   * The state of a single open element while reading.
+   *
+   * @author Philip Helger
+   */
+  private static final class Frame
+  {
+    private final String m_sLocalName;
+    private final Frame m_aProfile;
+    private final StringBuilder m_aText = new StringBuilder ();
+    private String m_sGroupID;
+    private String m_sArtifactID;
+    private String m_sVersion;
+    private int m_nArtifactIndex = -1;
+    private String m_sProfileID;
+
+    Frame (@Nonnull final String sLocalName, @Nullable final Frame aParent)
+    {
+      m_sLocalName = sLocalName;
+      if ("profile".equals (sLocalName) && aParent != null && "profiles".equals (aParent.m_sLocalName))
+        m_aProfile = this;
+      else
+        m_aProfile = aParent == null ? null : aParent.m_aProfile;
+    }
+
+    boolean hasLocalName (@Nonnull final String sLocalName)
+    {
+      return m_sLocalName.equals (sLocalName);
+    }
+  }
+
+  /**
+   * An artifact that was read, but whose profile ID may not yet be known.
+   *
+   * @author Philip Helger
+   */
+  private static final class PendingArtifact
+  {
+    private final int m_nIndex;
+    private final EPOMArtifactKind m_eKind;
+    private final Frame m_aFrame;
+
+    PendingArtifact (final int nIndex, @Nonnull final EPOMArtifactKind eKind, @Nonnull final Frame aFrame)
+    {
+      m_nIndex = nIndex;
+      m_eKind = eKind;
+      m_aFrame = aFrame;
+    }
+
+    @Nonnull
+    POMArtifact getAsArtifact ()
+    {
+      return new POMArtifact (m_eKind,
+                              m_aFrame.m_sGroupID,
+                              m_aFrame.m_sArtifactID,
+                              m_aFrame.m_sVersion,
+                              m_aFrame.m_aProfile == null ? null : m_aFrame.m_aProfile.m_sProfileID);
+    }
+  }
+
+  private static final Logger s_aLogger = LoggerFactory.getLogger (POMModel.class);
+  private static final XMLInputFactory s_aFactory;
+
+  static
+  {
+    s_aFactory = XMLInputFactory.newInstance ();
+    // POMs never need external entities or DTDs
+    s_aFactory.setProperty (XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    s_aFactory.setProperty (XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    s_aFactory.setProperty (XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+  }
+
+  // Direct children of the project element
+  private final ICommonsMap <String, String> m_aProjectValues = new CommonsHashMap <> ();
+  private final ICommonsMap <String, String> m_aSCMValues = new CommonsHashMap <> ();
+  private boolean m_bHasLicenses = false;
+  private boolean m_bHasSCM = false;
+  private final ICommonsOrderedMap <String, String> m_aProperties = new CommonsLinkedHashMap <> ();
+  private final ICommonsList <String> m_aProfileIDs = new CommonsArrayList <> ();
+  private final ICommonsList <POMArtifact> m_aArtifacts = new CommonsArrayList <> ();
+  private POMArtifact m_aProject;
+  private POMArtifact m_aParent;
+  // Indices
+  private final ICommonsMap <String, ICommonsList <POMArtifact>> m_aByGroupID = new CommonsHashMap <> ();
+  private final ICommonsMap <String, ICommonsList <POMArtifact>> m_aByArtifactID = new CommonsHashMap <> ();
+
+  private POMModel ()
+  {}
+
+  @Nonnull
+  private static EPOMArtifactKind _getKind (@Nonnull final ICommonsList <Frame> aStack)
+  {
+    final int nSize = aStack.size ();
+    if (nSize == 1)
+      return EPOMArtifactKind.PROJECT;
+
+    final Frame aFrame = aStack.getLast ();
+    final Frame aParent = aStack.get (nSize - 2);
+    final Frame aGrandParent = nSize > 2 ? aStack.get (nSize - 3) : null;
+    if (nSize == 2 && aFrame.hasLocalName ("parent"))
+      return EPOMArtifactKind.PARENT;
+    if (aFrame.hasLocalName ("dependency") && aParent.hasLocalName ("dependencies"))
+    {
+      if (aGrandParent != null && aGrandParent.hasLocalName ("dependencyManagement"))
+        return EPOMArtifactKind.MANAGED_DEPENDENCY;
+      if (aGrandParent != null && aGrandParent.hasLocalName ("plugin"))
+        return EPOMArtifactKind.PLUGIN_DEPENDENCY;
+      return EPOMArtifactKind.DEPENDENCY;
+    }
+    if (aFrame.hasLocalName ("plugin") && aParent.hasLocalName ("plugins"))
+    {
+      if (aGrandParent != null && aGrandParent.hasLocalName ("pluginManagement"))
+        return EPOMArtifactKind.MANAGED_PLUGIN;
+      return EPOMArtifactKind.PLUGIN;
+    }
+    if (aFrame.hasLocalName ("extension"))
+      return EPOMArtifactKind.EXTENSION;
+    if (aFrame.hasLocalName ("exclusion"))
+      return EPOMArtifactKind.EXCLUSION;
+    return EPOMArtifactKind.OTHER;
+  }
+
+  @Nullable
+  private static String _getTrimmedText (@Nonnull final Frame aFrame)
+  {
+    final String ret = aFrame.m_aText.toString ().trim ();
+    return StringHelper.hasText (ret) ? ret : null;
+  }
+
+  private void _onEndElement (@Nonnull final ICommonsList <Frame> aStack,
+                              @Nonnull final ICommonsList <PendingArtifact> aPending)
+  {
+    final Frame aFrame = aStack.getLast ();
+    if (aFrame.m_sArtifactID != null)
+      aPending.add (new PendingArtifact (aFrame.m_nArtifactIndex, _getKind (aStack), aFrame));
+
+    aStack.removeLast ();
+    if (aStack.isEmpty ())
+      return;
+
+    final Frame aParent = aStack.getLast ();
+    final int nParentDepth = aStack.size ();
+    final String sLocalName = aFrame.m_sLocalName;
+    if ("groupId".equals (sLocalName))
+      aParent.m_sGroupID = _getTrimmedText (aFrame);
+    else
+      if ("artifactId".equals (sLocalName))
+        aParent.m_sArtifactID = _getTrimmedText (aFrame);
+      else
+        if ("version".equals (sLocalName))
+          aParent.m_sVersion = _getTrimmedText (aFrame);
+        else
+          if ("id".equals (sLocalName) && aParent.m_aProfile == aParent)
+            aParent.m_sProfileID = _getTrimmedText (aFrame);
+
+    if (nParentDepth == 1)
+    {
+      // Direct child of project
+      if ("licenses".equals (sLocalName))
+        m_bHasLicenses = true;
+      else
+        if ("scm".equals (sLocalName))
+          m_bHasSCM = true;
+        else
+        {
+          final String sText = _getTrimmedText (aFrame);
+          if (sText != null)
+            m_aProjectValues.put (sLocalName, sText);
+        }
+    }
+    else
+      if (nParentDepth == 2)
+      {
+        if (aParent.hasLocalName ("scm"))
+        {
+          final String sText = _getTrimmedText (aFrame);
+          if (sText != null)
+            m_aSCMValues.put (sLocalName, sText);
+        }
+        else
+          if (aParent.hasLocalName ("properties"))
+            m_aProperties.put (sLocalName, StringHelper.getNotNull (_getTrimmedText (aFrame)));
+      }
+  }
+
+  private void _read (@Nonnull final XMLStreamReader aReader) throws XMLStreamException
+  {
+    final ICommonsList <Frame> aStack = new CommonsArrayList <> ();
+    final ICommonsList <Frame> aProfiles = new CommonsArrayList <> ();
+    final ICommonsList <PendingArtifact> aPending = new CommonsArrayList <> ();
+    int nArtifactIndex = 0;
+
+    while (aReader.hasNext ())
+    {
+      final int nEvent = aReader.next ();
+      switch (nEvent)
+      {
+        case XMLStreamConstants.START_ELEMENT:
+        {
+          final Frame aFrame = new Frame (aReader.getLocalName (), aStack.getLast ());
+          if (aFrame.m_aProfile == aFrame)
+            aProfiles.add (aFrame);
+          if (aFrame.hasLocalName ("artifactId") && !aStack.isEmpty ())
+          {
+            // Keep the document order of the artifactId elements
+            aStack.getLast ().m_nArtifactIndex = nArtifactIndex++;
+          }
+          aStack.add (aFrame);
+          break;
+        }
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+          if (!aStack.isEmpty ())
+            aStack.getLast ().m_aText.append (aReader.getText ());
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          _onEndElement (aStack, aPending);
+          break;
+      }
+    }
+
+    // All profile IDs are known now
+    for (final Frame aProfile : aProfiles)
+      m_aProfileIDs.add (aProfile.m_sProfileID);
+
+    aPending.sort (Comparator.comparingInt (x -> x.m_nIndex));
+    for (final PendingArtifact aPendingArtifact : aPending)
+    {
+      final POMArtifact aArtifact = aPendingArtifact.getAsArtifact ();
+      m_aArtifacts.add (aArtifact);
+      if (aArtifact.getKind () == EPOMArtifactKind.PROJECT)
+        m_aProject = aArtifact;
+      else
+        if (aArtifact.getKind () == EPOMArtifactKind.PARENT)
+          m_aParent = aArtifact;
+      if (aArtifact.getGroupID () != null)
+        m_aByGroupID.computeIfAbsent (aArtifact.getGroupID (), k -> new CommonsArrayList <> ()).add (aArtifact);
+      m_aByArtifactID.computeIfAbsent (aArtifact.getArtifactID (), k -> new CommonsArrayList <> ()).add (aArtifact);
+    }
+  }
+
+  /**
+   * @return The coordinates of the project itself. May be <code>null</code>
+   *         if the POM contains no <code>artifactId</code>.
+   */
+  @Nullable
+  public POMArtifact getProject ()
+  {
+    return m_aProject;
+  }
+
+  /**
+   * @return The parent POM reference. May be <code>null</code> if the POM has
+   *         no parent.
+   */
+  @Nullable
+  public POMArtifact getParent ()
+  {
+    return m_aParent;
+  }
+
+  /**
+   * Get the trimmed text of a direct child element of the project element,
+   * e.g. <code>packaging</code> or <code>inceptionYear</code>.
+   *
+   * @param sLocalName
+   *        The local name of the element. May be <code>null</code>.
+   * @return <code>null</code> if no such element is present or if it is empty.
+   */
+  @Nullable
+  public String getProjectValue (@Nullable final String sLocalName)
+  {
+    return m_aProjectValues.get (sLocalName);
+  }
+
+  @Nullable
+  public String getPackaging ()
+  {
+    return getProjectValue ("packaging");
+  }
+
+  /**
+   * @return The version of the project or, if not present, the one of the
+   *         parent. May be <code>null</code>.
+   */
+  @Nullable
+  public String getVersion ()
+  {
+    final String ret = getProjectValue ("version");
+    if (ret == null && m_aParent != null)
+      return m_aParent.getVersion ();
+    return ret;
+  }
+
+  public boolean hasLicenses ()
+  {
+    return m_bHasLicenses;
+  }
+
+  public boolean hasSCM ()
+  {
+    return m_bHasSCM;
+  }
+
+  /**
+   * Get the trimmed text of a child element of the <code>scm</code> element,
+   * e.g. <code>connection</code> or <code>tag</code>.
+   *
+   * @param sLocalName
+   *        The local name of the element. May be <code>null</code>.
+   * @return <code>null</code> if no such element is present or if it is empty.
+   */
+  @Nullable
+  public String getSCMValue (@Nullable final String sLocalName)
+  {
+    return m_aSCMValues.get (sLocalName);
+  }
+
+  /**
+   * @return All properties defined in the project (excluding profile
+   *         properties) in declaration order. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsOrderedMap <String, String> getAllProperties ()
+  {
+    return m_aProperties.getClone ();
+  }
+
+  @Nullable
+  public String getProperty (@Nullable final String sName)
+  {
+    return m_aProperties.get (sName);
+  }
+
+  public boolean containsProperty (@Nullable final String sName)
+  {
+    return m_aProperties.containsKey (sName);
+  }
+
+  /**
+   * @return The IDs of all profiles in declaration order. Profiles without an
+   *         ID are contained as <code>null</code>. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <String> getAllProfileIDs ()
+  {
+    return m_aProfileIDs.getClone ();
+  }
+
+  /**
+   * @return All coordinates contained in the POM in document order. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <POMArtifact> getAllArtifacts ()
+  {
+    return m_aArtifacts.getClone ();
+  }
+
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <POMArtifact> getAllArtifacts (@Nonnull final EPOMArtifactKind eKind)
+  {
+    ValueEnforcer.notNull (eKind, "Kind");
+    return m_aArtifacts.getAll (x -> x.getKind () == eKind);
+  }
+
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <POMArtifact> getAllArtifactsOfGroupID (@Nullable final String sGroupID)
+  {
+    final ICommonsList <POMArtifact> ret = m_aByGroupID.get (sGroupID);
+    return ret == null ? new CommonsArrayList <> () : ret.getClone ();
+  }
+
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <POMArtifact> getAllArtifactsOfArtifactID (@Nullable final String sArtifactID)
+  {
+    final ICommonsList <POMArtifact> ret = m_aByArtifactID.get (sArtifactID);
+    return ret == null ? new CommonsArrayList <> () : ret.getClone ();
+  }
+
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <POMArtifact> getAllArtifacts (@Nullable final String sGroupID,
+                                                     @Nullable final String sArtifactID)
+  {
+    final ICommonsList <POMArtifact> ret = m_aByArtifactID.get (sArtifactID);
+    return ret == null ? new CommonsArrayList <> () : ret.getAll (x -> sGroupID == null ? x.getGroupID () == null
+                                                                                     : sGroupID.equals (x.getGroupID ()));
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Project", m_aProject)
+                                       .append ("Parent", m_aParent)
+                                       .append ("Properties", m_aProperties.size ())
+                                       .append ("Artifacts", m_aArtifacts.size ())
+                                       .append ("ProfileIDs", m_aProfileIDs)
+                                       .getToString ();
+  }
+
+  /**
+   * Read the model from the passed input stream.
+   *
+   * @param aIS
+   *        The input stream to read from. May not be <code>null</code>. It is
+   *        not closed.
+   * @return <code>null</code> if the content is not well-formed XML.
+   */
+  @Nullable
+  public static POMModel read (@Nonnull final InputStream aIS)
+  {
+    ValueEnforcer.notNull (aIS, "InputStream");
+    try
+    {
+      final XMLStreamReader aReader = s_aFactory.createXMLStreamReader (aIS);
+      try
+      {
+        final POMModel ret = new POMModel ();
+        ret._read (aReader);
+        return ret;
+      }
+      finally
+      {
+        aReader.close ();
+      }
+    }
+    catch (final XMLStreamException ex)
+    {
+      s_aLogger.warn ("Failed to read POM model: " + ex.getMessage ());
+      return null;
+    }
+  }
+
+  /**
+   * Read the model from the passed POM file.
+   *
+   * @param aPOMFile
+   *        The file to read. May not be <code>null</code>.
+   * @return <code>null</code> if the file does not exist or is not well-formed
+   *         XML.
+   */
+  @Nullable
+  public static POMModel read (@Nonnull final File aPOMFile)
+  {
+    ValueEnforcer.notNull (aPOMFile, "POMFile");
+    if (!aPOMFile.isFile ())
+      return null;
+
+    try (final InputStream aIS = new BufferedInputStream (new FileInputStream (aPOMFile)))
+    {
+      return read (aIS);
+    }
+    catch (final IOException ex)
+    {
+      s_aLogger.warn ("Failed to read POM " + aPOMFile + ": " + ex.getMessage ());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,330 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.CommonsHashSet;
+import com.helger.commons.collection.ext.CommonsTreeMap;
+import com.helger.commons.collection.ext.CommonsTreeSet;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.commons.collection.ext.ICommonsNavigableSet;
+import com.helger.commons.collection.ext.ICommonsSet;
+
+/**
+ * The dependency graph between projects as declared in their POMs. Only the
+ * projects that are part of the graph are considered for the build waves and
+ * the critical path. Dependencies on other projects (e.g. on parent POMs) are
+ * contained as direct dependencies but are expected to be available already.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class ProjectDependencyGraph
+{
+  /** The group IDs of the Maven artifacts that are projects */
+  private static final String [] PROJECT_GROUP_IDS = { "com.helger", "com.helger.maven" };
+  private static final Comparator <IProject> COMPARATOR = IProject::compareTo;
+
+  private final ICommonsMap <IProject, ICommonsNavigableSet <IProject>> m_aDependencies = new CommonsTreeMap <> (COMPARATOR);
+  private final ICommonsMap <IProject, ICommonsNavigableSet <IProject>> m_aDependents = new CommonsHashMap <> ();
+
+  /**
+   * Constructor
+   *
+   * @param aDirectDependencies
+   *        Map from project to the projects it directly depends on. Each key
+   *        is a project in the graph. May not be <code>null</code>.
+   */
+  public ProjectDependencyGraph (@Nonnull final Map <IProject, ? extends Set <IProject>> aDirectDependencies)
+  {
+    ValueEnforcer.notNull (aDirectDependencies, "DirectDependencies");
+    aDirectDependencies.forEach ( (aProject, aDirectDeps) -> {
+      final ICommonsNavigableSet <IProject> aDeps = new CommonsTreeSet <> (COMPARATOR);
+      for (final IProject aDep : aDirectDeps)
+        if (aDep != aProject)
+        {
+          aDeps.add (aDep);
+          m_aDependents.computeIfAbsent (aDep, k -> new CommonsTreeSet <> (COMPARATOR)).add (aProject);
+        }
+      m_aDependencies.put (aProject, aDeps);
+    });
+  }
+
+  @Nonnegative
+  public int getProjectCount ()
+  {
+    return m_aDependencies.size ();
+  }
+
+  public boolean containsProject (@Nonnull final IProject aProject)
+  {
+    return m_aDependencies.containsKey (aProject);
+  }
+
+  /**
+   * @return All projects of the graph, sorted by name. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <IProject> getAllProjects ()
+  {
+    return new CommonsArrayList <> (m_aDependencies.keySet ());
+  }
+
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsNavigableSet <IProject> getDirectDependencies (@Nonnull final IProject aProject)
+  {
+    final ICommonsNavigableSet <IProject> ret = m_aDependencies.get (aProject);
+    return ret == null ? new CommonsTreeSet <> (COMPARATOR) : ret.getClone ();
+  }
+
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsNavigableSet <IProject> getDirectDependents (@Nonnull final IProject aProject)
+  {
+    final ICommonsNavigableSet <IProject> ret = m_aDependents.get (aProject);
+    return ret == null ? new CommonsTreeSet <> (COMPARATOR) : ret.getClone ();
+  }
+
+  @Nonnull
+  private static ICommonsNavigableSet <IProject> _getTransitive (@Nonnull final Collection <IProject> aStart,
+                                                                 @Nonnull final Map <IProject, ? extends Set <IProject>> aEdges)
+  {
+    final ICommonsNavigableSet <IProject> ret = new CommonsTreeSet <> (COMPARATOR);
+    final ICommonsList <IProject> aOpen = new CommonsArrayList <> (aStart);
+    while (aOpen.isNotEmpty ())
+    {
+      final Set <IProject> aNext = aEdges.get (aOpen.removeLast ());
+      if (aNext != null)
+        for (final IProject aProject : aNext)
+          if (ret.add (aProject))
+            aOpen.add (aProject);
+    }
+    return ret;
+  }
+
+  /**
+   * @param aProject
+   *        The project to start at. May not be <code>null</code>.
+   * @return All projects the passed project directly or indirectly depends on.
+   *         Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsNavigableSet <IProject> getAllTransitiveDependencies (@Nonnull final IProject aProject)
+  {
+    ValueEnforcer.notNull (aProject, "Project");
+    final ICommonsList <IProject> aStart = new CommonsArrayList <> ();
+    aStart.add (aProject);
+    return _getTransitive (aStart, m_aDependencies);
+  }
+
+  /**
+   * @param aProjects
+   *        The projects to start at. May not be <code>null</code>.
+   * @return All projects that directly or indirectly depend on at least one of
+   *         the passed projects. The passed projects are only contained if
+   *         they depend on each other. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsNavigableSet <IProject> getAllTransitiveDependents (@Nonnull final Collection <IProject> aProjects)
+  {
+    ValueEnforcer.notNull (aProjects, "Projects");
+    return _getTransitive (aProjects, m_aDependents);
+  }
+
+  /**
+   * Split the projects of the graph into build waves. All dependencies of the
+   * projects of a wave are contained in previous waves, so all projects of a
+   * wave can be built in parallel.
+   *
+   * @return The waves in build order, each sorted by project name. Never
+   *         <code>null</code>.
+   * @throws IllegalStateException
+   *         If the graph contains a cycle
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <ICommonsList <IProject>> getBuildWaves ()
+  {
+    // Number of open dependencies within the graph
+    final ICommonsMap <IProject, int []> aOpenDeps = new CommonsHashMap <> ();
+    ICommonsList <IProject> aCurrent = new CommonsArrayList <> ();
+    for (final Map.Entry <IProject, ICommonsNavigableSet <IProject>> aEntry : m_aDependencies.entrySet ())
+    {
+      int nOpen = 0;
+      for (final IProject aDep : aEntry.getValue ())
+        if (containsProject (aDep))
+          nOpen++;
+      if (nOpen == 0)
+        aCurrent.add (aEntry.getKey ());
+      else
+        aOpenDeps.put (aEntry.getKey (), new int [] { nOpen });
+    }
+
+    final ICommonsList <ICommonsList <IProject>> ret = new CommonsArrayList <> ();
+    while (aCurrent.isNotEmpty ())
+    {
+      ret.add (aCurrent);
+      final ICommonsList <IProject> aNext = new CommonsArrayList <> ();
+      for (final IProject aProject : aCurrent)
+      {
+        final ICommonsNavigableSet <IProject> aDependents = m_aDependents.get (aProject);
+        if (aDependents != null)
+          for (final IProject aDependent : aDependents)
+          {
+            final int [] aOpen = aOpenDeps.get (aDependent);
+            if (aOpen != null && --aOpen[0] == 0)
+            {
+              aOpenDeps.remove (aDependent);
+              aNext.add (aDependent);
+            }
+          }
+      }
+      aNext.sort (COMPARATOR);
+      aCurrent = aNext;
+    }
+
+    if (aOpenDeps.isNotEmpty ())
+    {
+      final ICommonsNavigableSet <String> aCyclic = new CommonsTreeSet <> ();
+      for (final IProject aProject : aOpenDeps.keySet ())
+        aCyclic.add (aProject.getProjectName ());
+      throw new IllegalStateException ("The dependencies of the following projects are cyclic: " + aCyclic);
+    }
+    return ret;
+  }
+
+  /**
+   * Determine the critical path of a parallel build, that is the chain of
+   * dependent projects with the highest total build duration.
+   *
+   * @param aDurationProvider
+   *        Provides the (estimated) build duration of a single project. The
+   *        unit does not matter. May not be <code>null</code>.
+   * @return The projects on the critical path in build order. Empty if the
+   *         graph is empty. Never <code>null</code>.
+   * @throws IllegalStateException
+   *         If the graph contains a cycle
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <IProject> getCriticalPath (@Nonnull final ToLongFunction <IProject> aDurationProvider)
+  {
+    ValueEnforcer.notNull (aDurationProvider, "DurationProvider");
+
+    // Earliest finish time and the predecessor on the longest path
+    final ICommonsMap <IProject, Long> aFinish = new CommonsHashMap <> ();
+    final ICommonsMap <IProject, IProject> aPredecessor = new CommonsHashMap <> ();
+    IProject aLast = null;
+    long nMaxFinish = -1;
+    for (final ICommonsList <IProject> aWave : getBuildWaves ())
+      for (final IProject aProject : aWave)
+      {
+        long nStart = 0;
+        for (final IProject aDep : m_aDependencies.get (aProject))
+        {
+          final Long aDepFinish = aFinish.get (aDep);
+          if (aDepFinish != null && aDepFinish.longValue () > nStart)
+          {
+            nStart = aDepFinish.longValue ();
+            aPredecessor.put (aProject, aDep);
+          }
+        }
+        final long nFinish = nStart + aDurationProvider.applyAsLong (aProject);
+        aFinish.put (aProject, Long.valueOf (nFinish));
+        if (nFinish > nMaxFinish)
+        {
+          nMaxFinish = nFinish;
+          aLast = aProject;
+        }
+      }
+
+    final ICommonsList <IProject> ret = new CommonsArrayList <> ();
+    for (IProject aCur = aLast; aCur != null; aCur = aPredecessor.get (aCur))
+      ret.add (0, aCur);
+    return ret;
+  }
+
+  /**
+   * Create the dependency graph of the passed projects by reading their POMs.
+   * A project depends on all referenced Maven artifacts of the "com.helger"
+   * groups, including parent POMs and plugins.
+   *
+   * @param aProjects
+   *        The projects to be contained in the graph. May not be
+   *        <code>null</code>.
+   * @param aUnknownReferenceHandler
+   *        Invoked with the referencing project and the artifact ID for every
+   *        referenced artifact that is no known project. May not be
+   *        <code>null</code>.
+   * @return The new graph. Never <code>null</code>.
+   * @throws IllegalStateException
+   *         If a POM cannot be read or does not match its project
+   */
+  @Nonnull
+  public static ProjectDependencyGraph readFromPOMs (@Nonnull final Iterable <IProject> aProjects,
+                                                     @Nonnull final BiConsumer <IProject, String> aUnknownReferenceHandler)
+  {
+    ValueEnforcer.notNull (aProjects, "Projects");
+    ValueEnforcer.notNull (aUnknownReferenceHandler, "UnknownReferenceHandler");
+
+    final ICommonsMap <IProject, ICommonsSet <IProject>> aDirectDeps = new CommonsHashMap <> ();
+    for (final IProject aProject : aProjects)
+    {
+      final POMModel aModel = POMCache.getDefault ().getModel (aProject.getPOMFile ());
+      if (aModel == null)
+        throw new IllegalStateException ("Failed to read " + aProject.getPOMFile ());
+
+      final String sThisArtefactID = aModel.getProject () == null ? null : aModel.getProject ().getArtifactID ();
+      final IProject aThisProject = ProjectList.getProjectOfName (sThisArtefactID);
+      if (aThisProject != aProject)
+        throw new IllegalStateException (sThisArtefactID + " is weird: " + aThisProject + " vs. " + aProject);
+
+      final ICommonsSet <IProject> aRefProjects = new CommonsHashSet <> ();
+      for (final String sGroupID : PROJECT_GROUP_IDS)
+        for (final POMArtifact aArtifact : aModel.getAllArtifactsOfGroupID (sGroupID))
+        {
+          final IProject aReferencedProject = ProjectList.getProjectOfName (aArtifact.getArtifactID ());
+          if (aReferencedProject == null)
+            aUnknownReferenceHandler.accept (aProject, aArtifact.getArtifactID ());
+          else
+            aRefProjects.add (aReferencedProject);
+        }
+      aDirectDeps.put (aProject, aRefProjects);
+    }
+    return new ProjectDependencyGraph (aDirectDeps);
+  }
+}
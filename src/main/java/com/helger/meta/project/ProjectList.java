@@ -16,17 +16,32 @@
  */
 package com.helger.meta.project;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.commons.annotation.ReturnsImmutableObject;
 import com.helger.commons.annotation.ReturnsMutableCopy;
-import com.helger.commons.collection.CollectionHelper;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.CommonsHashSet;
 import com.helger.commons.collection.ext.CommonsLinkedHashMap;
 import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsMap;
 import com.helger.commons.collection.ext.ICommonsOrderedMap;
+import com.helger.commons.collection.ext.ICommonsSet;
+import com.helger.commons.io.file.SimpleFileIO;
 import com.helger.commons.io.resource.ClassPathResource;
 import com.helger.commons.io.resource.IReadableResource;
 import com.helger.commons.string.StringHelper;
@@ -37,7 +52,24 @@ import com.helger.xml.microdom.serialize.MicroReader;
 
 public final class ProjectList
 {
+  /**
+   * The system property to define a file with the names of the projects (one
+   * per line) that are returned by {@link #getAllSelectedProjects(Predicate)}.
+   * All other projects are skipped by the per-project tools. This is e.g. used
+   * to restrict the checks to the projects affected by a change.
+   */
+  public static final String SYSTEM_PROPERTY_PROJECTS_FILE = "meta.projects.file";
+
+  private static final Logger s_aLogger = LoggerFactory.getLogger (ProjectList.class);
   private static final ICommonsOrderedMap <String, IProject> s_aName2Project = new CommonsLinkedHashMap<> ();
+  // Secondary indices - all filled in the static initializer and read-only
+  // afterwards
+  private static final List <IProject> s_aAllProjects;
+  private static final ICommonsMap <String, List <IProject>> s_aDirName2Projects;
+  private static final Map <EProjectType, List <IProject>> s_aType2Projects;
+  // Maven groupId and artifactId to project. Built on first access, because
+  // resolving the coordinates may require reading the POMs.
+  private static ICommonsMap <String, IProject> s_aCoordinates2Project;
 
   private static void _add (@Nonnull final IProject aProject)
   {
@@ -67,11 +99,76 @@ public final class ProjectList
           _add (aProject);
         }
     }
+
+    s_aAllProjects = Collections.unmodifiableList (s_aName2Project.copyOfValues ());
+    s_aDirName2Projects = createDirNameIndex (s_aAllProjects);
+    s_aType2Projects = createTypeIndex (s_aAllProjects);
   }
 
   private ProjectList ()
   {}
 
+  /**
+   * @param aProjects
+   *        The projects to index. May not be <code>null</code>.
+   * @return A map from the base directory name (without parent directories)
+   *         to the read-only list of all projects with this directory name in
+   *         the passed order. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  static ICommonsMap <String, List <IProject>> createDirNameIndex (@Nonnull final Iterable <IProject> aProjects)
+  {
+    final ICommonsMap <String, ICommonsList <IProject>> aDirName2Projects = new CommonsHashMap <> ();
+    for (final IProject aProject : aProjects)
+      aDirName2Projects.computeIfAbsent (aProject.getBaseDir ().getName (), k -> new CommonsArrayList <> ())
+                       .add (aProject);
+
+    final ICommonsMap <String, List <IProject>> ret = new CommonsHashMap <> ();
+    aDirName2Projects.forEach ( (k, v) -> ret.put (k, Collections.unmodifiableList (v)));
+    return ret;
+  }
+
+  /**
+   * @param aProjects
+   *        The projects to index. May not be <code>null</code>.
+   * @return A map from each project type to the read-only list of all
+   *         projects of this type in the passed order. Contains all types,
+   *         even if no project has it. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  static Map <EProjectType, List <IProject>> createTypeIndex (@Nonnull final Iterable <IProject> aProjects)
+  {
+    final Map <EProjectType, ICommonsList <IProject>> aType2Projects = new EnumMap <> (EProjectType.class);
+    for (final EProjectType eType : EProjectType.values ())
+      aType2Projects.put (eType, new CommonsArrayList <> ());
+    for (final IProject aProject : aProjects)
+      aType2Projects.get (aProject.getProjectType ()).add (aProject);
+
+    final Map <EProjectType, List <IProject>> ret = new EnumMap <> (EProjectType.class);
+    aType2Projects.forEach ( (k, v) -> ret.put (k, Collections.unmodifiableList (v)));
+    return ret;
+  }
+
+  /**
+   * @param aProjects
+   *        The projects to index. May not be <code>null</code>.
+   * @return A map from the key created by
+   *         {@link #getCoordinatesKey(String, String)} to the project. In case
+   *         of duplicate coordinates the first project wins. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  static ICommonsMap <String, IProject> createCoordinatesIndex (@Nonnull final Iterable <IProject> aProjects)
+  {
+    final ICommonsMap <String, IProject> ret = new CommonsHashMap <> ();
+    for (final IProject aProject : aProjects)
+      ret.putIfAbsent (getCoordinatesKey (aProject.getMavenGroupID (), aProject.getMavenArtifactID ()), aProject);
+    return ret;
+  }
+
   @Nullable
   public static IProject getProjectOfName (@Nullable final String sName)
   {
@@ -92,6 +189,125 @@ public final class ProjectList
     return s_aName2Project.copyOfValues (aFilter);
   }
 
+  /**
+   * Get all projects matching the passed filter that are selected via the
+   * file defined by {@link #SYSTEM_PROPERTY_PROJECTS_FILE}. If the system
+   * property is not set, this is identical to
+   * {@link #getAllProjects(Predicate)}. This should be used by all tools that
+   * handle each project on its own. Tools that need a complete view (e.g. the
+   * dependency graph) or that regenerate aggregated files (e.g. the build-all
+   * POM, the README or the batch files) must use
+   * {@link #getAllProjects(Predicate)} instead.
+   *
+   * @param aFilter
+   *        The filter to apply. May not be <code>null</code>.
+   * @return The selected projects in registration order. Never
+   *         <code>null</code>.
+   * @throws IllegalStateException
+   *         If the projects file cannot be read
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public static ICommonsList <IProject> getAllSelectedProjects (@Nonnull final Predicate <IProject> aFilter)
+  {
+    final ICommonsList <IProject> ret = getAllProjects (aFilter);
+    final String sFilename = System.getProperty (SYSTEM_PROPERTY_PROJECTS_FILE);
+    if (StringHelper.hasText (sFilename))
+    {
+      final String sContent = SimpleFileIO.getFileAsString (new File (sFilename), StandardCharsets.UTF_8);
+      if (sContent == null)
+        throw new IllegalStateException ("Failed to read the projects file '" + sFilename + "'");
+
+      final ICommonsSet <String> aNames = new CommonsHashSet <> ();
+      for (final String sLine : StringHelper.getExploded ('\n', sContent))
+        if (StringHelper.hasText (sLine.trim ()))
+          aNames.add (sLine.trim ());
+      final int nOldSize = ret.size ();
+      ret.removeIf (p -> !aNames.contains (p.getProjectName ()));
+      s_aLogger.info ("Handling " + ret.size () + " of " + nOldSize + " projects as listed in " + sFilename);
+    }
+    return ret;
+  }
+
+  /**
+   * @return A read-only view on all projects in registration order. Never
+   *         <code>null</code>. In contrast to {@link #getAllProjects()} this
+   *         does not copy anything.
+   */
+  @Nonnull
+  @ReturnsImmutableObject
+  public static List <IProject> getAllProjectsView ()
+  {
+    return s_aAllProjects;
+  }
+
+  /**
+   * @param eProjectType
+   *        The project type to search. May not be <code>null</code>.
+   * @return A read-only view on all projects of the passed type in
+   *         registration order. Never <code>null</code> but maybe empty.
+   */
+  @Nonnull
+  @ReturnsImmutableObject
+  public static List <IProject> getAllProjectsOfType (@Nonnull final EProjectType eProjectType)
+  {
+    return s_aType2Projects.get (eProjectType);
+  }
+
+  /**
+   * @param sDirName
+   *        The name of the project base directory (without parent
+   *        directories). May be <code>null</code>.
+   * @return A read-only view on all projects with the passed base directory
+   *         name. Never <code>null</code> but maybe empty.
+   */
+  @Nonnull
+  @ReturnsImmutableObject
+  public static List <IProject> getAllProjectsOfDir (@Nullable final String sDirName)
+  {
+    final List <IProject> ret = s_aDirName2Projects.get (sDirName);
+    return ret != null ? ret : Collections.emptyList ();
+  }
+
+  @Nonnull
+  static String getCoordinatesKey (@Nullable final String sGroupID, @Nullable final String sArtifactID)
+  {
+    return sGroupID + ':' + sArtifactID;
+  }
+
+  @Nonnull
+  private static synchronized ICommonsMap <String, IProject> _getCoordinatesIndex ()
+  {
+    ICommonsMap <String, IProject> ret = s_aCoordinates2Project;
+    if (ret == null)
+    {
+      ret = createCoordinatesIndex (s_aAllProjects);
+      s_aCoordinates2Project = ret;
+    }
+    return ret;
+  }
+
+  /**
+   * Get the project with the passed Maven coordinates. The index is built on
+   * the first invocation.
+   *
+   * @param sGroupID
+   *        Maven group ID. May be <code>null</code>.
+   * @param sArtifactID
+   *        Maven artifact ID. May be <code>null</code>.
+   * @return <code>null</code> if no such project exists. If more than one
+   *         project has these coordinates, the first registered one is
+   *         returned.
+   */
+  @Nullable
+  public static IProject getProjectOfMavenCoordinates (@Nullable final String sGroupID,
+                                                       @Nullable final String sArtifactID)
+  {
+    if (sGroupID == null || sArtifactID == null)
+      return null;
+    return _getCoordinatesIndex ().get (getCoordinatesKey (sGroupID, sArtifactID));
+  }
+
   @Nonnegative
   public static int size ()
   {
@@ -103,6 +319,6 @@ public final class ProjectList
     if (StringHelper.hasNoText (sDirName))
       return false;
 
-    return CollectionHelper.containsAny (s_aName2Project.values (), p -> p.getBaseDir ().getName ().equals (sDirName));
+    return s_aDirName2Projects.containsKey (sDirName);
   }
 }
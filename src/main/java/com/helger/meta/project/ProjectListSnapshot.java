@@ -0,0 +1,353 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.CMeta;
+
+/**
+ * A persistent snapshot of the resolved project list. For each project it
+ * contains name, type, base directory, the Maven coordinates read from the
+ * POM and size and last modification time of the POM. An entry is only used
+ * if the project and its POM are unchanged, so only projects with a changed
+ * POM are parsed again. The snapshot file is read on startup and rewritten if
+ * anything changed.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class ProjectListSnapshot
+{
+  /** The default location of the snapshot */
+  public static final File DEFAULT_FILE = new File (CMeta.CACHE_DIR, "project-list.bin");
+
+  private static final Logger s_aLogger = LoggerFactory.getLogger (ProjectListSnapshot.class);
+  private static final int MAGIC = 0x4d504c53;
+  private static final int VERSION = 1;
+
+  private static final ProjectListSnapshot s_aDefault = new ProjectListSnapshot (DEFAULT_FILE);
+
+  static
+  {
+    // Projects are resolved lazily, so persist all resolutions at the end
+    Runtime.getRuntime ().addShutdownHook (new Thread ( () -> {
+      try
+      {
+        s_aDefault.writeIfChanged ();
+      }
+      catch (final IOException ex)
+      {
+        s_aLogger.warn ("Failed to write project list snapshot " + DEFAULT_FILE, ex);
+      }
+    }, "ProjectListSnapshot-writer"));
+  }
+
+  /**
+   * The resolved information of a single project.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Entry
+  {
+    private final String m_sProjectName;
+    private final String m_sProjectTypeID;
+    private final String m_sBaseDir;
+    private final long m_nPOMLastModified;
+    private final long m_nPOMSize;
+    private final String m_sMavenGroupID;
+    private final String m_sMavenArtifactID;
+
+    public Entry (@Nonnull @Nonempty final String sProjectName,
+                  @Nonnull @Nonempty final String sProjectTypeID,
+                  @Nonnull @Nonempty final String sBaseDir,
+                  final long nPOMLastModified,
+                  final long nPOMSize,
+                  @Nonnull @Nonempty final String sMavenGroupID,
+                  @Nonnull @Nonempty final String sMavenArtifactID)
+    {
+      m_sProjectName = sProjectName;
+      m_sProjectTypeID = sProjectTypeID;
+      m_sBaseDir = sBaseDir;
+      m_nPOMLastModified = nPOMLastModified;
+      m_nPOMSize = nPOMSize;
+      m_sMavenGroupID = sMavenGroupID;
+      m_sMavenArtifactID = sMavenArtifactID;
+    }
+
+    @Nonnull
+    @Nonempty
+    public String getProjectName ()
+    {
+      return m_sProjectName;
+    }
+
+    @Nonnull
+    @Nonempty
+    public String getMavenGroupID ()
+    {
+      return m_sMavenGroupID;
+    }
+
+    @Nonnull
+    @Nonempty
+    public String getMavenArtifactID ()
+    {
+      return m_sMavenArtifactID;
+    }
+
+    boolean isUpToDate (@Nonnull final EProjectType eProjectType,
+                        @Nonnull final File aBaseDir,
+                        @Nonnull final File aPOMFile)
+    {
+      return m_sProjectTypeID.equals (eProjectType.getID ()) &&
+             m_sBaseDir.equals (aBaseDir.getAbsolutePath ()) &&
+             m_nPOMLastModified == aPOMFile.lastModified () &&
+             m_nPOMSize == aPOMFile.length ();
+    }
+
+    @Override
+    public String toString ()
+    {
+      return new ToStringGenerator (this).append ("ProjectName", m_sProjectName)
+                                         .append ("ProjectTypeID", m_sProjectTypeID)
+                                         .append ("BaseDir", m_sBaseDir)
+                                         .append ("POMLastModified", m_nPOMLastModified)
+                                         .append ("POMSize", m_nPOMSize)
+                                         .append ("MavenGroupID", m_sMavenGroupID)
+                                         .append ("MavenArtifactID", m_sMavenArtifactID)
+                                         .getToString ();
+    }
+  }
+
+  private final File m_aFile;
+  @GuardedBy ("this")
+  private final ICommonsMap <String, Entry> m_aEntries = new CommonsHashMap <> ();
+  @GuardedBy ("this")
+  private boolean m_bChanged = false;
+  @GuardedBy ("this")
+  private int m_nHits = 0;
+  @GuardedBy ("this")
+  private int m_nMisses = 0;
+
+  /**
+   * Constructor. Reads the existing snapshot if it exists.
+   *
+   * @param aFile
+   *        The file to read from and write to. May not be <code>null</code>.
+   */
+  public ProjectListSnapshot (@Nonnull final File aFile)
+  {
+    ValueEnforcer.notNull (aFile, "File");
+    m_aFile = aFile;
+    if (aFile.isFile ())
+      try
+      {
+        _read ();
+      }
+      catch (final IOException | RuntimeException ex)
+      {
+        s_aLogger.warn ("Failed to read project list snapshot " + aFile + " - ignoring it", ex);
+        m_aEntries.clear ();
+      }
+  }
+
+  private void _read () throws IOException
+  {
+    // Read into the heap - a memory mapping would keep the file locked on
+    // Windows, so it could not be replaced when writing the new snapshot
+    try (final DataInputStream aDIS = new DataInputStream (new BufferedInputStream (new FileInputStream (m_aFile))))
+    {
+      if (aDIS.readInt () != MAGIC || aDIS.readInt () != VERSION)
+        return;
+      final int nEntries = aDIS.readInt ();
+      for (int i = 0; i < nEntries; ++i)
+      {
+        final Entry aEntry = new Entry (aDIS.readUTF (),
+                                        aDIS.readUTF (),
+                                        aDIS.readUTF (),
+                                        aDIS.readLong (),
+                                        aDIS.readLong (),
+                                        aDIS.readUTF (),
+                                        aDIS.readUTF ());
+        m_aEntries.put (aEntry.getProjectName (), aEntry);
+      }
+    }
+  }
+
+  /**
+   * Get the snapshot entry of the passed project if neither the project nor
+   * its POM changed.
+   *
+   * @param sProjectName
+   *        The project name. May not be <code>null</code>.
+   * @param eProjectType
+   *        The project type. May not be <code>null</code>.
+   * @param aBaseDir
+   *        The project base directory. May not be <code>null</code>.
+   * @param aPOMFile
+   *        The POM file of the project. It does not need to exist. May not be
+   *        <code>null</code>.
+   * @return <code>null</code> if there is no up-to-date entry and the POM
+   *         needs to be parsed.
+   */
+  @Nullable
+  public synchronized Entry getIfUpToDate (@Nonnull final String sProjectName,
+                                           @Nonnull final EProjectType eProjectType,
+                                           @Nonnull final File aBaseDir,
+                                           @Nonnull final File aPOMFile)
+  {
+    final Entry aEntry = m_aEntries.get (sProjectName);
+    if (aEntry != null && aEntry.isUpToDate (eProjectType, aBaseDir, aPOMFile))
+    {
+      m_nHits++;
+      return aEntry;
+    }
+    m_nMisses++;
+    return null;
+  }
+
+  /**
+   * Remember the resolved information of a project.
+   *
+   * @param sProjectName
+   *        The project name. May neither be <code>null</code> nor empty.
+   * @param eProjectType
+   *        The project type. May not be <code>null</code>.
+   * @param aBaseDir
+   *        The project base directory. May not be <code>null</code>.
+   * @param aPOMFile
+   *        The POM file the coordinates were read from. May not be
+   *        <code>null</code>.
+   * @param sMavenGroupID
+   *        The resolved Maven group ID. May neither be <code>null</code> nor
+   *        empty.
+   * @param sMavenArtifactID
+   *        The resolved Maven artifact ID. May neither be <code>null</code>
+   *        nor empty.
+   * @return The new entry. Never <code>null</code>.
+   */
+  @Nonnull
+  public synchronized Entry put (@Nonnull @Nonempty final String sProjectName,
+                                 @Nonnull final EProjectType eProjectType,
+                                 @Nonnull final File aBaseDir,
+                                 @Nonnull final File aPOMFile,
+                                 @Nonnull @Nonempty final String sMavenGroupID,
+                                 @Nonnull @Nonempty final String sMavenArtifactID)
+  {
+    final Entry ret = new Entry (sProjectName,
+                                 eProjectType.getID (),
+                                 aBaseDir.getAbsolutePath (),
+                                 aPOMFile.lastModified (),
+                                 aPOMFile.length (),
+                                 sMavenGroupID,
+                                 sMavenArtifactID);
+    m_aEntries.put (sProjectName, ret);
+    m_bChanged = true;
+    return ret;
+  }
+
+  @Nonnegative
+  public synchronized int getHitCount ()
+  {
+    return m_nHits;
+  }
+
+  @Nonnegative
+  public synchronized int getMissCount ()
+  {
+    return m_nMisses;
+  }
+
+  /**
+   * Write all entries to the snapshot file, if anything changed. Entries of
+   * projects that were not resolved in this run are retained.
+   *
+   * @throws IOException
+   *         In case writing fails
+   */
+  public synchronized void writeIfChanged () throws IOException
+  {
+    if (!m_bChanged)
+      return;
+
+    Files.createDirectories (m_aFile.getAbsoluteFile ().getParentFile ().toPath ());
+    final File aTmpFile = new File (m_aFile.getAbsolutePath () + ".tmp");
+    try (final DataOutputStream aDOS = new DataOutputStream (new BufferedOutputStream (new FileOutputStream (aTmpFile))))
+    {
+      aDOS.writeInt (MAGIC);
+      aDOS.writeInt (VERSION);
+      aDOS.writeInt (m_aEntries.size ());
+      for (final Entry aEntry : m_aEntries.values ())
+      {
+        aDOS.writeUTF (aEntry.m_sProjectName);
+        aDOS.writeUTF (aEntry.m_sProjectTypeID);
+        aDOS.writeUTF (aEntry.m_sBaseDir);
+        aDOS.writeLong (aEntry.m_nPOMLastModified);
+        aDOS.writeLong (aEntry.m_nPOMSize);
+        aDOS.writeUTF (aEntry.m_sMavenGroupID);
+        aDOS.writeUTF (aEntry.m_sMavenArtifactID);
+      }
+    }
+    Files.move (aTmpFile.toPath (), m_aFile.toPath (), StandardCopyOption.REPLACE_EXISTING);
+    m_bChanged = false;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("File", m_aFile)
+                                       .append ("Entries", m_aEntries.size ())
+                                       .getToString ();
+  }
+
+  /**
+   * @return The snapshot at the {@link #DEFAULT_FILE default location} that is
+   *         used by all projects. It is written when the VM shuts down. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  public static ProjectListSnapshot getDefault ()
+  {
+    return s_aDefault;
+  }
+}
@@ -24,9 +24,6 @@ import javax.annotation.Nullable;
 import com.helger.commons.ValueEnforcer;
 import com.helger.commons.annotation.Nonempty;
 import com.helger.commons.version.Version;
-import com.helger.xml.microdom.IMicroDocument;
-import com.helger.xml.microdom.IMicroElement;
-import com.helger.xml.microdom.serialize.MicroReader;
 
 public class SimpleProject implements IProject
 {
@@ -41,8 +38,8 @@ public class SimpleProject implements IProject
   private final String m_sLastPublishedVersion;
   private final Version m_aLastPublishedVersion;
   private final EJDK m_eMinJDK;
-  private final String m_sMavenGroupID;
-  private final String m_sMavenArtifactID;
+  // Resolved on first access
+  private volatile ProjectListSnapshot.Entry m_aMavenCoordinates;
 
   public SimpleProject (@Nullable final IProject aParentProject,
                         @Nonnull @Nonempty final String sProjectName,
@@ -74,40 +71,59 @@ public class SimpleProject implements IProject
     m_bHasPagesProject = eHasPagesProject.isTrue ();
     m_bHasWikiProject = eHasWikiProject.isTrue ();
     m_sLastPublishedVersion = sLastPublishedVersion;
-    m_aLastPublishedVersion = sLastPublishedVersion == null ? null : Version.parse (sLastPublishedVersion);
+    m_aLastPublishedVersion = sLastPublishedVersion == null ? null : VersionClassifier.getVersion (sLastPublishedVersion);
     m_eMinJDK = eMinJDK;
+  }
 
-    // Determine group and artifact from POM
-    String sGroupID = null;
-    String sArtifactID = null;
-    final IMicroDocument aDoc = MicroReader.readMicroXML (getPOMFile ());
-    if (aDoc != null)
+  @Nonnull
+  private ProjectListSnapshot.Entry _resolveMavenCoordinates ()
+  {
+    // Use the snapshot if the POM is unchanged
+    final File aPOMFile = getPOMFile ();
+    final ProjectListSnapshot aSnapshot = ProjectListSnapshot.getDefault ();
+    final ProjectListSnapshot.Entry aEntry = aSnapshot.getIfUpToDate (m_sProjectName,
+                                                                      m_eProjectType,
+                                                                      m_aBaseDir,
+                                                                      aPOMFile);
+    if (aEntry != null)
+      return aEntry;
+
+    final String sGroupID;
+    final String sArtifactID;
+    final POMCoordinateReader aCoordinates = POMCoordinateReader.read (aPOMFile);
+    if (aCoordinates != null)
     {
-      final IMicroElement eParent = aDoc.getDocumentElement ().getFirstChildElement ("parent");
-      IMicroElement eGroupID = aDoc.getDocumentElement ().getFirstChildElement ("groupId");
-      if (eGroupID == null && eParent != null)
-        eGroupID = eParent.getFirstChildElement ("groupId");
-      if (eGroupID != null)
-        sGroupID = eGroupID.getTextContentTrimmed ();
+      sGroupID = aCoordinates.getGroupID ();
       if (sGroupID == null)
-        throw new IllegalStateException ("Failed to resolve Maven groupId in " + sProjectName);
-
-      IMicroElement eArtifactID = aDoc.getDocumentElement ().getFirstChildElement ("artifactId");
-      if (eArtifactID == null && eParent != null)
-        eArtifactID = eParent.getFirstChildElement ("artifactId");
-      if (eArtifactID != null)
-        sArtifactID = eArtifactID.getTextContentTrimmed ();
+        throw new IllegalStateException ("Failed to resolve Maven groupId in " + m_sProjectName);
+      sArtifactID = aCoordinates.getArtifactID ();
       if (sArtifactID == null)
-        throw new IllegalStateException ("Failed to resolve Maven artifactId in " + sProjectName);
-      m_sMavenGroupID = sGroupID;
-      m_sMavenArtifactID = sArtifactID;
+        throw new IllegalStateException ("Failed to resolve Maven artifactId in " + m_sProjectName);
     }
     else
     {
       // For deprecated projects
-      m_sMavenGroupID = eProjectType == EProjectType.MAVEN_PLUGIN ? "com.helger.maven" : "com.helger";
-      m_sMavenArtifactID = m_sProjectName;
+      sGroupID = m_eProjectType == EProjectType.MAVEN_PLUGIN ? "com.helger.maven" : "com.helger";
+      sArtifactID = m_sProjectName;
+    }
+    return aSnapshot.put (m_sProjectName, m_eProjectType, m_aBaseDir, aPOMFile, sGroupID, sArtifactID);
+  }
+
+  /**
+   * @return The Maven coordinates, resolved on first access. Concurrent first
+   *         accesses may resolve them more than once, but always to the same
+   *         immutable value.
+   */
+  @Nonnull
+  private ProjectListSnapshot.Entry _getMavenCoordinates ()
+  {
+    ProjectListSnapshot.Entry ret = m_aMavenCoordinates;
+    if (ret == null)
+    {
+      ret = _resolveMavenCoordinates ();
+      m_aMavenCoordinates = ret;
     }
+    return ret;
   }
 
   public boolean isBuildInProject ()
@@ -156,14 +172,14 @@ public class SimpleProject implements IProject
   @Nonempty
   public String getMavenGroupID ()
   {
-    return m_sMavenGroupID;
+    return _getMavenCoordinates ().getMavenGroupID ();
   }
 
   @Nonnull
   @Nonempty
   public String getMavenArtifactID ()
   {
-    return m_sMavenArtifactID;
+    return _getMavenCoordinates ().getMavenArtifactID ();
   }
 
   public boolean isDeprecated ()
@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.version.Version;
+
+/**
+ * Classifies Maven version strings and provides shared {@link Version}
+ * objects. Version strings are classified with a single backwards scan
+ * instead of a regular expression. Parsed versions are interned in a table
+ * that is shared by the whole application, so that the same version string is
+ * only parsed once.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class VersionClassifier
+{
+  public static final String SUFFIX_SNAPSHOT = "-SNAPSHOT";
+
+  // Version string to parsed version. The number of distinct versions is
+  // limited by the number of known projects and dependencies.
+  private static final ConcurrentHashMap <String, Version> s_aVersions = new ConcurrentHashMap <> ();
+
+  private VersionClassifier ()
+  {}
+
+  private static boolean _isSeparator (final char c)
+  {
+    return c == '-' || c == '_' || c == '.';
+  }
+
+  private static boolean _isDigit (final char c)
+  {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean _isLetter (final char c)
+  {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  @Nullable
+  private static EVersionKind _getQualifierKind (@Nonnull final String sQualifier)
+  {
+    switch (sQualifier.toLowerCase (Locale.US))
+    {
+      case "alpha":
+        return EVersionKind.ALPHA;
+      case "b":
+      case "beta":
+        return EVersionKind.BETA;
+      case "rc":
+        return EVersionKind.RELEASE_CANDIDATE;
+      case "m":
+        return EVersionKind.MILESTONE;
+      case "ea":
+        return EVersionKind.EARLY_ACCESS;
+      case "snapshot":
+        return EVersionKind.SNAPSHOT;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Classify the passed version string. A version is a snapshot if it ends
+   * with {@value #SUFFIX_SNAPSHOT}. Otherwise it is a pre-release if it ends
+   * with a separator, a known qualifier, an optional separator and a number
+   * (like <code>1.0-beta2</code> or <code>2.1.RC.1</code>). All other versions
+   * are releases.
+   *
+   * @param sVersion
+   *        The version string to classify. May not be <code>null</code>.
+   * @return The kind of the version and never <code>null</code>.
+   */
+  @Nonnull
+  public static EVersionKind getKind (@Nonnull final String sVersion)
+  {
+    ValueEnforcer.notNull (sVersion, "Version");
+
+    if (sVersion.endsWith (SUFFIX_SNAPSHOT))
+      return EVersionKind.SNAPSHOT;
+
+    // Trailing number
+    int nEnd = sVersion.length ();
+    while (nEnd > 0 && _isDigit (sVersion.charAt (nEnd - 1)))
+      nEnd--;
+    if (nEnd == sVersion.length ())
+      return EVersionKind.RELEASE;
+
+    // Optional separator between qualifier and number
+    if (nEnd > 0 && _isSeparator (sVersion.charAt (nEnd - 1)))
+      nEnd--;
+
+    // Qualifier
+    int nStart = nEnd;
+    while (nStart > 0 && _isLetter (sVersion.charAt (nStart - 1)))
+      nStart--;
+
+    // The qualifier must be preceded by a separator which must not be the
+    // first character
+    if (nStart == nEnd || nStart < 2 || !_isSeparator (sVersion.charAt (nStart - 1)))
+      return EVersionKind.RELEASE;
+
+    final EVersionKind eKind = _getQualifierKind (sVersion.substring (nStart, nEnd));
+    return eKind != null ? eKind : EVersionKind.RELEASE;
+  }
+
+  /**
+   * @param sVersion
+   *        The version string to check. May not be <code>null</code>.
+   * @return <code>true</code> if the passed version is not a release version.
+   * @see #getKind(String)
+   */
+  public static boolean isPreRelease (@Nonnull final String sVersion)
+  {
+    return getKind (sVersion).isPreRelease ();
+  }
+
+  /**
+   * Get the shared parsed version of the passed version string.
+   *
+   * @param sVersion
+   *        The version string to parse. May not be <code>null</code>.
+   * @return The parsed version and never <code>null</code>. The same object
+   *         is returned for equal version strings.
+   */
+  @Nonnull
+  public static Version getVersion (@Nonnull final String sVersion)
+  {
+    ValueEnforcer.notNull (sVersion, "Version");
+    return s_aVersions.computeIfAbsent (sVersion, Version::parse);
+  }
+
+  /**
+   * Get the shared parsed version of the passed version string, ignoring a
+   * trailing {@value #SUFFIX_SNAPSHOT}.
+   *
+   * @param sVersion
+   *        The version string to parse. May not be <code>null</code>.
+   * @return The parsed version and never <code>null</code>.
+   */
+  @Nonnull
+  public static Version getVersionWithoutSnapshot (@Nonnull final String sVersion)
+  {
+    ValueEnforcer.notNull (sVersion, "Version");
+    if (sVersion.endsWith (SUFFIX_SNAPSHOT))
+      return getVersion (sVersion.substring (0, sVersion.length () - SUFFIX_SNAPSHOT.length ()));
+    return getVersion (sVersion);
+  }
+
+  /**
+   * @return The number of distinct version strings parsed so far.
+   */
+  @Nonnegative
+  public static int getInternedVersionCount ()
+  {
+    return s_aVersions.size ();
+  }
+}
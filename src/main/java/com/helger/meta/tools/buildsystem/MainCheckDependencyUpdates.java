@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.buildsystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+
+import com.helger.commons.string.StringHelper;
+import com.helger.meta.AbstractProjectMain;
+import com.helger.meta.project.EExternalDependency;
+import com.helger.meta.project.IProject;
+import com.helger.meta.project.ProjectList;
+import com.helger.meta.project.VersionClassifier;
+
+/**
+ * Check all external dependencies and all published own projects for newer
+ * release versions available in a local Maven repository. This is the offline
+ * alternative to running <code>mvn versions:display-dependency-updates</code>
+ * on the POM created by {@link MainCreateKnownDependencyPOM}. The repository
+ * directory is taken from the first argument, from the system property
+ * <code>maven.repo.local</code> or defaults to
+ * <code>~/.m2/repository</code>.
+ *
+ * @author Philip Helger
+ */
+public final class MainCheckDependencyUpdates extends AbstractProjectMain
+{
+  @Nonnull
+  private static File _getRepositoryDir (@Nonnull final String [] args)
+  {
+    if (args.length > 0)
+      return new File (args[0]);
+    final String sRepo = System.getProperty ("maven.repo.local");
+    if (StringHelper.hasText (sRepo))
+      return new File (sRepo);
+    return new File (System.getProperty ("user.home"), ".m2/repository");
+  }
+
+  public static void main (final String [] args) throws IOException
+  {
+    final File aRepositoryDir = _getRepositoryDir (args);
+    if (!aRepositoryDir.isDirectory ())
+      throw new IllegalArgumentException ("Maven repository directory " + aRepositoryDir + " does not exist");
+    s_aLogger.info ("Checking for dependency updates in " + aRepositoryDir.getAbsolutePath ());
+
+    final MavenVersionIndex aIndex = new MavenVersionIndex (aRepositoryDir, MavenVersionIndex.DEFAULT_FILE);
+    int nUpdates = 0;
+    int nUnknown = 0;
+
+    for (final EExternalDependency e : EExternalDependency.values ())
+      if (!MainCreateKnownDependencyPOM.NO_UPDATE_CHECK.contains (e))
+      {
+        final List <String> aVersions = aIndex.getAllVersions (e.getGroupID (), e.getArtifactID ());
+        final String sLatest = MavenVersionIndex.getLatestRelease (aVersions);
+        if (sLatest == null)
+          nUnknown++;
+        else
+          if (VersionClassifier.getVersion (sLatest).isGreaterThan (e.getLastPublishedVersion ()))
+          {
+            s_aLogger.warn (e.name () +
+                            ": " +
+                            e.getGroupID () +
+                            "::" +
+                            e.getArtifactID () +
+                            " can be updated from " +
+                            e.getLastPublishedVersionString () +
+                            " to " +
+                            sLatest);
+            nUpdates++;
+          }
+      }
+
+    final Predicate <IProject> aFilter = MainCreateKnownDependencyPOM.PROJECT_UPDATE_CHECK_FILTER;
+    for (final IProject aProject : ProjectList.getAllSelectedProjects (aFilter))
+    {
+      final List <String> aVersions = aIndex.getAllVersions (aProject.getMavenGroupID (),
+                                                             aProject.getMavenArtifactID ());
+      final String sLatest = MavenVersionIndex.getLatestRelease (aVersions);
+      if (sLatest == null)
+        nUnknown++;
+      else
+        if (VersionClassifier.getVersion (sLatest).isGreaterThan (aProject.getLastPublishedVersion ()))
+        {
+          // The project list is outdated
+          _warn (aProject,
+                 "Last published version is " +
+                           aProject.getLastPublishedVersionString () +
+                           " but " +
+                           sLatest +
+                           " is available");
+          nUpdates++;
+        }
+    }
+
+    aIndex.writeIfChanged ();
+    s_aLogger.info ("Done - " +
+                    nUpdates +
+                    " update(s) found, " +
+                    nUnknown +
+                    " artifact(s) not found in the repository; " +
+                    aIndex.getHitCount () +
+                    " cached, " +
+                    aIndex.getMissCount () +
+                    " scanned artifact(s)");
+  }
+}
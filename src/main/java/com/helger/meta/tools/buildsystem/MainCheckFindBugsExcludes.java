@@ -33,7 +33,7 @@ public final class MainCheckFindBugsExcludes extends AbstractProjectMain
 {
   public static void main (final String [] args)
   {
-    for (final IProject aProject : ProjectList.getAllProjects (p -> p.getProjectType ().hasJavaCode ()))
+    for (final IProject aProject : ProjectList.getAllSelectedProjects (p -> p.getProjectType ().hasJavaCode ()))
     {
       final File f = new File (aProject.getBaseDir (), "findbugs-exclude.xml");
       if (f.exists ())
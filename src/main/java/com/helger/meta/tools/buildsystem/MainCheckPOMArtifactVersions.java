@@ -16,34 +16,37 @@
  */
 package com.helger.meta.tools.buildsystem;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.annotation.VisibleForTesting;
 import com.helger.commons.collection.ArrayHelper;
-import com.helger.commons.collection.ext.CommonsHashMap;
-import com.helger.commons.collection.ext.ICommonsMap;
-import com.helger.commons.regex.RegExHelper;
 import com.helger.commons.string.StringHelper;
 import com.helger.commons.string.StringParser;
 import com.helger.commons.version.Version;
 import com.helger.meta.AbstractProjectMain;
+import com.helger.meta.CMeta;
 import com.helger.meta.project.EExternalDependency;
 import com.helger.meta.project.EJDK;
 import com.helger.meta.project.EProject;
 import com.helger.meta.project.EProjectType;
 import com.helger.meta.project.IProject;
+import com.helger.meta.project.POMArtifact;
+import com.helger.meta.project.POMInterpolator;
+import com.helger.meta.project.POMModel;
 import com.helger.meta.project.ProjectList;
-import com.helger.xml.microdom.IMicroDocument;
-import com.helger.xml.microdom.IMicroElement;
-import com.helger.xml.microdom.IMicroNode;
-import com.helger.xml.microdom.serialize.MicroReader;
-import com.helger.xml.microdom.util.MicroHelper;
-import com.helger.xml.microdom.util.MicroRecursiveIterator;
+import com.helger.meta.project.VersionClassifier;
 
 /**
  * Check whether the Maven pom.xml of a project is consistent to the
@@ -56,7 +59,12 @@ public final class MainCheckPOMArtifactVersions extends AbstractProjectMain
   // Parent POM requirements
   private static final String PARENT_POM_GROUPID = "com.helger";
   private static final String PARENT_POM_ARTIFACTID = "parent-pom";
-  private static final String SUFFIX_SNAPSHOT = "-SNAPSHOT";
+
+  /** The file that stores the check results of the previous runs */
+  public static final File RESULT_CACHE_FILE = new File (CMeta.CACHE_DIR, "pom-check-results.bin");
+  // Increment when the checks change, to discard all cached results
+  private static final String RESULT_CACHE_VERSION = "2";
+  private static final String HASH_ALGORITHM = "SHA-256";
 
   @Nonnull
   @Nonempty
@@ -88,14 +96,6 @@ public final class MainCheckPOMArtifactVersions extends AbstractProjectMain
     return PARENT_POM_GROUPID.equals (sGroupID) || "com.helger.maven".equals (sGroupID);
   }
 
-  private static boolean _isSnapshot (final String sVersion)
-  {
-    return sVersion.endsWith (SUFFIX_SNAPSHOT) ||
-           RegExHelper.stringMatchesPattern (".+[-_\\.](alpha|Alpha|ALPHA|b|beta|Beta|BETA|rc|RC|M|EA|SNAOSHOT)[-_\\.]?[0-9]+",
-                                             Pattern.CASE_INSENSITIVE,
-                                             sVersion);
-  }
-
   @Nonnull
   private static String _getParentPOMVersion (@Nonnull final IProject aProject)
   {
@@ -103,47 +103,161 @@ public final class MainCheckPOMArtifactVersions extends AbstractProjectMain
     return EProject.PH_PARENT_POM.getLastPublishedVersionString ();
   }
 
-  private static void _validatePOM (@Nonnull final IProject aProject, @Nonnull final IMicroDocument aDoc)
+  @Nullable
+  private static String _getResolved (@Nonnull final POMInterpolator aInterpolator, @Nullable final String sValue)
+  {
+    if (sValue != null && sValue.contains ("$"))
+    {
+      // Try to resolve through properties - also of the parent POMs. May be
+      // null if a property is not known
+      return aInterpolator.interpolate (sValue);
+    }
+    return sValue;
+  }
+
+  @Nonnull
+  private static MessageDigest _createDigest ()
+  {
+    try
+    {
+      return MessageDigest.getInstance (HASH_ALGORITHM);
+    }
+    catch (final NoSuchAlgorithmException ex)
+    {
+      throw new IllegalStateException ("Hash algorithm " + HASH_ALGORITHM + " is not supported", ex);
+    }
+  }
+
+  private static void _update (@Nonnull final MessageDigest aMD, @Nullable final Object aValue)
+  {
+    if (aValue == null)
+      aMD.update ((byte) 0);
+    else
+    {
+      aMD.update ((byte) 1);
+      aMD.update (aValue.toString ().getBytes (StandardCharsets.UTF_8));
+      aMD.update ((byte) 0);
+    }
+  }
+
+  /**
+   * @return The fingerprint of all check inputs that are shared by all
+   *         projects: the check version, the parent POM version and the table
+   *         of known external dependencies.
+   */
+  @Nonnull
+  @Nonempty
+  private static String _getResultCacheFingerprint ()
+  {
+    final MessageDigest aMD = _createDigest ();
+    _update (aMD, EProject.PH_PARENT_POM.getLastPublishedVersionString ());
+    for (final EExternalDependency eExternalDep : EExternalDependency.values ())
+    {
+      _update (aMD, eExternalDep.name ());
+      _update (aMD, eExternalDep.getGroupID ());
+      _update (aMD, eExternalDep.getArtifactID ());
+      _update (aMD, eExternalDep.getLastPublishedVersionString ());
+      _update (aMD, eExternalDep.getDisplayName ());
+      _update (aMD, eExternalDep.getMinimumJDKVersion ());
+      for (final EJDK eJDK : EJDK.values ())
+        _update (aMD, eExternalDep.getReplacement (eJDK));
+    }
+    return RESULT_CACHE_VERSION + ":" + StringHelper.getHexEncoded (aMD.digest ());
+  }
+
+  /**
+   * Get the hash of all check inputs that are specific to a single project:
+   * the project settings, the content of its POM and all parent POMs and the
+   * state of all referenced projects.
+   *
+   * @param aProject
+   *        The project to be checked. May not be <code>null</code>.
+   * @param aInterpolator
+   *        The interpolator of the project POM. May not be <code>null</code>.
+   * @param aProjectResolver
+   *        Resolves the artifact ID of a referenced artifact to the project.
+   *        Usually {@link ProjectList#getProjectOfName(String)}. May not be
+   *        <code>null</code>.
+   * @return The hash and never <code>null</code>.
+   * @throws IOException
+   *         If a POM file cannot be read
+   */
+  @Nonnull
+  @VisibleForTesting
+  static byte [] getInputHash (@Nonnull final IProject aProject,
+                               @Nonnull final POMInterpolator aInterpolator,
+                               @Nonnull final Function <String, IProject> aProjectResolver) throws IOException
+  {
+    final MessageDigest aMD = _createDigest ();
+    _update (aMD, aProject.getProjectName ());
+    _update (aMD, aProject.getProjectType ());
+    _update (aMD, aProject.getMinimumJDKVersion ());
+    _update (aMD, aProject.getGitHubOrganization ());
+    _update (aMD, aProject.getFullBaseDirName ());
+    _update (aMD, Boolean.valueOf (aProject.isBuildInProject ()));
+    _update (aMD, Boolean.valueOf (aProject.isParentPOM ()));
+    _update (aMD, aProject.isNestedProject () ? aProject.getParentProject ().getProjectName () : null);
+
+    // Properties may be inherited from the parent POMs
+    for (POMInterpolator aCur = aInterpolator; aCur != null; aCur = aCur.getParent ())
+    {
+      final File aPOMFile = aCur.getPOMFile ();
+      _update (aMD, aPOMFile);
+      if (aPOMFile != null)
+        aMD.update (Files.readAllBytes (aPOMFile.toPath ()));
+    }
+
+    // The state of all referenced projects
+    for (final POMArtifact aArtifact : aInterpolator.getModel ().getAllArtifacts ())
+      if (_isSupportedGroupID (_getResolved (aInterpolator, aArtifact.getGroupID ())))
+      {
+        final String sArtifactID = _getResolved (aInterpolator, aArtifact.getArtifactID ());
+        _update (aMD, sArtifactID);
+        final IProject aReferencedProject = aProjectResolver.apply (sArtifactID);
+        if (aReferencedProject != null)
+        {
+          _update (aMD, aReferencedProject.getLastPublishedVersionString ());
+          _update (aMD, Boolean.valueOf (aReferencedProject.isDeprecated ()));
+          _update (aMD, aReferencedProject.getMinimumJDKVersion ());
+          _update (aMD, aReferencedProject.getProjectType ());
+        }
+      }
+    return aMD.digest ();
+  }
+
+  @Nonnull
+  private static POMCheckResult _validatePOM (@Nonnull final IProject aProject,
+                                              @Nonnull final POMInterpolator aInterpolator)
   {
     if (s_aLogger.isDebugEnabled ())
       s_aLogger.debug (aProject.getProjectName ());
 
-    final IMicroElement eRoot = aDoc.getDocumentElement ();
     final EJDK eProjectJDK = aProject.getMinimumJDKVersion ();
     final String sGitHubOrganization = aProject.getGitHubOrganization ();
 
-    // Read all properties
-    final ICommonsMap <String, String> aProperties = new CommonsHashMap<> ();
-    {
-      final IMicroElement eProperties = eRoot.getFirstChildElement ("properties");
-      if (eProperties != null)
-        eProperties.forAllChildElements (eProperty -> aProperties.put ("${" +
-                                                                       eProperty.getTagName () +
-                                                                       "}",
-                                                                       eProperty.getTextContentTrimmed ()));
-    }
+    final POMModel aModel = aInterpolator.getModel ();
+    final POMCheckResult aResult = new POMCheckResult ();
 
     // Check parent POM
-    String sParentPOMVersion = null;
     {
-      final IMicroElement eParent = eRoot.getFirstChildElement ("parent");
-      if (eParent == null)
+      final POMArtifact aParent = aModel.getParent ();
+      if (aParent == null)
       {
         if (!aProject.isParentPOM ())
-          _warn (aProject, "No parent element found");
+          aResult.addWarning ("No parent element found");
       }
       else
       {
-        final String sGroupId = MicroHelper.getChildTextContent (eParent, "groupId");
+        final String sGroupId = aParent.getGroupID ();
         if (!PARENT_POM_GROUPID.equals (sGroupId))
         {
           if (aProject.isBuildInProject ())
-            _warn (aProject, "Parent POM uses non-standard groupId '" + sGroupId + "'");
+            aResult.addWarning ("Parent POM uses non-standard groupId '" + sGroupId + "'");
         }
         else
         {
           // Check only if groupId matches
-          final String sArtifactId = MicroHelper.getChildTextContent (eParent, "artifactId");
+          final String sArtifactId = aParent.getArtifactID ();
           if (!PARENT_POM_ARTIFACTID.equals (sArtifactId))
           {
             if (aProject.isNestedProject () && aProject.getParentProject ().getProjectName ().equals (sArtifactId))
@@ -151,15 +265,14 @@ public final class MainCheckPOMArtifactVersions extends AbstractProjectMain
               // It's ok
             }
             else
-              _warn (aProject, "Parent POM uses non-standard artifactId '" + sArtifactId + "'");
+              aResult.addWarning ("Parent POM uses non-standard artifactId '" + sArtifactId + "'");
           }
           else
           {
             // Check version only if group and artifact match
-            final String sVersion = MicroHelper.getChildTextContent (eParent, "version");
+            final String sVersion = aParent.getVersion ();
             if (!_getParentPOMVersion (aProject).equals (sVersion))
-              _warn (aProject, "Parent POM uses non-standard version '" + sVersion + "'");
-            sParentPOMVersion = sVersion;
+              aResult.addWarning ("Parent POM uses non-standard version '" + sVersion + "'");
           }
         }
       }
@@ -167,7 +280,7 @@ public final class MainCheckPOMArtifactVersions extends AbstractProjectMain
 
     // Check Packaging
     {
-      String sPackaging = MicroHelper.getChildTextContent (eRoot, "packaging");
+      String sPackaging = aModel.getPackaging ();
       if (sPackaging == null)
       {
         // This is the default
@@ -176,63 +289,53 @@ public final class MainCheckPOMArtifactVersions extends AbstractProjectMain
 
       final String [] aExpectedPackagings = _getDesiredPackagings (aProject);
       if (!ArrayHelper.contains (aExpectedPackagings, sPackaging))
-        _warn (aProject,
-               "Unexpected packaging '" +
-                         sPackaging +
-                         "' used. Expected one of " +
-                         Arrays.toString (aExpectedPackagings) +
-                         ".");
-    }
-
-    // Check version
-    {
-      String sVersion = MicroHelper.getChildTextContent (eRoot, "version");
-      if (sVersion == null)
-        sVersion = sParentPOMVersion;
-      aProperties.put ("${project.version}", sVersion);
+        aResult.addWarning ("Unexpected packaging '" +
+                            sPackaging +
+                            "' used. Expected one of " +
+                            Arrays.toString (aExpectedPackagings) +
+                            ".");
     }
 
     // Check URL
     if (aProject.isBuildInProject ())
     {
-      final String sURL = MicroHelper.getChildTextContent (eRoot, "url");
+      final String sURL = aModel.getProjectValue ("url");
       final String sExpectedURL = "https://github.com/" + sGitHubOrganization + "/" + aProject.getFullBaseDirName ();
       if (!sExpectedURL.equals (sURL))
-        _warn (aProject, "Unexpected URL '" + sURL + "'. Expected '" + sExpectedURL + "'");
+        aResult.addWarning ("Unexpected URL '" + sURL + "'. Expected '" + sExpectedURL + "'");
     }
 
     // Check for inception year
     {
-      final String sInceptionYear = MicroHelper.getChildTextContent (eRoot, "inceptionYear");
+      final String sInceptionYear = aModel.getProjectValue ("inceptionYear");
       if (StringHelper.hasNoText (sInceptionYear))
-        _warn (aProject, "inceptionYear element is missing or empty");
+        aResult.addWarning ("inceptionYear element is missing or empty");
       else
         if (!StringParser.isUnsignedInt (sInceptionYear))
-          _warn (aProject, "Inception year '" + sInceptionYear + "' is not numeric");
+          aResult.addWarning ("Inception year '" + sInceptionYear + "' is not numeric");
     }
 
     // Check for license element
     if (aProject.isBuildInProject ())
     {
-      if (!eRoot.hasChildElements ("licenses"))
-        _warn (aProject, "licenses element is missing");
+      if (!aModel.hasLicenses ())
+        aResult.addWarning ("licenses element is missing");
     }
 
     // Check SCM
     if (aProject.isBuildInProject ())
     {
-      final IMicroElement eSCM = eRoot.getFirstChildElement ("scm");
-      if (eSCM == null)
+      if (!aModel.hasSCM ())
       {
         if (!aProject.isNestedProject ())
         {
           // Nested projects might not use it
-          _warn (aProject, "scm element is missing");
+          aResult.addWarning ("scm element is missing");
         }
       }
       else
       {
-        final String sConnection = MicroHelper.getChildTextContent (eSCM, "connection");
+        final String sConnection = aModel.getSCMValue ("connection");
         final String sExpectedConnection = "scm:git:git@github.com:" +
                                            sGitHubOrganization +
                                            "/" +
@@ -241,263 +344,251 @@ public final class MainCheckPOMArtifactVersions extends AbstractProjectMain
         // Alternatively:
         // "scm:git:https://github.com/phax/"+eProject.getProjectName ()
         if (!sExpectedConnection.equals (sConnection))
-          _warn (aProject, "Unexpected SCM connection '" + sConnection + "'. Expected '" + sExpectedConnection + "'");
+          aResult.addWarning ("Unexpected SCM connection '" +
+                              sConnection +
+                              "'. Expected '" +
+                              sExpectedConnection +
+                              "'");
 
-        final String sDeveloperConnection = MicroHelper.getChildTextContent (eSCM, "developerConnection");
+        final String sDeveloperConnection = aModel.getSCMValue ("developerConnection");
         final String sExpectedDeveloperConnection = sExpectedConnection;
         if (!sExpectedDeveloperConnection.equals (sDeveloperConnection))
-          _warn (aProject,
-                 "Unexpected SCM developer connection '" +
-                           sDeveloperConnection +
-                           "'. Expected '" +
-                           sExpectedDeveloperConnection +
-                           "'");
-
-        final String sURL = MicroHelper.getChildTextContent (eSCM, "url");
+          aResult.addWarning ("Unexpected SCM developer connection '" +
+                              sDeveloperConnection +
+                              "'. Expected '" +
+                              sExpectedDeveloperConnection +
+                              "'");
+
+        final String sURL = aModel.getSCMValue ("url");
         final String sExpectedURL = "http://github.com/" + sGitHubOrganization + "/" + aProject.getFullBaseDirName ();
         if (!sExpectedURL.equals (sURL))
-          _warn (aProject, "Unexpected SCM URL '" + sURL + "'. Expected '" + sExpectedURL + "'");
+          aResult.addWarning ("Unexpected SCM URL '" + sURL + "'. Expected '" + sExpectedURL + "'");
 
-        final String sTag = MicroHelper.getChildTextContent (eSCM, "tag");
+        final String sTag = aModel.getSCMValue ("tag");
         final String sExpectedTag = "HEAD";
         if (!sExpectedTag.equals (sTag))
-          _warn (aProject, "Unexpected SCM tag '" + sTag + "'. Expected '" + sExpectedTag + "'");
+          aResult.addWarning ("Unexpected SCM tag '" + sTag + "'. Expected '" + sExpectedTag + "'");
       }
     }
 
     // Check all relevant dependencies or the like
-    for (final IMicroNode aNode : new MicroRecursiveIterator (eRoot))
-      if (aNode.isElement ())
+    for (final POMArtifact aArtifact : aModel.getAllArtifacts ())
+    {
+      // Check if the current artefact is in the "com.helger" group
+      final String sGroupID = _getResolved (aInterpolator, aArtifact.getGroupID ());
+      final String sArtifactID = _getResolved (aInterpolator, aArtifact.getArtifactID ());
+      // Version is optional e.g. when dependencyManagement is used
+      final String sVersion = _getResolved (aInterpolator, aArtifact.getVersion ());
+
+      if (_isSupportedGroupID (sGroupID))
       {
-        final IMicroElement aElement = (IMicroElement) aNode;
-        // groupId is optional e.g. for the defined artefact
-        if (aElement.getLocalName ().equals ("artifactId"))
+        // Match!
+        final IProject aReferencedProject = ProjectList.getProjectOfName (sArtifactID);
+        if (aReferencedProject == null)
         {
-          // Check if the current artefact is in the "com.helger" group
-          String sGroupID = MicroHelper.getChildTextContentTrimmed ((IMicroElement) aElement.getParent (), "groupId");
-          if (sGroupID != null && sGroupID.contains ("$"))
-          {
-            // Try to resolve through properties. May be null if properties
-            // are in the parent POM
-            sGroupID = aProperties.get (sGroupID);
-          }
-          String sArtifactID = aElement.getTextContentTrimmed ();
-          if (sArtifactID != null && sArtifactID.contains ("$"))
-          {
-            // Try to resolve through properties. May be null if properties
-            // are in the parent POM
-            sArtifactID = aProperties.get (sArtifactID);
-          }
-          // Version is optional e.g. when dependencyManagement is used
-          String sVersion = MicroHelper.getChildTextContentTrimmed ((IMicroElement) aElement.getParent (), "version");
-          if (sVersion != null && sVersion.contains ("$"))
+          aResult.addWarning ("Referenced unknown project '" + sArtifactID + "'");
+        }
+        else
+        {
+          if (aReferencedProject.isDeprecated ())
+            aResult.addWarning (aReferencedProject.getMavenID () + " is deprecated!");
+
+          // Avoid warnings for components that require a later JDK
+          if (!aReferencedProject.getMinimumJDKVersion ().isCompatibleToRuntimeVersion (eProjectJDK) &&
+              aReferencedProject.getProjectType () != EProjectType.MAVEN_POM)
           {
-            // Try to resolve through properties. May be null if properties
-            // are in the parent POM
-            sVersion = aProperties.get (sVersion);
+            final boolean bIsSpecialCase1 = aReferencedProject == EProject.PH_COMMONS &&
+                                            "6.2.4".equals (sVersion) &&
+                                            eProjectJDK == EJDK.JDK6;
+            final boolean bIsSpecialCase2 = aReferencedProject == EProject.PH_DATETIME &&
+                                            "4.2.1".equals (sVersion) &&
+                                            eProjectJDK == EJDK.JDK6;
+            final boolean bIsSpecialCase3 = aReferencedProject == EProject.PEPPOL_COMMONS &&
+                                            "4.3.5".equals (sVersion) &&
+                                            eProjectJDK == EJDK.JDK6;
+
+            if (!bIsSpecialCase1 && !bIsSpecialCase2 && !bIsSpecialCase3)
+              aResult.addInfo ("Incompatible artifact " +
+                               sGroupID +
+                               "::" +
+                               sArtifactID +
+                               "::" +
+                               sVersion +
+                               " (" +
+                               aReferencedProject.getMinimumJDKVersion ().getDisplayName () +
+                               ") for this project requiring " +
+                               eProjectJDK.getDisplayName ());
+            continue;
           }
 
-          if (_isSupportedGroupID (sGroupID))
+          if (sVersion != null)
           {
-            // Match!
-            final IProject aReferencedProject = ProjectList.getProjectOfName (sArtifactID);
-            if (aReferencedProject == null)
-            {
-              _warn (aProject, "Referenced unknown project '" + sArtifactID + "'");
-            }
-            else
+            final boolean bIsSnapshot = VersionClassifier.isPreRelease (sVersion);
+            if (aReferencedProject.isPublished ())
             {
-              if (aReferencedProject.isDeprecated ())
-                _warn (aProject, aReferencedProject.getMavenID () + " is deprecated!");
-
-              // Avoid warnings for components that require a later JDK
-              if (!aReferencedProject.getMinimumJDKVersion ().isCompatibleToRuntimeVersion (eProjectJDK) &&
-                  aReferencedProject.getProjectType () != EProjectType.MAVEN_POM)
+              // Referenced project published at least once
+              final String sLastPublishedVersion = aReferencedProject.getLastPublishedVersionString ();
+              final boolean bPublishedIsSnapshot = VersionClassifier.isPreRelease (sLastPublishedVersion);
+              final Version aLastPublishedVersion = VersionClassifier.getVersionWithoutSnapshot (sLastPublishedVersion);
+              final Version aVersionInFile = VersionClassifier.getVersionWithoutSnapshot (sVersion);
+              if (aVersionInFile.isLowerThan (aLastPublishedVersion))
               {
-                final boolean bIsSpecialCase1 = aReferencedProject == EProject.PH_COMMONS &&
-                                                "6.2.4".equals (sVersion) &&
-                                                eProjectJDK == EJDK.JDK6;
-                final boolean bIsSpecialCase2 = aReferencedProject == EProject.PH_DATETIME &&
-                                                "4.2.1".equals (sVersion) &&
-                                                eProjectJDK == EJDK.JDK6;
-                final boolean bIsSpecialCase3 = aReferencedProject == EProject.PEPPOL_COMMONS &&
-                                                "4.3.5".equals (sVersion) &&
-                                                eProjectJDK == EJDK.JDK6;
-
-                if (!bIsSpecialCase1 && !bIsSpecialCase2 && !bIsSpecialCase3)
-                  _info (aProject,
-                         "Incompatible artifact " +
-                                   sGroupID +
-                                   "::" +
-                                   sArtifactID +
-                                   "::" +
-                                   sVersion +
-                                   " (" +
-                                   aReferencedProject.getMinimumJDKVersion ().getDisplayName () +
-                                   ") for this project requiring " +
-                                   eProjectJDK.getDisplayName ());
-                continue;
+                // Version in file lower than known
+                aResult.addWarning (sArtifactID +
+                                    ": " +
+                                    sVersion +
+                                    " is out of date. The latest version is " +
+                                    aReferencedProject.getLastPublishedVersionString ());
               }
-
-              if (sVersion != null)
-              {
-                final boolean bIsSnapshot = _isSnapshot (sVersion);
-                if (aReferencedProject.isPublished ())
+              else
+                if (aVersionInFile.equals (aLastPublishedVersion))
                 {
-                  // Referenced project published at least once
-                  final boolean bPublishedIsSnapshot = _isSnapshot (aReferencedProject.getLastPublishedVersionString ());
-                  final Version aLastPublishedVersion = bPublishedIsSnapshot ? Version.parse (StringHelper.trimEnd (aReferencedProject.getLastPublishedVersionString (),
-                                                                                                                    SUFFIX_SNAPSHOT))
-                                                                             : aReferencedProject.getLastPublishedVersion ();
-
-                  final Version aVersionInFile = Version.parse (bIsSnapshot ? StringHelper.trimEnd (sVersion,
-                                                                                                    SUFFIX_SNAPSHOT)
-                                                                            : sVersion);
-                  if (aVersionInFile.isLowerThan (aLastPublishedVersion))
+                  // Version matches - check for SNAPSHOT differences
+                  if (bIsSnapshot && !bPublishedIsSnapshot)
+                    aResult.addWarning (sArtifactID +
+                                        ": " +
+                                        sVersion +
+                                        " is out of date. The latest version is " +
+                                        aReferencedProject.getLastPublishedVersionString ());
+                }
+                else
+                  if (aVersionInFile.isGreaterThan (aLastPublishedVersion))
                   {
-                    // Version in file lower than known
-                    _warn (aProject,
-                           sArtifactID +
-                                     ": " +
-                                     sVersion +
-                                     " is out of date. The latest version is " +
-                                     aReferencedProject.getLastPublishedVersionString ());
+                    // Version in file greater than in referenced project
+                    if (!bIsSnapshot)
+                      aResult.addWarning ("Referenced version " +
+                                          sVersion +
+                                          " of project '" +
+                                          aReferencedProject +
+                                          "' is newer than the latest known version " +
+                                          aReferencedProject.getLastPublishedVersionString ());
                   }
                   else
-                    if (aVersionInFile.equals (aLastPublishedVersion))
-                    {
-                      // Version matches - check for SNAPSHOT differences
-                      if (bIsSnapshot && !bPublishedIsSnapshot)
-                        _warn (aProject,
-                               sArtifactID +
-                                         ": " +
-                                         sVersion +
-                                         " is out of date. The latest version is " +
-                                         aReferencedProject.getLastPublishedVersionString ());
-                    }
-                    else
-                      if (aVersionInFile.isGreaterThan (aLastPublishedVersion))
-                      {
-                        // Version in file greater than in referenced project
-                        if (!bIsSnapshot)
-                          _warn (aProject,
-                                 "Referenced version " +
-                                           sVersion +
-                                           " of project '" +
-                                           aReferencedProject +
-                                           "' is newer than the latest known version " +
-                                           aReferencedProject.getLastPublishedVersionString ());
-                      }
-                      else
-                        _warn (aProject,
-                               "Houston we have a problem: " + aVersionInFile + " vs. " + aLastPublishedVersion);
-                }
-                else
-                {
-                  // Referenced project not yet published
-                  if (!bIsSnapshot)
-                    _warn (aProject,
-                           "Referenced project " +
-                                     aReferencedProject +
-                                     " is marked as not published, but the non-SNAPSHOT version '" +
-                                     sVersion +
-                                     "' is referenced!");
-                }
-              }
+                    aResult.addWarning ("Houston we have a problem: " +
+                                        aVersionInFile +
+                                        " vs. " +
+                                        aLastPublishedVersion);
             }
-          }
-          else
-            if (sGroupID != null && sArtifactID != null && sVersion != null)
+            else
             {
-              // Check for known external deps
-              final List <EExternalDependency> aExternalDeps = EExternalDependency.findAll (sGroupID, sArtifactID);
-
-              final String sSuffix = aExternalDeps.size () <= 1 ? "" : " for " + eProjectJDK.getDisplayName ();
+              // Referenced project not yet published
+              if (!bIsSnapshot)
+                aResult.addWarning ("Referenced project " +
+                                    aReferencedProject +
+                                    " is marked as not published, but the non-SNAPSHOT version '" +
+                                    sVersion +
+                                    "' is referenced!");
+            }
+          }
+        }
+      }
+      else
+        if (sGroupID != null && sArtifactID != null && sVersion != null)
+        {
+          // Check for known external deps
+          final List <EExternalDependency> aExternalDeps = EExternalDependency.findAll (sGroupID, sArtifactID);
 
-              for (final EExternalDependency eExternalDep : aExternalDeps)
-              {
-                // Avoid warnings for components that require a later JDK
-                if (!eExternalDep.getMinimumJDKVersion ().isCompatibleToRuntimeVersion (eProjectJDK))
-                {
-                  if (false)
-                    _info (aProject, "Incompatible artifact " + sGroupID + "::" + sArtifactID + "::" + sVersion);
-                  continue;
-                }
+          final String sSuffix = aExternalDeps.size () <= 1 ? "" : " for " + eProjectJDK.getDisplayName ();
 
-                if (eExternalDep.isDeprecatedForJDK (eProjectJDK))
-                {
-                  _warn (aProject,
-                         sArtifactID +
-                                   " is deprecated - use " +
-                                   eExternalDep.getReplacement (eProjectJDK).getDisplayNameWithVersion () +
-                                   " instead");
-                }
-                else
-                {
-                  // Referenced project published at least once
-                  final Version aVersionInFile = Version.parse (sVersion);
-                  if (aVersionInFile.isLowerThan (eExternalDep.getLastPublishedVersion ()))
-                  {
-                    // Version in file lower than known
-                    _warn (aProject,
-                           sArtifactID +
-                                     ": " +
-                                     sVersion +
-                                     " is out of date. The latest version is " +
-                                     eExternalDep.getLastPublishedVersionString () +
-                                     sSuffix);
-                  }
-                  else
-                    if (aVersionInFile.isGreaterThan (eExternalDep.getLastPublishedVersion ()))
-                    {
-                      // Version in file greater than in referenced project
-                      _warn (aProject,
-                             "Referenced version " +
-                                       sVersion +
-                                       " of '" +
-                                       eExternalDep.getDisplayName () +
-                                       "' is newer than the latest known version " +
-                                       eExternalDep.getLastPublishedVersionString () +
-                                       sSuffix);
-                    }
-                }
-
-                break;
-              }
+          for (final EExternalDependency eExternalDep : aExternalDeps)
+          {
+            // Avoid warnings for components that require a later JDK
+            if (!eExternalDep.getMinimumJDKVersion ().isCompatibleToRuntimeVersion (eProjectJDK))
+            {
+              if (false)
+                aResult.addInfo ("Incompatible artifact " + sGroupID + "::" + sArtifactID + "::" + sVersion);
+              continue;
+            }
 
-              if (aExternalDeps.isEmpty ())
-              {
-                // Neither my project nor a known external
-                if (false)
-                  if (!sGroupID.startsWith ("org.apache.maven") &&
-                      !sGroupID.startsWith ("org.codehaus.mojo") &&
-                      !sArtifactID.equals ("rt") &&
-                      !sArtifactID.contains ("-maven-") &&
-                      !sArtifactID.startsWith ("maven-") &&
-                      !sArtifactID.startsWith ("plexus-") &&
-                      !sArtifactID.startsWith ("aether-"))
-                    _warn (aProject, "Unsuported artifact " + sGroupID + "::" + sArtifactID + "::" + sVersion);
-              }
+            if (eExternalDep.isDeprecatedForJDK (eProjectJDK))
+            {
+              aResult.addWarning (sArtifactID +
+                                  " is deprecated - use " +
+                                  eExternalDep.getReplacement (eProjectJDK).getDisplayNameWithVersion () +
+                                  " instead");
             }
             else
             {
-              // Group ID, Artifact ID or Version is null
-              if (false)
-                _warn (aProject, "Unchecked artifact " + sGroupID + "::" + sArtifactID + "::" + sVersion);
+              // Referenced project published at least once
+              final Version aVersionInFile = VersionClassifier.getVersion (sVersion);
+              if (aVersionInFile.isLowerThan (eExternalDep.getLastPublishedVersion ()))
+              {
+                // Version in file lower than known
+                aResult.addWarning (sArtifactID +
+                                    ": " +
+                                    sVersion +
+                                    " is out of date. The latest version is " +
+                                    eExternalDep.getLastPublishedVersionString () +
+                                    sSuffix);
+              }
+              else
+                if (aVersionInFile.isGreaterThan (eExternalDep.getLastPublishedVersion ()))
+                {
+                  // Version in file greater than in referenced project
+                  aResult.addWarning ("Referenced version " +
+                                      sVersion +
+                                      " of '" +
+                                      eExternalDep.getDisplayName () +
+                                      "' is newer than the latest known version " +
+                                      eExternalDep.getLastPublishedVersionString () +
+                                      sSuffix);
+                }
             }
+
+            break;
+          }
+
+          if (aExternalDeps.isEmpty ())
+          {
+            // Neither my project nor a known external
+            if (false)
+              if (!sGroupID.startsWith ("org.apache.maven") &&
+                  !sGroupID.startsWith ("org.codehaus.mojo") &&
+                  !sArtifactID.equals ("rt") &&
+                  !sArtifactID.contains ("-maven-") &&
+                  !sArtifactID.startsWith ("maven-") &&
+                  !sArtifactID.startsWith ("plexus-") &&
+                  !sArtifactID.startsWith ("aether-"))
+                aResult.addWarning ("Unsuported artifact " + sGroupID + "::" + sArtifactID + "::" + sVersion);
+          }
         }
-      }
+        else
+        {
+          // Group ID, Artifact ID or Version is null
+          if (false)
+            aResult.addWarning ("Unchecked artifact " + sGroupID + "::" + sArtifactID + "::" + sVersion);
+        }
+    }
+    return aResult;
   }
 
   public static void main (final String [] args)
   {
-    for (final IProject aProject : ProjectList.getAllProjects (p -> !p.isDeprecated ()))
-    {
-      final IMicroDocument aDoc = MicroReader.readMicroXML (aProject.getPOMFile ());
-      if (aDoc == null)
+    final POMCheckResultCache aCache = new POMCheckResultCache (RESULT_CACHE_FILE, _getResultCacheFingerprint ());
+    _forEachProject (ProjectList.getAllSelectedProjects (p -> !p.isDeprecated ()), aProject -> {
+      final POMInterpolator aInterpolator = POMInterpolator.getOfProject (aProject);
+      if (aInterpolator == null)
         throw new IllegalStateException ("Failed to read " + aProject.getPOMFile ());
-      _validatePOM (aProject, aDoc);
+      final POMCheckResult aResult = aCache.getOrCheck (aProject.getProjectName (),
+                                                        getInputHash (aProject,
+                                                                      aInterpolator,
+                                                                      ProjectList::getProjectOfName),
+                                                        () -> _validatePOM (aProject, aInterpolator));
+      for (final POMCheckResult.Message aMessage : aResult.getAllMessages ())
+        if (aMessage.getLevel ().isWarning ())
+          _warn (aProject, aMessage.getText ());
+        else
+          _info (aProject, aMessage.getText ());
+    });
+    try
+    {
+      aCache.writeIfChanged ();
+    }
+    catch (final IOException ex)
+    {
+      s_aLogger.error ("Failed to write POM check cache " + RESULT_CACHE_FILE, ex);
     }
+    s_aLogger.info (aCache.getHitCount () + " cached, " + aCache.getMissCount () + " checked POM(s)");
     s_aLogger.info ("Done - " + getWarnCount () + " warning(s) for " + ProjectList.size () + " projects");
   }
 }
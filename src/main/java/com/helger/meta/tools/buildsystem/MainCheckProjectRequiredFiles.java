@@ -164,9 +164,9 @@ public final class MainCheckProjectRequiredFiles extends AbstractProjectMain
 
   public static void main (final String [] args)
   {
-    for (final IProject aProject : ProjectList.getAllProjects (p -> p.isBuildInProject () &&
-                                                                    p.getBaseDir ().exists () &&
-                                                                    !p.isDeprecated ()))
+    for (final IProject aProject : ProjectList.getAllSelectedProjects (p -> p.isBuildInProject () &&
+                                                                            p.getBaseDir ().exists () &&
+                                                                            !p.isDeprecated ()))
     {
       if (aProject.getProjectType ().hasJavaCode ())
         _validateProjectWithJavaCode (aProject);
@@ -18,6 +18,8 @@ package com.helger.meta.tools.buildsystem;
 
 import java.io.File;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import com.helger.commons.datetime.PDTFactory;
@@ -40,6 +42,30 @@ public final class MainCreateKnownDependencyPOM extends AbstractProjectMain
 {
   private static final String NS = "http://maven.apache.org/POM/4.0.0";
 
+  /**
+   * External dependencies that are not checked for updates, because they are
+   * pseudo dependencies or because they are deliberately kept on an old
+   * version.
+   */
+  static final Set <EExternalDependency> NO_UPDATE_CHECK = EnumSet.of (EExternalDependency.M2E,
+                                                                      EExternalDependency.JDK,
+                                                                      EExternalDependency.FINDBUGS_ANNOTATIONS_2,
+                                                                      EExternalDependency.JAVA_PARSER_24,
+                                                                      EExternalDependency.LOG4J2_23_CORE,
+                                                                      EExternalDependency.LOG4J2_23_SLF4J,
+                                                                      EExternalDependency.LOG4J2_23_WEB,
+                                                                      EExternalDependency.SERVLET_API_301,
+                                                                      EExternalDependency.JETTY_92_ANNOTATIONS,
+                                                                      EExternalDependency.JETTY_92_JSP,
+                                                                      EExternalDependency.JETTY_92_WEBAPP);
+
+  /**
+   * All own projects that should be checked for updates.
+   */
+  static final Predicate <IProject> PROJECT_UPDATE_CHECK_FILTER = x -> x.isBuildInProject () &&
+                                                                       x.isPublished () &&
+                                                                       !x.isDeprecated ();
+
   public static void main (final String [] args)
   {
     final IMicroDocument aDoc = new MicroDocument ();
@@ -50,22 +76,10 @@ public final class MainCreateKnownDependencyPOM extends AbstractProjectMain
     eProject.appendElement (NS, "version")
             .appendText ("1.0.0-" + DateTimeFormatter.BASIC_ISO_DATE.format (PDTFactory.getCurrentLocalDateTime ()));
 
-    final Predicate <EExternalDependency> aFilter = x -> x != EExternalDependency.M2E &&
-                                                         x != EExternalDependency.JDK &&
-                                                         x != EExternalDependency.FINDBUGS_ANNOTATIONS_2 &&
-                                                         x != EExternalDependency.JAVA_PARSER_24 &&
-                                                         x != EExternalDependency.LOG4J2_23_CORE &&
-                                                         x != EExternalDependency.LOG4J2_23_SLF4J &&
-                                                         x != EExternalDependency.LOG4J2_23_WEB &&
-                                                         x != EExternalDependency.SERVLET_API_301 &&
-                                                         x != EExternalDependency.JETTY_92_ANNOTATIONS &&
-                                                         x != EExternalDependency.JETTY_92_JSP &&
-                                                         x != EExternalDependency.JETTY_92_WEBAPP;
-
     final IMicroElement eDeps = eProject.appendElement (NS, "dependencies");
     eDeps.appendComment ("External dependencies:");
     for (final EExternalDependency e : EExternalDependency.values ())
-      if (aFilter.test (e))
+      if (!NO_UPDATE_CHECK.contains (e))
       {
         final IMicroElement eDep = eDeps.appendElement (NS, "dependency");
         eDep.appendElement (NS, "groupId").appendText (e.getGroupID ());
@@ -76,9 +90,7 @@ public final class MainCreateKnownDependencyPOM extends AbstractProjectMain
       }
 
     eDeps.appendComment ("Internal projects:");
-    for (final IProject aProject : ProjectList.getAllProjects (x -> x.isBuildInProject () &&
-                                                                    x.isPublished () &&
-                                                                    !x.isDeprecated ()))
+    for (final IProject aProject : ProjectList.getAllProjects (PROJECT_UPDATE_CHECK_FILTER))
     {
       final IMicroElement eDep = eDeps.appendElement (NS, "dependency");
       eDep.appendElement (NS, "groupId").appendText (aProject.getMavenGroupID ());
@@ -111,5 +123,8 @@ public final class MainCreateKnownDependencyPOM extends AbstractProjectMain
     MicroWriter.writeToFile (aDoc, f);
     s_aLogger.info ("Done");
     s_aLogger.info ("Run the following now on " + f.toString () + ": mvn versions:display-dependency-updates");
+    s_aLogger.info ("Or run " +
+                    MainCheckDependencyUpdates.class.getSimpleName () +
+                    " to check against a local Maven repository without network access");
   }
 }
@@ -26,10 +26,10 @@ public final class MainEclipseCompilerErrorsRestoreBackup extends AbstractProjec
 {
   public static void main (final String [] args)
   {
-    for (final IProject aProject : ProjectList.getAllProjects (p -> p.getProjectType ().hasJavaCode () &&
-                                                                    !p.isDeprecated () &&
-                                                                    p.getBaseDir ().exists () &&
-                                                                    p.getMinimumJDKVersion ().isAtLeast8 ()))
+    for (final IProject aProject : ProjectList.getAllSelectedProjects (p -> p.getProjectType ().hasJavaCode () &&
+                                                                            !p.isDeprecated () &&
+                                                                            p.getBaseDir ().exists () &&
+                                                                            p.getMinimumJDKVersion ().isAtLeast8 ()))
     {
       final File fCur = new File (aProject.getBaseDir (), ".settings/org.eclipse.jdt.core.prefs");
       final File fBackup = new File (aProject.getBaseDir (), ".settings/org.eclipse.jdt.core.prefs.bup");
@@ -35,10 +35,10 @@ public final class MainEclipseCompilerErrorsSetDefault extends AbstractProjectMa
                             "org.eclipse.jdt.core.compiler.source=1.8\n" +
                             "org.eclipse.jdt.core.javaFormatter=org.eclipse.jdt.core.defaultJavaFormatter\n";
 
-    for (final IProject aProject : ProjectList.getAllProjects (p -> p.getProjectType ().hasJavaCode () &&
-                                                                    !p.isDeprecated () &&
-                                                                    p.getBaseDir ().exists () &&
-                                                                    p.getMinimumJDKVersion ().isAtLeast8 ()))
+    for (final IProject aProject : ProjectList.getAllSelectedProjects (p -> p.getProjectType ().hasJavaCode () &&
+                                                                            !p.isDeprecated () &&
+                                                                            p.getBaseDir ().exists () &&
+                                                                            p.getMinimumJDKVersion ().isAtLeast8 ()))
     {
       final File fCur = new File (aProject.getBaseDir (), ".settings/org.eclipse.jdt.core.prefs");
       assert fCur.exists ();
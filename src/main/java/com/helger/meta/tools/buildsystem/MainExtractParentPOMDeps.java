@@ -18,88 +18,55 @@ package com.helger.meta.tools.buildsystem;
 
 import java.io.File;
 
-import com.helger.commons.collection.ext.CommonsHashMap;
-import com.helger.commons.collection.ext.ICommonsMap;
 import com.helger.meta.AbstractProjectMain;
 import com.helger.meta.project.EExternalDependency;
+import com.helger.meta.project.POMArtifact;
+import com.helger.meta.project.POMInterpolator;
 import com.helger.meta.project.ProjectList;
-import com.helger.xml.microdom.IMicroDocument;
-import com.helger.xml.microdom.IMicroElement;
-import com.helger.xml.microdom.IMicroNode;
-import com.helger.xml.microdom.serialize.MicroReader;
-import com.helger.xml.microdom.util.MicroHelper;
-import com.helger.xml.microdom.util.MicroRecursiveIterator;
 
 public final class MainExtractParentPOMDeps extends AbstractProjectMain
 {
   public static void main (final String [] args)
   {
-    final IMicroDocument eRoot = MicroReader.readMicroXML (new File ("../ph-parent-pom/pom.xml"));
-    final ICommonsMap <String, String> aProperties = new CommonsHashMap<> ();
+    final POMInterpolator aInterpolator = POMInterpolator.getOfPOM (new File ("../ph-parent-pom/pom.xml"));
+    if (aInterpolator == null)
+      throw new IllegalStateException ("Failed to read parent POM");
 
     int i = 0;
     final StringBuilder aSB = new StringBuilder ();
 
     // Check all relevant dependencies or the like
-    for (final IMicroNode aNode : new MicroRecursiveIterator (eRoot))
-      if (aNode.isElement ())
+    for (final POMArtifact aArtifact : aInterpolator.getModel ().getAllArtifacts ())
+    {
+      // groupId is optional e.g. for the defined artefact
+      // Resolve through properties. May be null if a property is not known
+      final String sGroupID = aInterpolator.interpolate (aArtifact.getGroupID ());
+      final String sArtifactID = aInterpolator.interpolate (aArtifact.getArtifactID ());
+      // Version is optional e.g. when dependencyManagement is used
+      final String sVersion = aInterpolator.interpolate (aArtifact.getVersion ());
+
+      if (sGroupID != null && sArtifactID != null && sVersion != null)
       {
-        final IMicroElement aElement = (IMicroElement) aNode;
-        // groupId is optional e.g. for the defined artefact
-        if (aElement.hasLocalName ("artifactId"))
+        // Avoid SNAPSHOT references
+        // Avoid including external dependencies already present
+        if (!sVersion.endsWith ("-SNAPSHOT") &&
+            EExternalDependency.findAll (sGroupID, sArtifactID)
+                               .stream ()
+                               .allMatch (x -> x.name ().startsWith ("PARENT_POM_")) &&
+            ProjectList.getProjectOfMavenCoordinates (sGroupID, sArtifactID) == null)
         {
-          // Check if the current artefact is in the "com.helger" group
-          String sGroupID = MicroHelper.getChildTextContentTrimmed ((IMicroElement) aElement.getParent (), "groupId");
-          if (sGroupID != null && sGroupID.contains ("$"))
-          {
-            // Try to resolve through properties. May be null if properties
-            // are in the parent POM
-            sGroupID = aProperties.get (sGroupID);
-          }
-          String sArtifactID = aElement.getTextContentTrimmed ();
-          if (sArtifactID != null && sArtifactID.contains ("$"))
-          {
-            // Try to resolve through properties. May be null if properties
-            // are in the parent POM
-            sArtifactID = aProperties.get (sArtifactID);
-          }
-          // Version is optional e.g. when dependencyManagement is used
-          String sVersion = MicroHelper.getChildTextContentTrimmed ((IMicroElement) aElement.getParent (), "version");
-          if (sVersion != null && sVersion.contains ("$"))
-          {
-            // Try to resolve through properties. May be null if properties
-            // are in the parent POM
-            sVersion = aProperties.get (sVersion);
-          }
-
-          if (sGroupID != null && sArtifactID != null && sVersion != null)
-          {
-            // Avoid SNAPSHOT references
-            // Avoid including external dependencies already present
-            final String sFinalGroupID = sGroupID;
-            final String sFinalArtifactID = sArtifactID;
-            if (!sVersion.endsWith ("-SNAPSHOT") &&
-                EExternalDependency.findAll (x -> !x.name ().startsWith ("PARENT_POM_") &&
-                                                  x.hasGroupID (sFinalGroupID) &&
-                                                  x.hasArtifactID (sFinalArtifactID))
-                                   .isEmpty () &&
-                ProjectList.getAllProjects (x -> x.hasMavenGroupID (sFinalGroupID) &&
-                                                 x.hasMavenArtifactID (sFinalArtifactID))
-                           .isEmpty ())
-            {
-              aSB.append ("PARENT_POM_" +
-                          (i++) +
-                          " (\"" +
-                          sGroupID +
-                          "\",\"" +
-                          sArtifactID +
-                          "\",\"" +
-                          sVersion +
-                          "\"),\n");
-            }
-          }
+          aSB.append ("PARENT_POM_" +
+                      (i++) +
+                      " (\"" +
+                      sGroupID +
+                      "\",\"" +
+                      sArtifactID +
+                      "\",\"" +
+                      sVersion +
+                      "\"),\n");
         }
       }
+    }
     s_aLogger.info (aSB.toString ());
   }
 }
@@ -38,10 +38,10 @@ public final class MainUpdateJavadocCSS extends AbstractProjectMain
     final String sSrcCSS = SimpleFileIO.getFileAsString (new File ("src/raw/source-javadoc.css"),
                                                          StandardCharsets.UTF_8);
 
-    for (final IProject aProject : ProjectList.getAllProjects (p -> p.isBuildInProject () &&
-                                                                    p.getBaseDir ().exists () &&
-                                                                    !p.isDeprecated () &&
-                                                                    p.getProjectType ().hasJavaCode ()))
+    for (final IProject aProject : ProjectList.getAllSelectedProjects (p -> p.isBuildInProject () &&
+                                                                            p.getBaseDir ().exists () &&
+                                                                            !p.isDeprecated () &&
+                                                                            p.getProjectType ().hasJavaCode ()))
     {
       final File f = new File (aProject.getBaseDir (), "src/etc/javadoc.css");
       assert f.exists ();
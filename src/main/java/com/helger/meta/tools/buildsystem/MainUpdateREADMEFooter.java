@@ -43,10 +43,10 @@ public final class MainUpdateREADMEFooter extends AbstractProjectMain
   {
     final StringBuilder aSB = new StringBuilder ();
 
-    for (final IProject aProject : ProjectList.getAllProjects (p -> p.isBuildInProject () &&
-                                                                    p.getBaseDir ().exists () &&
-                                                                    !p.isDeprecated () &&
-                                                                    !p.isNestedProject ()))
+    for (final IProject aProject : ProjectList.getAllSelectedProjects (p -> p.isBuildInProject () &&
+                                                                            p.getBaseDir ().exists () &&
+                                                                            !p.isDeprecated () &&
+                                                                            !p.isNestedProject ()))
     {
       if (false)
         _info (aProject, "Checking");
@@ -0,0 +1,381 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.buildsystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.annotation.ReturnsImmutableObject;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.CommonsTreeSet;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.commons.collection.ext.ICommonsSortedSet;
+import com.helger.commons.version.Version;
+import com.helger.meta.CMeta;
+import com.helger.meta.project.VersionClassifier;
+
+/**
+ * An index of the versions of Maven artifacts that are available in a local
+ * repository (like <code>~/.m2/repository</code> or a local mirror with the
+ * same layout). The versions of an artifact are taken from the
+ * <code>maven-metadata*.xml</code> files of the artifact directory and from
+ * all version directories that contain a POM or a JAR. Only the requested
+ * artifacts are scanned, and the result is persisted per artifact together
+ * with the modification times of the artifact directory, its version
+ * directories and its metadata files, so an artifact is only scanned again if
+ * anything changed.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class MavenVersionIndex
+{
+  /** The default location of the index */
+  public static final File DEFAULT_FILE = new File (CMeta.CACHE_DIR, "maven-version-index.bin");
+
+  private static final Logger s_aLogger = LoggerFactory.getLogger (MavenVersionIndex.class);
+  private static final int MAGIC = 0x4d4d5649;
+  private static final int VERSION = 2;
+  private static final String METADATA_PREFIX = "maven-metadata";
+  private static final XMLInputFactory s_aFactory;
+
+  static
+  {
+    s_aFactory = XMLInputFactory.newInstance ();
+    // Metadata files never need external entities or DTDs
+    s_aFactory.setProperty (XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    s_aFactory.setProperty (XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    s_aFactory.setProperty (XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+  }
+
+  private static final class Entry
+  {
+    private final long m_nStamp;
+    private final List <String> m_aVersions;
+
+    Entry (final long nStamp, @Nonnull final ICommonsList <String> aVersions)
+    {
+      m_nStamp = nStamp;
+      m_aVersions = Collections.unmodifiableList (aVersions);
+    }
+  }
+
+  private final File m_aRepositoryDir;
+  private final File m_aIndexFile;
+  // groupId:artifactId to entry
+  private final ICommonsMap <String, Entry> m_aEntries = new CommonsHashMap <> ();
+  private boolean m_bChanged = false;
+  private int m_nHits = 0;
+  private int m_nMisses = 0;
+
+  /**
+   * Constructor. Reads the existing index file if it exists and if it was
+   * created for the same repository directory.
+   *
+   * @param aRepositoryDir
+   *        The root directory of the repository. May not be <code>null</code>.
+   * @param aIndexFile
+   *        The file to read from and write to. May not be <code>null</code>.
+   */
+  public MavenVersionIndex (@Nonnull final File aRepositoryDir, @Nonnull final File aIndexFile)
+  {
+    ValueEnforcer.notNull (aRepositoryDir, "RepositoryDir");
+    ValueEnforcer.notNull (aIndexFile, "IndexFile");
+    m_aRepositoryDir = aRepositoryDir.getAbsoluteFile ();
+    m_aIndexFile = aIndexFile;
+    if (aIndexFile.isFile ())
+      try
+      {
+        _read ();
+      }
+      catch (final IOException | RuntimeException ex)
+      {
+        s_aLogger.warn ("Failed to read Maven version index " + aIndexFile + " - ignoring it", ex);
+        m_aEntries.clear ();
+      }
+  }
+
+  private void _read () throws IOException
+  {
+    try (final DataInputStream aDIS = new DataInputStream (new BufferedInputStream (new FileInputStream (m_aIndexFile))))
+    {
+      if (aDIS.readInt () != MAGIC || aDIS.readInt () != VERSION)
+        return;
+      if (!m_aRepositoryDir.getPath ().equals (aDIS.readUTF ()))
+        return;
+      final int nEntries = aDIS.readInt ();
+      for (int i = 0; i < nEntries; ++i)
+      {
+        final String sKey = aDIS.readUTF ();
+        final long nStamp = aDIS.readLong ();
+        final int nVersions = aDIS.readInt ();
+        final ICommonsList <String> aVersions = new CommonsArrayList <> (nVersions);
+        for (int j = 0; j < nVersions; ++j)
+          aVersions.add (aDIS.readUTF ());
+        m_aEntries.put (sKey, new Entry (nStamp, aVersions));
+      }
+    }
+  }
+
+  @Nonnull
+  private static String _getKey (@Nonnull final String sGroupID, @Nonnull final String sArtifactID)
+  {
+    return sGroupID + ':' + sArtifactID;
+  }
+
+  private static boolean _isMetadataFile (@Nonnull final File aFile)
+  {
+    final String sName = aFile.getName ();
+    return sName.startsWith (METADATA_PREFIX) && sName.endsWith (".xml") && aFile.isFile ();
+  }
+
+  /**
+   * @param aArtifactDir
+   *        The artifact directory. May not be <code>null</code>.
+   * @param aChildren
+   *        The content of the artifact directory. <code>null</code> if it
+   *        does not exist.
+   * @return A value that changes if versions are added or removed. -1 if the
+   *         directory does not exist.
+   */
+  private static long _getStamp (@Nonnull final File aArtifactDir, @Nullable final File [] aChildren)
+  {
+    if (aChildren == null)
+      return -1;
+    // A new version directory changes the artifact directory, a POM or JAR
+    // added to an existing version directory only changes that version
+    // directory and an updated metadata file only changes the file. The sum
+    // does not depend on the order of the children.
+    long ret = aArtifactDir.lastModified ();
+    for (final File aChild : aChildren)
+      if (aChild.isDirectory () || _isMetadataFile (aChild))
+        ret += aChild.lastModified ();
+    return ret;
+  }
+
+  private static boolean _containsArtifact (@Nonnull final File aVersionDir)
+  {
+    final String [] aNames = aVersionDir.list ();
+    if (aNames != null)
+      for (final String sName : aNames)
+        if (sName.endsWith (".pom") || sName.endsWith (".jar"))
+          return true;
+    return false;
+  }
+
+  private static void _readMetadataVersions (@Nonnull final InputStream aIS,
+                                             @Nonnull final ICommonsSortedSet <String> aTarget)
+                                                                                                throws XMLStreamException
+  {
+    final XMLStreamReader aReader = s_aFactory.createXMLStreamReader (aIS);
+    try
+    {
+      // Only "metadata/versioning/versions/version" is relevant
+      int nDepth = 0;
+      boolean bInVersions = false;
+      while (aReader.hasNext ())
+        switch (aReader.next ())
+        {
+          case XMLStreamConstants.START_ELEMENT:
+            nDepth++;
+            if (nDepth == 3 && aReader.getLocalName ().equals ("versions"))
+              bInVersions = true;
+            else
+              if (nDepth == 4 && bInVersions && aReader.getLocalName ().equals ("version"))
+              {
+                final String sVersion = aReader.getElementText ().trim ();
+                // getElementText moves to the end element
+                nDepth--;
+                if (!sVersion.isEmpty ())
+                  aTarget.add (sVersion);
+              }
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            if (nDepth == 3)
+              bInVersions = false;
+            nDepth--;
+            break;
+        }
+    }
+    finally
+    {
+      aReader.close ();
+    }
+  }
+
+  @Nonnull
+  private static ICommonsList <String> _scan (@Nonnull final File [] aChildren)
+  {
+    final ICommonsSortedSet <String> aVersions = new CommonsTreeSet <> ();
+    for (final File aChild : aChildren)
+      if (aChild.isDirectory ())
+      {
+        if (_containsArtifact (aChild))
+          aVersions.add (aChild.getName ());
+      }
+      else
+        if (_isMetadataFile (aChild))
+          try (final InputStream aIS = new BufferedInputStream (new FileInputStream (aChild)))
+          {
+            _readMetadataVersions (aIS, aVersions);
+          }
+          catch (final IOException | XMLStreamException ex)
+          {
+            s_aLogger.warn ("Failed to read Maven metadata " + aChild + ": " + ex.getMessage ());
+          }
+    return new CommonsArrayList <> (aVersions);
+  }
+
+  /**
+   * Get all versions of the passed artifact that are available in the
+   * repository. The artifact directory is only scanned if it changed since
+   * the last scan.
+   *
+   * @param sGroupID
+   *        Maven group ID. May neither be <code>null</code> nor empty.
+   * @param sArtifactID
+   *        Maven artifact ID. May neither be <code>null</code> nor empty.
+   * @return All available versions in alphabetical order. Never
+   *         <code>null</code> but maybe empty.
+   */
+  @Nonnull
+  @ReturnsImmutableObject
+  public List <String> getAllVersions (@Nonnull @Nonempty final String sGroupID,
+                                       @Nonnull @Nonempty final String sArtifactID)
+  {
+    ValueEnforcer.notEmpty (sGroupID, "GroupID");
+    ValueEnforcer.notEmpty (sArtifactID, "ArtifactID");
+
+    final File aArtifactDir = new File (m_aRepositoryDir, sGroupID.replace ('.', '/') + '/' + sArtifactID);
+    final File [] aChildren = aArtifactDir.listFiles ();
+    final long nStamp = _getStamp (aArtifactDir, aChildren);
+    final String sKey = _getKey (sGroupID, sArtifactID);
+    final Entry aOld = m_aEntries.get (sKey);
+    if (aOld != null && aOld.m_nStamp == nStamp)
+    {
+      m_nHits++;
+      return aOld.m_aVersions;
+    }
+
+    final Entry aNew = new Entry (nStamp, aChildren == null ? new CommonsArrayList <> () : _scan (aChildren));
+    m_aEntries.put (sKey, aNew);
+    m_bChanged = true;
+    m_nMisses++;
+    return aNew.m_aVersions;
+  }
+
+  /**
+   * Get the latest release version of the passed versions. Pre-release
+   * versions (snapshots, alphas, betas etc.) are ignored.
+   *
+   * @param aVersions
+   *        The versions to check. May not be <code>null</code>.
+   * @return <code>null</code> if no release version is contained.
+   */
+  @Nullable
+  public static String getLatestRelease (@Nonnull final Iterable <String> aVersions)
+  {
+    ValueEnforcer.notNull (aVersions, "Versions");
+
+    String ret = null;
+    Version aRetVersion = null;
+    for (final String sVersion : aVersions)
+      if (!VersionClassifier.isPreRelease (sVersion))
+      {
+        final Version aVersion = VersionClassifier.getVersion (sVersion);
+        if (aRetVersion == null || aVersion.isGreaterThan (aRetVersion))
+        {
+          ret = sVersion;
+          aRetVersion = aVersion;
+        }
+      }
+    return ret;
+  }
+
+  @Nonnegative
+  public int getHitCount ()
+  {
+    return m_nHits;
+  }
+
+  @Nonnegative
+  public int getMissCount ()
+  {
+    return m_nMisses;
+  }
+
+  /**
+   * Write the index file, if anything changed.
+   *
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void writeIfChanged () throws IOException
+  {
+    if (!m_bChanged)
+      return;
+
+    Files.createDirectories (m_aIndexFile.getAbsoluteFile ().getParentFile ().toPath ());
+    final File aTmpFile = new File (m_aIndexFile.getAbsolutePath () + ".tmp");
+    try (final DataOutputStream aDOS = new DataOutputStream (new BufferedOutputStream (new FileOutputStream (aTmpFile))))
+    {
+      aDOS.writeInt (MAGIC);
+      aDOS.writeInt (VERSION);
+      aDOS.writeUTF (m_aRepositoryDir.getPath ());
+      aDOS.writeInt (m_aEntries.size ());
+      for (final Map.Entry <String, Entry> aMapEntry : m_aEntries.entrySet ())
+      {
+        final Entry aEntry = aMapEntry.getValue ();
+        aDOS.writeUTF (aMapEntry.getKey ());
+        aDOS.writeLong (aEntry.m_nStamp);
+        aDOS.writeInt (aEntry.m_aVersions.size ());
+        for (final String sVersion : aEntry.m_aVersions)
+          aDOS.writeUTF (sVersion);
+      }
+    }
+    Files.move (aTmpFile.toPath (), m_aIndexFile.toPath (), StandardCopyOption.REPLACE_EXISTING);
+    m_bChanged = false;
+  }
+}
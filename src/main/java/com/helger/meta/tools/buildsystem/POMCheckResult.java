@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.buildsystem;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.ReturnsMutableObject;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+
+/**
+ * The messages created when checking the POM of a single project. It only
+ * contains results that solely depend on the inputs hashed by
+ * {@link MainCheckPOMArtifactVersions}, so that it can be cached.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class POMCheckResult
+{
+  /**
+   * A single warning or info of a POM.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class Message
+  {
+    private final EDiagnosticLevel m_eLevel;
+    private final String m_sText;
+
+    public Message (@Nonnull final EDiagnosticLevel eLevel, @Nonnull final String sText)
+    {
+      ValueEnforcer.notNull (eLevel, "Level");
+      ValueEnforcer.notNull (sText, "Text");
+      m_eLevel = eLevel;
+      m_sText = sText;
+    }
+
+    @Nonnull
+    public EDiagnosticLevel getLevel ()
+    {
+      return m_eLevel;
+    }
+
+    @Nonnull
+    public String getText ()
+    {
+      return m_sText;
+    }
+
+    @Override
+    public String toString ()
+    {
+      return new ToStringGenerator (this).append ("Level", m_eLevel).append ("Text", m_sText).getToString ();
+    }
+  }
+
+  private final ICommonsList <Message> m_aMessages = new CommonsArrayList <> ();
+
+  public void add (@Nonnull final EDiagnosticLevel eLevel, @Nonnull final String sText)
+  {
+    m_aMessages.add (new Message (eLevel, sText));
+  }
+
+  public void addWarning (@Nonnull final String sText)
+  {
+    add (EDiagnosticLevel.WARN, sText);
+  }
+
+  public void addInfo (@Nonnull final String sText)
+  {
+    add (EDiagnosticLevel.INFO, sText);
+  }
+
+  @Nonnull
+  @ReturnsMutableObject ("efficient access")
+  public ICommonsList <Message> getAllMessages ()
+  {
+    return m_aMessages;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Messages", m_aMessages).getToString ();
+  }
+}
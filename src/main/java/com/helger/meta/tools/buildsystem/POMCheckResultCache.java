@@ -0,0 +1,225 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.buildsystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+
+/**
+ * An on-disk cache for the {@link POMCheckResult} objects of all projects. An
+ * entry is keyed by the project name and is considered up to date if the hash
+ * of all check inputs is unchanged. Entries that were not accessed during the
+ * current run are persisted unchanged, so that checking only a subset of the
+ * projects does not discard the results of the others.<br>
+ * {@link #getOrCheck(String, byte[], Supplier)} may be invoked concurrently,
+ * but {@link #writeIfChanged()} must only be called after all of them are
+ * done.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class POMCheckResultCache
+{
+  private static final Logger s_aLogger = LoggerFactory.getLogger (POMCheckResultCache.class);
+  private static final int MAGIC = 0x4d504352;
+
+  private static final class Entry
+  {
+    private final byte [] m_aHash;
+    private final POMCheckResult m_aResult;
+
+    Entry (@Nonnull final byte [] aHash, @Nonnull final POMCheckResult aResult)
+    {
+      m_aHash = aHash;
+      m_aResult = aResult;
+    }
+  }
+
+  private final File m_aCacheFile;
+  private final String m_sFingerprint;
+  // All entries read from disk - read-only after construction
+  private final ICommonsMap <String, Entry> m_aOldEntries = new CommonsHashMap <> ();
+  // All entries checked or confirmed in this run
+  private final ConcurrentHashMap <String, Entry> m_aNewEntries = new ConcurrentHashMap <> ();
+  private final AtomicInteger m_aHits = new AtomicInteger ();
+  private final AtomicInteger m_aMisses = new AtomicInteger ();
+
+  /**
+   * Constructor. Reads the existing cache file if it exists and if it was
+   * created with the same fingerprint.
+   *
+   * @param aCacheFile
+   *        The file to read from and write to. May not be <code>null</code>.
+   * @param sFingerprint
+   *        A string that represents all inputs shared by all projects. If it
+   *        changes, the existing cache content is discarded. May neither be
+   *        <code>null</code> nor empty.
+   */
+  public POMCheckResultCache (@Nonnull final File aCacheFile, @Nonnull @Nonempty final String sFingerprint)
+  {
+    ValueEnforcer.notNull (aCacheFile, "CacheFile");
+    ValueEnforcer.notEmpty (sFingerprint, "Fingerprint");
+    m_aCacheFile = aCacheFile;
+    m_sFingerprint = sFingerprint;
+    if (aCacheFile.isFile ())
+      try
+      {
+        _read ();
+      }
+      catch (final IOException | RuntimeException ex)
+      {
+        s_aLogger.warn ("Failed to read POM check cache " + aCacheFile + " - ignoring it", ex);
+        m_aOldEntries.clear ();
+      }
+  }
+
+  private void _read () throws IOException
+  {
+    try (final DataInputStream aDIS = new DataInputStream (new BufferedInputStream (new FileInputStream (m_aCacheFile))))
+    {
+      if (aDIS.readInt () != MAGIC)
+        return;
+      if (!m_sFingerprint.equals (aDIS.readUTF ()))
+        return;
+      final int nEntries = aDIS.readInt ();
+      for (int i = 0; i < nEntries; ++i)
+      {
+        final String sKey = aDIS.readUTF ();
+        final byte [] aHash = new byte [aDIS.readUnsignedShort ()];
+        aDIS.readFully (aHash);
+        final POMCheckResult aResult = new POMCheckResult ();
+        final int nMessages = aDIS.readInt ();
+        for (int j = 0; j < nMessages; ++j)
+        {
+          final EDiagnosticLevel eLevel = EDiagnosticLevel.values ()[aDIS.readUnsignedByte ()];
+          aResult.add (eLevel, aDIS.readUTF ());
+        }
+        m_aOldEntries.put (sKey, new Entry (aHash, aResult));
+      }
+    }
+  }
+
+  /**
+   * Get the cached result of the passed project if the input hash is
+   * unchanged or check it.
+   *
+   * @param sProjectName
+   *        The name of the project. May not be <code>null</code>.
+   * @param aHash
+   *        The hash of all inputs of the check of this project. May not be
+   *        <code>null</code>.
+   * @param aChecker
+   *        The supplier to be invoked if there is no up-to-date cache entry.
+   *        May not be <code>null</code>.
+   * @return The cached or newly created result. Never <code>null</code>.
+   */
+  @Nonnull
+  public POMCheckResult getOrCheck (@Nonnull final String sProjectName,
+                                    @Nonnull final byte [] aHash,
+                                    @Nonnull final Supplier <POMCheckResult> aChecker)
+  {
+    final Entry aOld = m_aOldEntries.get (sProjectName);
+    if (aOld != null && Arrays.equals (aOld.m_aHash, aHash))
+    {
+      m_aNewEntries.put (sProjectName, aOld);
+      m_aHits.incrementAndGet ();
+      return aOld.m_aResult;
+    }
+
+    final POMCheckResult aResult = aChecker.get ();
+    m_aNewEntries.put (sProjectName, new Entry (aHash, aResult));
+    m_aMisses.incrementAndGet ();
+    return aResult;
+  }
+
+  @Nonnegative
+  public int getHitCount ()
+  {
+    return m_aHits.get ();
+  }
+
+  @Nonnegative
+  public int getMissCount ()
+  {
+    return m_aMisses.get ();
+  }
+
+  /**
+   * Write all entries used since the construction to the cache file, if
+   * anything changed.
+   *
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void writeIfChanged () throws IOException
+  {
+    if (m_aMisses.get () == 0)
+      return;
+
+    final ICommonsMap <String, Entry> aAllEntries = new CommonsHashMap <> (m_aOldEntries);
+    aAllEntries.putAll (m_aNewEntries);
+
+    Files.createDirectories (m_aCacheFile.getAbsoluteFile ().getParentFile ().toPath ());
+    final File aTmpFile = new File (m_aCacheFile.getAbsolutePath () + ".tmp");
+    try (final DataOutputStream aDOS = new DataOutputStream (new BufferedOutputStream (new FileOutputStream (aTmpFile))))
+    {
+      aDOS.writeInt (MAGIC);
+      aDOS.writeUTF (m_sFingerprint);
+      aDOS.writeInt (aAllEntries.size ());
+      for (final Map.Entry <String, Entry> aMapEntry : aAllEntries.entrySet ())
+      {
+        final Entry aEntry = aMapEntry.getValue ();
+        aDOS.writeUTF (aMapEntry.getKey ());
+        aDOS.writeShort (aEntry.m_aHash.length);
+        aDOS.write (aEntry.m_aHash);
+        aDOS.writeInt (aEntry.m_aResult.getAllMessages ().size ());
+        for (final POMCheckResult.Message aMessage : aEntry.m_aResult.getAllMessages ())
+        {
+          aDOS.writeByte (aMessage.getLevel ().ordinal ());
+          aDOS.writeUTF (aMessage.getText ());
+        }
+      }
+    }
+    Files.move (aTmpFile.toPath (), m_aCacheFile.toPath (), StandardCopyOption.REPLACE_EXISTING);
+  }
+}
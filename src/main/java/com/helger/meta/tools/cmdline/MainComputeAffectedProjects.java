@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.cmdline;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.CommonsTreeSet;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.commons.collection.ext.ICommonsNavigableSet;
+import com.helger.commons.collection.ext.ICommonsSet;
+import com.helger.commons.io.file.SimpleFileIO;
+import com.helger.meta.AbstractProjectMain;
+import com.helger.meta.CMeta;
+import com.helger.meta.project.IProject;
+import com.helger.meta.project.ProjectDependencyGraph;
+import com.helger.meta.project.ProjectList;
+
+/**
+ * Determine the projects affected by a set of changed files. Each changed path
+ * is mapped to the project owning it, and all projects that directly or
+ * indirectly depend on a changed project are affected as well. The affected
+ * projects are written in build order to {@link #AFFECTED_PROJECTS_FILE},
+ * which can be passed to all other tools via the system property
+ * {@value ProjectList#SYSTEM_PROPERTY_PROJECTS_FILE}. A batch file
+ * building only the affected projects is created as well.<br>
+ * The changed paths are taken from the command line or, if none is present,
+ * from stdin, e.g.
+ * <code>git diff --name-only | java ... MainComputeAffectedProjects --base-dir=ph-commons</code>.
+ * Relative paths are resolved against the Git base directory or the last
+ * <code>--base-dir=</code> argument, which itself is relative to the Git base
+ * directory.
+ *
+ * @author Philip Helger
+ */
+public final class MainComputeAffectedProjects extends AbstractProjectMain
+{
+  /** The file with the names of the affected projects in build order */
+  public static final File AFFECTED_PROJECTS_FILE = new File (CMeta.CACHE_DIR, "affected-projects.txt");
+
+  private static final String BASE_DIR_PREFIX = "--base-dir=";
+
+  @Nullable
+  private static IProject _getOwningProject (@Nonnull final ICommonsMap <Path, IProject> aBaseDirs,
+                                             @Nonnull final Path aPath)
+  {
+    // The deepest base directory wins, so nested projects are found
+    for (Path aCur = aPath; aCur != null; aCur = aCur.getParent ())
+    {
+      final IProject ret = aBaseDirs.get (aCur);
+      if (ret != null)
+        return ret;
+    }
+    return null;
+  }
+
+  @Nonnull
+  private static ICommonsList <String> _getChangedPaths (@Nonnull final String [] args) throws IOException
+  {
+    final ICommonsList <String> ret = new CommonsArrayList <> (args);
+    boolean bHasPath = false;
+    for (final String sArg : args)
+      if (!sArg.startsWith (BASE_DIR_PREFIX))
+        bHasPath = true;
+    if (!bHasPath)
+    {
+      try (final BufferedReader aReader = new BufferedReader (new InputStreamReader (System.in,
+                                                                                     StandardCharsets.UTF_8)))
+      {
+        String sLine;
+        while ((sLine = aReader.readLine ()) != null)
+          if (sLine.trim ().length () > 0)
+            ret.add (sLine.trim ());
+      }
+    }
+    return ret;
+  }
+
+  private static void _createBatchFile (@Nonnull final ICommonsList <ICommonsList <IProject>> aWaves)
+  {
+    final StringBuilder aSB = new StringBuilder ();
+    aSB.append (BATCH_HEADER);
+    for (final ICommonsList <IProject> aWave : aWaves)
+      for (final IProject aProject : aWave)
+      {
+        aSB.append ("echo ")
+           .append (aProject.getProjectName ())
+           .append ("\npushd ")
+           .append (aProject.getFullBaseDirName ())
+           .append ("\ncall mvn clean install %*\nif errorlevel 1 goto error\npopd\n");
+      }
+    aSB.append (BATCH_FOOTER);
+    SimpleFileIO.writeFile (new File (CMeta.GIT_BASE_DIR, "mvn_build_affected.cmd"), aSB.toString (), BATCH_CHARSET);
+  }
+
+  public static void main (final String [] args) throws IOException
+  {
+    final ICommonsList <IProject> aProjects = ProjectList.getAllProjects (p -> p.isBuildInProject () &&
+                                                                               !p.isDeprecated () &&
+                                                                               p.getPOMFile ().isFile ());
+    final ProjectDependencyGraph aGraph = ProjectDependencyGraph.readFromPOMs (aProjects, (aProject, sArtifactID) -> {
+      // Ignore - checked by MainCheckPOMArtifactVersions
+    });
+
+    final ICommonsMap <Path, IProject> aBaseDirs = new CommonsHashMap <> ();
+    for (final IProject aProject : aProjects)
+      aBaseDirs.put (aProject.getBaseDir ().getAbsoluteFile ().toPath ().normalize (), aProject);
+
+    // Map all changed paths to projects
+    final ICommonsNavigableSet <IProject> aChangedProjects = new CommonsTreeSet <> (IProject::compareTo);
+    File aBaseDir = CMeta.GIT_BASE_DIR;
+    for (final String sPath : _getChangedPaths (args))
+    {
+      if (sPath.startsWith (BASE_DIR_PREFIX))
+      {
+        aBaseDir = new File (CMeta.GIT_BASE_DIR, sPath.substring (BASE_DIR_PREFIX.length ()));
+        continue;
+      }
+
+      File aFile = new File (sPath);
+      if (!aFile.isAbsolute ())
+        aFile = new File (aBaseDir, sPath);
+      final IProject aProject = _getOwningProject (aBaseDirs, aFile.getAbsoluteFile ().toPath ().normalize ());
+      if (aProject == null)
+        s_aLogger.warn ("Changed path '" + sPath + "' does not belong to a project");
+      else
+        aChangedProjects.add (aProject);
+    }
+    s_aLogger.info (aChangedProjects.size () + " changed project(s): " + aChangedProjects);
+
+    // All dependents are affected as well
+    final ICommonsSet <IProject> aAffectedProjects = new CommonsTreeSet <> (IProject::compareTo);
+    aAffectedProjects.addAll (aChangedProjects);
+    aAffectedProjects.addAll (aGraph.getAllTransitiveDependents (aChangedProjects));
+
+    // Build order of the affected projects only
+    final ICommonsMap <IProject, ICommonsNavigableSet <IProject>> aAffectedDeps = new CommonsHashMap <> ();
+    for (final IProject aProject : aAffectedProjects)
+      aAffectedDeps.put (aProject, aGraph.getDirectDependencies (aProject));
+    final ICommonsList <ICommonsList <IProject>> aWaves = new ProjectDependencyGraph (aAffectedDeps).getBuildWaves ();
+
+    final StringBuilder aSB = new StringBuilder ();
+    int nWave = 1;
+    for (final ICommonsList <IProject> aWave : aWaves)
+    {
+      s_aLogger.info ("Wave " + nWave + ": " + aWave);
+      for (final IProject aProject : aWave)
+        aSB.append (aProject.getProjectName ()).append ('\n');
+      ++nWave;
+    }
+    SimpleFileIO.writeFile (AFFECTED_PROJECTS_FILE, aSB.toString (), StandardCharsets.UTF_8);
+    _createBatchFile (aWaves);
+
+    s_aLogger.info (aAffectedProjects.size () +
+                    " of " +
+                    aGraph.getProjectCount () +
+                    " projects are affected. Use -D" +
+                    ProjectList.SYSTEM_PROPERTY_PROJECTS_FILE +
+                    "=" +
+                    AFFECTED_PROJECTS_FILE.getAbsolutePath () +
+                    " to restrict the other tools to them.");
+  }
+}
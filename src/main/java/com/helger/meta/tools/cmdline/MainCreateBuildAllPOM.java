@@ -17,166 +17,125 @@
 package com.helger.meta.tools.cmdline;
 
 import java.io.File;
-import java.util.Map;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 
-import com.helger.commons.collection.CollectionHelper;
 import com.helger.commons.collection.ext.CommonsHashMap;
-import com.helger.commons.collection.ext.CommonsHashSet;
 import com.helger.commons.collection.ext.ICommonsList;
 import com.helger.commons.collection.ext.ICommonsMap;
-import com.helger.commons.collection.ext.ICommonsSet;
+import com.helger.commons.io.file.SimpleFileIO;
+import com.helger.commons.string.StringHelper;
+import com.helger.commons.string.StringParser;
 import com.helger.meta.AbstractProjectMain;
 import com.helger.meta.CMeta;
 import com.helger.meta.project.EProject;
 import com.helger.meta.project.EProjectType;
 import com.helger.meta.project.IProject;
+import com.helger.meta.project.ProjectDependencyGraph;
 import com.helger.meta.project.ProjectList;
 import com.helger.xml.microdom.IMicroDocument;
 import com.helger.xml.microdom.IMicroElement;
-import com.helger.xml.microdom.IMicroNode;
 import com.helger.xml.microdom.MicroDocument;
-import com.helger.xml.microdom.serialize.MicroReader;
 import com.helger.xml.microdom.serialize.MicroWriter;
-import com.helger.xml.microdom.util.MicroHelper;
-import com.helger.xml.microdom.util.MicroRecursiveIterator;
 
 /**
- * Check whether the Maven pom.xml of a project is consistent to the
- * requirements
+ * Create a Maven POM that builds all projects in the correct order and a batch
+ * file that builds the projects wave by wave. All projects of a wave are
+ * independent of each other and are built in parallel. Additionally the
+ * critical path of the build is determined, based on the build durations in
+ * {@link #BUILD_DURATIONS_FILE} if present.
  *
  * @author Philip Helger
  */
 public final class MainCreateBuildAllPOM extends AbstractProjectMain
 {
+  /**
+   * Optional file with the historical build durations. Each line has the
+   * layout <code>project-name=seconds</code>. Lines starting with '#' are
+   * ignored.
+   */
+  public static final File BUILD_DURATIONS_FILE = new File (CMeta.CACHE_DIR, "build-durations.txt");
+  /** The build duration in seconds used for projects without history */
+  public static final long DEFAULT_BUILD_DURATION_SECONDS = 60;
+
   private static final String MAVEN_NS = "http://maven.apache.org/POM/4.0.0";
+  private static final String POM_ALL_FILENAME = "pom-all.xml";
 
-  private static boolean _isSupportedGroupID (@Nullable final String sGroupID)
+  private static void _warnUnknownProject (@Nonnull final IProject aProject, @Nonnull final String sArtifactID)
   {
-    return "com.helger".equals (sGroupID) || "com.helger.maven".equals (sGroupID);
+    _warn (aProject, "Referenced unknown project '" + sArtifactID + "'");
   }
 
-  private static void _readPOM (@Nonnull final IProject aProject,
-                                @Nonnull final IMicroDocument aDoc,
-                                @Nonnull final ICommonsMap <IProject, ICommonsSet <IProject>> aTree)
+  @Nonnull
+  private static ICommonsMap <String, Long> _readBuildDurations ()
   {
-    if (s_aLogger.isDebugEnabled ())
-      s_aLogger.debug (aProject.getProjectName ());
-
-    final IMicroElement eRoot = aDoc.getDocumentElement ();
-
-    final String sThisArtefactID = MicroHelper.getChildTextContentTrimmed (eRoot, "artifactId");
-    final IProject aThisProject = ProjectList.getProjectOfName (sThisArtefactID);
-    if (aThisProject != aProject)
-      throw new IllegalStateException (sThisArtefactID + " is weird: " + aThisProject + " vs. " + aProject);
-
-    // Check all relevant dependencies or the like
-    for (final IMicroNode aNode : new MicroRecursiveIterator (eRoot))
-      if (aNode.isElement ())
+    final ICommonsMap <String, Long> ret = new CommonsHashMap <> ();
+    final String sContent = SimpleFileIO.getFileAsString (BUILD_DURATIONS_FILE, StandardCharsets.UTF_8);
+    if (sContent != null)
+      for (final String sLine : StringHelper.getExploded ('\n', sContent))
       {
-        final IMicroElement aElement = (IMicroElement) aNode;
-        // groupId is optional e.g. for the defined artefact
-        if (aElement.getLocalName ().equals ("artifactId"))
+        final String sTrimmed = sLine.trim ();
+        if (sTrimmed.length () > 0 && !sTrimmed.startsWith ("#"))
         {
-          // Check if the current artefact is in the "com.helger" group
-          final String sGroupID = MicroHelper.getChildTextContentTrimmed ((IMicroElement) aElement.getParent (),
-                                                                          "groupId");
-          if (_isSupportedGroupID (sGroupID))
-          {
-            // Match!
-            final String sArtifactID = aElement.getTextContentTrimmed ();
-            final IProject aReferencedProject = ProjectList.getProjectOfName (sArtifactID);
-            if (aReferencedProject == null)
-            {
-              _warn (aProject, "Referenced unknown project '" + sArtifactID + "'");
-            }
-            else
-            {
-              if (!sArtifactID.equals (sThisArtefactID))
-              {
-                ICommonsSet <IProject> aRefProjects = aTree.get (aThisProject);
-                if (aRefProjects == null)
-                {
-                  aRefProjects = new CommonsHashSet <> ();
-                  aTree.put (aThisProject, aRefProjects);
-                }
-                aRefProjects.add (aReferencedProject);
-              }
-            }
-          }
+          final int nIndex = sTrimmed.indexOf ('=');
+          final long nSeconds = nIndex < 0 ? -1 : StringParser.parseLong (sTrimmed.substring (nIndex + 1).trim (), -1);
+          if (nSeconds < 0)
+            s_aLogger.warn ("Ignoring invalid build duration line '" + sTrimmed + "'");
+          else
+            ret.put (sTrimmed.substring (0, nIndex).trim (), Long.valueOf (nSeconds));
         }
       }
+    return ret;
   }
 
-  public static void main (final String [] args)
+  private static void _createParallelBatchFile (@Nonnull final ICommonsList <ICommonsList <IProject>> aWaves)
   {
-    // Read all dependencies
-    final ICommonsMap <IProject, ICommonsSet <IProject>> aTree = new CommonsHashMap <> ();
-    for (final IProject aProject : ProjectList.getAllProjects (p -> p.getProjectType () != EProjectType.MAVEN_POM &&
-                                                                    p.isBuildInProject () &&
-                                                                    !p.isDeprecated () &&
-                                                                    !p.isNestedProject ()))
+    final StringBuilder aSB = new StringBuilder ();
+    aSB.append (BATCH_HEADER);
+    aSB.append ("echo ")
+       .append (EProject.PH_PARENT_POM.getProjectName ())
+       .append ("\ncall mvn -f ")
+       .append (POM_ALL_FILENAME)
+       .append (" -pl ")
+       .append (EProject.PH_PARENT_POM.getFullBaseDirName ())
+       .append (" clean install %*\nif errorlevel 1 goto error\n");
+    int nWave = 1;
+    for (final ICommonsList <IProject> aWave : aWaves)
     {
-      final IMicroDocument aDoc = MicroReader.readMicroXML (aProject.getPOMFile ());
-      if (aDoc == null)
-        throw new IllegalStateException ("Failed to read " + aProject.getPOMFile ());
-      _readPOM (aProject, aDoc, aTree);
+      // The projects of a wave are independent of each other
+      aSB.append ("echo Wave ")
+         .append (nWave)
+         .append ('/')
+         .append (aWaves.size ())
+         .append (" with ")
+         .append (aWave.size ())
+         .append (" project(s)\ncall mvn -f ")
+         .append (POM_ALL_FILENAME)
+         .append (" -T 1C -pl ")
+         .append (StringHelper.getImplodedMapped (",", aWave, IProject::getFullBaseDirName))
+         .append (" clean install %*\nif errorlevel 1 goto error\n");
+      ++nWave;
     }
+    aSB.append (BATCH_FOOTER);
+    SimpleFileIO.writeFile (new File (CMeta.GIT_BASE_DIR, "mvn_build_all_parallel.cmd"),
+                            aSB.toString (),
+                            BATCH_CHARSET);
+  }
 
-    // Fill transitive dependencies
-    boolean bChanged;
-    int nIterations = 0;
-    do
-    {
-      bChanged = false;
-      ++nIterations;
-      for (final Map.Entry <IProject, ICommonsSet <IProject>> aEntry : aTree.entrySet ())
-      {
-        final int nOld = aEntry.getValue ().size ();
-        for (final IProject eReferencedProject : CollectionHelper.newList (aEntry.getValue ()))
-        {
-          final Set <IProject> aTransitiveDeps = aTree.get (eReferencedProject);
-          if (aTransitiveDeps != null)
-            aEntry.getValue ().addAll (aTransitiveDeps);
-        }
-        if (aEntry.getValue ().size () > nOld)
-          bChanged = true;
-      }
-    } while (bChanged);
-    s_aLogger.info ("Found all transitive dependencies after " + nIterations + " iterations");
-
-    // Evaluate dependencies
-    final ICommonsList <Map.Entry <IProject, ICommonsSet <IProject>>> aEntries = CollectionHelper.newList (aTree.entrySet ());
-    aEntries.sort ( (o1, o2) -> {
-      // Less dependencies before many dependencies, because transitivity was
-      // already handled
-      int ret = o1.getValue ().size () - o2.getValue ().size ();
-      if (ret == 0)
-      {
-        // Same dependency count
-        if (o1.getValue ().contains (o2.getKey ()))
-        {
-          // First depends on second
-          ret = +1;
-        }
-        else
-          if (o2.getValue ().contains (o1.getKey ()))
-          {
-            // Second depends on first
-            ret = -1;
-          }
-          else
-          {
-            // By name
-            ret = o1.getKey ().compareTo (o2.getKey ());
-          }
-      }
+  public static void main (final String [] args)
+  {
+    // Read all dependencies
+    final ICommonsList <IProject> aProjects = ProjectList.getAllProjects (p -> p.getProjectType () != EProjectType.MAVEN_POM &&
+                                                                               p.isBuildInProject () &&
+                                                                               !p.isDeprecated () &&
+                                                                               !p.isNestedProject ());
+    final ProjectDependencyGraph aGraph = ProjectDependencyGraph.readFromPOMs (aProjects,
+                                                                               MainCreateBuildAllPOM::_warnUnknownProject);
 
-      return ret;
-    });
+    // Projects in the same wave don't depend on each other
+    final ICommonsList <ICommonsList <IProject>> aWaves = aGraph.getBuildWaves ();
+    s_aLogger.info ("Found " + aWaves.size () + " build waves for " + aGraph.getProjectCount () + " projects");
 
     // Create builder POM
     final IMicroDocument aDoc = new MicroDocument ();
@@ -188,17 +147,58 @@ public final class MainCreateBuildAllPOM extends AbstractProjectMain
     eProject.appendElement (MAVEN_NS, "name").appendText ("all-builder");
     eProject.appendElement (MAVEN_NS, "version").appendText ("1");
     final IMicroElement eModules = eProject.appendElement (MAVEN_NS, "modules");
-    eModules.appendElement (MAVEN_NS, "module").appendText (EProject.PH_PARENT_POM.getProjectName ());
+    eModules.appendElement (MAVEN_NS, "module").appendText (EProject.PH_PARENT_POM.getFullBaseDirName ());
 
     // Parent POM and Maven plugins always go first!
-    for (final Map.Entry <IProject, ICommonsSet <IProject>> aEntry : aEntries)
+    int nWave = 1;
+    for (final ICommonsList <IProject> aWave : aWaves)
     {
-      final IProject eCurProject = aEntry.getKey ();
-      eModules.appendComment (eCurProject + " -> " + aEntry.getValue ());
-      eModules.appendElement (MAVEN_NS, "module").appendText (eCurProject.getFullBaseDirName ());
+      eModules.appendComment ("Wave " + nWave + ": " + aWave.size () + " project(s)");
+      for (final IProject aCurProject : aWave)
+      {
+        eModules.appendComment (aCurProject + " -> " + aGraph.getAllTransitiveDependencies (aCurProject));
+        eModules.appendElement (MAVEN_NS, "module").appendText (aCurProject.getFullBaseDirName ());
+      }
+      ++nWave;
     }
 
-    MicroWriter.writeToFile (aDoc, new File (CMeta.GIT_BASE_DIR, "pom-all.xml"));
+    MicroWriter.writeToFile (aDoc, new File (CMeta.GIT_BASE_DIR, POM_ALL_FILENAME));
+    _createParallelBatchFile (aWaves);
+
+    // Critical path analysis
+    final ICommonsMap <String, Long> aDurations = _readBuildDurations ();
+    final ICommonsMap <IProject, Long> aUsedDurations = new CommonsHashMap <> ();
+    int nKnownDurations = 0;
+    for (final IProject aProject : aGraph.getAllProjects ())
+    {
+      Long aDuration = aDurations.get (aProject.getProjectName ());
+      if (aDuration != null)
+        nKnownDurations++;
+      else
+        aDuration = Long.valueOf (DEFAULT_BUILD_DURATION_SECONDS);
+      aUsedDurations.put (aProject, aDuration);
+    }
+    final ICommonsList <IProject> aCriticalPath = aGraph.getCriticalPath (p -> aUsedDurations.get (p).longValue ());
+    long nCriticalSeconds = 0;
+    for (final IProject aProject : aCriticalPath)
+      nCriticalSeconds += aUsedDurations.get (aProject).longValue ();
+    long nTotalSeconds = 0;
+    for (final Long aDuration : aUsedDurations.values ())
+      nTotalSeconds += aDuration.longValue ();
+
+    s_aLogger.info ("Build durations known for " +
+                    nKnownDurations +
+                    " of " +
+                    aGraph.getProjectCount () +
+                    " projects - using " +
+                    DEFAULT_BUILD_DURATION_SECONDS +
+                    " seconds for the others");
+    s_aLogger.info ("Critical path (" + nCriticalSeconds + " seconds): " + aCriticalPath);
+    s_aLogger.info ("Sequential build: " +
+                    nTotalSeconds +
+                    " seconds; parallel build: at least " +
+                    nCriticalSeconds +
+                    " seconds");
     s_aLogger.info ("Done - " + getWarnCount () + " warning(s)");
   }
 }
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.asm.EASMDetailLevel;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+
+/**
+ * Abstract base class for {@link ICodingStyleRule} implementations that keeps
+ * all the rule metadata.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public abstract class AbstractCodingStyleRule implements ICodingStyleRule
+{
+  private final String m_sID;
+  private final EDiagnosticLevel m_eSeverity;
+  private final ECodingStyleScope m_eScope;
+  private final EASMDetailLevel m_eDetailLevel;
+
+  protected AbstractCodingStyleRule (@Nonnull @Nonempty final String sID,
+                                     @Nonnull final EDiagnosticLevel eSeverity,
+                                     @Nonnull final ECodingStyleScope eScope,
+                                     @Nonnull final EASMDetailLevel eDetailLevel)
+  {
+    ValueEnforcer.notEmpty (sID, "ID");
+    ValueEnforcer.notNull (eSeverity, "Severity");
+    ValueEnforcer.notNull (eScope, "Scope");
+    ValueEnforcer.notNull (eDetailLevel, "DetailLevel");
+    m_sID = sID;
+    m_eSeverity = eSeverity;
+    m_eScope = eScope;
+    m_eDetailLevel = eDetailLevel;
+  }
+
+  @Nonnull
+  @Nonempty
+  public final String getID ()
+  {
+    return m_sID;
+  }
+
+  @Nonnull
+  public final EDiagnosticLevel getSeverity ()
+  {
+    return m_eSeverity;
+  }
+
+  @Nonnull
+  public final ECodingStyleScope getScope ()
+  {
+    return m_eScope;
+  }
+
+  @Nonnull
+  public final EASMDetailLevel getRequiredDetailLevel ()
+  {
+    return m_eDetailLevel;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("ID", m_sID)
+                                       .append ("Severity", m_eSeverity)
+                                       .append ("Scope", m_eScope)
+                                       .append ("DetailLevel", m_eDetailLevel)
+                                       .getToString ();
+  }
+}
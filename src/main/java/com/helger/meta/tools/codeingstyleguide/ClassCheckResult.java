@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.annotation.ReturnsMutableObject;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+
+/**
+ * The result of checking a single class file. It only contains the results
+ * that solely depend on the class file itself, so that it can be cached.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class ClassCheckResult
+{
+  private final String m_sClassName;
+  private final ICommonsList <CodingStyleWarning> m_aWarnings = new CommonsArrayList <> ();
+
+  /**
+   * @param sClassName
+   *        The fully qualified name of the checked class. May be
+   *        <code>null</code> if it is unknown.
+   */
+  public ClassCheckResult (@Nullable final String sClassName)
+  {
+    m_sClassName = sClassName;
+  }
+
+  @Nullable
+  public String getClassName ()
+  {
+    return m_sClassName;
+  }
+
+  public void addWarning (@Nonnull final EDiagnosticLevel eLevel,
+                          @Nonnull @Nonempty final String sRuleID,
+                          @Nonnull final String sMessage)
+  {
+    m_aWarnings.add (new CodingStyleWarning (eLevel, sRuleID, sMessage));
+  }
+
+  @Nonnull
+  @ReturnsMutableObject ("efficient access")
+  public ICommonsList <CodingStyleWarning> getAllWarnings ()
+  {
+    return m_aWarnings;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("ClassName", m_sClassName)
+                                       .append ("Warnings", m_aWarnings)
+                                       .getToString ();
+  }
+}
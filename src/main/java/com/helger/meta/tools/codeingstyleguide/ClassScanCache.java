@@ -0,0 +1,332 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.meta.asm.ClassFileBuffer;
+import com.helger.meta.asm.source.IClassFileEntry;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+
+/**
+ * An on-disk cache for the {@link ClassCheckResult} objects of a single
+ * project. An entry is keyed by the path of the class file and is considered
+ * up to date if either size and last modification time are unchanged or if the
+ * content hash is unchanged. Only entries that were accessed during the
+ * current run are persisted, so results of deleted class files vanish
+ * automatically.<br>
+ * The lookup and scan methods may be invoked concurrently, but
+ * {@link #writeIfChanged()} must only be called after all of them are done.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class ClassScanCache
+{
+  private static final Logger s_aLogger = LoggerFactory.getLogger (ClassScanCache.class);
+  private static final int MAGIC = 0x4d435343;
+  private static final String HASH_ALGORITHM = "SHA-256";
+
+  private static final class Entry
+  {
+    private final long m_nSize;
+    private final long m_nLastModified;
+    private final byte [] m_aHash;
+    private final ClassCheckResult m_aResult;
+
+    Entry (final long nSize,
+           final long nLastModified,
+           @Nonnull final byte [] aHash,
+           @Nonnull final ClassCheckResult aResult)
+    {
+      m_nSize = nSize;
+      m_nLastModified = nLastModified;
+      m_aHash = aHash;
+      m_aResult = aResult;
+    }
+  }
+
+  private final File m_aCacheFile;
+  private final String m_sFingerprint;
+  // All entries read from disk - read-only after construction
+  private final ICommonsMap <String, Entry> m_aOldEntries = new CommonsHashMap <> ();
+  // All entries used in this run
+  private final ConcurrentHashMap <String, Entry> m_aNewEntries = new ConcurrentHashMap <> ();
+  private volatile boolean m_bChanged = false;
+  private final AtomicInteger m_aHits = new AtomicInteger ();
+  private final AtomicInteger m_aMisses = new AtomicInteger ();
+
+  /**
+   * Constructor. Reads the existing cache file if it exists and if it was
+   * created with the same fingerprint.
+   *
+   * @param aCacheFile
+   *        The file to read from and write to. May not be <code>null</code>.
+   * @param sFingerprint
+   *        A string that represents all settings that influence the cached
+   *        results. If it changes, the existing cache content is discarded.
+   *        May neither be <code>null</code> nor empty.
+   */
+  public ClassScanCache (@Nonnull final File aCacheFile, @Nonnull @Nonempty final String sFingerprint)
+  {
+    ValueEnforcer.notNull (aCacheFile, "CacheFile");
+    ValueEnforcer.notEmpty (sFingerprint, "Fingerprint");
+    m_aCacheFile = aCacheFile;
+    m_sFingerprint = sFingerprint;
+    if (aCacheFile.isFile ())
+      try
+      {
+        _read ();
+      }
+      catch (final IOException | RuntimeException ex)
+      {
+        s_aLogger.warn ("Failed to read class scan cache " + aCacheFile + " - ignoring it", ex);
+        m_aOldEntries.clear ();
+      }
+  }
+
+  private void _read () throws IOException
+  {
+    try (final DataInputStream aDIS = new DataInputStream (new BufferedInputStream (new FileInputStream (m_aCacheFile))))
+    {
+      if (aDIS.readInt () != MAGIC)
+        return;
+      if (!m_sFingerprint.equals (aDIS.readUTF ()))
+        return;
+      final int nEntries = aDIS.readInt ();
+      for (int i = 0; i < nEntries; ++i)
+      {
+        final String sKey = aDIS.readUTF ();
+        final long nSize = aDIS.readLong ();
+        final long nLastModified = aDIS.readLong ();
+        final byte [] aHash = new byte [aDIS.readUnsignedShort ()];
+        aDIS.readFully (aHash);
+        final String sClassName = aDIS.readBoolean () ? aDIS.readUTF () : null;
+        final ClassCheckResult aResult = new ClassCheckResult (sClassName);
+        final int nWarnings = aDIS.readInt ();
+        for (int j = 0; j < nWarnings; ++j)
+        {
+          final EDiagnosticLevel eLevel = EDiagnosticLevel.values ()[aDIS.readUnsignedByte ()];
+          final String sRuleID = aDIS.readUTF ();
+          aResult.addWarning (eLevel, sRuleID, aDIS.readUTF ());
+        }
+        m_aOldEntries.put (sKey, new Entry (nSize, nLastModified, aHash, aResult));
+      }
+    }
+  }
+
+  @Nonnull
+  private static byte [] _getHash (@Nonnull final ClassFileBuffer aBuffer)
+  {
+    try
+    {
+      final MessageDigest aMD = MessageDigest.getInstance (HASH_ALGORITHM);
+      aMD.update (aBuffer.getBuffer (), 0, aBuffer.getLength ());
+      return aMD.digest ();
+    }
+    catch (final NoSuchAlgorithmException ex)
+    {
+      throw new IllegalStateException ("Hash algorithm " + HASH_ALGORITHM + " is not supported", ex);
+    }
+  }
+
+  /**
+   * Get the cached result of the passed class file if size and last
+   * modification time are unchanged. This does not read the class file.
+   *
+   * @param sKey
+   *        The unique key of the class file within the project (e.g. the
+   *        relative path). May not be <code>null</code>.
+   * @param aClassFile
+   *        The class file to be checked. May not be <code>null</code>.
+   * @return <code>null</code> if there is no quick match and the class file
+   *         needs to be passed to
+   *         {@link #getOrScan(String, IClassFileEntry, byte[], Function)}.
+   */
+  @Nullable
+  public ClassCheckResult getIfUnchanged (@Nonnull final String sKey, @Nonnull final IClassFileEntry aClassFile)
+  {
+    final Entry aOld = m_aOldEntries.get (sKey);
+    if (aOld != null && aOld.m_nSize == aClassFile.getSize () && aOld.m_nLastModified == aClassFile.getLastModified ())
+    {
+      // Quick match - no need to read the file
+      m_aNewEntries.put (sKey, aOld);
+      m_aHits.incrementAndGet ();
+      return aOld.m_aResult;
+    }
+    return null;
+  }
+
+  /**
+   * Get the cached result of the passed class file if the content hash is
+   * unchanged or scan it.
+   *
+   * @param sKey
+   *        The unique key of the class file within the project (e.g. the
+   *        relative path). May not be <code>null</code>.
+   * @param aClassFile
+   *        The class file to be checked. May not be <code>null</code>.
+   * @param aBuffer
+   *        The buffer with the already read class file. May not be
+   *        <code>null</code>.
+   * @param aScanner
+   *        The function to be invoked with the buffer if there is no
+   *        up-to-date cache entry. May not be <code>null</code>.
+   * @return The cached or newly created result. Never <code>null</code>.
+   */
+  @Nonnull
+  public ClassCheckResult getOrScan (@Nonnull final String sKey,
+                                     @Nonnull final IClassFileEntry aClassFile,
+                                     @Nonnull final ClassFileBuffer aBuffer,
+                                     @Nonnull final Function <ClassFileBuffer, ClassCheckResult> aScanner)
+  {
+    final long nSize = aClassFile.getSize ();
+    final long nLastModified = aClassFile.getLastModified ();
+    final Entry aOld = m_aOldEntries.get (sKey);
+    final byte [] aHash = _getHash (aBuffer);
+    m_bChanged = true;
+    if (aOld != null && Arrays.equals (aOld.m_aHash, aHash))
+    {
+      // Touched but content is unchanged
+      m_aNewEntries.put (sKey, new Entry (nSize, nLastModified, aHash, aOld.m_aResult));
+      m_aHits.incrementAndGet ();
+      return aOld.m_aResult;
+    }
+
+    final ClassCheckResult aResult = aScanner.apply (aBuffer);
+    m_aNewEntries.put (sKey, new Entry (nSize, nLastModified, aHash, aResult));
+    m_aMisses.incrementAndGet ();
+    return aResult;
+  }
+
+  /**
+   * Get the cached result of the passed class file or scan it.
+   *
+   * @param sKey
+   *        The unique key of the class file within the project (e.g. the
+   *        relative path). May not be <code>null</code>.
+   * @param aClassFile
+   *        The class file to be checked. May not be <code>null</code>.
+   * @param aScanner
+   *        The function to be invoked with the buffer if there is no
+   *        up-to-date cache entry. May not be <code>null</code>.
+   * @return The cached or newly created result. Never <code>null</code>.
+   * @throws IOException
+   *         If the class file cannot be read
+   */
+  @Nonnull
+  public ClassCheckResult getOrScan (@Nonnull final String sKey,
+                                     @Nonnull final IClassFileEntry aClassFile,
+                                     @Nonnull final Function <ClassFileBuffer, ClassCheckResult> aScanner)
+                                                                                                           throws IOException
+  {
+    final ClassCheckResult ret = getIfUnchanged (sKey, aClassFile);
+    if (ret != null)
+      return ret;
+    final ClassFileBuffer aBuffer = ClassFileBuffer.getPerThread ();
+    aClassFile.readInto (aBuffer);
+    return getOrScan (sKey, aClassFile, aBuffer, aScanner);
+  }
+
+  @Nonnegative
+  public int getHitCount ()
+  {
+    return m_aHits.get ();
+  }
+
+  @Nonnegative
+  public int getMissCount ()
+  {
+    return m_aMisses.get ();
+  }
+
+  private static void _writeOptionalUTF (@Nonnull final DataOutputStream aDOS,
+                                         @Nullable final String s) throws IOException
+  {
+    aDOS.writeBoolean (s != null);
+    if (s != null)
+      aDOS.writeUTF (s);
+  }
+
+  /**
+   * Write all entries used since the construction to the cache file, if
+   * anything changed.
+   *
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void writeIfChanged () throws IOException
+  {
+    if (!m_bChanged && m_aNewEntries.size () == m_aOldEntries.size ())
+      return;
+
+    Files.createDirectories (m_aCacheFile.getAbsoluteFile ().getParentFile ().toPath ());
+    final File aTmpFile = new File (m_aCacheFile.getAbsolutePath () + ".tmp");
+    try (final DataOutputStream aDOS = new DataOutputStream (new BufferedOutputStream (new FileOutputStream (aTmpFile))))
+    {
+      aDOS.writeInt (MAGIC);
+      aDOS.writeUTF (m_sFingerprint);
+      aDOS.writeInt (m_aNewEntries.size ());
+      for (final Map.Entry <String, Entry> aMapEntry : m_aNewEntries.entrySet ())
+      {
+        final Entry aEntry = aMapEntry.getValue ();
+        aDOS.writeUTF (aMapEntry.getKey ());
+        aDOS.writeLong (aEntry.m_nSize);
+        aDOS.writeLong (aEntry.m_nLastModified);
+        aDOS.writeShort (aEntry.m_aHash.length);
+        aDOS.write (aEntry.m_aHash);
+        _writeOptionalUTF (aDOS, aEntry.m_aResult.getClassName ());
+        aDOS.writeInt (aEntry.m_aResult.getAllWarnings ().size ());
+        for (final CodingStyleWarning aWarning : aEntry.m_aResult.getAllWarnings ())
+        {
+          aDOS.writeByte (aWarning.getLevel ().ordinal ());
+          aDOS.writeUTF (aWarning.getRuleID ());
+          aDOS.writeUTF (aWarning.getMessage ());
+        }
+      }
+    }
+    Files.move (aTmpFile.toPath (), m_aCacheFile.toPath (), StandardCopyOption.REPLACE_EXISTING);
+  }
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.collection.ext.CommonsHashSet;
+import com.helger.commons.collection.ext.ICommonsSet;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.asm.hierarchy.ClassHierarchyIndex;
+import com.helger.meta.project.IProject;
+
+/**
+ * The context that is passed to all coding style rules while a single class
+ * file is checked.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class CodingStyleContext
+{
+  private final IProject m_aProject;
+  private final ECodingStyleScope m_eScope;
+  private final boolean m_bTestSupportClass;
+  private final ClassCheckResult m_aResult;
+  private final ClassHierarchyIndex m_aClassHierarchy;
+  private final ICommonsSet <String> m_aFlags = new CommonsHashSet <> ();
+
+  /**
+   * Constructor
+   *
+   * @param aProject
+   *        The project the class belongs to. May not be <code>null</code>.
+   * @param eScope
+   *        Either {@link ECodingStyleScope#MAIN} or
+   *        {@link ECodingStyleScope#TEST}. May not be <code>null</code>.
+   * @param bTestSupportClass
+   *        <code>true</code> if it is a test class that does not need to follow
+   *        the test class conventions (e.g. a mock or a nested class)
+   * @param aResult
+   *        The result to add the findings to. May not be <code>null</code>.
+   */
+  public CodingStyleContext (@Nonnull final IProject aProject,
+                             @Nonnull final ECodingStyleScope eScope,
+                             final boolean bTestSupportClass,
+                             @Nonnull final ClassCheckResult aResult)
+  {
+    this (aProject, eScope, bTestSupportClass, aResult, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param aProject
+   *        The project the class belongs to. May not be <code>null</code>.
+   * @param eScope
+   *        Either {@link ECodingStyleScope#MAIN} or
+   *        {@link ECodingStyleScope#TEST}. May not be <code>null</code>.
+   * @param bTestSupportClass
+   *        <code>true</code> if it is a test class that does not need to follow
+   *        the test class conventions (e.g. a mock or a nested class)
+   * @param aResult
+   *        The result to add the findings to. May not be <code>null</code>.
+   * @param aClassHierarchy
+   *        The cross project class hierarchy. May be <code>null</code> if it
+   *        was not built.
+   */
+  public CodingStyleContext (@Nonnull final IProject aProject,
+                             @Nonnull final ECodingStyleScope eScope,
+                             final boolean bTestSupportClass,
+                             @Nonnull final ClassCheckResult aResult,
+                             @Nullable final ClassHierarchyIndex aClassHierarchy)
+  {
+    ValueEnforcer.notNull (aProject, "Project");
+    ValueEnforcer.notNull (eScope, "Scope");
+    ValueEnforcer.notNull (aResult, "Result");
+    m_aProject = aProject;
+    m_eScope = eScope;
+    m_bTestSupportClass = bTestSupportClass;
+    m_aResult = aResult;
+    m_aClassHierarchy = aClassHierarchy;
+  }
+
+  /**
+   * @return The project the checked class belongs to. Never <code>null</code>.
+   */
+  @Nonnull
+  public IProject getProject ()
+  {
+    return m_aProject;
+  }
+
+  @Nonnull
+  public ECodingStyleScope getScope ()
+  {
+    return m_eScope;
+  }
+
+  public boolean isTestClass ()
+  {
+    return m_eScope == ECodingStyleScope.TEST;
+  }
+
+  public boolean isTestSupportClass ()
+  {
+    return m_bTestSupportClass;
+  }
+
+  /**
+   * @return The result the warnings are collected in. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  public ClassCheckResult getResult ()
+  {
+    return m_aResult;
+  }
+
+  /**
+   * @return The class hierarchy of all projects to answer questions about other
+   *         classes (e.g. super classes or callers) without parsing them. May
+   *         be <code>null</code> if the index was not built.
+   * @see com.helger.meta.tools.codeingstyleguide.MainBuildClassHierarchyIndex
+   */
+  @Nullable
+  public ClassHierarchyIndex getClassHierarchy ()
+  {
+    return m_aClassHierarchy;
+  }
+
+  /**
+   * Add a finding of the passed rule, using the severity of the rule.
+   *
+   * @param aRule
+   *        The rule that found something. May not be <code>null</code>.
+   * @param sMessage
+   *        The message to report. May not be <code>null</code>.
+   */
+  public void addWarning (@Nonnull final ICodingStyleRule aRule, @Nonnull final String sMessage)
+  {
+    m_aResult.addWarning (aRule.getSeverity (), aRule.getID (), sMessage);
+  }
+
+  /**
+   * Set a flag for the currently checked class. This can be used by rules to
+   * pass information from member callbacks to the end of the class.
+   *
+   * @param sFlag
+   *        The flag to set. May neither be <code>null</code> nor empty.
+   */
+  public void setFlag (@Nonnull @Nonempty final String sFlag)
+  {
+    m_aFlags.add (sFlag);
+  }
+
+  public boolean hasFlag (@Nonnull @Nonempty final String sFlag)
+  {
+    return m_aFlags.contains (sFlag);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Project", m_aProject.getProjectName ())
+                                       .append ("Scope", m_eScope)
+                                       .append ("TestSupportClass", m_bTestSupportClass)
+                                       .append ("Result", m_aResult)
+                                       .append ("Flags", m_aFlags)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsHashSet;
+import com.helger.commons.collection.ext.CommonsLinkedHashMap;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsOrderedMap;
+import com.helger.commons.collection.ext.ICommonsSet;
+import com.helger.commons.lang.ServiceLoaderHelper;
+import com.helger.commons.state.EContinue;
+import com.helger.commons.string.StringHelper;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.asm.ClassRuleScanner;
+import com.helger.meta.asm.EASMDetailLevel;
+import com.helger.meta.asm.IClassRule;
+
+/**
+ * Contains all enabled {@link ICodingStyleRule} objects and measures the time
+ * spent in each rule.
+ *
+ * @author Philip Helger
+ */
+@ThreadSafe
+public final class CodingStyleRuleRegistry
+{
+  /**
+   * System property with a comma separated list of rule IDs that should not be
+   * executed.
+   */
+  public static final String SYSTEM_PROPERTY_DISABLED_RULES = "meta.codingstyle.disabledrules";
+
+  private static final Logger s_aLogger = LoggerFactory.getLogger (CodingStyleRuleRegistry.class);
+
+  /**
+   * Wraps a rule and adds the time spent in all callbacks.
+   */
+  private static final class TimedRule implements IClassRule <CodingStyleContext>
+  {
+    private final ICodingStyleRule m_aRule;
+    private final LongAdder m_aNanos;
+
+    TimedRule (@Nonnull final ICodingStyleRule aRule, @Nonnull final LongAdder aNanos)
+    {
+      m_aRule = aRule;
+      m_aNanos = aNanos;
+    }
+
+    @Nonnull
+    public EASMDetailLevel getRequiredDetailLevel ()
+    {
+      return m_aRule.getRequiredDetailLevel ();
+    }
+
+    @Nonnull
+    public EContinue onClassHeader (@Nonnull final ClassNode aHeader, @Nonnull final CodingStyleContext aContext)
+    {
+      final long nStart = System.nanoTime ();
+      try
+      {
+        return m_aRule.onClassHeader (aHeader, aContext);
+      }
+      finally
+      {
+        m_aNanos.add (System.nanoTime () - nStart);
+      }
+    }
+
+    public void onField (@Nonnull final ClassNode aHeader,
+                         @Nonnull final FieldNode aField,
+                         @Nonnull final CodingStyleContext aContext)
+    {
+      final long nStart = System.nanoTime ();
+      try
+      {
+        m_aRule.onField (aHeader, aField, aContext);
+      }
+      finally
+      {
+        m_aNanos.add (System.nanoTime () - nStart);
+      }
+    }
+
+    public void onMethod (@Nonnull final ClassNode aHeader,
+                          @Nonnull final MethodNode aMethod,
+                          @Nonnull final CodingStyleContext aContext)
+    {
+      final long nStart = System.nanoTime ();
+      try
+      {
+        m_aRule.onMethod (aHeader, aMethod, aContext);
+      }
+      finally
+      {
+        m_aNanos.add (System.nanoTime () - nStart);
+      }
+    }
+
+    public void onClassEnd (@Nonnull final ClassNode aHeader, @Nonnull final CodingStyleContext aContext)
+    {
+      final long nStart = System.nanoTime ();
+      try
+      {
+        m_aRule.onClassEnd (aHeader, aContext);
+      }
+      finally
+      {
+        m_aNanos.add (System.nanoTime () - nStart);
+      }
+    }
+  }
+
+  private final ICommonsList <ICodingStyleRule> m_aRules = new CommonsArrayList <> ();
+  private final ICommonsList <LongAdder> m_aNanos = new CommonsArrayList <> ();
+
+  /**
+   * Constructor
+   *
+   * @param aRules
+   *        All available rules. May not be <code>null</code>.
+   * @param aDisabledRuleIDs
+   *        The IDs of all rules that should not be executed. May not be
+   *        <code>null</code>.
+   * @throws IllegalStateException
+   *         If two rules share the same ID
+   */
+  public CodingStyleRuleRegistry (@Nonnull final Iterable <? extends ICodingStyleRule> aRules,
+                                  @Nonnull final ICommonsSet <String> aDisabledRuleIDs)
+  {
+    ValueEnforcer.notNull (aRules, "Rules");
+    ValueEnforcer.notNull (aDisabledRuleIDs, "DisabledRuleIDs");
+
+    final ICommonsSet <String> aUsedIDs = new CommonsHashSet <> ();
+    for (final ICodingStyleRule aRule : aRules)
+    {
+      if (!aUsedIDs.add (aRule.getID ()))
+        throw new IllegalStateException ("Another coding style rule with ID '" + aRule.getID () + "' is already present");
+      if (aDisabledRuleIDs.contains (aRule.getID ()))
+        s_aLogger.info ("Coding style rule '" + aRule.getID () + "' is disabled");
+      else
+      {
+        m_aRules.add (aRule);
+        m_aNanos.add (new LongAdder ());
+      }
+    }
+  }
+
+  /**
+   * @return A new registry with all rules registered via SPI, except the ones
+   *         disabled via {@link #SYSTEM_PROPERTY_DISABLED_RULES}.
+   */
+  @Nonnull
+  public static CodingStyleRuleRegistry createDefault ()
+  {
+    final ICommonsSet <String> aDisabledRuleIDs = new CommonsHashSet <> ();
+    for (final String sID : StringHelper.getExploded (',', System.getProperty (SYSTEM_PROPERTY_DISABLED_RULES, "")))
+      if (StringHelper.hasText (sID.trim ()))
+        aDisabledRuleIDs.add (sID.trim ());
+    return new CodingStyleRuleRegistry (ServiceLoaderHelper.getAllSPIImplementations (ICodingStyleRule.class),
+                                        aDisabledRuleIDs);
+  }
+
+  /**
+   * @return All enabled rules in registration order. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsList <ICodingStyleRule> getAllRules ()
+  {
+    return m_aRules.getClone ();
+  }
+
+  /**
+   * Create a new scanner that runs all enabled rules of the passed scope in
+   * one pass and records their execution times.
+   *
+   * @param eScope
+   *        The scope of the classes to be scanned. May not be
+   *        <code>null</code>.
+   * @param aHeaderFilter
+   *        An optional filter to skip whole classes. May be <code>null</code>.
+   * @return The new scanner. Never <code>null</code>.
+   */
+  @Nonnull
+  public ClassRuleScanner <CodingStyleContext> createScanner (@Nonnull final ECodingStyleScope eScope,
+                                                              @Nullable final Predicate <? super ClassNode> aHeaderFilter)
+  {
+    final ICommonsList <IClassRule <CodingStyleContext>> aRules = new CommonsArrayList <> ();
+    for (int i = 0; i < m_aRules.size (); ++i)
+    {
+      final ICodingStyleRule aRule = m_aRules.get (i);
+      if (aRule.getScope ().includes (eScope))
+        aRules.add (new TimedRule (aRule, m_aNanos.get (i)));
+    }
+    return new ClassRuleScanner <> (aRules, aHeaderFilter);
+  }
+
+  /**
+   * @return The accumulated execution time in nanoseconds per rule ID, with
+   *         the slowest rule first. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsOrderedMap <String, Long> getDurationNanosPerRule ()
+  {
+    // Take a consistent snapshot first
+    final long [] aSums = new long [m_aRules.size ()];
+    final ICommonsList <Integer> aIndices = new CommonsArrayList <> ();
+    for (int i = 0; i < aSums.length; ++i)
+    {
+      aSums[i] = m_aNanos.get (i).sum ();
+      aIndices.add (Integer.valueOf (i));
+    }
+    aIndices.sort ( (x, y) -> Long.compare (aSums[y.intValue ()], aSums[x.intValue ()]));
+
+    final ICommonsOrderedMap <String, Long> ret = new CommonsLinkedHashMap <> ();
+    for (final Integer aIndex : aIndices)
+      ret.put (m_aRules.get (aIndex.intValue ()).getID (), Long.valueOf (aSums[aIndex.intValue ()]));
+    return ret;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Rules", m_aRules).getToString ();
+  }
+}
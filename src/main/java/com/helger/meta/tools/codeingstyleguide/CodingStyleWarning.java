@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+
+/**
+ * A single coding style warning or info of a class.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class CodingStyleWarning
+{
+  private final EDiagnosticLevel m_eLevel;
+  private final String m_sRuleID;
+  private final String m_sMessage;
+
+  public CodingStyleWarning (@Nonnull final EDiagnosticLevel eLevel,
+                             @Nonnull @Nonempty final String sRuleID,
+                             @Nonnull final String sMessage)
+  {
+    ValueEnforcer.notNull (eLevel, "Level");
+    ValueEnforcer.notEmpty (sRuleID, "RuleID");
+    ValueEnforcer.notNull (sMessage, "Message");
+    m_eLevel = eLevel;
+    m_sRuleID = sRuleID;
+    m_sMessage = sMessage;
+  }
+
+  @Nonnull
+  public EDiagnosticLevel getLevel ()
+  {
+    return m_eLevel;
+  }
+
+  @Nonnull
+  @Nonempty
+  public String getRuleID ()
+  {
+    return m_sRuleID;
+  }
+
+  @Nonnull
+  public String getMessage ()
+  {
+    return m_sMessage;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Level", m_eLevel)
+                                       .append ("RuleID", m_sRuleID)
+                                       .append ("Message", m_sMessage)
+                                       .getToString ();
+  }
+}
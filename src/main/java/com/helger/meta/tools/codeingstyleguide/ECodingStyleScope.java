@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Defines the kind of classes a {@link ICodingStyleRule} is applied to.
+ *
+ * @author Philip Helger
+ */
+public enum ECodingStyleScope
+{
+  /** Classes from target/classes */
+  MAIN,
+  /** Classes from target/test-classes */
+  TEST,
+  /** All classes */
+  MAIN_AND_TEST;
+
+  /**
+   * @param eScope
+   *        The scope of the class to be checked. May not be
+   *        <code>null</code>.
+   * @return <code>true</code> if a rule with this scope is applicable to
+   *         classes of the passed scope.
+   */
+  public boolean includes (@Nonnull final ECodingStyleScope eScope)
+  {
+    return this == MAIN_AND_TEST || this == eScope;
+  }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide;
+
+import javax.annotation.Nonnull;
+
+import com.helger.commons.annotation.IsSPIInterface;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.meta.asm.IClassRule;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+
+/**
+ * SPI interface for a single coding style rule. All implementations are
+ * stateless and are invoked for many classes. Per class state must be kept in
+ * the {@link CodingStyleContext}.
+ *
+ * @author Philip Helger
+ */
+@IsSPIInterface
+public interface ICodingStyleRule extends IClassRule <CodingStyleContext>
+{
+  /**
+   * @return The unique ID of this rule. It is used for reporting and for
+   *         disabling the rule. Neither <code>null</code> nor empty.
+   */
+  @Nonnull
+  @Nonempty
+  String getID ();
+
+  /**
+   * @return The level with which the findings of this rule are reported.
+   *         Never <code>null</code>.
+   */
+  @Nonnull
+  EDiagnosticLevel getSeverity ();
+
+  /**
+   * @return The kind of classes this rule is applied to. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  ECodingStyleScope getScope ();
+}
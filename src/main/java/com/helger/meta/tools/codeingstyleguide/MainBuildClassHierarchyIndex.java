@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide;
+
+import java.io.IOException;
+
+import javax.annotation.Nonnull;
+
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.meta.AbstractProjectMain;
+import com.helger.meta.asm.ASMHelper;
+import com.helger.meta.asm.ClassFileBuffer;
+import com.helger.meta.asm.EASMDetailLevel;
+import com.helger.meta.asm.hierarchy.ClassHierarchyEntry;
+import com.helger.meta.asm.hierarchy.ClassHierarchyIndex;
+import com.helger.meta.asm.hierarchy.ClassHierarchyIndexBuilder;
+import com.helger.meta.asm.source.ClassFilePipeline;
+import com.helger.meta.asm.source.ClassSourceFactory;
+import com.helger.meta.asm.source.IClassSource;
+import com.helger.meta.project.IProject;
+import com.helger.meta.project.ProjectList;
+
+/**
+ * Scan the main classes of all projects and write the
+ * {@link ClassHierarchyIndex} to its default location, where the coding style
+ * check and the text extraction pick it up.
+ *
+ * @author Philip Helger
+ */
+public final class MainBuildClassHierarchyIndex extends AbstractProjectMain
+{
+  private static final ClassFilePipeline s_aPipeline = ClassFilePipeline.createDefault ();
+
+  @Nonnull
+  private static ClassHierarchyEntry _createEntry (@Nonnull final ClassFileBuffer aBuffer)
+  {
+    // Code is needed for the static calls
+    return ClassHierarchyEntry.create (ASMHelper.readClass (aBuffer, EASMDetailLevel.CODE));
+  }
+
+  @Nonnull
+  private static ICommonsList <ClassHierarchyEntry> _scanProject (@Nonnull final IProject aProject) throws IOException
+  {
+    final ICommonsList <ClassHierarchyEntry> ret = new CommonsArrayList <> ();
+    try (final IClassSource aSource = ClassSourceFactory.createMainClassSource (aProject))
+    {
+      s_aPipeline.process (aSource.getAllClassFiles (),
+                           null,
+                           (aClassFile, aBuffer) -> _createEntry (aBuffer),
+                           (aClassFile, aEntry) -> ret.add (aEntry));
+    }
+    return ret;
+  }
+
+  public static void main (final String [] args) throws IOException
+  {
+    s_aLogger.info ("Start building class hierarchy index from .class files!");
+    final ICommonsList <IProject> aProjects = ProjectList.getAllProjects (p -> p.getProjectType ().hasJavaCode () &&
+                                                                               !p.isDeprecated ());
+
+    // Add in project order, so that duplicate classes are resolved
+    // deterministically
+    final ICommonsList <ICommonsList <ClassHierarchyEntry>> aEntriesPerProject = _getForEachProject (aProjects,
+                                                                                                  MainBuildClassHierarchyIndex::_scanProject);
+    final ClassHierarchyIndexBuilder aBuilder = new ClassHierarchyIndexBuilder ();
+    for (final ICommonsList <ClassHierarchyEntry> aEntries : aEntriesPerProject)
+      for (final ClassHierarchyEntry aEntry : aEntries)
+        aBuilder.add (aEntry);
+
+    final ClassHierarchyIndex aIndex = aBuilder.build ();
+    aIndex.writeTo (ClassHierarchyIndex.DEFAULT_FILE);
+    s_aLogger.info ("Done - " +
+                    aBuilder.getAddedCount () +
+                    " scanned and " +
+                    aIndex.getClassCount () +
+                    " known classes written to " +
+                    ClassHierarchyIndex.DEFAULT_FILE.getAbsolutePath ());
+  }
+}
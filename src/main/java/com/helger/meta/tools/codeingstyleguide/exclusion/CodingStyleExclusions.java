@@ -0,0 +1,186 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.exclusion;
+
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.CommonsTreeSet;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.commons.collection.ext.ICommonsSortedSet;
+import com.helger.commons.io.resource.ClassPathResource;
+import com.helger.commons.io.resource.IReadableResource;
+import com.helger.commons.string.StringHelper;
+import com.helger.commons.string.ToStringGenerator;
+import com.helger.meta.project.IProject;
+import com.helger.meta.project.ProjectList;
+import com.helger.meta.tools.codeingstyleguide.ECodingStyleScope;
+import com.helger.xml.microdom.IMicroDocument;
+import com.helger.xml.microdom.IMicroElement;
+import com.helger.xml.microdom.serialize.MicroReader;
+
+/**
+ * The declarative exclusions of the coding styleguide check. They are read
+ * from an XML file with the following layout:
+ *
+ * <pre>
+ * &lt;exclusions&gt;
+ *   &lt;project name="ph-css"&gt;
+ *     &lt;exclude scope="main" package="*" class="Parser*Constants" /&gt;
+ *   &lt;/project&gt;
+ * &lt;/exclusions&gt;
+ * </pre>
+ *
+ * The scope is either <code>main</code>, <code>test</code> or
+ * <code>all</code> (default). Package and class are patterns as defined by
+ * {@link ExclusionRule} and default to <code>*</code>.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class CodingStyleExclusions
+{
+  private static final Logger s_aLogger = LoggerFactory.getLogger (CodingStyleExclusions.class);
+
+  /** The default class path resource */
+  public static final String DEFAULT_RESOURCE = "codingstyleguide-exclusions.xml";
+
+  private static final String SCOPE_MAIN = "main";
+  private static final String SCOPE_TEST = "test";
+  private static final String SCOPE_ALL = "all";
+
+  private final ICommonsMap <String, ExclusionIndex> m_aMainIndices = new CommonsHashMap <> ();
+  private final ICommonsMap <String, ExclusionIndex> m_aTestIndices = new CommonsHashMap <> ();
+  private final ICommonsSortedSet <String> m_aUnknownProjectNames = new CommonsTreeSet <> ();
+
+  /**
+   * Constructor
+   *
+   * @param aDoc
+   *        The XML document to read the exclusions from. May not be
+   *        <code>null</code>.
+   * @param aIsKnownProject
+   *        Predicate that decides whether a project name from the document
+   *        denotes an existing project. Exclusions for unknown projects are
+   *        still read, but a warning is logged for each of them, because
+   *        they usually stem from a typo or a renamed project. May not be
+   *        <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the document contains an invalid scope
+   */
+  public CodingStyleExclusions (@Nonnull final IMicroDocument aDoc,
+                                @Nonnull final Predicate <String> aIsKnownProject)
+  {
+    ValueEnforcer.notNull (aDoc, "Doc");
+    ValueEnforcer.notNull (aIsKnownProject, "IsKnownProject");
+    for (final IMicroElement eProject : aDoc.getDocumentElement ().getAllChildElements ("project"))
+    {
+      final String sProjectName = eProject.getAttributeValue ("name");
+      if (StringHelper.hasNoText (sProjectName))
+        throw new IllegalArgumentException ("Project element without a name found");
+      if (!aIsKnownProject.test (sProjectName) && m_aUnknownProjectNames.add (sProjectName))
+        s_aLogger.warn ("Coding styleguide exclusions reference the unknown project '" + sProjectName + "'");
+
+      final ICommonsList <ExclusionRule> aMainRules = new CommonsArrayList <> ();
+      final ICommonsList <ExclusionRule> aTestRules = new CommonsArrayList <> ();
+      for (final IMicroElement eExclude : eProject.getAllChildElements ("exclude"))
+      {
+        final String sScope = StringHelper.getNotNull (eExclude.getAttributeValue ("scope"), SCOPE_ALL);
+        final String sPackage = StringHelper.getNotNull (eExclude.getAttributeValue ("package"), ExclusionRule.ANY);
+        final String sClass = StringHelper.getNotNull (eExclude.getAttributeValue ("class"), ExclusionRule.ANY);
+        if (!sScope.equals (SCOPE_MAIN) && !sScope.equals (SCOPE_TEST) && !sScope.equals (SCOPE_ALL))
+          throw new IllegalArgumentException ("Invalid exclusion scope '" + sScope + "' for project " + sProjectName);
+
+        final ExclusionRule aRule = new ExclusionRule (sPackage, sClass);
+        if (!sScope.equals (SCOPE_TEST))
+          aMainRules.add (aRule);
+        if (!sScope.equals (SCOPE_MAIN))
+          aTestRules.add (aRule);
+      }
+      if (aMainRules.isNotEmpty ())
+        m_aMainIndices.put (sProjectName, new ExclusionIndex (aMainRules));
+      if (aTestRules.isNotEmpty ())
+        m_aTestIndices.put (sProjectName, new ExclusionIndex (aTestRules));
+    }
+  }
+
+  /**
+   * Get the compiled exclusions of a project.
+   *
+   * @param aProject
+   *        The project to query. May not be <code>null</code>.
+   * @param eScope
+   *        Either {@link ECodingStyleScope#MAIN} or
+   *        {@link ECodingStyleScope#TEST}. May not be <code>null</code>.
+   * @return {@link ExclusionIndex#EMPTY} if there are no exclusions. Never
+   *         <code>null</code>.
+   */
+  @Nonnull
+  public ExclusionIndex getIndex (@Nonnull final IProject aProject, @Nonnull final ECodingStyleScope eScope)
+  {
+    final ICommonsMap <String, ExclusionIndex> aMap = eScope == ECodingStyleScope.TEST ? m_aTestIndices
+                                                                                         : m_aMainIndices;
+    final ExclusionIndex ret = aMap.get (aProject.getProjectName ());
+    return ret != null ? ret : ExclusionIndex.EMPTY;
+  }
+
+  /**
+   * @return The names of all projects in the document that were not
+   *         accepted by the known project predicate. Never <code>null</code>
+   *         but maybe empty.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public ICommonsSortedSet <String> getAllUnknownProjectNames ()
+  {
+    return new CommonsTreeSet <> (m_aUnknownProjectNames);
+  }
+
+  /**
+   * @return The exclusions read from {@link #DEFAULT_RESOURCE}, validated
+   *         against the {@link ProjectList}. Never <code>null</code>.
+   * @throws IllegalStateException
+   *         If the resource cannot be read
+   */
+  @Nonnull
+  public static CodingStyleExclusions readDefault ()
+  {
+    final IReadableResource aRes = new ClassPathResource (DEFAULT_RESOURCE);
+    final IMicroDocument aDoc = MicroReader.readMicroXML (aRes);
+    if (aDoc == null)
+      throw new IllegalStateException ("Failed to read " + aRes.getPath ());
+    return new CodingStyleExclusions (aDoc, sName -> ProjectList.getProjectOfName (sName) != null);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("MainIndices", m_aMainIndices)
+                                       .append ("TestIndices", m_aTestIndices)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.exclusion;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsHashSet;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsSet;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * The compiled form of all {@link ExclusionRule} objects of a single project
+ * and scope. Rules that only restrict the package or only restrict the class
+ * name are compiled into hash sets (exact names) and prefix tries (names
+ * ending with a wildcard), so that the check of a class costs at most two hash
+ * lookups and two trie walks, independent of the number of rules. Only rules
+ * with other wildcards or with both a package and a class restriction are
+ * matched one by one.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class ExclusionIndex
+{
+  /** An index that excludes nothing */
+  public static final ExclusionIndex EMPTY = new ExclusionIndex (new CommonsArrayList <> ());
+
+  private final ICommonsList <ExclusionRule> m_aRules;
+  private final boolean m_bExcludeAll;
+  private final ICommonsSet <String> m_aExactPackages = new CommonsHashSet <> ();
+  private final PrefixTrie m_aPackagePrefixes = new PrefixTrie ();
+  private final ICommonsSet <String> m_aExactClasses = new CommonsHashSet <> ();
+  private final PrefixTrie m_aClassPrefixes = new PrefixTrie ();
+  private final ICommonsList <ExclusionRule> m_aOtherRules = new CommonsArrayList <> ();
+
+  public ExclusionIndex (@Nonnull final Iterable <ExclusionRule> aRules)
+  {
+    ValueEnforcer.notNull (aRules, "Rules");
+    m_aRules = new CommonsArrayList <> (aRules);
+
+    boolean bExcludeAll = false;
+    for (final ExclusionRule aRule : m_aRules)
+    {
+      final String sPackagePattern = aRule.getPackagePattern ();
+      final String sClassPattern = aRule.getClassPattern ();
+      final boolean bAnyPackage = sPackagePattern.equals (ExclusionRule.ANY);
+      final boolean bAnyClass = sClassPattern.equals (ExclusionRule.ANY);
+
+      if (bAnyPackage && bAnyClass)
+        bExcludeAll = true;
+      else
+      {
+        boolean bIndexed = false;
+        if (bAnyClass)
+          bIndexed = _addToIndex (sPackagePattern, m_aExactPackages, m_aPackagePrefixes);
+        else
+          if (bAnyPackage)
+            bIndexed = _addToIndex (sClassPattern, m_aExactClasses, m_aClassPrefixes);
+        if (!bIndexed)
+          m_aOtherRules.add (aRule);
+      }
+    }
+    m_bExcludeAll = bExcludeAll;
+  }
+
+  private static boolean _addToIndex (@Nonnull final String sPattern,
+                                      @Nonnull final ICommonsSet <String> aExact,
+                                      @Nonnull final PrefixTrie aPrefixes)
+  {
+    if (ExclusionRule.isExactPattern (sPattern))
+    {
+      aExact.add (sPattern);
+      return true;
+    }
+    if (ExclusionRule.isPrefixPattern (sPattern))
+    {
+      aPrefixes.add (sPattern.substring (0, sPattern.length () - 1));
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * @return <code>true</code> if this index excludes all classes.
+   */
+  public boolean isExcludeAll ()
+  {
+    return m_bExcludeAll;
+  }
+
+  /**
+   * @return <code>true</code> if this index contains no rule at all.
+   */
+  public boolean isEmpty ()
+  {
+    return m_aRules.isEmpty ();
+  }
+
+  /**
+   * Check if a class is excluded.
+   *
+   * @param sPackageName
+   *        The package name of the class. May not be <code>null</code> but
+   *        may be empty for the default package.
+   * @param sClassLocalName
+   *        The class name without the package. May not be <code>null</code>.
+   * @return <code>true</code> if the class is excluded.
+   */
+  public boolean isExcluded (@Nonnull final String sPackageName, @Nonnull final String sClassLocalName)
+  {
+    if (m_bExcludeAll)
+      return true;
+    if (m_aExactPackages.contains (sPackageName) || m_aPackagePrefixes.containsPrefixOf (sPackageName))
+      return true;
+    if (m_aExactClasses.contains (sClassLocalName) || m_aClassPrefixes.containsPrefixOf (sClassLocalName))
+      return true;
+    for (final ExclusionRule aRule : m_aOtherRules)
+      if (aRule.matches (sPackageName, sClassLocalName))
+        return true;
+    return false;
+  }
+
+  /**
+   * @return A string that changes whenever the rules of this index change.
+   *         Suitable to be part of a cache key.
+   */
+  @Nonnull
+  @Nonempty
+  public String getFingerprint ()
+  {
+    final StringBuilder aSB = new StringBuilder ();
+    for (final ExclusionRule aRule : m_aRules)
+      aSB.append (aRule.getPackagePattern ()).append ('/').append (aRule.getClassPattern ()).append (';');
+    return Integer.toHexString (aSB.toString ().hashCode ());
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Rules", m_aRules).getToString ();
+  }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.exclusion;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.hashcode.HashCodeGenerator;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * A single exclusion consisting of a package name pattern and a class local
+ * name pattern. A pattern is either an exact name or contains one or more
+ * <code>*</code> wildcards that match any number of characters. A class is
+ * excluded if both patterns match.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class ExclusionRule
+{
+  /** The wildcard character */
+  public static final char WILDCARD = '*';
+  /** The pattern that matches everything */
+  public static final String ANY = "*";
+
+  private final String m_sPackagePattern;
+  private final String m_sClassPattern;
+
+  public ExclusionRule (@Nonnull @Nonempty final String sPackagePattern, @Nonnull @Nonempty final String sClassPattern)
+  {
+    ValueEnforcer.notEmpty (sPackagePattern, "PackagePattern");
+    ValueEnforcer.notEmpty (sClassPattern, "ClassPattern");
+    m_sPackagePattern = sPackagePattern;
+    m_sClassPattern = sClassPattern;
+  }
+
+  @Nonnull
+  @Nonempty
+  public String getPackagePattern ()
+  {
+    return m_sPackagePattern;
+  }
+
+  @Nonnull
+  @Nonempty
+  public String getClassPattern ()
+  {
+    return m_sClassPattern;
+  }
+
+  public boolean matches (@Nonnull final String sPackageName, @Nonnull final String sClassLocalName)
+  {
+    return matchesPattern (m_sPackagePattern, sPackageName) && matchesPattern (m_sClassPattern, sClassLocalName);
+  }
+
+  /**
+   * @param sPattern
+   *        The pattern to check. May not be <code>null</code>.
+   * @return <code>true</code> if the pattern contains no wildcard.
+   */
+  public static boolean isExactPattern (@Nonnull final String sPattern)
+  {
+    return sPattern.indexOf (WILDCARD) < 0;
+  }
+
+  /**
+   * @param sPattern
+   *        The pattern to check. May not be <code>null</code>.
+   * @return <code>true</code> if the pattern contains exactly one wildcard at
+   *         the end (e.g. <code>Parser*</code>).
+   */
+  public static boolean isPrefixPattern (@Nonnull final String sPattern)
+  {
+    final int nIndex = sPattern.indexOf (WILDCARD);
+    return nIndex >= 0 && nIndex == sPattern.length () - 1;
+  }
+
+  /**
+   * Check if a name matches a pattern.
+   *
+   * @param sPattern
+   *        The pattern with optional <code>*</code> wildcards. May not be
+   *        <code>null</code>.
+   * @param sName
+   *        The name to check. May not be <code>null</code>.
+   * @return <code>true</code> if the name matches the pattern.
+   */
+  public static boolean matchesPattern (@Nonnull final String sPattern, @Nonnull final String sName)
+  {
+    if (isExactPattern (sPattern))
+      return sPattern.equals (sName);
+
+    // Keep empty leading and trailing parts
+    final String [] aParts = sPattern.split ("\\*", -1);
+    // The first part must be a prefix and the last part a suffix
+    final String sFirst = aParts[0];
+    final String sLast = aParts[aParts.length - 1];
+    if (sName.length () < sFirst.length () + sLast.length ())
+      return false;
+    if (!sName.startsWith (sFirst) || !sName.endsWith (sLast))
+      return false;
+
+    // All other parts must occur in order in between
+    int nPos = sFirst.length ();
+    final int nEnd = sName.length () - sLast.length ();
+    for (int i = 1; i < aParts.length - 1; ++i)
+    {
+      final String sPart = aParts[i];
+      final int nIndex = sName.indexOf (sPart, nPos);
+      if (nIndex < 0 || nIndex + sPart.length () > nEnd)
+        return false;
+      nPos = nIndex + sPart.length ();
+    }
+    return true;
+  }
+
+  @Override
+  public boolean equals (final Object o)
+  {
+    if (o == this)
+      return true;
+    if (o == null || !getClass ().equals (o.getClass ()))
+      return false;
+    final ExclusionRule rhs = (ExclusionRule) o;
+    return m_sPackagePattern.equals (rhs.m_sPackagePattern) && m_sClassPattern.equals (rhs.m_sClassPattern);
+  }
+
+  @Override
+  public int hashCode ()
+  {
+    return new HashCodeGenerator (this).append (m_sPackagePattern).append (m_sClassPattern).getHashCode ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("PackagePattern", m_sPackagePattern)
+                                       .append ("ClassPattern", m_sClassPattern)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.exclusion;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import com.helger.commons.ValueEnforcer;
+
+/**
+ * A simple character based trie that answers the question whether any of the
+ * contained strings is a prefix of a given string. Each lookup only walks the
+ * characters of the searched string once, independent of the number of
+ * contained prefixes.
+ *
+ * @author Philip Helger
+ */
+@NotThreadSafe
+public final class PrefixTrie
+{
+  private static final class Node
+  {
+    // Sorted keys for binary search
+    private char [] m_aKeys = new char [0];
+    private Node [] m_aChildren = new Node [0];
+    private boolean m_bTerminal = false;
+
+    @Nonnull
+    Node getOrCreateChild (final char c)
+    {
+      int nIndex = Arrays.binarySearch (m_aKeys, c);
+      if (nIndex >= 0)
+        return m_aChildren[nIndex];
+
+      // Insert at the correct position
+      nIndex = -(nIndex + 1);
+      final int nOldLen = m_aKeys.length;
+      final char [] aNewKeys = new char [nOldLen + 1];
+      final Node [] aNewChildren = new Node [nOldLen + 1];
+      System.arraycopy (m_aKeys, 0, aNewKeys, 0, nIndex);
+      System.arraycopy (m_aChildren, 0, aNewChildren, 0, nIndex);
+      System.arraycopy (m_aKeys, nIndex, aNewKeys, nIndex + 1, nOldLen - nIndex);
+      System.arraycopy (m_aChildren, nIndex, aNewChildren, nIndex + 1, nOldLen - nIndex);
+      final Node ret = new Node ();
+      aNewKeys[nIndex] = c;
+      aNewChildren[nIndex] = ret;
+      m_aKeys = aNewKeys;
+      m_aChildren = aNewChildren;
+      return ret;
+    }
+
+    Node getChild (final char c)
+    {
+      final int nIndex = Arrays.binarySearch (m_aKeys, c);
+      return nIndex >= 0 ? m_aChildren[nIndex] : null;
+    }
+  }
+
+  private final Node m_aRoot = new Node ();
+  private int m_nCount = 0;
+
+  public PrefixTrie ()
+  {}
+
+  /**
+   * Add a new prefix.
+   *
+   * @param sPrefix
+   *        The prefix to add. May not be <code>null</code>.
+   */
+  public void add (@Nonnull final String sPrefix)
+  {
+    ValueEnforcer.notNull (sPrefix, "Prefix");
+    Node aNode = m_aRoot;
+    for (int i = 0; i < sPrefix.length (); ++i)
+      aNode = aNode.getOrCreateChild (sPrefix.charAt (i));
+    if (!aNode.m_bTerminal)
+    {
+      aNode.m_bTerminal = true;
+      m_nCount++;
+    }
+  }
+
+  /**
+   * @return The number of contained distinct prefixes.
+   */
+  public int getCount ()
+  {
+    return m_nCount;
+  }
+
+  public boolean isEmpty ()
+  {
+    return m_nCount == 0;
+  }
+
+  /**
+   * Check if any contained prefix is a prefix of the passed string.
+   *
+   * @param s
+   *        The string to check. May not be <code>null</code>.
+   * @return <code>true</code> if at least one contained prefix matches.
+   */
+  public boolean containsPrefixOf (@Nonnull final String s)
+  {
+    Node aNode = m_aRoot;
+    if (aNode.m_bTerminal)
+      return true;
+    for (int i = 0; i < s.length (); ++i)
+    {
+      aNode = aNode.getChild (s.charAt (i));
+      if (aNode == null)
+        return false;
+      if (aNode.m_bTerminal)
+        return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.rule;
+
+import java.lang.reflect.Modifier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import com.helger.commons.annotation.IsSPIImplementation;
+import com.helger.commons.lang.ClassHelper;
+import com.helger.commons.state.EContinue;
+import com.helger.commons.string.StringHelper;
+import com.helger.commons.string.StringParser;
+import com.helger.meta.asm.EASMDetailLevel;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+import com.helger.meta.tools.codeingstyleguide.AbstractCodingStyleRule;
+import com.helger.meta.tools.codeingstyleguide.CodingStyleContext;
+import com.helger.meta.tools.codeingstyleguide.ECodingStyleScope;
+
+/**
+ * Checks the names of main and test classes, interfaces, enums and
+ * annotations.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+@IsSPIImplementation
+public final class ClassNamingRule extends AbstractCodingStyleRule
+{
+  public static final String ID = "class-naming";
+
+  public ClassNamingRule ()
+  {
+    super (ID, EDiagnosticLevel.WARN, ECodingStyleScope.MAIN_AND_TEST, EASMDetailLevel.HEADER);
+  }
+
+  private void _checkClassNaming (@Nonnull final ClassNode cn, @Nonnull final CodingStyleContext aContext)
+  {
+    final String sClassName = ClassHelper.getClassFromPath (cn.name);
+    final String sClassLocalName = ClassHelper.getClassLocalName (sClassName);
+    final boolean bIsSpecialCase = sClassLocalName.equals ("package-info");
+    if (bIsSpecialCase)
+      return;
+
+    String sInnerClassLocalName = StringHelper.getFromLastExcl (sClassLocalName, '$');
+    boolean bIsAnonymousInnerClass = false;
+    if (sInnerClassLocalName == null)
+      sInnerClassLocalName = sClassLocalName;
+    else
+      if (StringParser.isUnsignedInt (sInnerClassLocalName))
+      {
+        // It's an anonymous inner class - use the full name
+        bIsAnonymousInnerClass = true;
+        if (false)
+          sInnerClassLocalName = sClassLocalName;
+      }
+
+    final String sPrefix = "[" + sClassLocalName + "] ";
+    final boolean bClassIsAbstract = Modifier.isAbstract (cn.access);
+    final boolean bClassIsAnnotation = (cn.access & Opcodes.ACC_ANNOTATION) != 0;
+    final boolean bClassIsEnum = (cn.access & Opcodes.ACC_ENUM) != 0;
+    final boolean bClassIsInterface = Modifier.isInterface (cn.access);
+
+    if (!Character.isUpperCase (sClassLocalName.charAt (0)))
+      aContext.addWarning (this,
+                           sPrefix +
+                           "Class/interface/enum/annotation names should always start with an uppercase character");
+
+    if (!bIsAnonymousInnerClass)
+    {
+      if (bClassIsInterface)
+      {
+        if (bClassIsAnnotation)
+        {
+          // TODO
+        }
+        else
+        {
+          if (sInnerClassLocalName.startsWith ("I"))
+          {
+            if (sInnerClassLocalName.length () > 1 && !Character.isUpperCase (sInnerClassLocalName.charAt (1)))
+              aContext.addWarning (this, sPrefix + "Interface names should have an upper case second letter");
+          }
+          else
+            if (!sInnerClassLocalName.startsWith ("I") && !sClassLocalName.endsWith ("MBean"))
+              aContext.addWarning (this, sPrefix + "Interface names should start with an uppercase 'I'");
+        }
+      }
+      else
+      {
+        if (bClassIsEnum)
+        {
+          if (!sInnerClassLocalName.startsWith ("E"))
+            aContext.addWarning (this, sPrefix + "enum classes should start with 'E'");
+        }
+        else
+        {
+          if (bClassIsAbstract)
+          {
+            if (!sInnerClassLocalName.startsWith ("Abstract") && !sInnerClassLocalName.equals ("NamespacePrefixMapper"))
+              aContext.addWarning (this, sPrefix + "Abstract classes should start with 'Abstract'");
+          }
+        }
+      }
+    }
+
+    if (sInnerClassLocalName.startsWith ("Abstract") && !bClassIsAbstract && !sInnerClassLocalName.endsWith ("Test"))
+      aContext.addWarning (this, sPrefix + "Class name denotes an abstract class but the class is not abstract!");
+
+    if (sInnerClassLocalName.contains ("Readonly"))
+      aContext.addWarning (this, sPrefix + "'read-only' should be spelled 'ReadOnly'");
+    if (sInnerClassLocalName.endsWith ("Utils"))
+      aContext.addWarning (this, sPrefix + "Please make the *Utils class a *Helper class");
+    if (sInnerClassLocalName.contains ("Masterdata"))
+      aContext.addWarning (this, sPrefix + "'master data' should be spelled 'MasterData'");
+    if (sInnerClassLocalName.contains ("MultiLingual"))
+      aContext.addWarning (this, sPrefix + "'multilingual' should be spelled 'Multilingual'");
+  }
+
+  @Override
+  @Nonnull
+  public EContinue onClassHeader (@Nonnull final ClassNode aHeader, @Nonnull final CodingStyleContext aContext)
+  {
+    if (!aContext.isTestSupportClass ())
+      _checkClassNaming (aHeader, aContext);
+    // No member callbacks needed
+    return EContinue.BREAK;
+  }
+}
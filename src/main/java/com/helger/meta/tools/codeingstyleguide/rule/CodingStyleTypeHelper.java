@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.rule;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import org.objectweb.asm.Type;
+
+/**
+ * Type classification helper methods shared by several coding style rules.
+ * All checks are based on {@link TypeClassificationTable#DEFAULT}.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class CodingStyleTypeHelper
+{
+  private CodingStyleTypeHelper ()
+  {}
+
+  public static boolean isArrayClass (@Nonnull final Type aType)
+  {
+    return aType.getSort () == Type.ARRAY;
+  }
+
+  public static boolean isJDKCollectionClass (@Nonnull final Type aType)
+  {
+    return TypeClassificationTable.DEFAULT.getCategory (aType) == ETypeCategory.JDK_COLLECTION;
+  }
+
+  public static boolean isPhCollectionClass (@Nonnull final Type aType)
+  {
+    return TypeClassificationTable.DEFAULT.getCategory (aType) == ETypeCategory.PH_COLLECTION;
+  }
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.rule;
+
+/**
+ * The categories of field, parameter and return types that are relevant for
+ * the coding style rules.
+ *
+ * @author Philip Helger
+ * @see TypeClassificationTable
+ */
+public enum ETypeCategory
+{
+  /** Any array type */
+  ARRAY,
+  /** A collection, map or queue type of the JDK */
+  JDK_COLLECTION,
+  /** A collection type of ph-commons */
+  PH_COLLECTION,
+  /** Everything else, including primitive types */
+  OTHER;
+
+  public boolean isCollection ()
+  {
+    return this == JDK_COLLECTION || this == PH_COLLECTION;
+  }
+}
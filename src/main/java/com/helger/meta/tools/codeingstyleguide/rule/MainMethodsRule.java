@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.rule;
+
+import java.lang.reflect.Modifier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import com.helger.commons.annotation.CodingStyleguideUnaware;
+import com.helger.commons.annotation.IsSPIImplementation;
+import com.helger.commons.annotation.OverrideOnDemand;
+import com.helger.commons.annotation.ReturnsImmutableObject;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.annotation.ReturnsMutableObject;
+import com.helger.commons.lang.ClassHelper;
+import com.helger.commons.state.EContinue;
+import com.helger.meta.asm.ASMHelper;
+import com.helger.meta.asm.EASMDetailLevel;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+import com.helger.meta.project.EProjectType;
+import com.helger.meta.tools.codeingstyleguide.AbstractCodingStyleRule;
+import com.helger.meta.tools.codeingstyleguide.CodingStyleContext;
+import com.helger.meta.tools.codeingstyleguide.ECodingStyleScope;
+
+/**
+ * Checks the methods and constructors of main classes.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+@IsSPIImplementation
+public final class MainMethodsRule extends AbstractCodingStyleRule
+{
+  public static final String ID = "main-methods";
+
+  // Context flag: the current class has at least one non-private constructor
+  private static final String FLAG_NON_PRIVATE_CTOR = ID + ".non-private-ctor";
+
+  public MainMethodsRule ()
+  {
+    super (ID, EDiagnosticLevel.WARN, ECodingStyleScope.MAIN, EASMDetailLevel.MEMBERS);
+  }
+
+  @Override
+  @Nonnull
+  public EContinue onClassHeader (@Nonnull final ClassNode aHeader, @Nonnull final CodingStyleContext aContext)
+  {
+    final String sClassLocalName = ClassHelper.getClassLocalName (ClassHelper.getClassFromPath (aHeader.name));
+    final boolean bIsSpecialCase = aContext.getProject ().getProjectType () == EProjectType.MAVEN_PLUGIN &&
+                                   sClassLocalName.equals ("HelpMojo");
+    return EContinue.valueOf (!bIsSpecialCase);
+  }
+
+  @Override
+  public void onMethod (@Nonnull final ClassNode cn,
+                        @Nonnull final MethodNode mn,
+                        @Nonnull final CodingStyleContext aContext)
+  {
+    final String sClassName = ClassHelper.getClassFromPath (cn.name);
+    final String sClassLocalName = ClassHelper.getClassLocalName (sClassName);
+    final boolean bIsJDK8 = aContext.getProject ().getMinimumJDKVersion ().isAtLeast8 ();
+    final boolean bClassIsFinal = Modifier.isFinal (cn.access);
+
+    if (ASMHelper.containsAnnotation (mn, CodingStyleguideUnaware.class))
+      return;
+
+    if (mn.name.startsWith ("$SWITCH_TABLE$"))
+      return;
+
+    final String sPrefix = "[" + sClassLocalName + "::" + mn.name + "] ";
+
+    final ETypeCategory eReturnType = TypeClassificationTable.DEFAULT.getCategoryOfReturnType (mn.desc);
+    final boolean bReturnsArray = eReturnType == ETypeCategory.ARRAY;
+    final boolean bReturnsJdkCollection = eReturnType == ETypeCategory.JDK_COLLECTION;
+    final boolean bReturnsCollection = eReturnType.isCollection ();
+    final boolean bIsConstructor = mn.name.equals ("<init>");
+    final boolean bIsPrivate = Modifier.isPrivate (mn.access);
+    final boolean bIsFinal = Modifier.isFinal (mn.access);
+
+    if (bIsConstructor && !bIsPrivate)
+      aContext.setFlag (FLAG_NON_PRIVATE_CTOR);
+
+    if (bIsPrivate)
+    {
+      if (!bIsConstructor &&
+          !mn.name.startsWith ("_") &&
+          !mn.name.equals ("readObject") &&
+          !mn.name.equals ("readResolve") &&
+          !mn.name.equals ("writeObject") &&
+          !mn.name.equals ("writeReplace") &&
+          !mn.name.startsWith ("lambda$") &&
+          !mn.name.endsWith ("$deserializeLambda$"))
+        aContext.addWarning (this, sPrefix + "Private methods should start with an underscore");
+    }
+
+    if (bIsFinal)
+    {
+      if (bClassIsFinal)
+        aContext.addWarning (this, sPrefix + "final method in final class");
+
+      if (ASMHelper.containsAnnotation (mn, OverrideOnDemand.class))
+        aContext.addWarning (this, sPrefix + "final method uses @OverrideOnDemand annotation");
+    }
+    else
+    {
+      if (bClassIsFinal && ASMHelper.containsAnnotation (mn, OverrideOnDemand.class))
+        aContext.addWarning (this, sPrefix + "final class uses @OverrideOnDemand annotation");
+    }
+
+    // Too many variations
+    if (false)
+    {
+      if (bReturnsArray)
+      {
+        if (!mn.name.startsWith ("_") &&
+            !mn.name.startsWith ("new") &&
+            !mn.name.startsWith ("getAll") &&
+            !mn.name.startsWith ("getAs") &&
+            !mn.name.startsWith ("internalGetAll") &&
+            !mn.name.contains ("::lambda$") &&
+            !mn.name.equals ("values") &&
+            !mn.name.equals ("toArray"))
+          aContext.addWarning (this, sPrefix + "returns a array but uses a non-standard name");
+      }
+      else
+        if (bReturnsCollection)
+        {
+          if (!mn.name.startsWith ("_") &&
+              !mn.name.startsWith ("new") &&
+              !mn.name.startsWith ("getAll") &&
+              !mn.name.startsWith ("directGetAll") &&
+              !mn.name.startsWith ("internalGetAll") &&
+              !mn.name.startsWith ("readAll") &&
+              !mn.name.contains ("::lambda$") &&
+              !mn.name.equals ("keySet") &&
+              !mn.name.equals ("values") &&
+              !mn.name.equals ("entrySet"))
+            aContext.addWarning (this, sPrefix + "returns a collection but uses a non-standard name");
+        }
+    }
+
+    // Fails to often but may give a nice overview
+    if (false)
+      if (bReturnsArray || bReturnsCollection)
+      {
+        // Special name checks
+        if (!mn.name.equals ("values"))
+          if (!ASMHelper.containsAnnotation (mn, ReturnsMutableCopy.class) &&
+              !ASMHelper.containsAnnotation (mn, ReturnsMutableObject.class) &&
+              !ASMHelper.containsAnnotation (mn, ReturnsImmutableObject.class))
+            aContext.addWarning (this,
+                                 sPrefix +
+                                 "returns a collection/array and therefore should be annotated with @ReturnsMutableCopy/@ReturnsMutableObject/@ReturnsImmutableObject");
+      }
+
+    if (false)
+      if (bIsJDK8 && bReturnsJdkCollection)
+        if (!mn.name.equals ("getAsUnmodifiable"))
+          aContext.addWarning (this,
+                               sPrefix +
+                               "returns a JDK Collection (" +
+                               mn.desc +
+                               ") - consider returning an ICommons* collection");
+  }
+
+  @Override
+  public void onClassEnd (@Nonnull final ClassNode cn, @Nonnull final CodingStyleContext aContext)
+  {
+    final boolean bClassIsAbstract = Modifier.isAbstract (cn.access);
+    final boolean bClassIsEnum = (cn.access & Opcodes.ACC_ENUM) != 0;
+    final boolean bClassIsInterface = Modifier.isInterface (cn.access);
+    if (bClassIsAbstract && !bClassIsInterface && !bClassIsEnum)
+    {
+      if (!aContext.hasFlag (FLAG_NON_PRIVATE_CTOR))
+      {
+        final String sClassLocalName = ClassHelper.getClassLocalName (ClassHelper.getClassFromPath (cn.name));
+        aContext.addWarning (this, "[" + sClassLocalName + "] The abstract class contains only private constructors!");
+      }
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.rule;
+
+import java.lang.reflect.Modifier;
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+
+import com.helger.commons.annotation.CodingStyleguideUnaware;
+import com.helger.commons.annotation.IsSPIImplementation;
+import com.helger.commons.lang.ClassHelper;
+import com.helger.commons.state.EContinue;
+import com.helger.meta.asm.ASMHelper;
+import com.helger.meta.asm.EASMDetailLevel;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+import com.helger.meta.project.EProjectType;
+import com.helger.meta.tools.codeingstyleguide.AbstractCodingStyleRule;
+import com.helger.meta.tools.codeingstyleguide.CodingStyleContext;
+import com.helger.meta.tools.codeingstyleguide.ECodingStyleScope;
+
+/**
+ * Checks the names and visibility of the fields of main classes.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+@IsSPIImplementation
+public final class MainVariablesRule extends AbstractCodingStyleRule
+{
+  public static final String ID = "main-variables";
+
+  private static final Locale LOCALE_SYSTEM = Locale.US;
+
+  public MainVariablesRule ()
+  {
+    super (ID, EDiagnosticLevel.WARN, ECodingStyleScope.MAIN, EASMDetailLevel.MEMBERS);
+  }
+
+  @Override
+  @Nonnull
+  public EContinue onClassHeader (@Nonnull final ClassNode aHeader, @Nonnull final CodingStyleContext aContext)
+  {
+    final String sClassLocalName = ClassHelper.getClassLocalName (ClassHelper.getClassFromPath (aHeader.name));
+    final boolean bIsSpecialCase = aContext.getProject ().getProjectType () == EProjectType.MAVEN_PLUGIN &&
+                                   sClassLocalName.endsWith ("Mojo");
+    return EContinue.valueOf (!bIsSpecialCase);
+  }
+
+  @Override
+  public void onField (@Nonnull final ClassNode cn,
+                       @Nonnull final FieldNode fn,
+                       @Nonnull final CodingStyleContext aContext)
+  {
+    final String sClassLocalName = ClassHelper.getClassLocalName (ClassHelper.getClassFromPath (cn.name));
+    final boolean bIsJDK8 = aContext.getProject ().getMinimumJDKVersion ().isAtLeast8 ();
+
+    final String sPrefix = "[" + sClassLocalName + "] ";
+    final boolean bClassIsFinal = Modifier.isFinal (cn.access);
+
+    if (ASMHelper.containsAnnotation (fn, CodingStyleguideUnaware.class))
+      return;
+
+    final boolean bIsStatic = Modifier.isStatic (fn.access);
+    final boolean bIsFinal = Modifier.isFinal (fn.access);
+    final boolean bIsPrivate = Modifier.isPrivate (fn.access);
+    final boolean bIsJdkCollection = TypeClassificationTable.DEFAULT.getCategoryOfDescriptor (fn.desc) ==
+                                     ETypeCategory.JDK_COLLECTION;
+
+    if (bIsStatic)
+    {
+      // Internal generated variable names
+      if (fn.name.startsWith ("$SWITCH_TABLE$") ||
+          fn.name.equals ("$assertionsDisabled") ||
+          fn.name.startsWith ("$SwitchMap$"))
+        return;
+
+      if (bIsFinal)
+      {
+        if (!fn.name.startsWith ("s_") &&
+            !fn.name.equals (fn.name.toUpperCase (LOCALE_SYSTEM)) &&
+            !fn.name.equals ("serialVersionUID"))
+          aContext.addWarning (this,
+                               sPrefix +
+                               "Static final member name '" + fn.name + "' does not match naming conventions");
+      }
+      else
+      {
+        if (!fn.name.startsWith ("s_"))
+          aContext.addWarning (this,
+                               sPrefix + "Static member name '" + fn.name + "' does not match naming conventions");
+
+        if (!bIsPrivate)
+          aContext.addWarning (this, sPrefix + "Static member '" + fn.name + "' is not private");
+      }
+    }
+    else
+    {
+      // Internal generated variable names
+      if (fn.name.startsWith ("this$") || fn.name.startsWith ("val$"))
+        return;
+
+      if (!fn.name.startsWith ("m_"))
+        aContext.addWarning (this,
+                             sPrefix + "Instance member name '" + fn.name + "' does not match naming conventions");
+
+      if (bClassIsFinal && !bIsPrivate)
+        aContext.addWarning (this, sPrefix + "Instance member '" + fn.name + "' is not private");
+    }
+
+    if (bIsJDK8 && bIsJdkCollection)
+      aContext.addWarning (this,
+                           sPrefix +
+                           "Member '" + fn.name + "' is a JDK Collection - consider using an ICommons* collection");
+  }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.rule;
+
+import java.lang.reflect.Modifier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import com.helger.commons.annotation.IsSPIImplementation;
+import com.helger.commons.lang.ClassHelper;
+import com.helger.meta.asm.ASMHelper;
+import com.helger.meta.asm.AnnotationDescriptorTable;
+import com.helger.meta.asm.EASMDetailLevel;
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+import com.helger.meta.tools.codeingstyleguide.AbstractCodingStyleRule;
+import com.helger.meta.tools.codeingstyleguide.CodingStyleContext;
+import com.helger.meta.tools.codeingstyleguide.ECodingStyleScope;
+
+/**
+ * Checks the naming and modifiers of test classes.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+@IsSPIImplementation
+public final class TestClassRule extends AbstractCodingStyleRule
+{
+  public static final String ID = "test-class";
+
+  // Context flag: the current class contains a JUnit test method
+  private static final String FLAG_HAS_TEST_METHOD = ID + ".has-test-method";
+  // JUnit is not on the class path, so the descriptor is interned manually
+  private static final int JUNIT_TEST_ANNOTATION_ID = AnnotationDescriptorTable.getID ("Lorg/junit/Test;");
+
+  public TestClassRule ()
+  {
+    super (ID, EDiagnosticLevel.WARN, ECodingStyleScope.TEST, EASMDetailLevel.MEMBERS);
+  }
+
+  @Override
+  public void onMethod (@Nonnull final ClassNode cn,
+                        @Nonnull final MethodNode mn,
+                        @Nonnull final CodingStyleContext aContext)
+  {
+    if (ASMHelper.getAnnotationSet (mn).contains (JUNIT_TEST_ANNOTATION_ID))
+      aContext.setFlag (FLAG_HAS_TEST_METHOD);
+  }
+
+  @Override
+  public void onClassEnd (@Nonnull final ClassNode cn, @Nonnull final CodingStyleContext aContext)
+  {
+    final String sBaseName = ClassHelper.getClassLocalName (ClassHelper.getClassFromPath (cn.name));
+    final String sName = sBaseName + ".class";
+    if (aContext.hasFlag (FLAG_HAS_TEST_METHOD) && !sBaseName.endsWith ("Test"))
+      aContext.addWarning (this, "Class '" + sName + "' contains @Test annotation but is named inconsistent");
+
+    if (aContext.isTestSupportClass ())
+      return;
+
+    final boolean bClassIsAbstract = Modifier.isAbstract (cn.access);
+    final boolean bClassIsFinal = Modifier.isFinal (cn.access);
+    if (!bClassIsFinal && !bClassIsAbstract)
+      aContext.addWarning (this, "Test class '" + sName + "' is not final");
+  }
+}
@@ -0,0 +1,327 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.rule;
+
+import java.util.Map;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import org.objectweb.asm.Type;
+
+import com.helger.commons.ValueEnforcer;
+import com.helger.commons.annotation.Nonempty;
+import com.helger.commons.annotation.ReturnsMutableCopy;
+import com.helger.commons.collection.ext.CommonsLinkedHashMap;
+import com.helger.commons.collection.ext.ICommonsOrderedMap;
+import com.helger.commons.string.ToStringGenerator;
+
+/**
+ * A precomputed lookup table that maps type descriptors to their
+ * {@link ETypeCategory}. Lookups work directly on (parts of) ASM descriptor
+ * strings, so no intermediate {@link Type} or {@link String} object is
+ * created. Exact classes are stored in an open addressing hash table and
+ * packages are matched by descriptor prefix.<br>
+ * Use {@link #DEFAULT} for the standard categories or extend the maps from
+ * {@link #getDefaultClasses()} and {@link #getDefaultPackages()} to create a
+ * custom table.
+ *
+ * @author Philip Helger
+ */
+@Immutable
+public final class TypeClassificationTable
+{
+  public static final TypeClassificationTable DEFAULT = new TypeClassificationTable (getDefaultClasses (),
+                                                                                     getDefaultPackages ());
+
+  // Exact class descriptors ("Ljava/util/List;") - size is a power of 2
+  private final String [] m_aKeys;
+  private final ETypeCategory [] m_aValues;
+  private final int m_nMask;
+  private final int m_nClassCount;
+  // Package descriptor prefixes ("Lcom/helger/commons/collection/ext/")
+  private final String [] m_aPackagePrefixes;
+  private final ETypeCategory [] m_aPackageValues;
+
+  /**
+   * Constructor
+   *
+   * @param aClasses
+   *        Map from fully qualified class name (e.g.
+   *        <code>java.util.List</code>) to category. May not be
+   *        <code>null</code>.
+   * @param aPackages
+   *        Map from package name (e.g.
+   *        <code>com.helger.commons.collection.ext</code>) to category. All
+   *        classes directly contained in such a package get this category,
+   *        unless the class itself is contained in the class map. May not be
+   *        <code>null</code>.
+   */
+  public TypeClassificationTable (@Nonnull final Map <String, ETypeCategory> aClasses,
+                                  @Nonnull final Map <String, ETypeCategory> aPackages)
+  {
+    ValueEnforcer.notNull (aClasses, "Classes");
+    ValueEnforcer.notNull (aPackages, "Packages");
+
+    // Load factor at most 0.5
+    int nCapacity = 16;
+    while (nCapacity < aClasses.size () * 2)
+      nCapacity <<= 1;
+    m_aKeys = new String [nCapacity];
+    m_aValues = new ETypeCategory [nCapacity];
+    m_nMask = nCapacity - 1;
+    for (final Map.Entry <String, ETypeCategory> aEntry : aClasses.entrySet ())
+    {
+      ValueEnforcer.notEmpty (aEntry.getKey (), "ClassName");
+      ValueEnforcer.notNull (aEntry.getValue (), "Category");
+      _put ("L" + aEntry.getKey ().replace ('.', '/') + ";", aEntry.getValue ());
+    }
+    m_nClassCount = aClasses.size ();
+
+    m_aPackagePrefixes = new String [aPackages.size ()];
+    m_aPackageValues = new ETypeCategory [aPackages.size ()];
+    int nIndex = 0;
+    for (final Map.Entry <String, ETypeCategory> aEntry : aPackages.entrySet ())
+    {
+      ValueEnforcer.notEmpty (aEntry.getKey (), "PackageName");
+      ValueEnforcer.notNull (aEntry.getValue (), "Category");
+      m_aPackagePrefixes[nIndex] = "L" + aEntry.getKey ().replace ('.', '/') + "/";
+      m_aPackageValues[nIndex] = aEntry.getValue ();
+      nIndex++;
+    }
+  }
+
+  private static int _hash (@Nonnull final String s, final int nStart, final int nEnd)
+  {
+    // Same as String.hashCode for the whole string
+    int ret = 0;
+    for (int i = nStart; i < nEnd; ++i)
+      ret = 31 * ret + s.charAt (i);
+    // Spread the higher bits
+    return ret ^ (ret >>> 16);
+  }
+
+  private void _put (@Nonnull final String sDescriptor, @Nonnull final ETypeCategory eCategory)
+  {
+    int nSlot = _hash (sDescriptor, 0, sDescriptor.length ()) & m_nMask;
+    while (m_aKeys[nSlot] != null && !m_aKeys[nSlot].equals (sDescriptor))
+      nSlot = (nSlot + 1) & m_nMask;
+    m_aKeys[nSlot] = sDescriptor;
+    m_aValues[nSlot] = eCategory;
+  }
+
+  /**
+   * @return The number of explicitly classified classes.
+   */
+  @Nonnegative
+  public int getClassCount ()
+  {
+    return m_nClassCount;
+  }
+
+  /**
+   * Get the category of a type descriptor that is part of the passed string.
+   *
+   * @param s
+   *        The string containing the descriptor. May not be
+   *        <code>null</code>.
+   * @param nStart
+   *        Index of the first character of the descriptor
+   * @param nEnd
+   *        Index after the last character of the descriptor
+   * @return The category. Never <code>null</code>.
+   */
+  @Nonnull
+  public ETypeCategory getCategory (@Nonnull final String s,
+                                    @Nonnegative final int nStart,
+                                    @Nonnegative final int nEnd)
+  {
+    if (nStart >= nEnd)
+      return ETypeCategory.OTHER;
+
+    final char cFirst = s.charAt (nStart);
+    if (cFirst == '[')
+      return ETypeCategory.ARRAY;
+    if (cFirst != 'L')
+    {
+      // Primitive type or void
+      return ETypeCategory.OTHER;
+    }
+
+    // Exact class
+    final int nLen = nEnd - nStart;
+    int nSlot = _hash (s, nStart, nEnd) & m_nMask;
+    String sKey;
+    while ((sKey = m_aKeys[nSlot]) != null)
+    {
+      if (sKey.length () == nLen && sKey.regionMatches (0, s, nStart, nLen))
+        return m_aValues[nSlot];
+      nSlot = (nSlot + 1) & m_nMask;
+    }
+
+    // Class directly in a package
+    for (int i = 0; i < m_aPackagePrefixes.length; ++i)
+    {
+      final String sPrefix = m_aPackagePrefixes[i];
+      if (s.startsWith (sPrefix, nStart))
+      {
+        final int nSlash = s.indexOf ('/', nStart + sPrefix.length ());
+        if (nSlash < 0 || nSlash >= nEnd)
+          return m_aPackageValues[i];
+      }
+    }
+    return ETypeCategory.OTHER;
+  }
+
+  /**
+   * Get the category of a field or parameter type descriptor.
+   *
+   * @param sDescriptor
+   *        The descriptor, e.g. <code>Ljava/util/List;</code>. May not be
+   *        <code>null</code>.
+   * @return The category. Never <code>null</code>.
+   */
+  @Nonnull
+  public ETypeCategory getCategoryOfDescriptor (@Nonnull final String sDescriptor)
+  {
+    return getCategory (sDescriptor, 0, sDescriptor.length ());
+  }
+
+  /**
+   * Get the category of the return type of a method descriptor.
+   *
+   * @param sMethodDescriptor
+   *        The method descriptor, e.g. <code>(I)Ljava/util/List;</code>. May
+   *        not be <code>null</code>.
+   * @return The category. Never <code>null</code>.
+   */
+  @Nonnull
+  public ETypeCategory getCategoryOfReturnType (@Nonnull final String sMethodDescriptor)
+  {
+    return getCategory (sMethodDescriptor, sMethodDescriptor.indexOf (')') + 1, sMethodDescriptor.length ());
+  }
+
+  /**
+   * Get the category of an ASM type. Prefer the descriptor based methods in
+   * hot code paths, as this method creates the descriptor string.
+   *
+   * @param aType
+   *        The type to check. May not be <code>null</code>.
+   * @return The category. Never <code>null</code>.
+   */
+  @Nonnull
+  public ETypeCategory getCategory (@Nonnull final Type aType)
+  {
+    switch (aType.getSort ())
+    {
+      case Type.ARRAY:
+        return ETypeCategory.ARRAY;
+      case Type.OBJECT:
+        return getCategoryOfDescriptor (aType.getDescriptor ());
+      default:
+        return ETypeCategory.OTHER;
+    }
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("ClassCount", m_nClassCount)
+                                       .append ("PackagePrefixes", m_aPackagePrefixes)
+                                       .getToString ();
+  }
+
+  private static void _add (@Nonnull final ICommonsOrderedMap <String, ETypeCategory> aMap,
+                            @Nonnull final ETypeCategory eCategory,
+                            @Nonnull final Class <?>... aClasses)
+  {
+    for (final Class <?> aClass : aClasses)
+      aMap.put (aClass.getName (), eCategory);
+  }
+
+  /**
+   * @return The classes of the {@link #DEFAULT} table as a map from class name
+   *         to category. Never <code>null</code>.
+   */
+  @Nonnull
+  @ReturnsMutableCopy
+  public static ICommonsOrderedMap <String, ETypeCategory> getDefaultClasses ()
+  {
+    final ICommonsOrderedMap <String, ETypeCategory> ret = new CommonsLinkedHashMap <> ();
+    // collection
+    _add (ret, ETypeCategory.JDK_COLLECTION, java.util.Collection.class);
+    // list
+    _add (ret,
+          ETypeCategory.JDK_COLLECTION,
+          java.util.List.class,
+          java.util.ArrayList.class,
+          java.util.Vector.class,
+          java.util.LinkedList.class,
+          java.util.Stack.class,
+          java.util.concurrent.CopyOnWriteArrayList.class);
+    // set - EnumSet is intentionally not contained
+    _add (ret,
+          ETypeCategory.JDK_COLLECTION,
+          java.util.Set.class,
+          java.util.NavigableSet.class,
+          java.util.SortedSet.class,
+          java.util.HashSet.class,
+          java.util.LinkedHashSet.class,
+          java.util.TreeSet.class);
+    // Map
+    _add (ret,
+          ETypeCategory.JDK_COLLECTION,
+          java.util.Map.class,
+          java.util.NavigableMap.class,
+          java.util.SortedMap.class,
+          java.util.HashMap.class,
+          java.util.IdentityHashMap.class,
+          java.util.WeakHashMap.class,
+          java.util.LinkedHashMap.class,
+          java.util.TreeMap.class,
+          java.util.Hashtable.class,
+          java.util.EnumMap.class,
+          java.util.Properties.class,
+          java.util.concurrent.ConcurrentHashMap.class);
+    // Queue
+    _add (ret,
+          ETypeCategory.JDK_COLLECTION,
+          java.util.Queue.class,
+          java.util.Deque.class,
+          java.util.PriorityQueue.class,
+          java.util.concurrent.LinkedBlockingDeque.class,
+          java.util.concurrent.LinkedBlockingQueue.class,
+          java.util.concurrent.LinkedTransferQueue.class);
+    return ret;
+  }
+
+  /**
+   * @return The packages of the {@link #DEFAULT} table as a map from package
+   *         name to category. Never <code>null</code>.
+   */
+  @Nonnull
+  @Nonempty
+  @ReturnsMutableCopy
+  public static ICommonsOrderedMap <String, ETypeCategory> getDefaultPackages ()
+  {
+    final ICommonsOrderedMap <String, ETypeCategory> ret = new CommonsLinkedHashMap <> ();
+    ret.put ("com.helger.commons.collection.ext", ETypeCategory.PH_COLLECTION);
+    ret.put ("com.helger.commons.collection.impl", ETypeCategory.PH_COLLECTION);
+    return ret;
+  }
+}
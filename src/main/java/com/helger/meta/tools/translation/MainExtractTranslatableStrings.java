@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Modifier;
 import java.util.Iterator;
+import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -35,15 +36,21 @@ import com.helger.commons.collection.ext.CommonsArrayList;
 import com.helger.commons.collection.ext.CommonsLinkedHashSet;
 import com.helger.commons.collection.ext.ICommonsList;
 import com.helger.commons.collection.ext.ICommonsOrderedSet;
-import com.helger.commons.io.file.FileHelper;
+import com.helger.commons.io.file.FilenameHelper;
 import com.helger.commons.io.file.SimpleFileIO;
-import com.helger.commons.io.file.iterate.FileSystemRecursiveIterator;
 import com.helger.commons.lang.ClassHelper;
 import com.helger.commons.text.IMultilingualText;
 import com.helger.commons.text.util.TextHelper;
 import com.helger.meta.AbstractProjectMain;
 import com.helger.meta.CMeta;
 import com.helger.meta.asm.ASMHelper;
+import com.helger.meta.asm.ClassFileBuffer;
+import com.helger.meta.asm.EASMDetailLevel;
+import com.helger.meta.asm.hierarchy.ClassHierarchyIndex;
+import com.helger.meta.asm.source.ClassFilePipeline;
+import com.helger.meta.asm.source.ClassSourceFactory;
+import com.helger.meta.asm.source.IClassFileEntry;
+import com.helger.meta.asm.source.IClassSource;
 import com.helger.meta.project.IProject;
 import com.helger.meta.project.ProjectList;
 import com.helger.meta.translation.StringTable;
@@ -51,7 +58,10 @@ import com.helger.meta.translation.StringTableSerializer;
 
 public final class MainExtractTranslatableStrings extends AbstractProjectMain
 {
-  private static ICommonsOrderedSet <String> s_aActions = new CommonsLinkedHashSet <> ();
+  private static final ClassFilePipeline s_aPipeline = ClassFilePipeline.createDefault ();
+  // Optional - created by MainBuildClassHierarchyIndex
+  private static final ClassHierarchyIndex s_aClassHierarchy = ClassHierarchyIndex.readDefault ();
+  private static final String ENUM_CLASS = ClassHelper.getPathFromClass (Enum.class);
 
   @Nullable
   private static StringTable _extractSTFromFile (@Nonnull final IProject eProject, @Nonnull final ClassNode cn)
@@ -146,58 +156,110 @@ public final class MainExtractTranslatableStrings extends AbstractProjectMain
     return ret;
   }
 
-  private static void _scanProject (@Nonnull final IProject eProject) throws IOException
+  /**
+   * Check if the class hierarchy index proves that the passed class file is no
+   * enumeration, so that it does not need to be read at all.
+   *
+   * @param aClassFile
+   *        The class file to check
+   * @return <code>true</code> if the class file can be skipped
+   */
+  private static boolean _isKnownNonEnum (@Nonnull final IClassFileEntry aClassFile)
+  {
+    // Only trust the index for class files that did not change since
+    if (s_aClassHierarchy == null || aClassFile.getLastModified () >= s_aClassHierarchy.getCreationTime ())
+      return false;
+    final String sInternalName = FilenameHelper.getWithoutExtension (aClassFile.getPath ());
+    return s_aClassHierarchy.isScanned (sInternalName) && !s_aClassHierarchy.isSubclassOf (sInternalName, ENUM_CLASS);
+  }
+
+  /**
+   * Parse the passed class file and check if it is a translatable enum.
+   *
+   * @param aBuffer
+   *        Class file content
+   * @return The fully parsed class if it is relevant, <code>null</code>
+   *         otherwise.
+   */
+  @Nullable
+  private static ClassNode _readIfRelevant (@Nonnull final ClassFileBuffer aBuffer)
+  {
+    // Interpret the header only - most classes are not relevant
+    final ClassNode cn = ASMHelper.readClass (aBuffer, EASMDetailLevel.HEADER);
+    final boolean bIsEnum = ENUM_CLASS.equals (cn.superName);
+    if (!bIsEnum)
+      return null;
+
+    // Okay, it's an enumeration
+    final boolean bIsRelevant = ASMHelper.containsRequiresTranslationAnnotation (cn) &&
+                                !ASMHelper.containsNoTranslationRequiredAnnotation (cn);
+    if (!bIsRelevant)
+      return null;
+
+    // Enumeration and annotated - read members and code
+    return ASMHelper.readClass (aBuffer, EASMDetailLevel.CODE);
+  }
+
+  /**
+   * Scan a single project and write the extracted translatable texts.
+   *
+   * @param eProject
+   *        The project to scan
+   * @return The follow-up action to be executed or <code>null</code> if there
+   *         is nothing to do.
+   * @throws IOException
+   *         on error
+   */
+  @Nullable
+  private static String _scanProject (@Nonnull final IProject eProject) throws IOException
   {
     if (false)
       s_aLogger.info ("  " + eProject.getProjectName ());
-    final File aTargetDir = FileHelper.getCanonicalFile (new File (eProject.getBaseDir (), "target/classes"));
-
     final StringTable aSTProject = new StringTable ();
 
-    // Find all class files
-    for (final File aClassFile : new FileSystemRecursiveIterator (aTargetDir))
-      if (aClassFile.isFile () && aClassFile.getName ().endsWith (".class"))
-      {
-        // Interpret byte code
-        final ClassNode cn = ASMHelper.readClassFile (aClassFile);
-        final boolean bIsEnum = ClassHelper.getPathFromClass (Enum.class).equals (cn.superName);
-        if (bIsEnum)
-        {
-          // Okay, it's an enumeration
-          final boolean bIsRelevant = ASMHelper.containsRequiresTranslationAnnotation (cn) &&
-                                      !ASMHelper.containsNoTranslationRequiredAnnotation (cn);
-          if (bIsRelevant)
-          {
-            // Enumeration and annotated
-            final StringTable aSTFile = _extractSTFromFile (eProject, cn);
-            if (aSTFile != null)
-              aSTProject.addAll (aSTFile);
-          }
-        }
-      }
+    // Find all class files - reading and parsing happens in the pipeline
+    // threads, the extraction itself emits warnings and stays on this thread
+    try (final IClassSource aSource = ClassSourceFactory.createMainClassSource (eProject))
+    {
+      final ICommonsList <IClassFileEntry> aClassFiles = aSource.getAllClassFiles ().getAll (x -> !_isKnownNonEnum (x));
+      s_aPipeline.process (aClassFiles,
+                           null,
+                           (aClassFile, aBuffer) -> _readIfRelevant (aBuffer),
+                           (aClassFile, cn) -> {
+                             if (cn != null)
+                             {
+                               final StringTable aSTFile = _extractSTFromFile (eProject, cn);
+                               if (aSTFile != null)
+                                 aSTProject.addAll (aSTFile);
+                             }
+                           });
+    }
 
     if (!aSTProject.isEmpty () && eProject.isBuildInProject ())
     {
       final File aDstFileXML = new File (eProject.getBaseDir (),
                                          "src/main/resources/translation/translatable-texts.xml");
       if (StringTableSerializer.writeStringTableAsXML (aDstFileXML, aSTProject).isSuccess ())
-        s_aActions.add ("cd " + eProject.getProjectName () + " && call mvn license:format && cd..");
-      else
-        _warn (eProject, "Failed to writing translatable-texts.xml");
+        return "cd " + eProject.getProjectName () + " && call mvn license:format && cd..";
+      _warn (eProject, "Failed to writing translatable-texts.xml");
     }
+    return null;
   }
 
-  public static void main (final String [] args) throws IOException
+  public static void main (final String [] args)
   {
     s_aLogger.info ("Start extracting text from .class files!");
-    for (final IProject aProject : ProjectList.getAllProjects (p -> p.getProjectType ().hasJavaCode () &&
-                                                                    !p.isDeprecated ()))
-      _scanProject (aProject);
+    final List <IProject> aProjects = ProjectList.getAllSelectedProjects (p -> p.getProjectType ().hasJavaCode () &&
+                                                                               !p.isDeprecated ());
+    final ICommonsOrderedSet <String> aActions = new CommonsLinkedHashSet <> ();
+    for (final String sAction : _getForEachProject (aProjects, MainExtractTranslatableStrings::_scanProject))
+      if (sAction != null)
+        aActions.add (sAction);
     s_aLogger.info ("Done - " + getWarnCount () + " warning(s)");
-    if (!s_aActions.isEmpty ())
+    if (!aActions.isEmpty ())
     {
       final StringBuilder aSB = new StringBuilder (BATCH_HEADER);
-      for (final String sAction : s_aActions)
+      for (final String sAction : aActions)
         aSB.append (sAction).append ('\n');
       aSB.append (BATCH_FOOTER);
       final File aDestFile = new File (CMeta.GIT_BASE_DIR, "translation-actions.cmd");
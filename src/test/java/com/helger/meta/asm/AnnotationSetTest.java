@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.objectweb.asm.tree.AnnotationNode;
+
+import com.helger.commons.annotation.Translatable;
+import com.helger.commons.collection.ext.CommonsArrayList;
+
+/**
+ * Test class for class {@link AnnotationSet}.
+ *
+ * @author Philip Helger
+ */
+public final class AnnotationSetTest
+{
+  @Test
+  public void testBasic ()
+  {
+    assertSame (AnnotationSet.EMPTY, AnnotationSet.create (null, new CommonsArrayList <> ()));
+    assertTrue (AnnotationSet.EMPTY.isEmpty ());
+    assertFalse (AnnotationSet.EMPTY.contains (Translatable.class));
+
+    final AnnotationSet aSet = AnnotationSet.create (new CommonsArrayList <> (new AnnotationNode ("Lfoo/Visible;")),
+                                                     new CommonsArrayList <> (new AnnotationNode ("Lfoo/Invisible;"),
+                                                                              new AnnotationNode ("Lfoo/Visible;")));
+    assertFalse (aSet.isEmpty ());
+    assertEquals (2, aSet.getCount ());
+    assertTrue (aSet.containsDescriptor ("Lfoo/Visible;"));
+    assertTrue (aSet.containsDescriptor ("Lfoo/Invisible;"));
+    assertTrue (aSet.contains (AnnotationDescriptorTable.getID ("Lfoo/Visible;")));
+    assertFalse (aSet.containsDescriptor ("Lfoo/Unknown;"));
+    assertFalse (aSet.containsDescriptor (null));
+    assertFalse (aSet.contains (AnnotationDescriptorTable.NO_ID));
+    assertFalse (aSet.contains (Translatable.class));
+    // Querying must not intern
+    assertEquals (AnnotationDescriptorTable.NO_ID, AnnotationDescriptorTable.getExistingID ("Lfoo/Unknown;"));
+
+    // Same content, different order
+    assertEquals (aSet,
+                  AnnotationSet.create (new CommonsArrayList <> (new AnnotationNode ("Lfoo/Invisible;")),
+                                        new CommonsArrayList <> (new AnnotationNode ("Lfoo/Visible;"))));
+  }
+
+  @Test
+  public void testManyDescriptors ()
+  {
+    final CommonsArrayList <AnnotationNode> aList = new CommonsArrayList <> ();
+    for (int i = 0; i < 200; ++i)
+      aList.add (new AnnotationNode ("Lfoo/Many" + i + ";"));
+    final AnnotationSet aSet = AnnotationSet.create (aList, null);
+    assertEquals (200, aSet.getCount ());
+    for (int i = 0; i < 200; ++i)
+      assertTrue (aSet.containsDescriptor ("Lfoo/Many" + i + ";"));
+    assertEquals ("Lfoo/Many199;",
+                  AnnotationDescriptorTable.getDescriptor (AnnotationDescriptorTable.getID ("Lfoo/Many199;")));
+  }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.asm.hierarchy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+
+import com.helger.commons.collection.ext.CommonsArrayList;
+
+/**
+ * Test class for class {@link ClassHierarchyIndex}.
+ *
+ * @author Philip Helger
+ */
+public final class ClassHierarchyIndexTest
+{
+  private static ClassHierarchyEntry _entry (final String sName,
+                                             final String sSuperName,
+                                             final String [] aInterfaces,
+                                             final String... aCallees)
+  {
+    return new ClassHierarchyEntry (sName,
+                                    Opcodes.ACC_PUBLIC,
+                                    sSuperName,
+                                    new CommonsArrayList <> (aInterfaces),
+                                    new CommonsArrayList <> (aCallees));
+  }
+
+  private static void _check (final ClassHierarchyIndex aIndex)
+  {
+    assertEquals (6, aIndex.getClassCount ());
+    assertTrue (aIndex.isScanned ("a/C"));
+    assertFalse (aIndex.isScanned ("java/lang/Object"));
+    assertFalse (aIndex.isScanned ("a/Unknown"));
+    assertEquals (ClassHierarchyIndex.NO_ID, aIndex.getID ("a/Unknown"));
+    assertEquals ("a/B", aIndex.getSuperClassName ("a/C"));
+    assertNull (aIndex.getSuperClassName ("java/lang/Object"));
+
+    assertTrue (aIndex.isSubclassOf ("a/C", "a/A"));
+    assertTrue (aIndex.isSubclassOf ("a/C", "java/lang/Object"));
+    assertTrue (aIndex.isSubclassOf ("a/B", "a/A"));
+    assertFalse (aIndex.isSubclassOf ("a/A", "a/C"));
+    assertFalse (aIndex.isSubclassOf ("a/A", "a/A"));
+    assertFalse (aIndex.isSubclassOf ("a/D", "a/A"));
+    assertFalse (aIndex.isSubclassOf ("a/C", "a/Unknown"));
+
+    assertTrue (aIndex.isImplementing ("a/C", "a/I"));
+    assertTrue (aIndex.isImplementing ("a/B", "a/I"));
+    assertFalse (aIndex.isImplementing ("a/A", "a/I"));
+
+    assertEquals (new CommonsArrayList <> ("a/C", "a/A"), aIndex.getAllCallers ("a/D"));
+    assertEquals (2, aIndex.getCallerCount ("a/D"));
+    assertTrue (aIndex.getAllCallers ("a/A").isEmpty ());
+  }
+
+  @Test
+  public void testBasic () throws IOException
+  {
+    final ClassHierarchyIndexBuilder aBuilder = new ClassHierarchyIndexBuilder ();
+    final String [] aNone = new String [0];
+    assertTrue (aBuilder.add (_entry ("a/C", "a/B", aNone, "a/D")));
+    assertTrue (aBuilder.add (_entry ("a/A", "java/lang/Object", aNone, "a/D")));
+    assertTrue (aBuilder.add (_entry ("a/B", "a/A", new String [] { "a/I" })));
+    assertTrue (aBuilder.add (_entry ("a/D", "java/lang/Object", aNone)));
+    assertTrue (aBuilder.add (_entry ("a/I", "java/lang/Object", aNone)));
+    // Duplicate
+    assertFalse (aBuilder.add (_entry ("a/A", "a/D", aNone)));
+    assertEquals (5, aBuilder.getAddedCount ());
+
+    final ClassHierarchyIndex aIndex = aBuilder.build ();
+    _check (aIndex);
+
+    // Write and map again
+    final File aFile = File.createTempFile ("class-hierarchy", ".bin");
+    try
+    {
+      aIndex.writeTo (aFile);
+      final ClassHierarchyIndex aRead = ClassHierarchyIndex.readFrom (aFile);
+      assertEquals (aIndex.getCreationTime (), aRead.getCreationTime ());
+      _check (aRead);
+    }
+    finally
+    {
+      aFile.delete ();
+    }
+  }
+
+  @Test
+  public void testIndirectInterfaces ()
+  {
+    final ClassHierarchyIndexBuilder aBuilder = new ClassHierarchyIndexBuilder ();
+    final String [] aNone = new String [0];
+    // Sub interface before its super interface
+    assertTrue (aBuilder.add (_entry ("a/K", "java/lang/Object", new String [] { "a/J", "java/io/Serializable" })));
+    assertTrue (aBuilder.add (_entry ("a/J", "java/lang/Object", new String [] { "a/I" })));
+    assertTrue (aBuilder.add (_entry ("a/I", "java/lang/Object", aNone)));
+    assertTrue (aBuilder.add (_entry ("a/A", "java/lang/Object", new String [] { "a/K" })));
+    assertTrue (aBuilder.add (_entry ("a/B", "a/A", aNone)));
+    // Broken data with an interface cycle
+    assertTrue (aBuilder.add (_entry ("a/X", "java/lang/Object", new String [] { "a/Y" })));
+    assertTrue (aBuilder.add (_entry ("a/Y", "java/lang/Object", new String [] { "a/X" })));
+
+    final ClassHierarchyIndex aIndex = aBuilder.build ();
+    assertTrue (aIndex.isImplementing ("a/K", "a/I"));
+    assertTrue (aIndex.isImplementing ("a/A", "a/I"));
+    assertTrue (aIndex.isImplementing ("a/A", "a/J"));
+    assertTrue (aIndex.isImplementing ("a/A", "a/K"));
+    assertTrue (aIndex.isImplementing ("a/B", "a/I"));
+    assertTrue (aIndex.isImplementing ("a/B", "java/io/Serializable"));
+    assertFalse (aIndex.isImplementing ("a/I", "a/J"));
+    assertFalse (aIndex.isImplementing ("a/B", "a/B"));
+    assertFalse (aIndex.isImplementing ("a/B", "a/Unknown"));
+    assertTrue (aIndex.isImplementing ("a/X", "a/Y"));
+    assertTrue (aIndex.isImplementing ("a/Y", "a/X"));
+    assertFalse (aIndex.isImplementing ("a/X", "a/I"));
+  }
+
+  @Test
+  public void testEmpty ()
+  {
+    final ClassHierarchyIndex aIndex = new ClassHierarchyIndexBuilder ().build ();
+    assertEquals (0, aIndex.getClassCount ());
+    assertEquals (ClassHierarchyIndex.NO_ID, aIndex.getID ("a/A"));
+    assertFalse (aIndex.isSubclassOf ("a/A", "a/B"));
+  }
+}
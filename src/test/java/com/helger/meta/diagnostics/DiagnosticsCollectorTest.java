@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.diagnostics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.meta.project.IProject;
+import com.helger.meta.project.ProjectTestHelper;
+
+/**
+ * Test class for class {@link DiagnosticsCollector}.
+ *
+ * @author Philip Helger
+ */
+public final class DiagnosticsCollectorTest
+{
+  private static final int THREADS = 8;
+  private static final int PER_THREAD = 1000;
+
+  private static void _reportConcurrently (final DiagnosticsCollector aCollector) throws InterruptedException
+  {
+    final ExecutorService aES = Executors.newFixedThreadPool (THREADS);
+    for (int t = 0; t < THREADS; ++t)
+    {
+      final IProject aProject = ProjectTestHelper.createProject ("p" + t);
+      aES.submit ( () -> {
+        for (int i = 0; i < PER_THREAD; ++i)
+          aCollector.report (i % 2 == 0 ? EDiagnosticLevel.WARN : EDiagnosticLevel.INFO,
+                             aProject,
+                             i % 4 == 0 ? "rule" : null,
+                             null,
+                             Integer.toString (i));
+      });
+    }
+    aES.shutdown ();
+    assertTrue (aES.awaitTermination (1, TimeUnit.MINUTES));
+  }
+
+  @Test
+  public void testConcurrentReportAndDrain () throws InterruptedException
+  {
+    final DiagnosticsCollector aCollector = new DiagnosticsCollector (true);
+    _reportConcurrently (aCollector);
+
+    assertEquals (THREADS * PER_THREAD / 2, aCollector.getWarnCount ());
+    assertEquals (THREADS * PER_THREAD / 2, aCollector.getInfoCount ());
+    assertEquals (PER_THREAD / 2, aCollector.getWarnCount (ProjectTestHelper.createProject ("p3")));
+    assertEquals (THREADS * PER_THREAD / 4, aCollector.getWarnCountOfRule ("rule"));
+    assertEquals (THREADS * PER_THREAD / 4, aCollector.getWarnCountOfRule (DiagnosticsCollector.RULE_ID_GENERIC));
+
+    final ICommonsList <Diagnostic> aAll = aCollector.drainAll ();
+    assertEquals (THREADS * PER_THREAD, aAll.size ());
+    // Sorted by project and in reporting order per project
+    for (int i = 0; i < aAll.size (); ++i)
+    {
+      final Diagnostic aDiagnostic = aAll.get (i);
+      assertEquals ("p" + (i / PER_THREAD), aDiagnostic.getProject ().getProjectName ());
+      assertEquals (Integer.toString (i % PER_THREAD), aDiagnostic.getMessage ());
+    }
+
+    // Drained - counters are unchanged
+    assertTrue (aCollector.drainAll ().isEmpty ());
+    assertEquals (THREADS * PER_THREAD / 2, aCollector.getWarnCount ());
+  }
+
+  @Test
+  public void testNotRetained () throws InterruptedException
+  {
+    final DiagnosticsCollector aCollector = new DiagnosticsCollector (false);
+    _reportConcurrently (aCollector);
+    assertEquals (THREADS * PER_THREAD / 2, aCollector.getWarnCount ());
+    assertTrue (aCollector.drainAll ().isEmpty ());
+  }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link EExternalDependency}.
+ *
+ * @author Philip Helger
+ */
+public final class EExternalDependencyTest
+{
+  @Test
+  public void testFindAll ()
+  {
+    final Comparator <EExternalDependency> aJDKAsc = Comparator.comparing (EExternalDependency::getMinimumJDKVersion,
+                                                                           Comparator.comparingInt (EJDK::getMajor));
+    for (final EExternalDependency e : EExternalDependency.values ())
+    {
+      final List <EExternalDependency> aExpected = Stream.of (EExternalDependency.values ())
+                                                         .filter (x -> x.hasGroupID (e.getGroupID ()) &&
+                                                                       x.hasArtifactID (e.getArtifactID ()))
+                                                         .sorted (aJDKAsc.reversed ())
+                                                         .collect (Collectors.toList ());
+      assertEquals (aExpected, EExternalDependency.findAll (e.getGroupID (), e.getArtifactID ()));
+    }
+
+    assertTrue (EExternalDependency.findAll ("com.example", "unknown").isEmpty ());
+    assertTrue (EExternalDependency.findAll (null, null).isEmpty ());
+  }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link POMCoordinateReader}.
+ *
+ * @author Philip Helger
+ */
+public final class POMCoordinateReaderTest
+{
+  private static POMCoordinateReader _read (final String sXML)
+  {
+    return POMCoordinateReader.read (new ByteArrayInputStream (sXML.getBytes (StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testBasic ()
+  {
+    POMCoordinateReader aReader = _read ("<project><modelVersion>4.0.0</modelVersion>" +
+                                         "<groupId> com.helger </groupId><artifactId>ph-commons</artifactId>" +
+                                         "<dependencies><dependency><groupId>x</groupId></dependency></dependencies>" +
+                                         "</project>");
+    assertNotNull (aReader);
+    assertEquals ("com.helger", aReader.getGroupID ());
+    assertEquals ("ph-commons", aReader.getArtifactID ());
+
+    // Inherited groupId
+    aReader = _read ("<project xmlns='http://maven.apache.org/POM/4.0.0'>" +
+                     "<parent><groupId>com.helger</groupId><artifactId>parent-pom</artifactId>" +
+                     "<relativePath><!-- none --></relativePath></parent>" +
+                     "<artifactId>ph-xml</artifactId><packaging>bundle</packaging>" +
+                     "<dependencies><dependency><groupId>x</groupId></dependency></dependencies></project>");
+    assertNotNull (aReader);
+    assertEquals ("com.helger", aReader.getGroupID ());
+    assertEquals ("ph-xml", aReader.getArtifactID ());
+
+    // Own groupId after other root children still overrides the parent
+    aReader = _read ("<project xmlns='http://maven.apache.org/POM/4.0.0'>" +
+                     "<parent><groupId>com.helger</groupId><artifactId>parent-pom</artifactId>" +
+                     "<relativePath><!-- none --></relativePath></parent>" +
+                     "<artifactId>ph-xml</artifactId><packaging>bundle</packaging>" +
+                     "<groupId>com.own</groupId></project>");
+    assertNotNull (aReader);
+    assertEquals ("com.own", aReader.getGroupID ());
+    assertEquals ("ph-xml", aReader.getArtifactID ());
+
+    // Own groupId directly after artifactId overrides the parent
+    aReader = _read ("<project><parent><groupId>com.helger</groupId><artifactId>parent-pom</artifactId></parent>" +
+                     "<artifactId>child</artifactId><groupId>com.other</groupId></project>");
+    assertNotNull (aReader);
+    assertEquals ("com.other", aReader.getGroupID ());
+    assertEquals ("child", aReader.getArtifactID ());
+
+    // Nothing at all
+    aReader = _read ("<project><name>x</name></project>");
+    assertNotNull (aReader);
+    assertNull (aReader.getGroupID ());
+    assertNull (aReader.getArtifactID ());
+
+    // Not XML
+    assertNull (_read ("no xml"));
+  }
+}
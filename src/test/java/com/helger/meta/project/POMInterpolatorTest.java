@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link POMInterpolator}.
+ *
+ * @author Philip Helger
+ */
+public final class POMInterpolatorTest
+{
+  private static POMModel _read (final String sXML)
+  {
+    final POMModel ret = POMModel.read (new ByteArrayInputStream (sXML.getBytes (StandardCharsets.UTF_8)));
+    assertNotNull (ret);
+    return ret;
+  }
+
+  @Test
+  public void testBasic ()
+  {
+    final POMInterpolator aParent = new POMInterpolator (_read ("<project><groupId>com.helger</groupId>" +
+                                                                "<artifactId>parent-pom</artifactId>" +
+                                                                "<version>1.0</version><properties>" +
+                                                                "<log.version>1.7</log.version>" +
+                                                                "<full>${project.artifactId}-${project.version}</full>" +
+                                                                "<project.build.sourceEncoding>UTF-8" +
+                                                                "</project.build.sourceEncoding>" +
+                                                                "</properties></project>"),
+                                                         null);
+    final POMInterpolator aChild = new POMInterpolator (_read ("<project><parent><groupId>com.helger</groupId>" +
+                                                               "<artifactId>parent-pom</artifactId>" +
+                                                               "<version>1.0</version></parent>" +
+                                                               "<artifactId>child</artifactId><version>2.0</version>" +
+                                                               "<properties><variant>log</variant>" +
+                                                               "<nested>${${variant}.version}</nested>" +
+                                                               "<a>${b}</a><b>${a}</b>" +
+                                                               "</properties></project>"),
+                                                        aParent);
+
+    assertEquals ("abc", aChild.interpolate ("abc"));
+    assertNull (aChild.interpolate (null));
+    assertEquals ("2.0", aChild.interpolate ("${project.version}"));
+    assertEquals ("2.0", aChild.interpolate ("${pom.version}"));
+    assertEquals ("1.0", aChild.interpolate ("${project.parent.version}"));
+    assertEquals ("com.helger", aChild.interpolate ("${project.groupId}"));
+    assertEquals ("jar", aChild.getPropertyValue ("project.packaging"));
+    assertEquals ("UTF-8", aChild.getPropertyValue ("project.build.sourceEncoding"));
+
+    // Inherited and resolved in the context of the child
+    assertEquals ("1.7", aChild.interpolate ("${log.version}"));
+    assertEquals ("child-2.0", aChild.interpolate ("${full}"));
+    assertEquals ("parent-pom-1.0", aParent.interpolate ("${full}"));
+
+    // Concatenated and nested
+    assertEquals ("x-1.7-2.0!", aChild.interpolate ("x-${log.version}-${project.version}!"));
+    assertEquals ("1.7", aChild.interpolate ("${nested}"));
+    assertEquals ("1.7", aChild.interpolate ("${${variant}.version}"));
+
+    // Not resolvable
+    assertNull (aChild.interpolate ("${unknown}"));
+    assertNull (aChild.interpolate ("a${log.version}${unknown}"));
+    assertNull (aChild.interpolate ("${a}"));
+    assertNull (aChild.getPropertyValue ("b"));
+    assertNull (aChild.interpolate ("${log.version"));
+
+    // Memoized
+    assertEquals ("1.7", aChild.interpolate ("${nested}"));
+    assertNull (aChild.interpolate ("${a}"));
+  }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.helger.commons.collection.ext.ICommonsList;
+
+/**
+ * Test class for class {@link POMModel}.
+ *
+ * @author Philip Helger
+ */
+public final class POMModelTest
+{
+  private static POMModel _read (final String sXML)
+  {
+    return POMModel.read (new ByteArrayInputStream (sXML.getBytes (StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testBasic ()
+  {
+    final POMModel aModel = _read ("<project xmlns='http://maven.apache.org/POM/4.0.0'>" +
+                                   "<parent><groupId>com.helger</groupId><artifactId>parent-pom</artifactId>" +
+                                   "<version>1.0</version></parent>" +
+                                   "<artifactId>ph-xml</artifactId><packaging>bundle</packaging>" +
+                                   "<licenses><license><name>Apache</name></license></licenses>" +
+                                   "<scm><tag> HEAD </tag></scm>" +
+                                   "<properties><a.version>2.0</a.version><empty/></properties>" +
+                                   "<dependencyManagement><dependencies><dependency><groupId>g</groupId>" +
+                                   "<artifactId>managed</artifactId><version>${a.version}</version>" +
+                                   "</dependency></dependencies></dependencyManagement>" +
+                                   "<dependencies><dependency><groupId>com.helger</groupId>" +
+                                   "<artifactId>ph-commons</artifactId><exclusions><exclusion><groupId>x</groupId>" +
+                                   "<artifactId>excluded</artifactId></exclusion></exclusions></dependency>" +
+                                   "</dependencies>" +
+                                   "<build><plugins><plugin><artifactId>maven-jar-plugin</artifactId>" +
+                                   "<dependencies><dependency><groupId>g</groupId><artifactId>pd</artifactId>" +
+                                   "</dependency></dependencies></plugin></plugins></build>" +
+                                   "<profiles><profile><build><plugins><plugin><groupId>g</groupId>" +
+                                   "<artifactId>in-profile</artifactId></plugin></plugins></build>" +
+                                   "<id>release</id></profile></profiles>" +
+                                   "</project>");
+    assertNotNull (aModel);
+    assertEquals ("ph-xml", aModel.getProject ().getArtifactID ());
+    assertNull (aModel.getProject ().getGroupID ());
+    assertEquals ("parent-pom", aModel.getParent ().getArtifactID ());
+    assertEquals ("1.0", aModel.getVersion ());
+    assertEquals ("bundle", aModel.getPackaging ());
+    assertNull (aModel.getProjectValue ("url"));
+    assertTrue (aModel.hasLicenses ());
+    assertTrue (aModel.hasSCM ());
+    assertEquals ("HEAD", aModel.getSCMValue ("tag"));
+    assertEquals ("2.0", aModel.getProperty ("a.version"));
+    assertEquals ("", aModel.getProperty ("empty"));
+    assertTrue (aModel.containsProperty ("empty"));
+    assertFalse (aModel.containsProperty ("none"));
+
+    // Document order of the artifactId elements
+    final ICommonsList <POMArtifact> aArtifacts = aModel.getAllArtifacts ();
+    assertEquals (8, aArtifacts.size ());
+    assertEquals (EPOMArtifactKind.PARENT, aArtifacts.get (0).getKind ());
+    assertEquals (EPOMArtifactKind.PROJECT, aArtifacts.get (1).getKind ());
+    assertEquals (EPOMArtifactKind.MANAGED_DEPENDENCY, aArtifacts.get (2).getKind ());
+    assertEquals ("${a.version}", aArtifacts.get (2).getVersion ());
+    assertEquals (EPOMArtifactKind.DEPENDENCY, aArtifacts.get (3).getKind ());
+    assertEquals (EPOMArtifactKind.EXCLUSION, aArtifacts.get (4).getKind ());
+    assertEquals (EPOMArtifactKind.PLUGIN, aArtifacts.get (5).getKind ());
+    assertEquals (EPOMArtifactKind.PLUGIN_DEPENDENCY, aArtifacts.get (6).getKind ());
+    assertEquals (EPOMArtifactKind.PLUGIN, aArtifacts.get (7).getKind ());
+    assertNull (aArtifacts.get (5).getProfileID ());
+    assertEquals ("release", aArtifacts.get (7).getProfileID ());
+
+    // Indices
+    assertEquals (2, aModel.getAllArtifactsOfGroupID ("com.helger").size ());
+    assertEquals (3, aModel.getAllArtifactsOfGroupID ("g").size ());
+    assertEquals (0, aModel.getAllArtifactsOfGroupID ("none").size ());
+    assertEquals (1, aModel.getAllArtifactsOfArtifactID ("maven-jar-plugin").size ());
+    assertEquals (1, aModel.getAllArtifacts ("g", "pd").size ());
+    assertEquals (0, aModel.getAllArtifacts ("x", "pd").size ());
+    assertEquals (1, aModel.getAllArtifacts (null, "ph-xml").size ());
+    assertEquals (1, aModel.getAllArtifacts (EPOMArtifactKind.EXCLUSION).size ());
+    assertEquals ("release", aModel.getAllProfileIDs ().getFirst ());
+  }
+
+  @Test
+  public void testVersionOfProject ()
+  {
+    final POMModel aModel = _read ("<project><artifactId>a</artifactId><version>3</version></project>");
+    assertNotNull (aModel);
+    assertNull (aModel.getParent ());
+    assertEquals ("3", aModel.getVersion ());
+    assertFalse (aModel.hasLicenses ());
+    assertFalse (aModel.hasSCM ());
+
+    // Not XML
+    assertNull (_read ("no xml"));
+  }
+}
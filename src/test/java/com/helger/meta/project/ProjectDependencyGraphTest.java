@@ -0,0 +1,204 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import org.junit.Test;
+
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.CommonsHashSet;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.commons.collection.ext.ICommonsSet;
+
+/**
+ * Test class for class {@link ProjectDependencyGraph}.
+ *
+ * @author Philip Helger
+ */
+public final class ProjectDependencyGraphTest
+{
+  private static final ToLongFunction <IProject> UNIT_DURATION = p -> 1;
+
+  private final ICommonsMap <IProject, ICommonsSet <IProject>> m_aDeps = new CommonsHashMap <> ();
+
+  private void _setDependencies (final IProject aProject, final IProject... aDeps)
+  {
+    final ICommonsSet <IProject> aSet = new CommonsHashSet <> ();
+    for (final IProject aDep : aDeps)
+      aSet.add (aDep);
+    m_aDeps.put (aProject, aSet);
+  }
+
+  private IProject _add (final String sName, final IProject... aDeps)
+  {
+    final IProject ret = ProjectTestHelper.createProject (sName);
+    _setDependencies (ret, aDeps);
+    return ret;
+  }
+
+  private static ICommonsList <IProject> _list (final IProject... aProjects)
+  {
+    final ICommonsList <IProject> ret = new CommonsArrayList <> ();
+    for (final IProject aProject : aProjects)
+      ret.add (aProject);
+    return ret;
+  }
+
+  private static ICommonsList <String> _names (final Collection <IProject> aProjects)
+  {
+    final ICommonsList <String> ret = new CommonsArrayList <> ();
+    for (final IProject aProject : aProjects)
+      ret.add (aProject.getProjectName ());
+    return ret;
+  }
+
+  private static ICommonsList <ICommonsList <String>> _names (final List <? extends Collection <IProject>> aWaves)
+  {
+    final ICommonsList <ICommonsList <String>> ret = new CommonsArrayList <> ();
+    for (final Collection <IProject> aWave : aWaves)
+      ret.add (_names (aWave));
+    return ret;
+  }
+
+  private static ICommonsList <String> _strings (final String... aStrings)
+  {
+    final ICommonsList <String> ret = new CommonsArrayList <> ();
+    for (final String s : aStrings)
+      ret.add (s);
+    return ret;
+  }
+
+  @Test
+  public void testDiamond ()
+  {
+    final IProject a = _add ("a");
+    final IProject b = _add ("b", a);
+    final IProject c = _add ("c", a);
+    final IProject d = _add ("d", c, b);
+    final ProjectDependencyGraph aGraph = new ProjectDependencyGraph (m_aDeps);
+
+    final ICommonsList <ICommonsList <String>> aExpectedWaves = new CommonsArrayList <> ();
+    aExpectedWaves.add (_strings ("a"));
+    aExpectedWaves.add (_strings ("b", "c"));
+    aExpectedWaves.add (_strings ("d"));
+    assertEquals (aExpectedWaves, _names (aGraph.getBuildWaves ()));
+
+    // The slower branch is on the critical path
+    assertEquals (_strings ("a", "b", "d"), _names (aGraph.getCriticalPath (p -> p == b ? 5 : 1)));
+    assertEquals (_strings ("a", "c", "d"), _names (aGraph.getCriticalPath (p -> p == c ? 5 : 1)));
+
+    assertEquals (_strings ("b", "c", "d"), _names (aGraph.getAllTransitiveDependents (_list (a))));
+    assertEquals (_strings ("d"), _names (aGraph.getAllTransitiveDependents (_list (b))));
+    assertEquals (_strings ("d"), _names (aGraph.getAllTransitiveDependents (_list (b, c))));
+    assertTrue (aGraph.getAllTransitiveDependents (_list (d)).isEmpty ());
+  }
+
+  @Test
+  public void testChain ()
+  {
+    final IProject a = _add ("a");
+    final IProject b = _add ("b", a);
+    final IProject c = _add ("c", b);
+    final ProjectDependencyGraph aGraph = new ProjectDependencyGraph (m_aDeps);
+
+    final ICommonsList <ICommonsList <String>> aExpectedWaves = new CommonsArrayList <> ();
+    aExpectedWaves.add (_strings ("a"));
+    aExpectedWaves.add (_strings ("b"));
+    aExpectedWaves.add (_strings ("c"));
+    assertEquals (aExpectedWaves, _names (aGraph.getBuildWaves ()));
+
+    assertEquals (_strings ("a", "b", "c"), _names (aGraph.getCriticalPath (UNIT_DURATION)));
+
+    assertEquals (_strings ("b", "c"), _names (aGraph.getAllTransitiveDependents (_list (a))));
+    // The passed projects are only contained if they depend on each other
+    assertEquals (_strings ("b", "c"), _names (aGraph.getAllTransitiveDependents (_list (a, b))));
+    assertTrue (aGraph.getAllTransitiveDependents (_list (c)).isEmpty ());
+  }
+
+  @Test
+  public void testCycle ()
+  {
+    final IProject x = _add ("x");
+    final IProject a = ProjectTestHelper.createProject ("a");
+    final IProject b = ProjectTestHelper.createProject ("b");
+    _setDependencies (a, b);
+    _setDependencies (b, a);
+    _add ("c", a, x);
+    final ProjectDependencyGraph aGraph = new ProjectDependencyGraph (m_aDeps);
+
+    try
+    {
+      aGraph.getBuildWaves ();
+      fail ();
+    }
+    catch (final IllegalStateException ex)
+    {
+      // All projects that cannot be built
+      assertTrue (ex.getMessage (), ex.getMessage ().endsWith ("[a, b, c]"));
+    }
+
+    try
+    {
+      aGraph.getCriticalPath (UNIT_DURATION);
+      fail ();
+    }
+    catch (final IllegalStateException ex)
+    {
+      // expected
+    }
+
+    // Both projects of the cycle depend on themselves
+    assertEquals (_strings ("a", "b", "c"), _names (aGraph.getAllTransitiveDependents (_list (a))));
+    assertEquals (_strings ("c"), _names (aGraph.getAllTransitiveDependents (_list (x))));
+  }
+
+  @Test
+  public void testDependencyOutsideOfGraph ()
+  {
+    // E.g. the parent POM which is not part of the graph
+    final IProject aOutside = ProjectTestHelper.createProject ("parent");
+    final IProject a = _add ("a", aOutside);
+    final IProject b = _add ("b", a, aOutside);
+    final ProjectDependencyGraph aGraph = new ProjectDependencyGraph (m_aDeps);
+
+    assertEquals (2, aGraph.getProjectCount ());
+    assertFalse (aGraph.containsProject (aOutside));
+    assertEquals (_strings ("parent"), _names (aGraph.getDirectDependencies (a)));
+
+    // The outside project is expected to be available already
+    final ICommonsList <ICommonsList <String>> aExpectedWaves = new CommonsArrayList <> ();
+    aExpectedWaves.add (_strings ("a"));
+    aExpectedWaves.add (_strings ("b"));
+    assertEquals (aExpectedWaves, _names (aGraph.getBuildWaves ()));
+
+    assertEquals (_strings ("a", "b"), _names (aGraph.getCriticalPath (UNIT_DURATION)));
+
+    assertEquals (_strings ("a", "b"), _names (aGraph.getAllTransitiveDependents (_list (aOutside))));
+    assertEquals (_strings ("b"), _names (aGraph.getAllTransitiveDependents (_list (a))));
+    assertTrue (aGraph.getAllTransitiveDependents (_list (b)).isEmpty ());
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link ProjectListSnapshot}.
+ *
+ * @author Philip Helger
+ */
+public final class ProjectListSnapshotTest
+{
+  @Test
+  public void testReadWrite () throws IOException
+  {
+    final File aDir = Files.createTempDirectory ("snapshot").toFile ();
+    final File aSnapshotFile = new File (aDir, "project-list.bin");
+    final File aPOMFile = new File (aDir, "pom.xml");
+    try
+    {
+      Files.write (aPOMFile.toPath (), "<project/>".getBytes (StandardCharsets.UTF_8));
+
+      ProjectListSnapshot aSnapshot = new ProjectListSnapshot (aSnapshotFile);
+      assertNull (aSnapshot.getIfUpToDate ("p1", EProjectType.JAVA_LIBRARY, aDir, aPOMFile));
+      aSnapshot.put ("p1", EProjectType.JAVA_LIBRARY, aDir, aPOMFile, "com.helger", "p1-artifact");
+      aSnapshot.writeIfChanged ();
+
+      // Read again
+      aSnapshot = new ProjectListSnapshot (aSnapshotFile);
+      final ProjectListSnapshot.Entry aEntry = aSnapshot.getIfUpToDate ("p1",
+                                                                        EProjectType.JAVA_LIBRARY,
+                                                                        aDir,
+                                                                        aPOMFile);
+      assertNotNull (aEntry);
+      assertEquals ("com.helger", aEntry.getMavenGroupID ());
+      assertEquals ("p1-artifact", aEntry.getMavenArtifactID ());
+      assertEquals (1, aSnapshot.getHitCount ());
+
+      // Different type or changed POM
+      assertNull (aSnapshot.getIfUpToDate ("p1", EProjectType.MAVEN_POM, aDir, aPOMFile));
+      Files.write (aPOMFile.toPath (), "<project></project>".getBytes (StandardCharsets.UTF_8));
+      assertNull (aSnapshot.getIfUpToDate ("p1", EProjectType.JAVA_LIBRARY, aDir, aPOMFile));
+      assertEquals (2, aSnapshot.getMissCount ());
+    }
+    finally
+    {
+      aPOMFile.delete ();
+      aSnapshotFile.delete ();
+      aDir.delete ();
+    }
+  }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+import com.helger.commons.collection.ext.ICommonsMap;
+
+/**
+ * Test class for class {@link ProjectList}.
+ *
+ * @author Philip Helger
+ */
+public final class ProjectListTest
+{
+  private static IProject _createProject (final String sProjectName, final String sGroupID, final String sArtifactID)
+  {
+    final File aBaseDir = new File (ProjectTestHelper.BASE_DIR, sProjectName);
+    aBaseDir.mkdirs ();
+    return new SimpleProject (null,
+                              sProjectName,
+                              EProjectType.JAVA_LIBRARY,
+                              aBaseDir,
+                              EIsDeprecated.FALSE,
+                              EHasPages.FALSE,
+                              EHasWiki.FALSE,
+                              null,
+                              EJDK.JDK8)
+    {
+      @Override
+      public String getMavenGroupID ()
+      {
+        return sGroupID;
+      }
+
+      @Override
+      public String getMavenArtifactID ()
+      {
+        return sArtifactID;
+      }
+    };
+  }
+
+  @Test
+  public void testDirNameIndex ()
+  {
+    final IProject aParent1 = ProjectTestHelper.createProject ("parent1");
+    final IProject aParent2 = ProjectTestHelper.createProject ("parent2");
+    final IProject aChild1 = ProjectTestHelper.createProject (aParent1,
+                                                              "parent1-common",
+                                                              EProjectType.JAVA_LIBRARY,
+                                                              "common",
+                                                              null);
+    final IProject aChild2 = ProjectTestHelper.createProject (aParent2,
+                                                              "parent2-common",
+                                                              EProjectType.JAVA_LIBRARY,
+                                                              "common",
+                                                              null);
+    final ICommonsList <IProject> aProjects = new CommonsArrayList <> (aParent1, aChild1, aParent2, aChild2);
+
+    final ICommonsMap <String, List <IProject>> aIndex = ProjectList.createDirNameIndex (aProjects);
+    assertEquals (3, aIndex.size ());
+    // Duplicate base directory names in registration order
+    assertEquals (new CommonsArrayList <> (aChild1, aChild2), aIndex.get ("common"));
+    assertEquals (new CommonsArrayList <> (aParent1), aIndex.get ("parent1"));
+    for (final Map.Entry <String, List <IProject>> aEntry : aIndex.entrySet ())
+      assertEquals (aProjects.getAll (p -> p.getBaseDir ().getName ().equals (aEntry.getKey ())), aEntry.getValue ());
+  }
+
+  @Test
+  public void testTypeIndex ()
+  {
+    final IProject aLib = ProjectTestHelper.createProject (null, "lib", EProjectType.JAVA_LIBRARY, "lib", null);
+    final IProject aPOM = ProjectTestHelper.createProject (null, "pom", EProjectType.MAVEN_POM, "pom", null);
+    final IProject aLib2 = ProjectTestHelper.createProject (null, "lib2", EProjectType.JAVA_LIBRARY, "lib2", null);
+    final ICommonsList <IProject> aProjects = new CommonsArrayList <> (aLib, aPOM, aLib2);
+
+    final Map <EProjectType, List <IProject>> aIndex = ProjectList.createTypeIndex (aProjects);
+    // All types are contained
+    assertEquals (EProjectType.values ().length, aIndex.size ());
+    assertTrue (aIndex.get (EProjectType.MAVEN_PLUGIN).isEmpty ());
+    for (final EProjectType eType : EProjectType.values ())
+      assertEquals (aProjects.getAll (p -> p.getProjectType () == eType), aIndex.get (eType));
+  }
+
+  @Test
+  public void testCoordinatesIndex ()
+  {
+    final IProject aFirst = _createProject ("first", "com.helger", "lib");
+    final IProject aSecond = _createProject ("second", "com.helger", "lib");
+    final IProject aOther = _createProject ("other", "com.helger.maven", "lib");
+
+    ICommonsMap <String, IProject> aIndex = ProjectList.createCoordinatesIndex (new CommonsArrayList <> (aFirst,
+                                                                                                          aSecond,
+                                                                                                          aOther));
+    assertEquals (2, aIndex.size ());
+    // The first registered project wins
+    assertSame (aFirst, aIndex.get (ProjectList.getCoordinatesKey ("com.helger", "lib")));
+    assertSame (aOther, aIndex.get (ProjectList.getCoordinatesKey ("com.helger.maven", "lib")));
+    assertNull (aIndex.get (ProjectList.getCoordinatesKey ("com.helger", "other")));
+
+    aIndex = ProjectList.createCoordinatesIndex (new CommonsArrayList <> (aSecond, aFirst));
+    assertSame (aSecond, aIndex.get (ProjectList.getCoordinatesKey ("com.helger", "lib")));
+  }
+
+  @Test
+  @Ignore ("for Travis")
+  public void testIndicesOfAllProjects ()
+  {
+    final ICommonsList <IProject> aAll = ProjectList.getAllProjects ();
+    assertEquals (aAll, ProjectList.getAllProjectsView ());
+
+    for (final EProjectType eType : EProjectType.values ())
+      assertEquals (ProjectList.getAllProjects (p -> p.getProjectType () == eType),
+                    ProjectList.getAllProjectsOfType (eType));
+
+    for (final IProject aProject : aAll)
+    {
+      final String sDirName = aProject.getBaseDir ().getName ();
+      assertEquals (ProjectList.getAllProjects (p -> p.getBaseDir ().getName ().equals (sDirName)),
+                    ProjectList.getAllProjectsOfDir (sDirName));
+
+      // The first project with the same coordinates wins
+      final IProject aExpected = ProjectList.getAllProjects (p -> p.hasMavenGroupID (aProject.getMavenGroupID ()) &&
+                                                                  p.getMavenArtifactID ()
+                                                                   .equals (aProject.getMavenArtifactID ()))
+                                            .getFirst ();
+      assertSame (aExpected,
+                  ProjectList.getProjectOfMavenCoordinates (aProject.getMavenGroupID (),
+                                                            aProject.getMavenArtifactID ()));
+    }
+    assertTrue (ProjectList.getAllProjectsOfDir ("does-not-exist").isEmpty ());
+    assertNull (ProjectList.getProjectOfMavenCoordinates ("com.helger", "does-not-exist"));
+  }
+}
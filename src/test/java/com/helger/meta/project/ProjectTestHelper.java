@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import java.io.File;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.helger.commons.annotation.Nonempty;
+
+/**
+ * Helper class to create {@link SimpleProject} instances for tests. The base
+ * directories of the projects are created below <code>target</code>, because
+ * {@link SimpleProject} requires them to exist.
+ *
+ * @author Philip Helger
+ */
+public final class ProjectTestHelper
+{
+  public static final File BASE_DIR = new File ("target/test-projects");
+
+  private ProjectTestHelper ()
+  {}
+
+  @Nonnull
+  public static SimpleProject createProject (@Nonnull @Nonempty final String sProjectName)
+  {
+    return createProject (sProjectName, null);
+  }
+
+  @Nonnull
+  public static SimpleProject createProject (@Nonnull @Nonempty final String sProjectName,
+                                             @Nullable final String sLastPublishedVersion)
+  {
+    return createProject (null, sProjectName, EProjectType.JAVA_LIBRARY, sProjectName, sLastPublishedVersion);
+  }
+
+  @Nonnull
+  public static SimpleProject createProject (@Nullable final IProject aParentProject,
+                                             @Nonnull @Nonempty final String sProjectName,
+                                             @Nonnull final EProjectType eProjectType,
+                                             @Nonnull @Nonempty final String sBaseDirName,
+                                             @Nullable final String sLastPublishedVersion)
+  {
+    final File aParentDir = aParentProject != null ? aParentProject.getBaseDir () : BASE_DIR;
+    final File aBaseDir = new File (aParentDir, sBaseDirName);
+    aBaseDir.mkdirs ();
+    return new SimpleProject (aParentProject,
+                              sProjectName,
+                              eProjectType,
+                              aBaseDir,
+                              EIsDeprecated.FALSE,
+                              EHasPages.FALSE,
+                              EHasWiki.FALSE,
+                              sLastPublishedVersion,
+                              EJDK.JDK8);
+  }
+}
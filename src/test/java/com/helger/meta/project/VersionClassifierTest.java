@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link VersionClassifier}.
+ *
+ * @author Philip Helger
+ */
+public final class VersionClassifierTest
+{
+  // The expression previously used to detect pre-release versions
+  private static final Pattern OLD_PATTERN = Pattern.compile (".+[-_\\.](alpha|Alpha|ALPHA|b|beta|Beta|BETA|rc|RC|M|EA)[-_\\.]?[0-9]+",
+                                                              Pattern.CASE_INSENSITIVE);
+
+  @Test
+  public void testGetKind ()
+  {
+    assertEquals (EVersionKind.RELEASE, VersionClassifier.getKind (""));
+    assertEquals (EVersionKind.RELEASE, VersionClassifier.getKind ("1"));
+    assertEquals (EVersionKind.RELEASE, VersionClassifier.getKind ("1.2.3"));
+    assertEquals (EVersionKind.RELEASE, VersionClassifier.getKind ("1.2.3-beta"));
+    assertEquals (EVersionKind.RELEASE, VersionClassifier.getKind ("1.2.3.Final"));
+    assertEquals (EVersionKind.RELEASE, VersionClassifier.getKind ("1.2.3-xbeta1"));
+    assertEquals (EVersionKind.RELEASE, VersionClassifier.getKind ("-rc1"));
+    assertEquals (EVersionKind.SNAPSHOT, VersionClassifier.getKind ("1.2.3-SNAPSHOT"));
+    assertEquals (EVersionKind.SNAPSHOT, VersionClassifier.getKind ("1.2.3-snapshot2"));
+    assertEquals (EVersionKind.ALPHA, VersionClassifier.getKind ("2.0.0-alpha1"));
+    assertEquals (EVersionKind.BETA, VersionClassifier.getKind ("2.0.0-b12"));
+    assertEquals (EVersionKind.BETA, VersionClassifier.getKind ("2.0.0.BETA-3"));
+    assertEquals (EVersionKind.RELEASE_CANDIDATE, VersionClassifier.getKind ("2.0.0-RC.1"));
+    assertEquals (EVersionKind.MILESTONE, VersionClassifier.getKind ("5.0_m4"));
+    assertEquals (EVersionKind.EARLY_ACCESS, VersionClassifier.getKind ("9-ea17"));
+  }
+
+  @Test
+  public void testSameAsRegEx ()
+  {
+    for (final String sVersion : new String [] { "1.0",
+                                                 "1.0-beta",
+                                                 "1.0-beta1",
+                                                 "1.0-beta-1",
+                                                 "1.0beta1",
+                                                 "1.0-beta1.2",
+                                                 "1.0-Beta_2",
+                                                 "1-b-1",
+                                                 "x.rc1",
+                                                 ".rc1",
+                                                 "1.0.M.1",
+                                                 "1.0-M-",
+                                                 "1.0-m1",
+                                                 "1.0-EA1",
+                                                 "1.0-ea",
+                                                 "1.0-alpha.22",
+                                                 "1.0-alphabet1",
+                                                 "1.0--rc1",
+                                                 "1.0-rc--1",
+                                                 "1.0.1.RELEASE",
+                                                 "20050505",
+                                                 "3.0.0-M1" })
+      assertEquals (sVersion,
+                    OLD_PATTERN.matcher (sVersion).matches (),
+                    VersionClassifier.isPreRelease (sVersion));
+  }
+
+  @Test
+  public void testGetVersion ()
+  {
+    assertSame (VersionClassifier.getVersion ("1.2.3"), VersionClassifier.getVersion ("1.2.3"));
+    assertSame (VersionClassifier.getVersion ("1.2.3"), VersionClassifier.getVersionWithoutSnapshot ("1.2.3-SNAPSHOT"));
+    assertEquals (3, VersionClassifier.getVersion ("3.4.5").getMajor ());
+  }
+}
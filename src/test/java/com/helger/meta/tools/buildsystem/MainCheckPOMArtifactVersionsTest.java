@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.buildsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import com.helger.commons.collection.ext.CommonsHashMap;
+import com.helger.commons.collection.ext.ICommonsMap;
+import com.helger.meta.project.IProject;
+import com.helger.meta.project.POMInterpolator;
+import com.helger.meta.project.POMModel;
+import com.helger.meta.project.ProjectTestHelper;
+
+/**
+ * Test class for class {@link MainCheckPOMArtifactVersions}.
+ *
+ * @author Philip Helger
+ */
+public final class MainCheckPOMArtifactVersionsTest
+{
+  private static final String PARENT_POM = "<project><groupId>com.helger</groupId>" +
+                                           "<artifactId>parent-pom</artifactId><version>1.0</version>" +
+                                           "<properties><commons.version>9.0.0</commons.version></properties>" +
+                                           "</project>";
+  private static final String CHILD_POM = "<project><parent><groupId>com.helger</groupId>" +
+                                          "<artifactId>parent-pom</artifactId><version>1.0</version></parent>" +
+                                          "<artifactId>child</artifactId><version>2.0</version>" +
+                                          "<dependencies><dependency><groupId>com.helger</groupId>" +
+                                          "<artifactId>ph-commons</artifactId>" +
+                                          "<version>${commons.version}</version></dependency></dependencies>" +
+                                          "</project>";
+
+  private static void _createFile (final File aFile, final String sContent) throws IOException
+  {
+    aFile.getParentFile ().mkdirs ();
+    Files.write (aFile.toPath (), sContent.getBytes (StandardCharsets.UTF_8));
+  }
+
+  private static void _deleteRecursive (final File aFile) throws IOException
+  {
+    Files.walk (aFile.toPath ()).sorted (Comparator.reverseOrder ()).forEach (p -> p.toFile ().delete ());
+  }
+
+  private static byte [] _getInputHash (final IProject aProject,
+                                        final File aPOMFile,
+                                        final File aParentPOMFile,
+                                        final Function <String, IProject> aProjectResolver) throws IOException
+  {
+    final POMModel aParentModel = POMModel.read (aParentPOMFile);
+    assertNotNull (aParentModel);
+    final POMModel aModel = POMModel.read (aPOMFile);
+    assertNotNull (aModel);
+    final POMInterpolator aInterpolator = new POMInterpolator (aModel,
+                                                              new POMInterpolator (aParentModel, null, aParentPOMFile),
+                                                              aPOMFile);
+    return MainCheckPOMArtifactVersions.getInputHash (aProject, aInterpolator, aProjectResolver);
+  }
+
+  @Test
+  public void testInputHash () throws IOException
+  {
+    final File aDir = Files.createTempDirectory ("pom-check").toFile ();
+    final File aParentPOMFile = new File (aDir, "parent-pom/pom.xml");
+    final File aPOMFile = new File (aDir, "child/pom.xml");
+    final File aCacheFile = new File (aDir, "cache.bin");
+    try
+    {
+      _createFile (aParentPOMFile, PARENT_POM);
+      _createFile (aPOMFile, CHILD_POM);
+      final IProject aProject = ProjectTestHelper.createProject ("child", "2.0");
+      final ICommonsMap <String, IProject> aProjects = new CommonsHashMap <> ();
+      aProjects.put ("ph-commons", ProjectTestHelper.createProject ("ph-commons", "9.0.0"));
+
+      POMCheckResultCache aCache = new POMCheckResultCache (aCacheFile, "fp");
+      aCache.getOrCheck ("child",
+                         _getInputHash (aProject, aPOMFile, aParentPOMFile, aProjects::get),
+                         POMCheckResult::new);
+      assertEquals (1, aCache.getMissCount ());
+      aCache.writeIfChanged ();
+
+      // Nothing changed
+      aCache = new POMCheckResultCache (aCacheFile, "fp");
+      aCache.getOrCheck ("child",
+                         _getInputHash (aProject, aPOMFile, aParentPOMFile, aProjects::get),
+                         POMCheckResult::new);
+      assertEquals (1, aCache.getHitCount ());
+      assertEquals (0, aCache.getMissCount ());
+
+      // New published version of a referenced project
+      aProjects.put ("ph-commons", ProjectTestHelper.createProject ("ph-commons", "9.0.1"));
+      aCache.getOrCheck ("child",
+                         _getInputHash (aProject, aPOMFile, aParentPOMFile, aProjects::get),
+                         POMCheckResult::new);
+      assertEquals (1, aCache.getMissCount ());
+      aCache.writeIfChanged ();
+
+      // Changed parent POM only
+      _createFile (aParentPOMFile, PARENT_POM.replace ("9.0.0", "9.0.1"));
+      aCache = new POMCheckResultCache (aCacheFile, "fp");
+      aCache.getOrCheck ("child",
+                         _getInputHash (aProject, aPOMFile, aParentPOMFile, aProjects::get),
+                         POMCheckResult::new);
+      assertEquals (0, aCache.getHitCount ());
+      assertEquals (1, aCache.getMissCount ());
+      aCache.writeIfChanged ();
+
+      // And stable again
+      aCache = new POMCheckResultCache (aCacheFile, "fp");
+      aCache.getOrCheck ("child",
+                         _getInputHash (aProject, aPOMFile, aParentPOMFile, aProjects::get),
+                         POMCheckResult::new);
+      assertEquals (1, aCache.getHitCount ());
+    }
+    finally
+    {
+      _deleteRecursive (aDir);
+    }
+  }
+}
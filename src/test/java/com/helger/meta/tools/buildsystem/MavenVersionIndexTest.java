@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.buildsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link MavenVersionIndex}.
+ *
+ * @author Philip Helger
+ */
+public final class MavenVersionIndexTest
+{
+  private static void _createFile (final File aFile, final String sContent) throws IOException
+  {
+    aFile.getParentFile ().mkdirs ();
+    Files.write (aFile.toPath (), sContent.getBytes (StandardCharsets.UTF_8));
+  }
+
+  private static void _deleteRecursive (final File aFile) throws IOException
+  {
+    Files.walk (aFile.toPath ()).sorted (Comparator.reverseOrder ()).forEach (p -> p.toFile ().delete ());
+  }
+
+  @Test
+  public void testGetAllVersions () throws IOException
+  {
+    final File aDir = Files.createTempDirectory ("m2").toFile ();
+    final File aIndexFile = new File (aDir, "index.bin");
+    final File aRepoDir = new File (aDir, "repository");
+    final File aArtifactDir = new File (aRepoDir, "org/example/lib");
+    try
+    {
+      _createFile (new File (aArtifactDir, "1.0/lib-1.0.pom"), "<project/>");
+      _createFile (new File (aArtifactDir, "1.2/lib-1.2.jar"), "");
+      _createFile (new File (aArtifactDir, "2.0-SNAPSHOT/lib-2.0-SNAPSHOT.pom"), "<project/>");
+      // Failed download - no artifact
+      _createFile (new File (aArtifactDir, "1.5/lib-1.5.pom.lastUpdated"), "");
+      _createFile (new File (aArtifactDir, "maven-metadata-central.xml"),
+                   "<metadata><groupId>org.example</groupId><artifactId>lib</artifactId>" +
+                   "<versioning><latest>2.0-beta1</latest><versions>" +
+                   "<version>1.0</version><version>1.3</version>" +
+                   "<version>2.0-beta1</version>" +
+                   "</versions></versioning></metadata>");
+
+      MavenVersionIndex aIndex = new MavenVersionIndex (aRepoDir, aIndexFile);
+      assertEquals (Arrays.asList ("1.0", "1.2", "1.3", "2.0-SNAPSHOT", "2.0-beta1"),
+                    aIndex.getAllVersions ("org.example", "lib"));
+      assertTrue (aIndex.getAllVersions ("org.example", "unknown").isEmpty ());
+      assertEquals (2, aIndex.getMissCount ());
+      aIndex.writeIfChanged ();
+
+      // Read again
+      aIndex = new MavenVersionIndex (aRepoDir, aIndexFile);
+      assertEquals ("1.3", MavenVersionIndex.getLatestRelease (aIndex.getAllVersions ("org.example", "lib")));
+      assertEquals (1, aIndex.getHitCount ());
+
+      // New version
+      _createFile (new File (aArtifactDir, "1.10/lib-1.10.pom"), "<project/>");
+      aArtifactDir.setLastModified (aArtifactDir.lastModified () + 2000);
+      assertEquals ("1.10", MavenVersionIndex.getLatestRelease (aIndex.getAllVersions ("org.example", "lib")));
+      assertEquals (1, aIndex.getMissCount ());
+
+      // Download of an existing version directory that failed before
+      final File aVersionDir = new File (aArtifactDir, "1.5");
+      _createFile (new File (aVersionDir, "lib-1.5.pom"), "<project/>");
+      aVersionDir.setLastModified (aVersionDir.lastModified () + 2000);
+      assertTrue (aIndex.getAllVersions ("org.example", "lib").contains ("1.5"));
+      assertEquals (2, aIndex.getMissCount ());
+
+      // Different repository
+      aIndex = new MavenVersionIndex (aDir, aIndexFile);
+      aIndex.getAllVersions ("org.example", "lib");
+      assertEquals (0, aIndex.getHitCount ());
+    }
+    finally
+    {
+      _deleteRecursive (aDir);
+    }
+  }
+
+  @Test
+  public void testGetLatestRelease ()
+  {
+    assertNull (MavenVersionIndex.getLatestRelease (Arrays.asList ()));
+    assertNull (MavenVersionIndex.getLatestRelease (Arrays.asList ("1.0-SNAPSHOT", "1.1-rc1")));
+    assertEquals ("1.0", MavenVersionIndex.getLatestRelease (Arrays.asList ("1.0", "1.1-SNAPSHOT")));
+    assertEquals ("2.10.1", MavenVersionIndex.getLatestRelease (Arrays.asList ("2.9", "2.10.1", "2.2", "3.0-b2")));
+  }
+}
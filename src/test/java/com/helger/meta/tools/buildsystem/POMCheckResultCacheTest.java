@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.buildsystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import com.helger.meta.diagnostics.EDiagnosticLevel;
+
+/**
+ * Test class for class {@link POMCheckResultCache}.
+ *
+ * @author Philip Helger
+ */
+public final class POMCheckResultCacheTest
+{
+  private static final byte [] HASH1 = { 1, 2, 3 };
+  private static final byte [] HASH2 = { 1, 2, 4 };
+  private static final Supplier <POMCheckResult> NO_CHECK = () -> {
+    throw new AssertionError ("Unexpected check");
+  };
+
+  private static POMCheckResult _createResult ()
+  {
+    final POMCheckResult ret = new POMCheckResult ();
+    ret.addWarning ("Version mismatch");
+    ret.addInfo ("Fine \u00e4\u00f6\u00fc");
+    ret.add (EDiagnosticLevel.WARN, "");
+    return ret;
+  }
+
+  private static void _assertEquals (final POMCheckResult aExpected, final POMCheckResult aActual)
+  {
+    assertEquals (aExpected.getAllMessages ().size (), aActual.getAllMessages ().size ());
+    for (int i = 0; i < aExpected.getAllMessages ().size (); ++i)
+    {
+      final POMCheckResult.Message aExpectedMsg = aExpected.getAllMessages ().get (i);
+      final POMCheckResult.Message aActualMsg = aActual.getAllMessages ().get (i);
+      assertSame (aExpectedMsg.getLevel (), aActualMsg.getLevel ());
+      assertEquals (aExpectedMsg.getText (), aActualMsg.getText ());
+    }
+  }
+
+  @Test
+  public void testReplay () throws IOException
+  {
+    final File aFile = File.createTempFile ("pom-check", ".bin");
+    try
+    {
+      final POMCheckResult aResult = _createResult ();
+      POMCheckResultCache aCache = new POMCheckResultCache (aFile, "fp1");
+      assertSame (aResult, aCache.getOrCheck ("p1", HASH1, () -> aResult));
+      aCache.getOrCheck ("p2", HASH1, POMCheckResult::new);
+      assertEquals (0, aCache.getHitCount ());
+      assertEquals (2, aCache.getMissCount ());
+      aCache.writeIfChanged ();
+
+      // Unchanged hash - the stored result is replayed without checking
+      aCache = new POMCheckResultCache (aFile, "fp1");
+      _assertEquals (aResult, aCache.getOrCheck ("p1", HASH1, NO_CHECK));
+      assertEquals (1, aCache.getHitCount ());
+      assertEquals (0, aCache.getMissCount ());
+
+      // Nothing changed - the file is not rewritten, so p2 must still be there
+      aCache.writeIfChanged ();
+      aCache = new POMCheckResultCache (aFile, "fp1");
+      assertTrue (aCache.getOrCheck ("p2", HASH1, NO_CHECK).getAllMessages ().isEmpty ());
+
+      // Changed hash
+      final POMCheckResult aNewResult = new POMCheckResult ();
+      assertSame (aNewResult, aCache.getOrCheck ("p1", HASH2, () -> aNewResult));
+      assertEquals (1, aCache.getMissCount ());
+      aCache.writeIfChanged ();
+
+      // The entry of p2 was not touched but is still persisted
+      aCache = new POMCheckResultCache (aFile, "fp1");
+      assertTrue (aCache.getOrCheck ("p1", HASH2, NO_CHECK).getAllMessages ().isEmpty ());
+      assertTrue (aCache.getOrCheck ("p2", HASH1, NO_CHECK).getAllMessages ().isEmpty ());
+      assertEquals (2, aCache.getHitCount ());
+
+      // Changed fingerprint discards everything
+      aCache = new POMCheckResultCache (aFile, "fp2");
+      final POMCheckResult aOtherResult = new POMCheckResult ();
+      assertSame (aOtherResult, aCache.getOrCheck ("p2", HASH1, () -> aOtherResult));
+      assertEquals (1, aCache.getMissCount ());
+    }
+    finally
+    {
+      aFile.delete ();
+    }
+  }
+
+  @Test
+  public void testCorruptFile () throws IOException
+  {
+    final File aFile = File.createTempFile ("pom-check", ".bin");
+    try
+    {
+      final POMCheckResultCache aCache = new POMCheckResultCache (aFile, "fp1");
+      aCache.getOrCheck ("p1", HASH1, POMCheckResult::new);
+      aCache.getOrCheck ("p2", HASH1, POMCheckResultCacheTest::_createResult);
+      aCache.writeIfChanged ();
+      final byte [] aComplete = Files.readAllBytes (aFile.toPath ());
+
+      // Every truncation must be handled gracefully
+      for (int nLen = 0; nLen < aComplete.length; ++nLen)
+      {
+        Files.write (aFile.toPath (), Arrays.copyOf (aComplete, nLen));
+        final POMCheckResultCache aPartialCache = new POMCheckResultCache (aFile, "fp1");
+        final POMCheckResult aResult = new POMCheckResult ();
+        assertSame (aResult, aPartialCache.getOrCheck ("p1", HASH1, () -> aResult));
+        assertSame (aResult, aPartialCache.getOrCheck ("p2", HASH1, () -> aResult));
+        assertEquals (2, aPartialCache.getMissCount ());
+      }
+
+      // Invalid level - the last message "" has its level in the byte before
+      // the UTF length
+      Files.delete (aFile.toPath ());
+      final POMCheckResultCache aSingleCache = new POMCheckResultCache (aFile, "fp1");
+      aSingleCache.getOrCheck ("p1", HASH1, POMCheckResultCacheTest::_createResult);
+      aSingleCache.writeIfChanged ();
+      final byte [] aInvalidLevel = Files.readAllBytes (aFile.toPath ());
+      assertEquals (EDiagnosticLevel.WARN.ordinal (), aInvalidLevel[aInvalidLevel.length - 3]);
+      aInvalidLevel[aInvalidLevel.length - 3] = 0x7f;
+      Files.write (aFile.toPath (), aInvalidLevel);
+      final POMCheckResultCache aInvalidCache = new POMCheckResultCache (aFile, "fp1");
+      aInvalidCache.getOrCheck ("p1", HASH1, POMCheckResult::new);
+      assertEquals (1, aInvalidCache.getMissCount ());
+
+      // Garbage after the magic
+      final byte [] aGarbage = aComplete.clone ();
+      for (int i = 4; i < aGarbage.length; ++i)
+        aGarbage[i] = (byte) 0xff;
+      Files.write (aFile.toPath (), aGarbage);
+      POMCheckResultCache aGarbageCache = new POMCheckResultCache (aFile, "fp1");
+      assertEquals (0, aGarbageCache.getOrCheck ("p1", HASH1, POMCheckResult::new).getAllMessages ().size ());
+      assertEquals (1, aGarbageCache.getMissCount ());
+
+      // A corrupt file is replaced by the next write
+      aGarbageCache.writeIfChanged ();
+      aGarbageCache = new POMCheckResultCache (aFile, "fp1");
+      aGarbageCache.getOrCheck ("p1", HASH1, NO_CHECK);
+      assertEquals (1, aGarbageCache.getHitCount ());
+    }
+    finally
+    {
+      aFile.delete ();
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.exclusion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.xml.microdom.IMicroDocument;
+import com.helger.xml.microdom.IMicroElement;
+import com.helger.xml.microdom.MicroDocument;
+
+/**
+ * Test class for class {@link CodingStyleExclusions}.
+ *
+ * @author Philip Helger
+ */
+public final class CodingStyleExclusionsTest
+{
+  @Test
+  public void testUnknownProjectNames ()
+  {
+    final IMicroDocument aDoc = new MicroDocument ();
+    final IMicroElement eRoot = aDoc.appendElement ("exclusions");
+    for (final String sProjectName : new String [] { "ph-css", "ph-csss", "ph-css", "ph-oton" })
+    {
+      final IMicroElement eProject = eRoot.appendElement ("project").setAttribute ("name", sProjectName);
+      eProject.appendElement ("exclude").setAttribute ("class", "Token");
+    }
+
+    final CodingStyleExclusions aExclusions = new CodingStyleExclusions (aDoc,
+                                                                         sName -> sName.equals ("ph-css") ||
+                                                                                  sName.equals ("ph-oton"));
+    // Each unknown name is reported only once
+    assertEquals (new CommonsArrayList <> ("ph-csss"),
+                  new CommonsArrayList <> (aExclusions.getAllUnknownProjectNames ()));
+  }
+
+  @Test
+  public void testAllProjectsKnown ()
+  {
+    final IMicroDocument aDoc = new MicroDocument ();
+    aDoc.appendElement ("exclusions").appendElement ("project").setAttribute ("name", "ph-css");
+    assertTrue (new CodingStyleExclusions (aDoc, sName -> true).getAllUnknownProjectNames ().isEmpty ());
+  }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.exclusion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.helger.commons.collection.ext.CommonsArrayList;
+import com.helger.commons.collection.ext.ICommonsList;
+
+/**
+ * Test class for class {@link ExclusionIndex}.
+ *
+ * @author Philip Helger
+ */
+public final class ExclusionIndexTest
+{
+  @Test
+  public void testPrefixTrie ()
+  {
+    final PrefixTrie aTrie = new PrefixTrie ();
+    assertTrue (aTrie.isEmpty ());
+    assertFalse (aTrie.containsPrefixOf ("abc"));
+
+    aTrie.add ("org.iso_relax.");
+    aTrie.add ("jp.gr.xml.relax.");
+    aTrie.add ("org.iso_relax.");
+    assertEquals (2, aTrie.getCount ());
+    assertTrue (aTrie.containsPrefixOf ("org.iso_relax.verifier"));
+    assertTrue (aTrie.containsPrefixOf ("jp.gr.xml.relax.dom"));
+    assertFalse (aTrie.containsPrefixOf ("org.iso_relax"));
+    assertFalse (aTrie.containsPrefixOf ("org.iso"));
+    assertFalse (aTrie.containsPrefixOf ("com.helger"));
+  }
+
+  @Test
+  public void testMatchesPattern ()
+  {
+    assertTrue (ExclusionRule.matchesPattern ("*", "any"));
+    assertTrue (ExclusionRule.matchesPattern ("Token", "Token"));
+    assertFalse (ExclusionRule.matchesPattern ("Token", "TokenMgrError"));
+    assertTrue (ExclusionRule.matchesPattern ("Parser*", "ParserCSS30"));
+    assertTrue (ExclusionRule.matchesPattern ("Parser*Constants", "ParserCSS30Constants"));
+    assertTrue (ExclusionRule.matchesPattern ("Parser*Constants", "ParserConstants"));
+    assertFalse (ExclusionRule.matchesPattern ("Parser*Constants", "ParserCSS30"));
+    assertFalse (ExclusionRule.matchesPattern ("Parser*Constants", "MyParserConstants"));
+  }
+
+  @Test
+  public void testIndex ()
+  {
+    final ICommonsList <ExclusionRule> aRules = new CommonsArrayList <> ();
+    aRules.add (new ExclusionRule ("com.helger.ebinterface.xmldsig", "*"));
+    aRules.add (new ExclusionRule ("com.helger.ebinterface.v30*", "*"));
+    aRules.add (new ExclusionRule ("*", "Token"));
+    aRules.add (new ExclusionRule ("*", "JJTParser*"));
+    aRules.add (new ExclusionRule ("*", "Parser*Constants"));
+    final ExclusionIndex aIndex = new ExclusionIndex (aRules);
+    assertFalse (aIndex.isEmpty ());
+    assertFalse (aIndex.isExcludeAll ());
+
+    assertTrue (aIndex.isExcluded ("com.helger.ebinterface.xmldsig", "SignatureType"));
+    assertFalse (aIndex.isExcluded ("com.helger.ebinterface.xmldsig.sub", "SignatureType"));
+    assertTrue (aIndex.isExcluded ("com.helger.ebinterface.v30", "Ebi30InvoiceType"));
+    assertTrue (aIndex.isExcluded ("com.helger.ebinterface.v302", "Ebi302InvoiceType"));
+    assertFalse (aIndex.isExcluded ("com.helger.ebinterface", "EbInterfaceReader"));
+
+    assertTrue (aIndex.isExcluded ("com.helger.css.parser", "Token"));
+    assertFalse (aIndex.isExcluded ("com.helger.css.parser", "TokenMgrError"));
+    assertTrue (aIndex.isExcluded ("com.helger.css.parser", "JJTParserCSS30State"));
+    assertTrue (aIndex.isExcluded ("com.helger.css.parser", "ParserCSS30Constants"));
+    assertFalse (aIndex.isExcluded ("com.helger.css.parser", "ParserCSS30"));
+  }
+
+  @Test
+  public void testExcludeAll ()
+  {
+    final ExclusionIndex aIndex = new ExclusionIndex (new CommonsArrayList <> (new ExclusionRule ("*", "*")));
+    assertTrue (aIndex.isExcludeAll ());
+    assertTrue (aIndex.isExcluded ("any", "Class"));
+    assertNotEquals (aIndex.getFingerprint (), ExclusionIndex.EMPTY.getFingerprint ());
+
+    assertTrue (ExclusionIndex.EMPTY.isEmpty ());
+    assertFalse (ExclusionIndex.EMPTY.isExcluded ("any", "Class"));
+  }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2014-2017 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.meta.tools.codeingstyleguide.rule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.objectweb.asm.Type;
+
+import com.helger.commons.collection.ext.ICommonsOrderedMap;
+
+/**
+ * Test class for class {@link TypeClassificationTable}.
+ *
+ * @author Philip Helger
+ */
+public final class TypeClassificationTableTest
+{
+  @Test
+  public void testDefault ()
+  {
+    final TypeClassificationTable aTable = TypeClassificationTable.DEFAULT;
+    assertSame (ETypeCategory.OTHER, aTable.getCategoryOfDescriptor ("I"));
+    assertSame (ETypeCategory.OTHER, aTable.getCategoryOfDescriptor ("Ljava/lang/String;"));
+    assertSame (ETypeCategory.ARRAY, aTable.getCategoryOfDescriptor ("[Ljava/util/List;"));
+    assertSame (ETypeCategory.JDK_COLLECTION, aTable.getCategoryOfDescriptor ("Ljava/util/List;"));
+    assertSame (ETypeCategory.JDK_COLLECTION,
+                aTable.getCategoryOfDescriptor ("Ljava/util/concurrent/ConcurrentHashMap;"));
+    // Not contained by design
+    assertSame (ETypeCategory.OTHER, aTable.getCategoryOfDescriptor ("Ljava/util/EnumSet;"));
+    assertSame (ETypeCategory.PH_COLLECTION,
+                aTable.getCategoryOfDescriptor ("Lcom/helger/commons/collection/ext/ICommonsList;"));
+    assertSame (ETypeCategory.PH_COLLECTION,
+                aTable.getCategoryOfDescriptor ("Lcom/helger/commons/collection/impl/NonBlockingStack;"));
+    // Only direct package members
+    assertSame (ETypeCategory.OTHER,
+                aTable.getCategoryOfDescriptor ("Lcom/helger/commons/collection/ext/sub/Foo;"));
+    assertSame (ETypeCategory.OTHER,
+                aTable.getCategoryOfDescriptor ("Lcom/helger/commons/collection/CollectionHelper;"));
+  }
+
+  @Test
+  public void testReturnType ()
+  {
+    final TypeClassificationTable aTable = TypeClassificationTable.DEFAULT;
+    assertSame (ETypeCategory.OTHER, aTable.getCategoryOfReturnType ("()V"));
+    assertSame (ETypeCategory.JDK_COLLECTION, aTable.getCategoryOfReturnType ("(Ljava/lang/String;I)Ljava/util/Map;"));
+    assertSame (ETypeCategory.OTHER, aTable.getCategoryOfReturnType ("(Ljava/util/Map;)Ljava/lang/String;"));
+    assertSame (ETypeCategory.ARRAY, aTable.getCategoryOfReturnType ("()[B"));
+  }
+
+  @Test
+  public void testType ()
+  {
+    final TypeClassificationTable aTable = TypeClassificationTable.DEFAULT;
+    assertSame (ETypeCategory.OTHER, aTable.getCategory (Type.INT_TYPE));
+    assertSame (ETypeCategory.ARRAY, aTable.getCategory (Type.getType (String [].class)));
+    assertSame (ETypeCategory.JDK_COLLECTION, aTable.getCategory (Type.getType (java.util.HashSet.class)));
+  }
+
+  @Test
+  public void testExtended ()
+  {
+    final ICommonsOrderedMap <String, ETypeCategory> aClasses = TypeClassificationTable.getDefaultClasses ();
+    aClasses.put ("java.util.EnumSet", ETypeCategory.JDK_COLLECTION);
+    final ICommonsOrderedMap <String, ETypeCategory> aPackages = TypeClassificationTable.getDefaultPackages ();
+    aPackages.put ("org.example.coll", ETypeCategory.PH_COLLECTION);
+
+    final TypeClassificationTable aTable = new TypeClassificationTable (aClasses, aPackages);
+    assertEquals (TypeClassificationTable.DEFAULT.getClassCount () + 1, aTable.getClassCount ());
+    assertSame (ETypeCategory.JDK_COLLECTION, aTable.getCategoryOfDescriptor ("Ljava/util/EnumSet;"));
+    assertSame (ETypeCategory.PH_COLLECTION, aTable.getCategoryOfDescriptor ("Lorg/example/coll/MyList;"));
+    assertSame (ETypeCategory.JDK_COLLECTION, aTable.getCategoryOfDescriptor ("Ljava/util/List;"));
+  }
+}